@@ -0,0 +1,157 @@
+/*
+ * Copyright 2014 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.drools.benchmarks.model.Account;
+import org.drools.benchmarks.model.Transaction;
+import org.kie.api.KieBaseConfiguration;
+import org.kie.api.conf.EventProcessingOption;
+import org.kie.api.io.ResourceType;
+import org.kie.api.runtime.KieSessionConfiguration;
+import org.kie.api.runtime.conf.ClockTypeOption;
+import org.kie.api.runtime.rule.FactHandle;
+import org.kie.internal.KnowledgeBase;
+import org.kie.internal.KnowledgeBaseFactory;
+import org.kie.internal.builder.KnowledgeBuilder;
+import org.kie.internal.builder.KnowledgeBuilderFactory;
+import org.kie.internal.builder.conf.RuleEngineOption;
+import org.kie.internal.io.ResourceFactory;
+import org.kie.internal.runtime.StatefulKnowledgeSession;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Base state for the session benchmarks. The KnowledgeBase is built once per trial for the
+ * given engine and rule shape, while the fact data set is generated from a fixed seed so that
+ * consecutive runs, and runs on different engines, work on exactly the same facts.
+ *
+ * Each benchmark operation processes the whole data set, so the reported throughput is in
+ * batches of factCount transactions per second.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+@Fork(2)
+public abstract class AbstractSessionBenchmark {
+
+    private static final long SEED = 0L;
+
+    @Param({"PHREAK", "RETEOO"})
+    protected RuleEngineOption engine;
+
+    @Param({"ALPHA", "JOIN", "NOT_EXISTS", "ACCUMULATE", "FROM", "TEMPORAL"})
+    protected RuleShape shape;
+
+    @Param({"10000"})
+    protected int factCount;
+
+    @Param({"100"})
+    protected int transactionsPerAccount;
+
+    protected KnowledgeBase kbase;
+
+    protected List<Account> accounts;
+
+    protected List<Transaction> transactions;
+
+    protected StatefulKnowledgeSession ksession;
+
+    @Setup(Level.Trial)
+    public void setupKnowledgeBase() {
+        KnowledgeBuilder kbuilder = KnowledgeBuilderFactory.newKnowledgeBuilder();
+        kbuilder.add( ResourceFactory.newClassPathResource( shape.getResource(), AbstractSessionBenchmark.class ),
+                      ResourceType.DRL );
+        if ( kbuilder.hasErrors() ) {
+            throw new IllegalStateException( kbuilder.getErrors().toString() );
+        }
+
+        KieBaseConfiguration kconf = KnowledgeBaseFactory.newKnowledgeBaseConfiguration();
+        kconf.setOption( engine );
+        if ( shape.isStream() ) {
+            kconf.setOption( EventProcessingOption.STREAM );
+        }
+
+        kbase = KnowledgeBaseFactory.newKnowledgeBase( kconf );
+        kbase.addKnowledgePackages( kbuilder.getKnowledgePackages() );
+
+        generateFacts();
+    }
+
+    @TearDown(Level.Invocation)
+    public void disposeSession() {
+        if ( ksession != null ) {
+            ksession.dispose();
+            ksession = null;
+        }
+    }
+
+    protected void generateFacts() {
+        Random random = new Random( SEED );
+        int accountCount = Math.max( 1, factCount / transactionsPerAccount );
+
+        accounts = new ArrayList<Account>( accountCount );
+        for ( int i = 0; i < accountCount; i++ ) {
+            accounts.add( new Account( i, "owner" + i, random.nextInt( 20000 ) ) );
+        }
+
+        transactions = new ArrayList<Transaction>( factCount );
+        for ( int i = 0; i < factCount; i++ ) {
+            Account account = accounts.get( random.nextInt( accountCount ) );
+            // timestamps are 100ms apart, so that temporal rules see a realistic event density
+            Transaction transaction = new Transaction( i, account.getId(), random.nextInt( 20000 ), i * 100L );
+            account.getTransactions().add( transaction );
+            transactions.add( transaction );
+        }
+    }
+
+    protected StatefulKnowledgeSession newSession() {
+        KieSessionConfiguration ksconf = KnowledgeBaseFactory.newKnowledgeSessionConfiguration();
+        ksconf.setOption( ClockTypeOption.get( "pseudo" ) );
+        return kbase.newStatefulKnowledgeSession( ksconf, null );
+    }
+
+    protected void insertAccounts(StatefulKnowledgeSession session) {
+        for ( Account account : accounts ) {
+            session.insert( account );
+        }
+    }
+
+    protected FactHandle[] insertTransactions(StatefulKnowledgeSession session) {
+        FactHandle[] handles = new FactHandle[transactions.size()];
+        for ( int i = 0; i < handles.length; i++ ) {
+            handles[i] = session.insert( transactions.get( i ) );
+        }
+        return handles;
+    }
+}
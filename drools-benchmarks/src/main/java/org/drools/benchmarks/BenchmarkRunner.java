@@ -0,0 +1,44 @@
+/*
+ * Copyright 2014 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.drools.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of the benchmarks jar. It accepts the standard JMH command line options
+ * (e.g. "-p engine=PHREAK -p shape=JOIN InsertBenchmark") and always attaches the GC
+ * profiler, so that every run reports allocation rates next to the throughput.
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLineOptions = new CommandLineOptions( args );
+
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .parent( commandLineOptions )
+                .addProfiler( GCProfiler.class );
+
+        if ( commandLineOptions.getIncludes().isEmpty() ) {
+            options.include( BenchmarkRunner.class.getPackage().getName() + ".*Benchmark" );
+        }
+
+        new Runner( options.build() ).run();
+    }
+}
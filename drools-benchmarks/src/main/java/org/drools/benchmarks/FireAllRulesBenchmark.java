@@ -0,0 +1,39 @@
+/*
+ * Copyright 2014 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.drools.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Measures fireAllRules on a session where the whole data set has just been inserted.
+ * With Phreak this is where the RuleNetworkEvaluator does the beta network work.
+ */
+public class FireAllRulesBenchmark extends AbstractSessionBenchmark {
+
+    @Setup(Level.Invocation)
+    public void setupSession() {
+        ksession = newSession();
+        insertAccounts( ksession );
+        insertTransactions( ksession );
+    }
+
+    @Benchmark
+    public int fireAllRules() {
+        return ksession.fireAllRules();
+    }
+}
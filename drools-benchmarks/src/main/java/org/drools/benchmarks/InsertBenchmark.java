@@ -0,0 +1,40 @@
+/*
+ * Copyright 2014 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.drools.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Measures the cost of inserting the data set into a fresh session, without firing.
+ * With Phreak this covers the alpha network and the staging of the right and left tuples,
+ * with ReteOO it covers the whole eager propagation.
+ */
+public class InsertBenchmark extends AbstractSessionBenchmark {
+
+    @Setup(Level.Invocation)
+    public void setupSession() {
+        ksession = newSession();
+    }
+
+    @Benchmark
+    public long insert() {
+        insertAccounts( ksession );
+        insertTransactions( ksession );
+        return ksession.getFactCount();
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2014 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.benchmarks;
+
+/**
+ * The representative rule shapes exercised by the benchmarks, each one backed by a drl
+ * resource in this package. Every shape stresses a different family of nodes, so that
+ * a regression in e.g. PhreakAccumulateNode only shows up in the ACCUMULATE numbers.
+ */
+public enum RuleShape {
+
+    /** alpha constraints only, no beta network */
+    ALPHA( "alpha.drl", false ),
+
+    /** hash indexed joins between Account and Transaction */
+    JOIN( "join.drl", false ),
+
+    /** not and exists nodes on an indexed join */
+    NOT_EXISTS( "not-exists.drl", false ),
+
+    /** accumulate with sum, max and count functions */
+    ACCUMULATE( "accumulate.drl", false ),
+
+    /** from on a collection property */
+    FROM( "from.drl", false ),
+
+    /** temporal operators and sliding time windows, requires stream mode */
+    TEMPORAL( "temporal.drl", true );
+
+    private final String  resource;
+    private final boolean stream;
+
+    RuleShape(String resource, boolean stream) {
+        this.resource = resource;
+        this.stream = stream;
+    }
+
+    public String getResource() {
+        return resource;
+    }
+
+    public boolean isStream() {
+        return stream;
+    }
+}
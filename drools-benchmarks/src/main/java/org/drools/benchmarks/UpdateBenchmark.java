@@ -0,0 +1,49 @@
+/*
+ * Copyright 2014 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.drools.benchmarks;
+
+import org.drools.benchmarks.model.Transaction;
+import org.kie.api.runtime.rule.FactHandle;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Measures updating every transaction of an already fired session, followed by the
+ * fireAllRules needed to evaluate the resulting modifications.
+ */
+public class UpdateBenchmark extends AbstractSessionBenchmark {
+
+    private FactHandle[] handles;
+
+    @Setup(Level.Invocation)
+    public void setupSession() {
+        ksession = newSession();
+        insertAccounts( ksession );
+        handles = insertTransactions( ksession );
+        ksession.fireAllRules();
+    }
+
+    @Benchmark
+    public int update() {
+        for ( int i = 0; i < handles.length; i++ ) {
+            Transaction transaction = transactions.get( i );
+            transaction.setAmount( 20000 - transaction.getAmount() );
+            ksession.update( handles[i], transaction );
+        }
+        return ksession.fireAllRules();
+    }
+}
@@ -6,6 +6,8 @@ import org.drools.compiler.lang.descr.ImportDescr;
 import org.drools.compiler.lang.descr.PackageDescr;
 import org.drools.compiler.lang.descr.TypeDeclarationDescr;
 import org.kie.internal.builder.CompositeKnowledgeBuilder;
+import org.kie.internal.builder.KnowledgeBuilderResult;
+import org.kie.internal.concurrent.ExecutorProviderFactory;
 import org.kie.api.io.Resource;
 import org.kie.api.io.ResourceConfiguration;
 import org.kie.api.io.ResourceType;
@@ -15,9 +17,15 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
 
 public class CompositeKnowledgeBuilderImpl implements CompositeKnowledgeBuilder {
 
+    private static final Executor PARSER_EXECUTOR = ExecutorProviderFactory.getExecutorProvider().getExecutor();
+
     private final PackageBuilder pkgBuilder;
 
     private final Map<ResourceType, List<ResourceDescr>> resourcesByType = new HashMap<ResourceType, List<ResourceDescr>>();
@@ -284,7 +292,10 @@ public class CompositeKnowledgeBuilderImpl implements CompositeKnowledgeBuilder
 
     private void buildResource(Map<String, CompositePackageDescr> packages, ResourceType resourceType, ResourceToPkgDescrMapper mapper) {
         List<ResourceDescr> resourcesByType = this.resourcesByType.remove(resourceType);
-        if (resourcesByType != null) {
+        if (resourcesByType != null && resourcesByType.size() > 1 && mapper == DRL_TO_PKG_DESCR &&
+            pkgBuilder.getPackageBuilderConfiguration().isParallelCompilation()) {
+            parseResourcesInParallel(packages, resourcesByType);
+        } else if (resourcesByType != null) {
             for (ResourceDescr resourceDescr : resourcesByType) {
                 try {
                     registerPackageDescr(packages, resourceDescr.resource, mapper.map(pkgBuilder, resourceDescr));
@@ -301,6 +312,44 @@ public class CompositeKnowledgeBuilderImpl implements CompositeKnowledgeBuilder
         }
     }
 
+    private void parseResourcesInParallel(Map<String, CompositePackageDescr> packages, List<ResourceDescr> resourceDescrs) {
+        List<FutureTask<ParsedResource>> tasks = new ArrayList<FutureTask<ParsedResource>>(resourceDescrs.size());
+        for (final ResourceDescr resourceDescr : resourceDescrs) {
+            // each resource has its own parser and its own results list, so nothing is shared among the tasks
+            FutureTask<ParsedResource> task = new FutureTask<ParsedResource>(new Callable<ParsedResource>() {
+                public ParsedResource call() throws Exception {
+                    List<KnowledgeBuilderResult> results = new ArrayList<KnowledgeBuilderResult>();
+                    PackageDescr packageDescr = pkgBuilder.drlToPackageDescr(resourceDescr.resource, results);
+                    return new ParsedResource(packageDescr, results);
+                }
+            });
+            PARSER_EXECUTOR.execute(task);
+            tasks.add(task);
+        }
+
+        // the parsed resources are registered in the order they have been added, as in a serial build,
+        // so both the resulting packages and the reported errors don't depend on the threads scheduling
+        for (int i = 0; i < tasks.size(); i++) {
+            try {
+                ParsedResource parsed = tasks.get(i).get();
+                pkgBuilder.addBuilderResults(parsed.results);
+                registerPackageDescr(packages, resourceDescrs.get(i).resource, parsed.packageDescr);
+            } catch (ExecutionException e) {
+                if (buildException == null) {
+                    buildException = e.getCause() instanceof RuntimeException ?
+                                     (RuntimeException) e.getCause() :
+                                     new RuntimeException( e.getCause() );
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                if (buildException == null) {
+                    buildException = new RuntimeException( e );
+                }
+                return;
+            }
+        }
+    }
+
     private void registerPackageDescr(Map<String, CompositePackageDescr> packages, Resource resource, PackageDescr packageDescr) {
         if (packageDescr != null) {
             CompositePackageDescr compositePackageDescr = packages.get(packageDescr.getNamespace());
@@ -312,6 +361,16 @@ public class CompositeKnowledgeBuilderImpl implements CompositeKnowledgeBuilder
         }
     }
 
+    private static class ParsedResource {
+        final PackageDescr packageDescr;
+        final List<KnowledgeBuilderResult> results;
+
+        private ParsedResource(PackageDescr packageDescr, List<KnowledgeBuilderResult> results) {
+            this.packageDescr = packageDescr;
+            this.results = results;
+        }
+    }
+
     private static class ResourceDescr {
         final Resource resource;
         final ResourceConfiguration configuration;
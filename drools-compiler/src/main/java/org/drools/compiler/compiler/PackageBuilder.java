@@ -510,6 +510,17 @@ public class PackageBuilder
 
     PackageDescr drlToPackageDescr(Resource resource) throws DroolsParserException,
                                                      IOException {
+        return drlToPackageDescr( resource,
+                                  this.results );
+    }
+
+    /**
+     * Parses the given resource adding the parser errors to the supplied results list
+     * instead of the ones of this builder, so it can be safely invoked by concurrent threads.
+     */
+    PackageDescr drlToPackageDescr(Resource resource,
+                                   List<KnowledgeBuilderResult> results) throws DroolsParserException,
+                                                                                IOException {
         PackageDescr pkg;
         boolean hasErrors = false;
         if ( resource instanceof DescrResource ) {
@@ -517,9 +528,9 @@ public class PackageBuilder
         } else {
             final DrlParser parser = new DrlParser( configuration.getLanguageLevel() );
             pkg = parser.parse( resource );
-            this.results.addAll( parser.getErrors() );
+            results.addAll( parser.getErrors() );
             if ( pkg == null ) {
-                this.results.add( new ParserError( resource, "Parser returned a null Package", 0, 0 ) );
+                results.add( new ParserError( resource, "Parser returned a null Package", 0, 0 ) );
             }
             hasErrors = parser.hasErrors();
         }
@@ -1213,6 +1224,10 @@ public class PackageBuilder
         this.results = getResults( results );
     }
 
+    void addBuilderResults(Collection<KnowledgeBuilderResult> results) {
+        this.results.addAll( results );
+    }
+
     public void compileAll() {
         for ( PackageRegistry pkgRegistry : this.pkgRegistryMap.values() ) {
             pkgRegistry.compileAll();
@@ -2512,12 +2527,8 @@ public class PackageBuilder
     private void setPropertyReactive(Resource resource,
                                      TypeDeclaration type,
                                      boolean propertyReactive) {
-        if ( propertyReactive && type.getSettableProperties().size() >= 64 ) {
-            this.results.add( new DisabledPropertyReactiveWarning( resource, type.getTypeName() ) );
-            type.setPropertyReactive( false );
-        } else {
-            type.setPropertyReactive( propertyReactive );
-        }
+        // the masks grow with the number of properties, so there is no limit on them any more
+        type.setPropertyReactive( propertyReactive );
     }
 
     private void updateTraitDefinition(TypeDeclaration type,
@@ -77,6 +77,10 @@ import static org.drools.core.common.ProjectClassLoader.createProjectClassLoader
  * drools.evaluator.<ident> = <qualified class>
  * drools.dump.dir = <String>
  * drools.classLoaderCacheEnabled = true|false
+ * drools.parallelCompilation = true|false
+ * drools.parallelCompilation.minClassesPerBatch = <int>
+ * drools.bytecodeCache.dir = <String>
+ * drools.bytecodeCache.maxSize = <long>
  *
  * default dialect is java.
  * Available preconfigured Accumulate functions are:
@@ -96,6 +100,14 @@ public class PackageBuilderConfiguration
         implements
         KnowledgeBuilderConfiguration {
 
+    public static final String                PARALLEL_COMPILATION    = "drools.parallelCompilation";
+
+    public static final String                PARALLEL_COMPILATION_MIN_CLASSES_PER_BATCH = "drools.parallelCompilation.minClassesPerBatch";
+
+    public static final String                BYTECODE_CACHE_DIR      = "drools.bytecodeCache.dir";
+
+    public static final String                BYTECODE_CACHE_MAX_SIZE = "drools.bytecodeCache.maxSize";
+
     private Map<String, DialectConfiguration> dialectConfigurations;
 
     private DefaultDialectOption              defaultDialect;
@@ -118,6 +130,14 @@ public class PackageBuilderConfiguration
 
     private boolean                           classLoaderCache        = true;
 
+    private boolean                           parallelCompilation     = false;
+
+    private int                               minClassesPerCompilationBatch = 64;
+
+    private File                              bytecodeCacheDir;
+
+    private long                              bytecodeCacheMaxSize    = 64L * 1024 * 1024;
+
     private PropertySpecificOption            propertySpecificOption  = PropertySpecificOption.ALLOWED;
 
     private String                            defaultPackageName;
@@ -243,6 +263,25 @@ public class PackageBuilderConfiguration
                      this.chainedProperties.getProperty( DefaultPackageNameOption.PROPERTY_NAME,
                                                          "defaultpkg" ) );
 
+        setProperty( PARALLEL_COMPILATION,
+                     this.chainedProperties.getProperty( PARALLEL_COMPILATION,
+                                                         "false" ) );
+
+        setProperty( PARALLEL_COMPILATION_MIN_CLASSES_PER_BATCH,
+                     this.chainedProperties.getProperty( PARALLEL_COMPILATION_MIN_CLASSES_PER_BATCH,
+                                                         String.valueOf( this.minClassesPerCompilationBatch ) ) );
+
+        setProperty( BYTECODE_CACHE_MAX_SIZE,
+                     this.chainedProperties.getProperty( BYTECODE_CACHE_MAX_SIZE,
+                                                         String.valueOf( this.bytecodeCacheMaxSize ) ) );
+
+        String bytecodeCacheDir = this.chainedProperties.getProperty( BYTECODE_CACHE_DIR,
+                                                                      null );
+        if ( bytecodeCacheDir != null ) {
+            setProperty( BYTECODE_CACHE_DIR,
+                         bytecodeCacheDir );
+        }
+
         this.componentFactory = new DroolsCompilerComponentFactory();
 
         this.classBuilderFactory = new ClassBuilderFactory();
@@ -290,6 +329,14 @@ public class PackageBuilderConfiguration
             this.severityMap.put( key, KBuilderSeverityOption.get( key, value ).getSeverity() );
         } else if ( name.equals( LanguageLevelOption.PROPERTY_NAME ) ) {
             setLanguageLevel( LanguageLevelOption.valueOf( value ) );
+        } else if ( name.equals( PARALLEL_COMPILATION ) ) {
+            setParallelCompilation( Boolean.parseBoolean( value ) );
+        } else if ( name.equals( PARALLEL_COMPILATION_MIN_CLASSES_PER_BATCH ) ) {
+            setMinClassesPerCompilationBatch( Integer.parseInt( value.trim() ) );
+        } else if ( name.equals( BYTECODE_CACHE_DIR ) ) {
+            setBytecodeCacheDir( StringUtils.isEmpty( value ) ? null : new File( value ) );
+        } else if ( name.equals( BYTECODE_CACHE_MAX_SIZE ) ) {
+            setBytecodeCacheMaxSize( Long.parseLong( value.trim() ) );
         }
     }
 
@@ -323,6 +370,14 @@ public class PackageBuilderConfiguration
             return severity.toString();
         } else if ( name.equals( LanguageLevelOption.PROPERTY_NAME ) ) {
             return "" + getLanguageLevel();
+        } else if ( name.equals( PARALLEL_COMPILATION ) ) {
+            return String.valueOf( isParallelCompilation() );
+        } else if ( name.equals( PARALLEL_COMPILATION_MIN_CLASSES_PER_BATCH ) ) {
+            return String.valueOf( getMinClassesPerCompilationBatch() );
+        } else if ( name.equals( BYTECODE_CACHE_DIR ) ) {
+            return this.bytecodeCacheDir != null ? this.bytecodeCacheDir.toString() : null;
+        } else if ( name.equals( BYTECODE_CACHE_MAX_SIZE ) ) {
+            return String.valueOf( getBytecodeCacheMaxSize() );
         }
         return null;
     }
@@ -646,6 +701,59 @@ public class PackageBuilderConfiguration
         this.dumpDirectory = dumpDir;
     }
 
+    public boolean isParallelCompilation() {
+        return parallelCompilation;
+    }
+
+    /**
+     * When enabled the DRL resources of a batch are parsed concurrently and the generated
+     * java sources are split among several compiler invocations running in parallel.
+     * Errors are still reported in the same order of a serial build.
+     */
+    public void setParallelCompilation(boolean parallelCompilation) {
+        this.parallelCompilation = parallelCompilation;
+    }
+
+    public int getMinClassesPerCompilationBatch() {
+        return minClassesPerCompilationBatch;
+    }
+
+    /**
+     * Sets the minimum number of generated classes worth a compiler invocation of its own when
+     * compiling in parallel: fewer classes than twice this number are compiled in a single batch.
+     */
+    public void setMinClassesPerCompilationBatch(int minClassesPerCompilationBatch) {
+        if ( minClassesPerCompilationBatch <= 0 ) {
+            throw new IllegalArgumentException( "The minimum number of classes per compilation batch must be positive: " + minClassesPerCompilationBatch );
+        }
+        this.minClassesPerCompilationBatch = minClassesPerCompilationBatch;
+    }
+
+    public File getBytecodeCacheDir() {
+        return bytecodeCacheDir;
+    }
+
+    /**
+     * Sets the directory where the classes compiled out of the generated java sources are
+     * cached, so that a later build of unchanged rules, even in another JVM, can reuse them
+     * instead of invoking the compiler. A null directory disables the cache.
+     */
+    public void setBytecodeCacheDir(File bytecodeCacheDir) {
+        this.bytecodeCacheDir = bytecodeCacheDir;
+    }
+
+    public long getBytecodeCacheMaxSize() {
+        return bytecodeCacheMaxSize;
+    }
+
+    /**
+     * Sets the maximum size in bytes of the bytecode cache, when exceeded the least
+     * recently used entries are deleted
+     */
+    public void setBytecodeCacheMaxSize(long bytecodeCacheMaxSize) {
+        this.bytecodeCacheMaxSize = bytecodeCacheMaxSize;
+    }
+
     public boolean isProcessStringEscapes() {
         return processStringEscapes;
     }
@@ -5,13 +5,17 @@ import static org.drools.core.util.ClassUtils.convertResourceToClassName;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.TreeMap;
 
 import org.drools.compiler.compiler.PackageBuilderConfiguration;
 import org.drools.compiler.kie.builder.impl.KieModuleCache.CompDataEntry;
@@ -23,6 +27,7 @@ import org.drools.compiler.kproject.models.KieBaseModelImpl;
 import org.drools.compiler.kproject.models.KieModuleModelImpl;
 import org.drools.compiler.kproject.xml.MinimalPomParser;
 import org.drools.compiler.kproject.xml.PomModel;
+import org.drools.compiler.rule.builder.dialect.java.BytecodeCache;
 import org.drools.core.builder.conf.impl.DecisionTableConfigurationImpl;
 import org.drools.core.rule.KieModuleMetaInfo;
 import org.drools.core.rule.TypeMetaInfo;
@@ -55,6 +60,8 @@ public abstract class AbstractKieModule
 
     private final Map<String, KnowledgeBuilder> kBuilders = new HashMap<String, KnowledgeBuilder>();
 
+    private final Map<String, Collection<KnowledgePackage>> kPackages = new HashMap<String, Collection<KnowledgePackage>>();
+
     private final Map<String, Results> resultsCache = new HashMap<String, Results>();
 
     protected final ReleaseId releaseId;
@@ -111,7 +118,11 @@ public abstract class AbstractKieModule
 
     public Collection<KnowledgePackage> getKnowledgePackagesForKieBase(String kieBaseName) {
         KnowledgeBuilder kbuilder = kBuilders.get(kieBaseName);
-        return kbuilder != null ? kbuilder.getKnowledgePackages() : null;
+        return kbuilder != null ? kbuilder.getKnowledgePackages() : kPackages.get(kieBaseName);
+    }
+
+    public void cacheKnowledgePackagesForKieBase(String kieBaseName, Collection<KnowledgePackage> pkgs) {
+        kPackages.put(kieBaseName, pkgs);
     }
 
     public void cacheKnowledgeBuilderForKieBase(String kieBaseName, KnowledgeBuilder kbuilder) {
@@ -166,26 +177,11 @@ public abstract class AbstractKieModule
         KnowledgeBuilder kbuilder = KnowledgeBuilderFactory.newKnowledgeBuilder(pconf);
         CompositeKnowledgeBuilder ckbuilder = kbuilder.batch();
 
-        Map<String, InternalKieModule> assets = new HashMap<String, InternalKieModule>();
-
-        for (String include : getTransitiveIncludes(kieProject, kBaseModel)) {
-            if (StringUtils.isEmpty(include)) {
-                continue;
-            }
-            InternalKieModule includeModule = kieProject.getKieModuleForKBase(include);
-            if (includeModule == null) {
-                log.error("Unable to build KieBase, could not find include: " + include);
-                return null;
-            }
-            addFiles(assets,
-                    kieProject.getKieBaseModel(include),
-                    includeModule);
+        Map<String, InternalKieModule> assets = getKieBaseAssets(kBaseModel, kieProject);
+        if (assets == null) {
+            return null;
         }
 
-        addFiles(assets,
-                kBaseModel,
-                kModule);
-
         if (assets.isEmpty()) {
             if (kModule instanceof FileKieModule) {
                 log.warn("No files found for KieBase " + kBaseModel.getName() + ", searching folder " + kModule.getFile());
@@ -214,6 +210,57 @@ public abstract class AbstractKieModule
         return kbuilder;
     }
 
+    /**
+     * Returns a digest of everything the given KieBase is built from: its configuration and the names
+     * and contents of its resources, including the ones of the KieBases it transitively includes.
+     * Returns null if one of the includes cannot be found.
+     */
+    public static String computeKieBaseDigest(KieBaseModelImpl kBaseModel, KieProject kieProject) {
+        Map<String, InternalKieModule> assets = getKieBaseAssets(kBaseModel, kieProject);
+        if (assets == null) {
+            return null;
+        }
+        List<byte[]> parts = new ArrayList<byte[]>();
+        parts.add(toBytes(kBaseModel.getEqualsBehavior() + "," + kBaseModel.getEventProcessingMode() + "," + kBaseModel.getDeclarativeAgenda()));
+        for (Map.Entry<String, InternalKieModule> entry : new TreeMap<String, InternalKieModule>(assets).entrySet()) {
+            byte[] bytes = entry.getValue().getBytes(entry.getKey());
+            parts.add(toBytes(entry.getKey()));
+            parts.add(bytes != null ? bytes : new byte[0]);
+        }
+        return BytecodeCache.computeKey(parts.toArray(new byte[parts.size()][]));
+    }
+
+    private static byte[] toBytes(String s) {
+        try {
+            return s.getBytes("UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static Map<String, InternalKieModule> getKieBaseAssets(KieBaseModelImpl kBaseModel, KieProject kieProject) {
+        Map<String, InternalKieModule> assets = new HashMap<String, InternalKieModule>();
+
+        for (String include : getTransitiveIncludes(kieProject, kBaseModel)) {
+            if (StringUtils.isEmpty(include)) {
+                continue;
+            }
+            InternalKieModule includeModule = kieProject.getKieModuleForKBase(include);
+            if (includeModule == null) {
+                log.error("Unable to build KieBase, could not find include: " + include);
+                return null;
+            }
+            addFiles(assets,
+                    kieProject.getKieBaseModel(include),
+                    includeModule);
+        }
+
+        addFiles(assets,
+                kBaseModel,
+                kieProject.getKieModuleForKBase(kBaseModel.getName()));
+        return assets;
+    }
+
     private static Set<String> getTransitiveIncludes(KieProject kieProject, KieBaseModelImpl kBaseModel) {
         Set<String> includes = new HashSet<String>();
         getTransitiveIncludes(kieProject, kBaseModel, includes);
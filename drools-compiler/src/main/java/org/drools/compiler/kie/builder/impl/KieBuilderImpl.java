@@ -289,6 +289,11 @@ public class KieBuilderImpl
         return ((ReleaseIdImpl) releaseId).getCompilationCachePathPrefix() + kbaseName.replace( '.', '/' ) + "/kbase.cache";
     }
 
+    public static String getKieBaseSnapshotPath(ReleaseId releaseId,
+                                                String kbaseName) {
+        return ((ReleaseIdImpl) releaseId).getCompilationCachePathPrefix() + kbaseName.replace( '.', '/' ) + "/kbase.ser";
+    }
+
     private void writeKieModuleMetaInfo(KieModuleMetaInfo info) {
             trgMfs.write( KieModuleModelImpl.KMODULE_INFO_JAR_PATH,
                           info.marshallMetaInfos().getBytes(),
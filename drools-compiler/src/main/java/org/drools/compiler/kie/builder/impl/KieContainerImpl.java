@@ -1,8 +1,15 @@
 package org.drools.compiler.kie.builder.impl;
 
 import static org.drools.compiler.kie.builder.impl.AbstractKieModule.buildKnowledgePackages;
+import static org.drools.compiler.kie.builder.impl.AbstractKieModule.computeKieBaseDigest;
+import static org.drools.compiler.kie.builder.impl.KieBuilderImpl.getKieBaseSnapshotPath;
 import static org.drools.compiler.kie.util.CDIHelper.wireListnersAndWIHs;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
@@ -21,6 +28,7 @@ import org.drools.compiler.kproject.models.KieBaseModelImpl;
 import org.drools.compiler.kproject.models.KieSessionModelImpl;
 import org.drools.core.definitions.impl.KnowledgePackageImp;
 import org.drools.core.impl.InternalKnowledgeBase;
+import org.drools.core.util.DroolsStreamUtils;
 import org.kie.api.KieBase;
 import org.kie.api.KieBaseConfiguration;
 import org.kie.api.KieServices;
@@ -209,6 +217,14 @@ public class KieContainerImpl
 
         Collection<KnowledgePackage> pkgs = kModule.getKnowledgePackagesForKieBase(kBaseModel.getName());
 
+        if ( pkgs == null && conf == null ) {
+            // the KieBase has not been built yet, so try to load it already built from the kjar
+            InternalKnowledgeBase kBase = loadKieBaseSnapshot(kModule, kBaseModel, cl);
+            if ( kBase != null ) {
+                return kBase;
+            }
+        }
+
         if ( pkgs == null ) {
             KnowledgeBuilder kbuilder = buildKnowledgePackages(kBaseModel, kieProject, messages);
             if ( kbuilder.hasErrors() ) {
@@ -235,6 +251,48 @@ public class KieContainerImpl
         return kBase;
     }
 
+    private InternalKnowledgeBase loadKieBaseSnapshot(InternalKieModule kModule, KieBaseModelImpl kBaseModel, ClassLoader cl) {
+        byte[] bytes = kModule.getBytes( getKieBaseSnapshotPath( kModule.getReleaseId(), kBaseModel.getName() ) );
+        if ( bytes == null ) {
+            return null;
+        }
+        try {
+            DataInputStream in = new DataInputStream( new ByteArrayInputStream( bytes ) );
+            String releaseId = in.readUTF();
+            String digest = in.readUTF();
+            if ( !releaseId.equals( kModule.getReleaseId().toExternalForm() ) ||
+                 !digest.equals( computeKieBaseDigest( kBaseModel, kProject ) ) ) {
+                log.info( "The serialized KieBase " + kBaseModel.getName() + " is out of date with its resources, building it again" );
+                return null;
+            }
+            InternalKnowledgeBase kBase = (InternalKnowledgeBase) DroolsStreamUtils.streamIn( in, cl, true );
+            // cache the loaded packages, so other KieBases and updates of this module start from them instead of building them again
+            kModule.cacheKnowledgePackagesForKieBase( kBaseModel.getName(), kBase.getKnowledgePackages() );
+            return kBase;
+        } catch ( Exception e ) {
+            log.warn( "Unable to load the serialized KieBase " + kBaseModel.getName() + ", building it from its resources", e );
+            return null;
+        }
+    }
+
+    /**
+     * Returns the given KieBase, fully built, serialized in the format that getKieBase() is able
+     * to load when it is found in the kjar, in place of building it again from its resources.
+     * The serialized KieBase is preceded by the ReleaseId of its KieModule and by a digest of its
+     * resources, so that it is built again, and not loaded, once either of them changes.
+     */
+    public byte[] serializeKieBase(String kBaseName) throws IOException {
+        KieBase kBase = getKieBase( kBaseName );
+        KieBaseModelImpl kBaseModel = (KieBaseModelImpl) kProject.getKieBaseModel( kBaseName );
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream( baos );
+        out.writeUTF( kProject.getKieModuleForKBase( kBaseName ).getReleaseId().toExternalForm() );
+        out.writeUTF( computeKieBaseDigest( kBaseModel, kProject ) );
+        out.write( DroolsStreamUtils.streamOut( kBase, true ) );
+        out.close();
+        return baos.toByteArray();
+    }
+
     private KieBaseConfiguration getKnowledgeBaseConfiguration(KieBaseModelImpl kBaseModel, ClassLoader cl) {
         KieBaseConfiguration kbConf = KnowledgeBaseFactory.newKnowledgeBaseConfiguration(null, cl);
         kbConf.setOption(kBaseModel.getEqualsBehavior());
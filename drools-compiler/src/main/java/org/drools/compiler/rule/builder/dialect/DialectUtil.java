@@ -7,7 +7,6 @@ import org.drools.compiler.compiler.PackageBuilder;
 import org.drools.compiler.rule.builder.dialect.java.parser.JavaIfBlockDescr;
 import org.drools.compiler.rule.builder.dialect.java.parser.JavaTryBlockDescr;
 import org.drools.compiler.rule.builder.dialect.mvel.MVELConsequenceBuilder;
-import org.drools.core.util.BitMaskUtil;
 import org.drools.core.util.ClassUtils;
 import org.drools.core.factmodel.ClassDefinition;
 import org.drools.compiler.lang.descr.BaseDescr;
@@ -35,6 +34,7 @@ import org.drools.compiler.rule.builder.dialect.mvel.MVELAnalysisResult;
 import org.drools.compiler.rule.builder.dialect.mvel.MVELDialect;
 import org.drools.core.spi.ClassWireable;
 import org.drools.core.spi.KnowledgeHelper;
+import org.drools.core.util.bitmask.BitMask;
 import org.kie.api.definition.type.FactField;
 import org.mvel2.CompileException;
 import org.mvel2.Macro;
@@ -55,6 +55,9 @@ import static org.drools.core.util.ClassUtils.findClass;
 import static org.drools.core.util.ClassUtils.getter2property;
 import static org.drools.core.util.ClassUtils.setter2property;
 import static org.drools.core.util.StringUtils.*;
+import static org.drools.core.reteoo.PropertySpecificUtil.allSetButTraitBitMask;
+import static org.drools.core.reteoo.PropertySpecificUtil.getEmptyPropertyReactiveMask;
+import static org.drools.core.reteoo.PropertySpecificUtil.setPropertyOnMask;
 
 public final class DialectUtil {
 
@@ -620,7 +623,7 @@ public final class DialectUtil {
             statement = new ConsequenceMetaData.Statement(ConsequenceMetaData.Statement.Type.MODIFY, typeClass);
             context.getRule().getConsequenceMetaData().addStatement(statement);
         }
-        long modificationMask = isPropertyReactive ? 0 : Long.MAX_VALUE;
+        BitMask modificationMask = isPropertyReactive ? getEmptyPropertyReactiveMask(settableProperties.size()) : allSetButTraitBitMask();
 
         int end = originalBlock.indexOf("{");
         if (end == -1) {
@@ -651,7 +654,7 @@ public final class DialectUtil {
 
         addLineBreaks(consequence, originalBlock.substring(end));
 
-        appendUpdateStatement(consequence, declr, obj, modificationMask, typeClass);
+        appendUpdateStatement(context, consequence, declr, obj, modificationMask, typeClass);
     }
 
     private static void rewriteUpdateDescr(RuleBuildContext context,
@@ -660,7 +663,7 @@ public final class DialectUtil {
                                               StringBuilder consequence,
                                               Declaration declr,
                                               String obj) {
-        long modificationMask = Long.MAX_VALUE;
+        BitMask modificationMask = allSetButTraitBitMask();
 
         Class<?> typeClass = findModifiedClass(context, d, declr);
         TypeDeclaration typeDeclaration = typeClass == null ? null : context.getPackageBuilder().getTypeDeclaration(typeClass);
@@ -669,9 +672,9 @@ public final class DialectUtil {
             boolean isPropertyReactive = typeDeclaration != null && typeDeclaration.isPropertyReactive();
             List<String> settableProperties = null;
             if (isPropertyReactive) {
-                modificationMask = 0;
                 typeDeclaration.setTypeClass(typeClass);
                 settableProperties = typeDeclaration.getSettableProperties();
+                modificationMask = getEmptyPropertyReactiveMask(settableProperties.size());
             }
 
             ConsequenceMetaData.Statement statement = new ConsequenceMetaData.Statement(ConsequenceMetaData.Statement.Type.MODIFY, typeClass);
@@ -685,28 +688,44 @@ public final class DialectUtil {
             }
         }
 
-        appendUpdateStatement(consequence, declr, obj, modificationMask, typeClass);
+        appendUpdateStatement(context, consequence, declr, obj, modificationMask, typeClass);
     }
 
-    private static void appendUpdateStatement(StringBuilder consequence, Declaration declr, String obj, long modificationMask, Class<?> typeClass) {
+    private static void appendUpdateStatement(RuleBuildContext context, StringBuilder consequence, Declaration declr, String obj, BitMask modificationMask, Class<?> typeClass) {
         boolean isInternalFact = declr == null || declr.isInternalFact();
         consequence
                 .append("drools.update( ")
                 .append(obj)
                 .append(isInternalFact ? "__Handle2__, " : "__Handle__, ")
-                .append(modificationMask)
-                .append("L, ")
+                .append(getModificationMaskReference(context, modificationMask))
+                .append(", ")
                 .append(typeClass != null ? typeClass.getCanonicalName() : "java.lang.Object")
                 .append(".class")
                 .append(" ); }");
     }
 
-    private static long parseModifiedProperties(ConsequenceMetaData.Statement statement,
-                                                List<String> settableProperties,
-                                                TypeDeclaration typeDeclaration,
-                                                boolean propertyReactive,
-                                                long modificationMask,
-                                                String exprStr) {
+    /**
+     * Returns the expression passing the given mask to drools.update(). A mask that would be instanced on each
+     * update is created once in a static field of the rule class, since masks are immutable.
+     */
+    private static String getModificationMaskReference(RuleBuildContext context, BitMask modificationMask) {
+        String instancingStatement = modificationMask.getInstancingStatement();
+        if (!instancingStatement.startsWith("new ")) {
+            // a singleton mask
+            return instancingStatement;
+        }
+        String fieldName = "__modificationMask" + context.getNextId() + "__";
+        // the consequence method is added to the rule class right after its rewrite, so the field precedes it
+        context.addMethod("    private static final " + BitMask.class.getName() + " " + fieldName + " = " + instancingStatement + ";");
+        return fieldName;
+    }
+
+    private static BitMask parseModifiedProperties(ConsequenceMetaData.Statement statement,
+                                                   List<String> settableProperties,
+                                                   TypeDeclaration typeDeclaration,
+                                                   boolean propertyReactive,
+                                                   BitMask modificationMask,
+                                                   String exprStr) {
         int endMethodName = exprStr.indexOf('(');
         if (endMethodName >= 0) {
             String methodName = exprStr.substring(0, endMethodName).trim();
@@ -748,13 +767,13 @@ public final class DialectUtil {
         return modificationMask;
     }
 
-    private static long updateModificationMask(List<String> settableProperties,
-                                               boolean propertyReactive,
-                                               long modificationMask,
-                                               String propertyName) {
+    private static BitMask updateModificationMask(List<String> settableProperties,
+                                                  boolean propertyReactive,
+                                                  BitMask modificationMask,
+                                                  String propertyName) {
         if (propertyReactive) {
             int pos = settableProperties.indexOf(propertyName);
-            if (pos >= 0) modificationMask = BitMaskUtil.set(modificationMask, pos);
+            if (pos >= 0) modificationMask = setPropertyOnMask(modificationMask, pos);
         }
         return modificationMask;
     }
@@ -0,0 +1,356 @@
+/*
+ * Copyright 2014 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.compiler.rule.builder.dialect.java;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileFilter;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A content addressed store of compiled classes, persisted in a local directory so that it
+ * survives the JVM. Each entry holds all the classes, inner ones included, compiled out of a
+ * single generated source, and is keyed by a digest of the source and of the compiler settings.
+ * An entry also records a digest of each class the compiled ones depend on, and it is only
+ * reused if none of them changed.
+ *
+ * The total size of the entries is bounded: when it is exceeded the least recently used ones
+ * are deleted. Entries are written in a temporary file and then renamed, so more JVMs can
+ * share the same directory.
+ */
+public class BytecodeCache {
+
+    private static final Logger                    logger      = LoggerFactory.getLogger( BytecodeCache.class );
+
+    private static final int                       VERSION     = 2;
+
+    private static final String                    SUFFIX      = ".bytecode";
+
+    private static final Map<File, BytecodeCache> caches      = new HashMap<File, BytecodeCache>();
+
+    private final File                             dir;
+
+    private long                                   maxSize;
+
+    // the total size of the entries, lazily computed at the first write
+    private long                                   size        = -1;
+
+    private long                                   hits;
+    private long                                   misses;
+
+    /**
+     * Resolves the classes the cached ones depend on, as they are when the cache is looked up.
+     */
+    public interface DependencyResolver {
+
+        /**
+         * Returns a digest of the current definition of the given class, by internal name,
+         * or a constant value if it does not exist.
+         */
+        String digest(String className);
+    }
+
+    private BytecodeCache(File dir,
+                          long maxSize) {
+        this.dir = dir;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns the cache stored in the given directory, creating it if necessary.
+     * The caches are shared, so the same directory is always managed by the same instance.
+     */
+    public static synchronized BytecodeCache getCache(File dir,
+                                                      long maxSize) {
+        File canonicalDir;
+        try {
+            canonicalDir = dir.getCanonicalFile();
+        } catch ( IOException e ) {
+            canonicalDir = dir.getAbsoluteFile();
+        }
+        BytecodeCache cache = caches.get( canonicalDir );
+        if ( cache == null ) {
+            if ( !canonicalDir.isDirectory() && !canonicalDir.mkdirs() ) {
+                logger.warn( "Unable to create the bytecode cache directory " + canonicalDir );
+                return null;
+            }
+            cache = new BytecodeCache( canonicalDir,
+                                       maxSize );
+            caches.put( canonicalDir,
+                        cache );
+        } else {
+            cache.setMaxSize( maxSize );
+        }
+        return cache;
+    }
+
+    /**
+     * Computes the key of an entry as an hex encoded digest of the given parts
+     */
+    public static String computeKey(byte[]... parts) {
+        MessageDigest digest = newDigest();
+        for ( byte[] part : parts ) {
+            // the length separates the parts, so different splits of the same bytes give different keys
+            int length = part.length;
+            digest.update( new byte[]{(byte) ( length >>> 24 ), (byte) ( length >>> 16 ), (byte) ( length >>> 8 ), (byte) length} );
+            digest.update( part );
+        }
+        return toHex( digest.digest() );
+    }
+
+    static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance( "SHA-1" );
+        } catch ( NoSuchAlgorithmException e ) {
+            throw new RuntimeException( e );
+        }
+    }
+
+    static String toHex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder( bytes.length * 2 );
+        for ( byte b : bytes ) {
+            sb.append( Character.forDigit( ( b >> 4 ) & 0xF, 16 ) );
+            sb.append( Character.forDigit( b & 0xF, 16 ) );
+        }
+        return sb.toString();
+    }
+
+    public File getDir() {
+        return dir;
+    }
+
+    public synchronized long getMaxSize() {
+        return maxSize;
+    }
+
+    public synchronized void setMaxSize(long maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns the classes stored with the given key, mapped by resource name,
+     * or null if there is no such entry.
+     */
+    public synchronized Map<String, byte[]> get(String key) {
+        return get( key,
+                    null );
+    }
+
+    /**
+     * Returns the classes stored with the given key, mapped by resource name, or null if there
+     * is no such entry or if any of the classes they depend on changed since they were stored.
+     */
+    public synchronized Map<String, byte[]> get(String key,
+                                                DependencyResolver resolver) {
+        File file = new File( dir, key + SUFFIX );
+        if ( !file.isFile() ) {
+            misses++;
+            return null;
+        }
+        DataInputStream in = null;
+        try {
+            in = new DataInputStream( new BufferedInputStream( new FileInputStream( file ) ) );
+            if ( in.readInt() != VERSION ) {
+                misses++;
+                return null;
+            }
+            int count = in.readInt();
+            Map<String, byte[]> resources = new LinkedHashMap<String, byte[]>();
+            for ( int i = 0; i < count; i++ ) {
+                String resourceName = in.readUTF();
+                byte[] bytes = new byte[in.readInt()];
+                in.readFully( bytes );
+                resources.put( resourceName,
+                               bytes );
+            }
+            int dependencies = in.readInt();
+            for ( int i = 0; i < dependencies; i++ ) {
+                String className = in.readUTF();
+                String digest = in.readUTF();
+                if ( resolver != null && !digest.equals( resolver.digest( className ) ) ) {
+                    // stale, it will be replaced by the classes compiled again
+                    misses++;
+                    return null;
+                }
+            }
+            // the last modification time is used to find the least recently used entries
+            file.setLastModified( System.currentTimeMillis() );
+            hits++;
+            return resources;
+        } catch ( IOException e ) {
+            logger.warn( "Unable to read the bytecode cache entry " + file + ", discarding it", e );
+            close( in );
+            delete( file );
+            misses++;
+            return null;
+        } finally {
+            close( in );
+        }
+    }
+
+    /**
+     * Stores the given classes, mapped by resource name, with the given key
+     */
+    public synchronized void put(String key,
+                                 Map<String, byte[]> resources) {
+        put( key,
+             resources,
+             Collections.<String, String>emptyMap() );
+    }
+
+    /**
+     * Stores the given classes, mapped by resource name, with the given key, replacing
+     * the existing entry if any. The digests of the classes they depend on, mapped by
+     * internal name, are checked when the entry is looked up.
+     */
+    public synchronized void put(String key,
+                                 Map<String, byte[]> resources,
+                                 Map<String, String> dependencies) {
+        File file = new File( dir, key + SUFFIX );
+        long replaced = file.length();
+        File tmp = null;
+        DataOutputStream out = null;
+        try {
+            tmp = File.createTempFile( key, ".tmp", dir );
+            out = new DataOutputStream( new BufferedOutputStream( new FileOutputStream( tmp ) ) );
+            out.writeInt( VERSION );
+            out.writeInt( resources.size() );
+            for ( Map.Entry<String, byte[]> entry : resources.entrySet() ) {
+                out.writeUTF( entry.getKey() );
+                out.writeInt( entry.getValue().length );
+                out.write( entry.getValue() );
+            }
+            out.writeInt( dependencies.size() );
+            for ( Map.Entry<String, String> entry : dependencies.entrySet() ) {
+                out.writeUTF( entry.getKey() );
+                out.writeUTF( entry.getValue() );
+            }
+            out.close();
+            out = null;
+            // on some platforms a file cannot be renamed over an existing one
+            if ( !tmp.renameTo( file ) && !( delete( file ) && tmp.renameTo( file ) ) ) {
+                delete( tmp );
+                return;
+            }
+        } catch ( IOException e ) {
+            logger.warn( "Unable to write the bytecode cache entry " + file, e );
+            close( out );
+            if ( tmp != null ) {
+                delete( tmp );
+            }
+            return;
+        }
+
+        if ( size < 0 ) {
+            size = computeSize();
+        } else {
+            size += file.length() - replaced;
+        }
+        if ( size > maxSize ) {
+            evict();
+        }
+    }
+
+    /**
+     * The number of lookups that returned reusable classes
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * The number of lookups that found no entry, or a stale one
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized void clear() {
+        for ( File file : listEntries() ) {
+            delete( file );
+        }
+        size = 0;
+    }
+
+    private void evict() {
+        File[] entries = listEntries();
+        final Map<File, Long> lastModified = new HashMap<File, Long>();
+        for ( File entry : entries ) {
+            lastModified.put( entry, entry.lastModified() );
+        }
+        Arrays.sort( entries, new Comparator<File>() {
+            public int compare(File f1,
+                               File f2) {
+                return lastModified.get( f1 ).compareTo( lastModified.get( f2 ) );
+            }
+        } );
+        for ( int i = 0; i < entries.length && size > maxSize; i++ ) {
+            long length = entries[i].length();
+            if ( delete( entries[i] ) ) {
+                size -= length;
+            }
+        }
+    }
+
+    private long computeSize() {
+        long total = 0;
+        for ( File file : listEntries() ) {
+            total += file.length();
+        }
+        return total;
+    }
+
+    private File[] listEntries() {
+        File[] files = dir.listFiles( new FileFilter() {
+            public boolean accept(File file) {
+                return file.getName().endsWith( SUFFIX );
+            }
+        } );
+        return files != null ? files : new File[0];
+    }
+
+    private static boolean delete(File file) {
+        return file.delete() || !file.exists();
+    }
+
+    private static void close(Closeable closeable) {
+        if ( closeable != null ) {
+            try {
+                closeable.close();
+            } catch ( IOException e ) {
+                // nothing to do
+            }
+        }
+    }
+}
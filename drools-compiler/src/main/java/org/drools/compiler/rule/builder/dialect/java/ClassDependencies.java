@@ -0,0 +1,176 @@
+/*
+ * Copyright 2014 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.compiler.rule.builder.dialect.java;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reads the constant pool of a class file to find the classes it refers to, by internal name
+ * (i.e. org/drools/Cheese): the ones of the class entries, used by instructions, casts and
+ * exception handlers, and the ones appearing in the descriptors and generic signatures of the
+ * fields and methods it declares or invokes.
+ */
+final class ClassDependencies {
+
+    private static final int     UTF8                 = 1;
+    private static final int     INTEGER              = 3;
+    private static final int     FLOAT                = 4;
+    private static final int     LONG                 = 5;
+    private static final int     DOUBLE               = 6;
+    private static final int     CLASS                = 7;
+    private static final int     STRING               = 8;
+    private static final int     FIELD_REF            = 9;
+    private static final int     METHOD_REF           = 10;
+    private static final int     INTERFACE_METHOD_REF = 11;
+    private static final int     NAME_AND_TYPE        = 12;
+    private static final int     METHOD_HANDLE        = 15;
+    private static final int     METHOD_TYPE          = 16;
+    private static final int     DYNAMIC              = 17;
+    private static final int     INVOKE_DYNAMIC       = 18;
+    private static final int     MODULE               = 19;
+    private static final int     PACKAGE              = 20;
+
+    // an object type in a descriptor or a signature, e.g. Ljava/util/List; or Ljava/util/List<
+    private static final Pattern OBJECT_TYPE          = Pattern.compile( "L([\\w$]+(?:/[\\w$]+)*)[;<]" );
+
+    private final Set<String>    referencedClasses    = new TreeSet<String>();
+    private final List<String>   superTypes           = new ArrayList<String>();
+
+    private ClassDependencies() {
+    }
+
+    /**
+     * Parses the given class file, returning null if it is not a valid one.
+     */
+    static ClassDependencies parse(byte[] bytecode) {
+        try {
+            ClassDependencies dependencies = new ClassDependencies();
+            dependencies.read( new DataInputStream( new ByteArrayInputStream( bytecode ) ) );
+            return dependencies;
+        } catch ( IOException e ) {
+            return null;
+        }
+    }
+
+    private void read(DataInputStream in) throws IOException {
+        if ( in.readInt() != 0xCAFEBABE ) {
+            throw new IOException( "Not a class file" );
+        }
+        in.readUnsignedShort(); // minor version
+        in.readUnsignedShort(); // major version
+
+        int count = in.readUnsignedShort();
+        String[] utf8 = new String[count];
+        int[] classNames = new int[count];
+        for ( int i = 1; i < count; i++ ) {
+            int tag = in.readUnsignedByte();
+            switch ( tag ) {
+                case UTF8 :
+                    utf8[i] = in.readUTF();
+                    break;
+                case CLASS :
+                    classNames[i] = in.readUnsignedShort();
+                    break;
+                case STRING :
+                case METHOD_TYPE :
+                case MODULE :
+                case PACKAGE :
+                    in.readUnsignedShort();
+                    break;
+                case METHOD_HANDLE :
+                    in.readUnsignedByte();
+                    in.readUnsignedShort();
+                    break;
+                case INTEGER :
+                case FLOAT :
+                case FIELD_REF :
+                case METHOD_REF :
+                case INTERFACE_METHOD_REF :
+                case NAME_AND_TYPE :
+                case DYNAMIC :
+                case INVOKE_DYNAMIC :
+                    in.readInt();
+                    break;
+                case LONG :
+                case DOUBLE :
+                    in.readLong();
+                    // 8 bytes constants take two entries
+                    i++;
+                    break;
+                default :
+                    throw new IOException( "Unknown constant pool tag " + tag );
+            }
+        }
+
+        for ( int i = 1; i < count; i++ ) {
+            if ( classNames[i] != 0 ) {
+                String name = utf8[classNames[i]];
+                if ( name.startsWith( "[" ) ) {
+                    addObjectTypes( name );
+                } else {
+                    referencedClasses.add( name );
+                }
+            } else if ( utf8[i] != null ) {
+                // descriptors and signatures are utf8 entries too, string literals rarely look like them
+                addObjectTypes( utf8[i] );
+            }
+        }
+
+        in.readUnsignedShort(); // access flags
+        int thisClass = in.readUnsignedShort();
+        referencedClasses.remove( utf8[classNames[thisClass]] );
+        int superClass = in.readUnsignedShort();
+        if ( superClass != 0 ) {
+            superTypes.add( utf8[classNames[superClass]] );
+        }
+        for ( int i = 0, interfaces = in.readUnsignedShort(); i < interfaces; i++ ) {
+            superTypes.add( utf8[classNames[in.readUnsignedShort()]] );
+        }
+    }
+
+    private void addObjectTypes(String descriptor) {
+        if ( descriptor.indexOf( ';' ) < 0 && descriptor.indexOf( '<' ) < 0 ) {
+            return;
+        }
+        Matcher matcher = OBJECT_TYPE.matcher( descriptor );
+        while ( matcher.find() ) {
+            referencedClasses.add( matcher.group( 1 ) );
+        }
+    }
+
+    /**
+     * The internal names of the classes referred to, the class itself excluded
+     */
+    Set<String> getReferencedClasses() {
+        return referencedClasses;
+    }
+
+    /**
+     * The internal names of the super class, if any, and of the implemented interfaces
+     */
+    List<String> getSuperTypes() {
+        return superTypes;
+    }
+}
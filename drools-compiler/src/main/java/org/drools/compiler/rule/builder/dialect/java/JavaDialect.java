@@ -4,11 +4,24 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
 
 import org.drools.compiler.commons.jci.compilers.CompilationResult;
 import org.drools.compiler.commons.jci.compilers.JavaCompiler;
@@ -16,11 +29,13 @@ import org.drools.compiler.commons.jci.compilers.JavaCompilerFactory;
 import org.drools.compiler.commons.jci.compilers.JavaCompilerSettings;
 import org.drools.compiler.commons.jci.problems.CompilationProblem;
 import org.drools.compiler.commons.jci.readers.MemoryResourceReader;
+import org.drools.compiler.commons.jci.stores.ResourceStore;
 import org.drools.compiler.compiler.AnalysisResult;
 import org.drools.compiler.compiler.BoundIdentifiers;
 import org.drools.compiler.compiler.DescrBuildError;
 import org.drools.compiler.compiler.Dialect;
 import org.drools.compiler.compiler.PackageBuilder;
+import org.drools.compiler.compiler.PackageBuilderConfiguration;
 import org.drools.compiler.compiler.PackageBuilder.ErrorHandler;
 import org.drools.compiler.compiler.PackageBuilder.FunctionErrorHandler;
 import org.drools.compiler.compiler.PackageBuilder.RuleErrorHandler;
@@ -84,9 +99,11 @@ import org.drools.core.rule.JavaDialectRuntimeData;
 import org.drools.core.rule.LineMappings;
 import org.drools.core.rule.Package;
 import org.drools.core.rule.Rule;
+import org.drools.core.util.IoUtils;
 import org.drools.core.util.StringUtils;
 import org.kie.api.io.Resource;
 import org.kie.internal.builder.KnowledgeBuilderResult;
+import org.kie.internal.concurrent.ExecutorProviderFactory;
 
 public class JavaDialect
     implements
@@ -96,6 +113,8 @@ public class JavaDialect
 
     private final static String                  EXPRESSION_DIALECT_NAME       = "mvel";
 
+    private static final Executor                COMPILER_EXECUTOR             = ExecutorProviderFactory.getExecutorProvider().getExecutor();
+
     // builders
     protected static PatternBuilder              PATTERN_BUILDER               = new PatternBuilder();
     protected static QueryBuilder QUERY_BUILDER                 = new QueryBuilder();
@@ -393,7 +412,7 @@ public class JavaDialect
         if ( this.generatedClassList.isEmpty() ) {
             return;
         }
-        final String[] classes = new String[this.generatedClassList.size()];
+        String[] classes = new String[this.generatedClassList.size()];
         this.generatedClassList.toArray( classes );
 
         File dumpDir = this.configuration.getPackageBuilderConfiguration().getDumpDir();
@@ -402,15 +421,39 @@ public class JavaDialect
                            dumpDir );
         }
 
-        final CompilationResult result = this.compiler.compile( classes,
-                                                                this.src,
-                                                                this.packageStoreWrapper,
-                                                                this.packageBuilder.getRootClassLoader() );
+        BytecodeCache bytecodeCache = getBytecodeCache();
+        Map<String, String> cacheKeys = null;
+        ResourceStore store = this.packageStoreWrapper;
+        if ( bytecodeCache != null ) {
+            cacheKeys = loadCachedClasses( bytecodeCache );
+            if ( this.generatedClassList.isEmpty() ) {
+                return;
+            }
+            classes = new String[this.generatedClassList.size()];
+            this.generatedClassList.toArray( classes );
+            // collects the compiled classes, to be cached before being written in the package store
+            store = new BatchResourceStore( this.packageStoreWrapper );
+        }
+
+        final CompilationProblem[] compilationErrors;
+        PackageBuilderConfiguration builderConf = this.configuration.getPackageBuilderConfiguration();
+        int batches = Math.min( Runtime.getRuntime().availableProcessors(),
+                                classes.length / builderConf.getMinClassesPerCompilationBatch() );
+        if ( batches > 1 && builderConf.isParallelCompilation() ) {
+            compilationErrors = compileInParallel( classes,
+                                                   batches,
+                                                   store );
+        } else {
+            compilationErrors = this.compiler.compile( classes,
+                                                       this.src,
+                                                       store,
+                                                       this.packageBuilder.getRootClassLoader() ).getErrors();
+        }
 
         //this will sort out the errors based on what class/file they happened in
-        if ( result.getErrors().length > 0 ) {
-            for ( int i = 0; i < result.getErrors().length; i++ ) {
-                final CompilationProblem err = result.getErrors()[i];
+        if ( compilationErrors.length > 0 ) {
+            for ( int i = 0; i < compilationErrors.length; i++ ) {
+                final CompilationProblem err = compilationErrors[i];
                 final ErrorHandler handler = this.errorHandlers.get( err.getFileName() );
                 handler.addError( err );
             }
@@ -424,10 +467,364 @@ public class JavaDialect
             }
         }
 
+        if ( cacheKeys != null ) {
+            Map<String, byte[]> compiled = ((BatchResourceStore) store).getResources();
+            storeCompiledClasses( bytecodeCache,
+                                  cacheKeys,
+                                  compiled );
+            for ( Map.Entry<String, byte[]> entry : compiled.entrySet() ) {
+                this.packageStoreWrapper.write( entry.getKey(),
+                                                entry.getValue() );
+            }
+        }
+
         // We've compiled everthing, so clear it for the next set of additions
         this.generatedClassList.clear();
     }
 
+    /**
+     * Splits the classes in the given number of batches and compiles each of them with a different
+     * compiler invocation running on its own thread. Every batch writes its bytecode in a private store
+     * that is copied in the package one, in batch order, only when all of them are done: this way
+     * the sources of another batch that a compiler had to compile to resolve a reference are stored
+     * only once, and the outcome doesn't depend on the threads scheduling.
+     */
+    private CompilationProblem[] compileInParallel(final String[] classes,
+                                                   final int batches,
+                                                   final ResourceStore packageStore) {
+        final ClassLoader classLoader = this.packageBuilder.getRootClassLoader();
+        List<FutureTask<CompilationResult>> tasks = new ArrayList<FutureTask<CompilationResult>>( batches );
+        List<BatchResourceStore> stores = new ArrayList<BatchResourceStore>( batches );
+        List<Set<String>> batchClasses = new ArrayList<Set<String>>( batches );
+
+        int batchSize = ( classes.length + batches - 1 ) / batches;
+        for ( int start = 0; start < classes.length; start += batchSize ) {
+            final String[] batch = Arrays.copyOfRange( classes,
+                                                       start,
+                                                       Math.min( start + batchSize, classes.length ) );
+            final BatchResourceStore store = new BatchResourceStore( packageStore );
+            FutureTask<CompilationResult> task = new FutureTask<CompilationResult>( new Callable<CompilationResult>() {
+                public CompilationResult call() throws Exception {
+                    return compiler.compile( batch,
+                                             src,
+                                             store,
+                                             classLoader );
+                }
+            } );
+            COMPILER_EXECUTOR.execute( task );
+            tasks.add( task );
+            stores.add( store );
+            batchClasses.add( new HashSet<String>( Arrays.asList( batch ) ) );
+        }
+
+        // all the batches must be done before writing in the package store, since the running ones read from it
+        List<CompilationResult> results = new ArrayList<CompilationResult>( tasks.size() );
+        for ( FutureTask<CompilationResult> task : tasks ) {
+            try {
+                results.add( task.get() );
+            } catch ( InterruptedException e ) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException( "Interrupted while compiling java sources", e );
+            } catch ( ExecutionException e ) {
+                throw e.getCause() instanceof RuntimeException ?
+                      (RuntimeException) e.getCause() :
+                      new RuntimeException( e.getCause() );
+            }
+        }
+
+        Set<String> allClasses = new HashSet<String>( Arrays.asList( classes ) );
+        Set<String> reportedFiles = new HashSet<String>();
+        Set<String> written = new HashSet<String>();
+        List<CompilationProblem> errors = new ArrayList<CompilationProblem>();
+        for ( int i = 0; i < results.size(); i++ ) {
+            CompilationResult result = results.get( i );
+
+            // a problem in a source compiled by more batches is reported only by the batch owning it
+            for ( CompilationProblem err : result.getErrors() ) {
+                String fileName = err.getFileName();
+                if ( batchClasses.get( i ).contains( fileName ) ||
+                     ( !allClasses.contains( fileName ) && !reportedFiles.contains( fileName ) ) ) {
+                    errors.add( err );
+                }
+            }
+            for ( CompilationProblem err : result.getErrors() ) {
+                reportedFiles.add( err.getFileName() );
+            }
+
+            for ( Map.Entry<String, byte[]> entry : stores.get( i ).getResources().entrySet() ) {
+                if ( written.add( entry.getKey() ) ) {
+                    packageStore.write( entry.getKey(),
+                                        entry.getValue() );
+                }
+            }
+        }
+        return errors.toArray( new CompilationProblem[errors.size()] );
+    }
+
+    private BytecodeCache getBytecodeCache() {
+        PackageBuilderConfiguration conf = this.configuration.getPackageBuilderConfiguration();
+        return conf.getBytecodeCacheDir() != null ?
+               BytecodeCache.getCache( conf.getBytecodeCacheDir(), conf.getBytecodeCacheMaxSize() ) :
+               null;
+    }
+
+    /**
+     * Writes in the package store the classes of the generated sources found in the bytecode cache,
+     * removing those sources from the ones to be compiled.
+     * @return the cache keys of the sources that still have to be compiled
+     */
+    private Map<String, String> loadCachedClasses(BytecodeCache bytecodeCache) {
+        byte[] context = computeCompilationContext();
+        CompilationDependencies dependencies = new CompilationDependencies();
+        Map<String, String> cacheKeys = new HashMap<String, String>();
+        for ( Iterator<String> i = this.generatedClassList.iterator(); i.hasNext(); ) {
+            String fileName = i.next();
+            if ( !this.src.isAvailable( fileName ) ) {
+                continue;
+            }
+            String key = BytecodeCache.computeKey( this.src.getBytes( fileName ),
+                                                   context );
+            Map<String, byte[]> cached = bytecodeCache.get( key,
+                                                            dependencies );
+            if ( cached != null ) {
+                for ( Map.Entry<String, byte[]> entry : cached.entrySet() ) {
+                    this.packageStoreWrapper.write( entry.getKey(),
+                                                    entry.getValue() );
+                }
+                i.remove();
+            } else {
+                cacheKeys.put( fileName,
+                               key );
+            }
+        }
+        return cacheKeys;
+    }
+
+    /**
+     * Caches the classes compiled out of each of the generated sources compiled without errors,
+     * i.e. the class named after the source and its inner ones, together with the classes they depend on.
+     */
+    private void storeCompiledClasses(BytecodeCache bytecodeCache,
+                                      Map<String, String> cacheKeys,
+                                      Map<String, byte[]> compiled) {
+        CompilationDependencies dependencies = new CompilationDependencies();
+        for ( Map.Entry<String, String> cacheKey : cacheKeys.entrySet() ) {
+            String fileName = cacheKey.getKey();
+            ErrorHandler handler = this.errorHandlers.get( fileName );
+            if ( handler != null && handler.isInError() ) {
+                continue;
+            }
+            String className = fileName.substring( 0, fileName.length() - ".java".length() );
+            Map<String, byte[]> classes = new LinkedHashMap<String, byte[]>();
+            for ( Map.Entry<String, byte[]> entry : compiled.entrySet() ) {
+                String resourceName = entry.getKey();
+                if ( resourceName.equals( className + ".class" ) || resourceName.startsWith( className + "$" ) ) {
+                    classes.put( resourceName,
+                                 entry.getValue() );
+                }
+            }
+            if ( !classes.isEmpty() ) {
+                bytecodeCache.put( cacheKey.getValue(),
+                                   classes,
+                                   dependencies.collect( className,
+                                                         classes.values() ) );
+            }
+        }
+    }
+
+    /**
+     * Digests the settings the classes compiled out of a generated source depend on, besides their own
+     * source: the compiler, the language level and the JVM, and the imports of the package, since a new
+     * import may change how a simple name is resolved. The classes they refer to are validated one by
+     * one when an entry is looked up, see CompilationDependencies.
+     */
+    private byte[] computeCompilationContext() {
+        MessageDigest digest = BytecodeCache.newDigest();
+        digest.update( ( this.configuration.getCompiler() + ":" + this.configuration.getJavaLanguageLevel() + ":" +
+                         System.getProperty( "java.version" ) ).getBytes() );
+        for ( String importName : new TreeSet<String>( this.pkg.getImports().keySet() ) ) {
+            digest.update( importName.getBytes() );
+            digest.update( (byte) 0 );
+        }
+        return digest.digest();
+    }
+
+    /**
+     * Finds and digests the classes that the ones compiled out of the generated sources depend on.
+     * These are the classes referred to in their constant pools, with their super types, and, for
+     * each of them, the classes with the same simple name in the package and in the packages imported
+     * with a wildcard, that would shadow it if they were added. The JDK classes are only checked for
+     * shadowing, since the JVM version is part of the key. A class that is generated out of a source
+     * of this package is digested through its source, as it may have not been compiled yet.
+     * Note that a constant inlined by the compiler leaves no reference to the class declaring it.
+     */
+    private class CompilationDependencies
+        implements
+        BytecodeCache.DependencyResolver {
+
+        private static final String       ABSENT  = "-";
+
+        private final Map<String, String> digests = new HashMap<String, String>();
+        private final String              packagePath;
+        private final List<String>        wildcardPaths;
+
+        private CompilationDependencies() {
+            this.packagePath = pkg.getName().replace( '.', '/' );
+            this.wildcardPaths = new ArrayList<String>();
+            for ( String importName : pkg.getImports().keySet() ) {
+                if ( importName.endsWith( ".*" ) ) {
+                    this.wildcardPaths.add( importName.substring( 0, importName.length() - 2 ).replace( '.', '/' ) );
+                }
+            }
+        }
+
+        public String digest(String className) {
+            String digest = this.digests.get( className );
+            if ( digest == null ) {
+                String sourceName = getSourceName( className );
+                if ( src.isAvailable( sourceName ) ) {
+                    digest = "src:" + BytecodeCache.toHex( BytecodeCache.newDigest().digest( src.getBytes( sourceName ) ) );
+                } else {
+                    byte[] bytecode = read( className );
+                    digest = bytecode != null ? BytecodeCache.toHex( BytecodeCache.newDigest().digest( bytecode ) ) : ABSENT;
+                }
+                this.digests.put( className,
+                                  digest );
+            }
+            return digest;
+        }
+
+        /**
+         * Returns the digests, by internal name, of the classes the given ones, compiled out
+         * of the source of the given class, depend on.
+         */
+        private Map<String, String> collect(String className,
+                                            Collection<byte[]> classes) {
+            Set<String> referenced = new TreeSet<String>();
+            for ( byte[] bytecode : classes ) {
+                ClassDependencies dependencies = ClassDependencies.parse( bytecode );
+                if ( dependencies != null ) {
+                    referenced.addAll( dependencies.getReferencedClasses() );
+                }
+            }
+
+            Map<String, String> result = new TreeMap<String, String>();
+            List<String> pending = new ArrayList<String>( referenced );
+            while ( !pending.isEmpty() ) {
+                String name = pending.remove( pending.size() - 1 );
+                if ( name.equals( className ) || name.startsWith( className + "$" ) || result.containsKey( name ) ) {
+                    continue;
+                }
+                addShadowingCandidates( name,
+                                        result );
+                if ( name.startsWith( "java/" ) ) {
+                    continue;
+                }
+                result.put( name,
+                            digest( name ) );
+                if ( !src.isAvailable( getSourceName( name ) ) ) {
+                    byte[] bytecode = read( name );
+                    ClassDependencies dependencies = bytecode != null ? ClassDependencies.parse( bytecode ) : null;
+                    if ( dependencies != null ) {
+                        // the members inherited from the super types are resolved by the compiler as well
+                        pending.addAll( dependencies.getSuperTypes() );
+                    }
+                }
+            }
+            return result;
+        }
+
+        private void addShadowingCandidates(String name,
+                                            Map<String, String> result) {
+            int dollar = name.indexOf( '$' );
+            String topLevel = dollar > 0 ? name.substring( 0, dollar ) : name;
+            String simpleName = topLevel.substring( topLevel.lastIndexOf( '/' ) + 1 );
+            addCandidate( this.packagePath.length() > 0 ? this.packagePath + "/" + simpleName : simpleName,
+                          topLevel,
+                          result );
+            for ( String wildcardPath : this.wildcardPaths ) {
+                addCandidate( wildcardPath + "/" + simpleName,
+                              topLevel,
+                              result );
+            }
+        }
+
+        private void addCandidate(String candidate,
+                                  String topLevel,
+                                  Map<String, String> result) {
+            if ( !candidate.equals( topLevel ) && !result.containsKey( candidate ) ) {
+                result.put( candidate,
+                            digest( candidate ) );
+            }
+        }
+
+        private String getSourceName(String className) {
+            int dollar = className.indexOf( '$' );
+            return ( dollar > 0 ? className.substring( 0, dollar ) : className ) + ".java";
+        }
+
+        private byte[] read(String className) {
+            String resourceName = className + ".class";
+            byte[] bytecode = packageStoreWrapper.read( resourceName );
+            return bytecode != null ? bytecode : readClass( packageBuilder.getRootClassLoader(),
+                                                            resourceName );
+        }
+    }
+
+    private static byte[] readClass(ClassLoader classLoader,
+                                    String resourceName) {
+        InputStream is = classLoader.getResourceAsStream( resourceName );
+        if ( is == null ) {
+            return null;
+        }
+        try {
+            return IoUtils.readBytesFromInputStream( is );
+        } catch ( IOException e ) {
+            return null;
+        } finally {
+            try {
+                is.close();
+            } catch ( IOException e ) {
+                // nothing to do
+            }
+        }
+    }
+
+    /**
+     * A store keeping the classes written by a compiler invocation, and delegating to another store
+     * for the ones compiled before.
+     */
+    private static class BatchResourceStore
+        implements
+        ResourceStore {
+
+        private final ResourceStore       delegate;
+        private final Map<String, byte[]> resources = new LinkedHashMap<String, byte[]>();
+
+        private BatchResourceStore(ResourceStore delegate) {
+            this.delegate = delegate;
+        }
+
+        public void write(final String resourceName,
+                          final byte[] resourceData) {
+            this.resources.put( resourceName,
+                                resourceData );
+        }
+
+        public byte[] read(final String resourceName) {
+            byte[] bytes = this.resources.get( resourceName );
+            return bytes != null ? bytes : this.delegate.read( resourceName );
+        }
+
+        public void remove(final String resourceName) {
+            this.resources.remove( resourceName );
+        }
+
+        public Map<String, byte[]> getResources() {
+            return this.resources;
+        }
+    }
+
     /**
      * @param classes
      * @param dumpDir
@@ -21,6 +21,8 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -38,6 +40,8 @@ import junit.framework.Assert;
 
 import org.drools.compiler.CommonTestMethodBase;
 import org.drools.compiler.Person;
+import org.drools.core.common.DroolsObjectInputStream;
+import org.drools.core.common.DroolsObjectOutputStream;
 import org.drools.core.common.InternalFactHandle;
 import org.drools.core.common.InternalWorkingMemoryEntryPoint;
 import org.drools.core.common.ObjectTypeConfigurationRegistry;
@@ -46,6 +50,8 @@ import org.drools.core.factmodel.MapCore;
 import org.drools.core.factmodel.traits.Entity;
 import org.drools.core.factmodel.traits.LogicalTypeInconsistencyException;
 import org.drools.core.factmodel.traits.MapWrapper;
+import org.drools.core.factmodel.traits.SoftFieldIndex;
+import org.drools.core.factmodel.traits.SoftFieldSlotMap;
 import org.drools.core.factmodel.traits.Thing;
 import org.drools.core.factmodel.traits.TraitFactory;
 import org.drools.core.factmodel.traits.TraitProxy;
@@ -211,6 +217,11 @@ public class TraitTest extends CommonTestMethodBase {
         traitWrapGetAndSet( TraitFactory.VirtualPropertyMode.MAP );
     }
 
+    @Test
+    public void testTraitWrapper_GetAndSetSlots() {
+        traitWrapGetAndSet( TraitFactory.VirtualPropertyMode.SLOTS );
+    }
+
 
 
 
@@ -270,6 +281,11 @@ public class TraitTest extends CommonTestMethodBase {
         traitShed( TraitFactory.VirtualPropertyMode.MAP );
     }
 
+    @Test
+    public void testTraitShedSlots() {
+        traitShed( TraitFactory.VirtualPropertyMode.SLOTS );
+    }
+
     public void traitDon( TraitFactory.VirtualPropertyMode mode ) {
         String source = "org/drools/compiler/factmodel/traits/testTraitDon.drl";
 
@@ -311,6 +327,11 @@ public class TraitTest extends CommonTestMethodBase {
         traitDon( TraitFactory.VirtualPropertyMode.MAP );
     }
 
+    @Test
+    public void testTraitDonSlots() {
+        traitDon( TraitFactory.VirtualPropertyMode.SLOTS );
+    }
+
 
 
 
@@ -411,6 +432,11 @@ public class TraitTest extends CommonTestMethodBase {
         traitMethodsWithPrimitives( TraitFactory.VirtualPropertyMode.MAP );
     }
 
+    @Test
+    public void testTraitPrimMethodsSlots() {
+        traitMethodsWithPrimitives( TraitFactory.VirtualPropertyMode.SLOTS );
+    }
+
 
 
 
@@ -884,6 +910,45 @@ public class TraitTest extends CommonTestMethodBase {
         wrapperContainsKey( TraitFactory.VirtualPropertyMode.MAP );
     }
 
+    @Test
+    public void testTraitContainskeySlots() {
+        wrapperContainsKey( TraitFactory.VirtualPropertyMode.SLOTS );
+    }
+
+    @Test
+    public void testSoftFieldSlotsReattachedToSharedIndex() throws Exception {
+        ReteooRuleBase ruleBase = (ReteooRuleBase) ( (KnowledgeBaseImpl) KnowledgeBaseFactory.newKnowledgeBase() ).getRuleBase();
+        SoftFieldIndex sharedIndex = ruleBase.getTraitRegistry().getSoftFieldIndex();
+        sharedIndex.getOrdinal( "unrelated" );
+
+        SoftFieldIndex otherIndex = new SoftFieldIndex();
+        SoftFieldSlotMap slots = new SoftFieldSlotMap( otherIndex );
+        slots.put( "name", "john" );
+        slots.put( "age", null );
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        DroolsObjectOutputStream out = new DroolsObjectOutputStream( baos );
+        out.writeObject( slots );
+        out.close();
+
+        DroolsObjectInputStream in = new DroolsObjectInputStream( new ByteArrayInputStream( baos.toByteArray() ) );
+        in.setRuleBase( ruleBase );
+        SoftFieldSlotMap read = (SoftFieldSlotMap) in.readObject();
+        assertSame( sharedIndex, read.getIndex() );
+        assertEquals( "john", read.getSlot( sharedIndex.lookup( "name" ) ) );
+        assertTrue( read.containsKey( "age" ) );
+        assertEquals( 2, read.size() );
+
+        // without the rule base the map keeps its own index until attached
+        SoftFieldSlotMap detached = (SoftFieldSlotMap) new DroolsObjectInputStream( new ByteArrayInputStream( baos.toByteArray() ) ).readObject();
+        assertNotSame( sharedIndex, detached.getIndex() );
+        detached.attach( sharedIndex );
+        assertSame( sharedIndex, detached.getIndex() );
+        assertEquals( "john", SoftFieldSlotMap.get( detached, sharedIndex.lookup( "name" ), "name" ) );
+        assertTrue( detached.containsKey( "age" ) );
+        assertEquals( 2, detached.size() );
+    }
+
 
 
 
@@ -995,6 +1060,11 @@ public class TraitTest extends CommonTestMethodBase {
         wrapperKeySetAndValues( TraitFactory.VirtualPropertyMode.MAP );
     }
 
+    @Test
+    public void testTraitWrapperKSVSlots() {
+        wrapperKeySetAndValues( TraitFactory.VirtualPropertyMode.SLOTS );
+    }
+
 
 
 
@@ -1130,6 +1200,11 @@ public class TraitTest extends CommonTestMethodBase {
         wrapperClearAndRemove( TraitFactory.VirtualPropertyMode.MAP );
     }
 
+    @Test
+    public void testTraitWrapperClearSlots() {
+        wrapperClearAndRemove( TraitFactory.VirtualPropertyMode.SLOTS );
+    }
+
 
 
 
@@ -1917,6 +1992,11 @@ public class TraitTest extends CommonTestMethodBase {
         aliasing( TraitFactory.VirtualPropertyMode.MAP );
     }
 
+    @Test
+    public void testAliasingSlots() {
+        aliasing( TraitFactory.VirtualPropertyMode.SLOTS );
+    }
+
 
 
 
@@ -3413,6 +3493,11 @@ public class TraitTest extends CommonTestMethodBase {
         testTraitInitialization( TraitFactory.VirtualPropertyMode.MAP );
     }
 
+    @Test
+    public void testTraitInitializationSlots() {
+        testTraitInitialization( TraitFactory.VirtualPropertyMode.SLOTS );
+    }
+
     public void testTraitInitialization( TraitFactory.VirtualPropertyMode mode ) {
         String source = "package t.x \n" +
                         "import java.util.*; \n" +
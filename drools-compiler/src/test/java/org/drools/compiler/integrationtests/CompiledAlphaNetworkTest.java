@@ -0,0 +1,131 @@
+package org.drools.compiler.integrationtests;
+
+import org.drools.compiler.Cheese;
+import org.drools.compiler.CommonTestMethodBase;
+import org.drools.core.base.ClassObjectType;
+import org.drools.core.common.InternalRuleBase;
+import org.drools.core.impl.KnowledgeBaseImpl;
+import org.drools.core.reteoo.ObjectTypeNode;
+import org.drools.core.reteoo.compiled.CompiledNetwork;
+import org.junit.Test;
+import org.kie.api.KieBaseConfiguration;
+import org.kie.api.io.ResourceType;
+import org.kie.api.runtime.rule.FactHandle;
+import org.kie.internal.KnowledgeBase;
+import org.kie.internal.KnowledgeBaseFactory;
+import org.kie.internal.builder.KnowledgeBuilder;
+import org.kie.internal.builder.KnowledgeBuilderFactory;
+import org.kie.internal.io.ResourceFactory;
+import org.kie.internal.runtime.StatefulKnowledgeSession;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class CompiledAlphaNetworkTest extends CommonTestMethodBase {
+
+    private static final String HEADER =
+            "package org.drools.compiler.test\n" +
+            "import " + Cheese.class.getCanonicalName() + "\n" +
+            "global java.util.List list\n";
+
+    private static String rule(String name, String pattern) {
+        return "rule " + name + " when\n" +
+               "    " + pattern + "\n" +
+               "then\n" +
+               "    list.add( drools.getRule().getName() );\n" +
+               "end\n";
+    }
+
+    private ObjectTypeNode getCheeseNode(KnowledgeBase kbase) {
+        List<ObjectTypeNode> nodes = ((InternalRuleBase)((KnowledgeBaseImpl)kbase).ruleBase).getRete().getObjectTypeNodes();
+        for ( ObjectTypeNode n : nodes ) {
+            if ( n.getObjectType() instanceof ClassObjectType && ((ClassObjectType)n.getObjectType()).getClassType() == Cheese.class ) {
+                return n;
+            }
+        }
+        return null;
+    }
+
+    private List<String> fire(StatefulKnowledgeSession ksession, List<String> list) {
+        list.clear();
+        ksession.fireAllRules();
+        List<String> fired = new ArrayList<String>( list );
+        Collections.sort( fired );
+        return fired;
+    }
+
+    @Test
+    public void testHashedRangeAndMvelConstraints() throws Exception {
+        String drl = HEADER +
+                     // hashed on type
+                     rule( "h1", "Cheese( type == \"stilton\" )" ) +
+                     rule( "h2", "Cheese( type == \"brie\" )" ) +
+                     rule( "h3", "Cheese( type == \"cheddar\" )" ) +
+                     rule( "h4", "Cheese( type == \"gouda\" )" ) +
+                     // range indexed on price
+                     rule( "r1", "Cheese( price > 10 )" ) +
+                     rule( "r2", "Cheese( price > 20 )" ) +
+                     rule( "r3", "Cheese( price < 5 )" ) +
+                     // plain mvel
+                     rule( "m1", "Cheese( type.length() > 5 && price != 7 )" );
+
+        KieBaseConfiguration kconf = KnowledgeBaseFactory.newKnowledgeBaseConfiguration();
+        kconf.setProperty( "drools.compiledAlphaNetwork", "true" );
+        KnowledgeBase kbase = loadKnowledgeBaseFromString( kconf, drl );
+
+        CompiledNetwork network = getCheeseNode( kbase ).getCompiledNetwork();
+        assertNotNull( network );
+
+        StatefulKnowledgeSession ksession = createKnowledgeSession( kbase );
+        List<String> list = new ArrayList<String>();
+        ksession.setGlobal( "list", list );
+
+        Cheese stilton = new Cheese( "stilton", 25 );
+        FactHandle stiltonHandle = ksession.insert( stilton );
+        ksession.insert( new Cheese( "brie", 3 ) );
+        assertEquals( Arrays.asList( "h1", "h2", "m1", "r1", "r2", "r3" ), fire( ksession, list ) );
+
+        stilton.setType( "cheddar" );
+        stilton.setPrice( 7 );
+        ksession.update( stiltonHandle, stilton );
+        assertEquals( Arrays.asList( "h3" ), fire( ksession, list ) );
+
+        // add rules incrementally, the network must be compiled again and see them
+        KnowledgeBuilder kbuilder = KnowledgeBuilderFactory.newKnowledgeBuilder();
+        kbuilder.add( ResourceFactory.newByteArrayResource( ( HEADER +
+                                                              rule( "h5", "Cheese( type == \"cheddar\" )" ) +
+                                                              rule( "r4", "Cheese( price < 10 )" ) ).getBytes() ),
+                      ResourceType.DRL );
+        assertFalse( kbuilder.getErrors().toString(), kbuilder.hasErrors() );
+        kbase.addKnowledgePackages( kbuilder.getKnowledgePackages() );
+
+        assertNotNull( getCheeseNode( kbase ).getCompiledNetwork() );
+        assertNotSame( network, getCheeseNode( kbase ).getCompiledNetwork() );
+        assertEquals( Arrays.asList( "h5", "r4", "r4" ), fire( ksession, list ) );
+
+        // and remove some of them
+        kbase.removeRule( "org.drools.compiler.test", "h3" );
+        kbase.removeRule( "org.drools.compiler.test", "r1" );
+        assertNotNull( getCheeseNode( kbase ).getCompiledNetwork() );
+
+        stilton.setPrice( 30 );
+        ksession.update( stiltonHandle, stilton );
+        assertEquals( Arrays.asList( "h5", "m1", "r2" ), fire( ksession, list ) );
+
+        ksession.delete( stiltonHandle );
+        assertEquals( 1, ksession.getFactCount() );
+        ksession.dispose();
+
+        // generated networks are not serialized, but compiled again
+        KnowledgeBase deserialized = SerializationHelper.serializeObject( kbase );
+        assertNotNull( getCheeseNode( deserialized ).getCompiledNetwork() );
+    }
+
+    @Test
+    public void testDisabledByDefault() {
+        KnowledgeBase kbase = loadKnowledgeBaseFromString( HEADER + rule( "r1", "Cheese( price > 10 )" ) );
+        assertNull( getCheeseNode( kbase ).getCompiledNetwork() );
+    }
+}
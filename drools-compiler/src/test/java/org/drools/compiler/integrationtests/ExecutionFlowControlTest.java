@@ -53,6 +53,7 @@ import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 
 import static org.mockito.Mockito.*;
+import static org.drools.core.reteoo.PropertySpecificUtil.allSetButTraitBitMask;
 
 public class ExecutionFlowControlTest extends CommonTestMethodBase {
 
@@ -879,7 +880,7 @@ public class ExecutionFlowControlTest extends CommonTestMethodBase {
                 .getActivation();
 
         // simulate a modify inside a consequence
-        wm.update( stiltonHandle, stilton, Long.MAX_VALUE, Object.class, item );
+        wm.update( stiltonHandle, stilton, allSetButTraitBitMask(), Object.class, item );
 
         // with true modify, no reactivations should be triggered
         assertEquals( 3, created.size() );
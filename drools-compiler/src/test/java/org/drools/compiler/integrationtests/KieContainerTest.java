@@ -1,7 +1,11 @@
 package org.drools.compiler.integrationtests;
 
+import org.drools.compiler.kie.builder.impl.InternalKieModule;
+import org.drools.compiler.kie.builder.impl.KieBuilderImpl;
+import org.drools.compiler.kie.builder.impl.KieContainerImpl;
 import org.junit.Test;
 import org.kie.api.KieServices;
+import org.kie.api.builder.KieFileSystem;
 import org.kie.api.builder.KieModule;
 import org.kie.api.builder.ReleaseId;
 import org.kie.api.definition.type.FactType;
@@ -11,7 +15,10 @@ import org.kie.api.runtime.KieSession;
 import java.lang.reflect.Constructor;
 
 import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertNotNull;
 import static junit.framework.Assert.assertNotSame;
+import static junit.framework.Assert.assertNull;
+import static org.drools.compiler.CommonTestMethodBase.deployJar;
 import static org.drools.compiler.integrationtests.IncrementalCompilationTest.createAndDeployJar;
 
 public class KieContainerTest {
@@ -128,6 +135,85 @@ public class KieContainerTest {
         assertEquals( 2, ksession2.fireAllRules() );
     }
 
+    @Test
+    public void testLoadSerializedKieBase() throws Exception {
+        String drl = "package org.drools.test\n" +
+                     "declare Message\n" +
+                     "   message : String\n" +
+                     "end\n" +
+                     "rule R1 when\n" +
+                     "   $m : Message( message == \"Hello World\" )\n" +
+                     "then\n" +
+                     "end\n";
+
+        KieServices ks = KieServices.Factory.get();
+        ReleaseId releaseId = ks.newReleaseId("org.kie", "test-serialized", "1.0.0");
+        createAndDeployJar( ks, releaseId, drl );
+        byte[] serialized = ((KieContainerImpl) ks.newKieContainer(releaseId)).serializeKieBase("defaultKieBase");
+
+        // build a kjar containing the KieBase already built, as done by the serialize goal of the maven plugin
+        KieFileSystem kfs = ks.newKieFileSystem();
+        kfs.generateAndWritePomXML(releaseId);
+        kfs.write("src/main/resources/r0.drl", drl);
+        kfs.write("src/main/resources/" + KieBuilderImpl.getKieBaseSnapshotPath(releaseId, "defaultKieBase"), serialized);
+        ks.newKieBuilder(kfs).buildAll();
+        byte[] jar = ((InternalKieModule) ks.getRepository().getKieModule(releaseId)).getBytes();
+        InternalKieModule kModule = (InternalKieModule) deployJar(ks, jar);
+
+        KieContainer kieContainer = ks.newKieContainer(releaseId);
+        KieSession ksession = kieContainer.newKieSession();
+        insertMessageFromTypeDeclaration( ksession );
+        assertEquals( 1, ksession.fireAllRules() );
+
+        // the KieBase has been loaded without building its packages, and the loaded packages have been cached
+        assertNotNull( kModule.getBytes(KieBuilderImpl.getKieBaseSnapshotPath(releaseId, "defaultKieBase")) );
+        assertNull( kModule.getKnowledgeBuilderForKieBase("defaultKieBase") );
+        assertEquals( 1, kModule.getKnowledgePackagesForKieBase("defaultKieBase").size() );
+
+        // a new KieBase of the same container is created from the cached packages
+        ksession = ((KieContainerImpl) kieContainer).newKieBase("defaultKieBase", ks.newKieBaseConfiguration()).newKieSession();
+        insertMessageFromTypeDeclaration( ksession );
+        assertEquals( 1, ksession.fireAllRules() );
+        assertNull( kModule.getKnowledgeBuilderForKieBase("defaultKieBase") );
+    }
+
+    @Test
+    public void testOutOfDateSerializedKieBaseIsBuiltAgain() throws Exception {
+        String drl1 = "package org.drools.test\n" +
+                      "declare Message\n" +
+                      "   message : String\n" +
+                      "end\n" +
+                      "rule R1 when\n" +
+                      "   $m : Message( message == \"Hello World\" )\n" +
+                      "then\n" +
+                      "end\n";
+
+        String drl2 = drl1 +
+                      "rule R2 when\n" +
+                      "   $m : Message( message == \"Hello World\" )\n" +
+                      "then\n" +
+                      "end\n";
+
+        KieServices ks = KieServices.Factory.get();
+        ReleaseId releaseId = ks.newReleaseId("org.kie", "test-serialized-stale", "1.0.0");
+        createAndDeployJar( ks, releaseId, drl1 );
+        byte[] serialized = ((KieContainerImpl) ks.newKieContainer(releaseId)).serializeKieBase("defaultKieBase");
+
+        // the kjar contains a KieBase serialized before its resources have been changed
+        KieFileSystem kfs = ks.newKieFileSystem();
+        kfs.generateAndWritePomXML(releaseId);
+        kfs.write("src/main/resources/r0.drl", drl2);
+        kfs.write("src/main/resources/" + KieBuilderImpl.getKieBaseSnapshotPath(releaseId, "defaultKieBase"), serialized);
+        ks.newKieBuilder(kfs).buildAll();
+        byte[] jar = ((InternalKieModule) ks.getRepository().getKieModule(releaseId)).getBytes();
+        InternalKieModule kModule = (InternalKieModule) deployJar(ks, jar);
+
+        KieSession ksession = ks.newKieContainer(releaseId).newKieSession();
+        insertMessageFromTypeDeclaration( ksession );
+        assertEquals( 2, ksession.fireAllRules() );
+        assertNotNull( kModule.getKnowledgeBuilderForKieBase("defaultKieBase") );
+    }
+
     private void insertMessageFromTypeDeclaration(KieSession ksession) throws InstantiationException, IllegalAccessException {
         FactType messageType = ksession.getKieBase().getFactType("org.drools.test", "Message");
         Object message = messageType.newInstance();
@@ -2,6 +2,8 @@ package org.drools.compiler.integrationtests;
 
 import java.io.StringReader;
 import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
 
 import javax.management.AttributeNotFoundException;
 import javax.management.InstanceNotFoundException;
@@ -11,6 +13,11 @@ import javax.management.MalformedObjectNameException;
 import javax.management.ObjectName;
 import javax.management.ReflectionException;
 
+import org.drools.core.impl.StatefulKnowledgeSessionImpl;
+import org.drools.core.management.KieSessionMonitoringImpl;
+import org.drools.core.management.RuleMetricsRegistry;
+import org.drools.core.management.RuleStats;
+import org.drools.core.management.RuleStatsMonitor;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
@@ -22,8 +29,11 @@ import org.kie.internal.builder.KnowledgeBuilder;
 import org.kie.internal.builder.KnowledgeBuilderFactory;
 import org.kie.api.conf.EventProcessingOption;
 import org.kie.api.conf.MBeansOption;
+import org.kie.api.event.rule.AfterMatchFiredEvent;
+import org.kie.api.event.rule.DefaultAgendaEventListener;
 import org.kie.internal.io.ResourceFactory;
 import org.kie.api.io.ResourceType;
+import org.kie.internal.runtime.StatefulKnowledgeSession;
 
 public class MBeansMonitoringTest {
 
@@ -70,6 +80,70 @@ public class MBeansMonitoringTest {
         Assert.assertEquals( 10001, ((Number)expOffset).longValue() );
     }
 
+    @Test
+    public void testAgendaStats() {
+        String drl = "package org.drools.compiler.test\n" +
+                     "rule X\n" +
+                     "when\n" +
+                     "    String()\n" +
+                     "then\n" +
+                     "end";
+        KnowledgeBase kbase = loadKnowledgeBase( "statsKbase",
+                                                 drl,
+                                                 KnowledgeBaseFactory.newKnowledgeBaseConfiguration() );
+        StatefulKnowledgeSession ksession = kbase.newStatefulKnowledgeSession();
+        KieSessionMonitoringImpl monitoring = new KieSessionMonitoringImpl( ( (StatefulKnowledgeSessionImpl) ksession ).getInternalWorkingMemory() );
+        final List<String> registered = new ArrayList<String>();
+        monitoring.addMetricsRegistry( new RuleMetricsRegistry() {
+            public void matchCreated(String ruleName) {
+                registered.add( "created " + ruleName );
+            }
+
+            public void matchCancelled(String ruleName) {
+                registered.add( "cancelled " + ruleName );
+            }
+
+            public void matchFired(String ruleName, long consequenceNanos) {
+                registered.add( "fired " + ruleName );
+            }
+
+            public void ruleEvaluated(String ruleName, long evaluationNanos) {
+                registered.add( "evaluated " + ruleName );
+            }
+        } );
+
+        // a plain listener gets its events alongside the stats, which are notified without them
+        final List<String> fired = new ArrayList<String>();
+        ksession.addEventListener( new DefaultAgendaEventListener() {
+            public void afterMatchFired(AfterMatchFiredEvent event) {
+                fired.add( event.getMatch().getRule().getName() );
+            }
+        } );
+
+        ksession.insert( "a" );
+        ksession.insert( "b" );
+        ksession.insert( "c" );
+        ksession.fireAllRules();
+
+        Assert.assertEquals( 3, fired.size() );
+        Assert.assertEquals( 3, monitoring.getTotalMatchesCreated() );
+        Assert.assertEquals( 3, monitoring.getTotalMatchesFired() );
+        Assert.assertEquals( 3, monitoring.agendaStats.getRuleStats( "X" ).matchesFired.get() );
+        Assert.assertTrue( registered.contains( "created X" ) );
+        Assert.assertTrue( registered.contains( "fired X" ) );
+        Assert.assertTrue( registered.contains( "evaluated X" ) );
+
+        RuleStats stats = new RuleStatsMonitor( ( (StatefulKnowledgeSessionImpl) ksession ).getInternalWorkingMemory(),
+                                                monitoring.agendaStats ).getStatsForRule( "X" );
+        Assert.assertEquals( 3, stats.getMatchesFired() );
+        Assert.assertTrue( stats.getEvaluations() > 0 );
+        Assert.assertTrue( stats.getFiringTimeP50() <= stats.getFiringTimeP99() );
+        Assert.assertTrue( stats.getFiringTimeP99() <= stats.getFiringTimeMax() );
+
+        monitoring.dispose();
+        ksession.dispose();
+    }
+
     private KnowledgeBase loadKnowledgeBase( String id,
                                              String drl,
                                              KieBaseConfiguration conf ) {
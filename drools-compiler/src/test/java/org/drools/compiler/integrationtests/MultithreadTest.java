@@ -19,14 +19,19 @@
 package org.drools.compiler.integrationtests;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletionService;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
@@ -34,6 +39,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 
 import org.drools.compiler.CommonTestMethodBase;
 import org.drools.compiler.StockTick;
+import org.drools.core.SessionConfiguration;
 import org.drools.core.WorkingMemoryEntryPoint;
 import org.junit.Ignore;
 import org.junit.Test;
@@ -42,10 +48,15 @@ import org.kie.api.runtime.conf.ClockTypeOption;
 import org.kie.internal.KnowledgeBase;
 import org.kie.api.KieBaseConfiguration;
 import org.kie.internal.KnowledgeBaseFactory;
+import org.kie.api.conf.EqualityBehaviorOption;
 import org.kie.api.conf.EventProcessingOption;
 import org.kie.internal.runtime.StatefulKnowledgeSession;
 import org.kie.api.runtime.rule.FactHandle;
 import org.kie.api.runtime.rule.EntryPoint;
+import org.kie.api.event.rule.ObjectDeletedEvent;
+import org.kie.api.event.rule.ObjectInsertedEvent;
+import org.kie.api.event.rule.ObjectUpdatedEvent;
+import org.kie.api.event.rule.WorkingMemoryEventListener;
 
 /**
  * This is a test case for multi-thred issues
@@ -108,6 +119,225 @@ public class MultithreadTest extends CommonTestMethodBase {
         ksession.dispose();
     }
 
+    @Test(timeout = 20000)
+    public void testConcurrentInsertionWithStagedPropagation() throws Exception {
+        String str = "import org.drools.compiler.integrationtests.MultithreadTest.Bean\n" +
+                     "global java.util.List list\n" +
+                     "\n" +
+                     "rule \"R\"\n" +
+                     "when\n" +
+                     "    $a : Bean( seed >= 0 )\n" +
+                     "then\n" +
+                     "    list.add( $a );\n" +
+                     "end";
+
+        KnowledgeBase kbase = loadKnowledgeBaseFromString(str);
+        KieSessionConfiguration conf = KnowledgeBaseFactory.newKnowledgeSessionConfiguration();
+        conf.setProperty(SessionConfiguration.CONCURRENT_INSERTION, "true");
+        final StatefulKnowledgeSession ksession = kbase.newStatefulKnowledgeSession(conf, null);
+        final List<Object> list = new ArrayList<Object>();
+        ksession.setGlobal("list", list);
+
+        // the inserted events are fired when the staged inserts are propagated
+        final List<Bean> inserted = new ArrayList<Bean>();
+        ksession.addEventListener(new WorkingMemoryEventListener() {
+            public void objectInserted(ObjectInsertedEvent event) {
+                inserted.add((Bean) event.getObject());
+            }
+
+            public void objectUpdated(ObjectUpdatedEvent event) {
+            }
+
+            public void objectDeleted(ObjectDeletedEvent event) {
+            }
+        });
+
+        final int OBJECT_NR = 1000;
+        final int THREAD_NR = 8;
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREAD_NR);
+        List<Future<?>> futures = new ArrayList<Future<?>>();
+        for (int i = 0; i < THREAD_NR; i++) {
+            final int producer = i;
+            futures.add(executor.submit(new Runnable() {
+                public void run() {
+                    for (int j = 0; j < OBJECT_NR; j++) {
+                        ksession.insert(new Bean(producer * OBJECT_NR + j));
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        assertEquals(THREAD_NR * OBJECT_NR, ksession.fireAllRules());
+        assertEquals(THREAD_NR * OBJECT_NR, list.size());
+        assertEquals(THREAD_NR * OBJECT_NR, ksession.getFactCount());
+
+        // the facts of each producer have been propagated in the order they have been inserted
+        int[] lastSeeds = new int[THREAD_NR];
+        Arrays.fill(lastSeeds, -1);
+        for (Bean bean : inserted) {
+            int producer = bean.getSeed() / OBJECT_NR;
+            assertTrue(bean.getSeed() > lastSeeds[producer]);
+            lastSeeds[producer] = bean.getSeed();
+        }
+        ksession.dispose();
+    }
+
+    @Test
+    public void testUpdateStagedInsertion() {
+        String str = "import org.drools.compiler.integrationtests.MultithreadTest.Bean\n" +
+                     "global java.util.List list\n" +
+                     "\n" +
+                     "rule \"R\"\n" +
+                     "when\n" +
+                     "    $a : Bean( seed == 2 )\n" +
+                     "then\n" +
+                     "    list.add( $a );\n" +
+                     "end";
+
+        KnowledgeBase kbase = loadKnowledgeBaseFromString(str);
+        KieSessionConfiguration conf = KnowledgeBaseFactory.newKnowledgeSessionConfiguration();
+        conf.setProperty(SessionConfiguration.CONCURRENT_INSERTION, "true");
+        StatefulKnowledgeSession ksession = kbase.newStatefulKnowledgeSession(conf, null);
+        List<Object> list = new ArrayList<Object>();
+        ksession.setGlobal("list", list);
+
+        FactHandle fh1 = ksession.insert(new Bean(1));
+        FactHandle fh2 = ksession.insert(new Bean(3));
+        // updating or deleting a staged fact propagates it first
+        ksession.update(fh1, new Bean(2));
+        ksession.delete(fh2);
+
+        assertEquals(1, ksession.fireAllRules());
+        assertEquals(1, ksession.getFactCount());
+        ksession.dispose();
+    }
+
+    @Test
+    public void testStagedInsertionOfSameObjectByIdentity() {
+        String str = "import org.drools.compiler.integrationtests.MultithreadTest.Bean\n" +
+                     "global java.util.List list\n" +
+                     "\n" +
+                     "rule \"R\"\n" +
+                     "when\n" +
+                     "    $a : Bean( )\n" +
+                     "then\n" +
+                     "    list.add( $a );\n" +
+                     "end";
+
+        KnowledgeBase kbase = loadKnowledgeBaseFromString(str);
+        KieSessionConfiguration conf = KnowledgeBaseFactory.newKnowledgeSessionConfiguration();
+        conf.setProperty(SessionConfiguration.CONCURRENT_INSERTION, "true");
+        StatefulKnowledgeSession ksession = kbase.newStatefulKnowledgeSession(conf, null);
+        List<Object> list = new ArrayList<Object>();
+        ksession.setGlobal("list", list);
+
+        Bean bean = new Bean(1);
+        FactHandle fh = ksession.insert(bean);
+        // the object is still staged, so inserting it again returns the same handle
+        assertSame(fh, ksession.insert(bean));
+        assertSame(fh, ksession.getFactHandle(bean));
+        // an equal object is a different fact under identity assert behaviour
+        FactHandle other = ksession.insert(new Bean(1));
+        assertNotSame(fh, other);
+
+        assertEquals(2, ksession.getFactCount());
+        assertEquals(2, ksession.fireAllRules());
+        assertSame(fh, ksession.getFactHandle(bean));
+        ksession.dispose();
+    }
+
+    @Test(timeout = 20000)
+    public void testConcurrentReinsertionOfFactInWorkingMemory() throws Exception {
+        String str = "import org.drools.compiler.integrationtests.MultithreadTest.Bean\n" +
+                     "global java.util.List list\n" +
+                     "\n" +
+                     "rule \"R\"\n" +
+                     "when\n" +
+                     "    $a : Bean( )\n" +
+                     "then\n" +
+                     "    list.add( $a );\n" +
+                     "end";
+
+        KnowledgeBase kbase = loadKnowledgeBaseFromString(str);
+        KieSessionConfiguration conf = KnowledgeBaseFactory.newKnowledgeSessionConfiguration();
+        conf.setProperty(SessionConfiguration.CONCURRENT_INSERTION, "true");
+        final StatefulKnowledgeSession ksession = kbase.newStatefulKnowledgeSession(conf, null);
+        List<Object> list = new ArrayList<Object>();
+        ksession.setGlobal("list", list);
+
+        final Bean bean = new Bean(1);
+        final FactHandle fh = ksession.insert(bean);
+        assertEquals(1, ksession.fireAllRules());
+
+        // the fact is already in the working memory, so all the producers get its handle back
+        final int THREAD_NR = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(THREAD_NR);
+        List<Future<FactHandle>> futures = new ArrayList<Future<FactHandle>>();
+        for (int i = 0; i < THREAD_NR; i++) {
+            futures.add(executor.submit(new Callable<FactHandle>() {
+                public FactHandle call() {
+                    return ksession.insert(bean);
+                }
+            }));
+        }
+        for (Future<FactHandle> future : futures) {
+            assertSame(fh, future.get());
+        }
+        executor.shutdown();
+
+        assertEquals(0, ksession.fireAllRules());
+        assertEquals(1, ksession.getFactCount());
+        assertEquals(1, ksession.getObjects().size());
+
+        ksession.delete(fh);
+        assertEquals(0, ksession.getFactCount());
+        assertNull(ksession.getFactHandle(bean));
+
+        // once deleted it can be inserted again
+        assertNotSame(fh, ksession.insert(bean));
+        assertEquals(1, ksession.fireAllRules());
+        assertEquals(1, ksession.getFactHandles().size());
+        ksession.dispose();
+    }
+
+    @Test
+    public void testStagedInsertionOfSameObjectByEquality() {
+        String str = "import org.drools.compiler.integrationtests.MultithreadTest.Bean\n" +
+                     "global java.util.List list\n" +
+                     "\n" +
+                     "rule \"R\"\n" +
+                     "when\n" +
+                     "    $a : Bean( )\n" +
+                     "then\n" +
+                     "    list.add( $a );\n" +
+                     "end";
+
+        KieBaseConfiguration kconf = KnowledgeBaseFactory.newKnowledgeBaseConfiguration();
+        kconf.setOption(EqualityBehaviorOption.EQUALITY);
+        KnowledgeBase kbase = loadKnowledgeBaseFromString(kconf, str);
+        KieSessionConfiguration conf = KnowledgeBaseFactory.newKnowledgeSessionConfiguration();
+        conf.setProperty(SessionConfiguration.CONCURRENT_INSERTION, "true");
+        StatefulKnowledgeSession ksession = kbase.newStatefulKnowledgeSession(conf, null);
+        List<Object> list = new ArrayList<Object>();
+        ksession.setGlobal("list", list);
+
+        FactHandle fh = ksession.insert(new Bean(1));
+        // an equal object is the same fact under equality assert behaviour
+        assertSame(fh, ksession.insert(new Bean(1)));
+        assertSame(fh, ksession.getFactHandle(new Bean(1)));
+        assertNotSame(fh, ksession.insert(new Bean(2)));
+
+        assertEquals(2, ksession.getFactCount());
+        assertEquals(2, ksession.fireAllRules());
+        assertEquals(2, list.size());
+        ksession.dispose();
+    }
+
     public static class Bean {
 
         private int seed;
@@ -351,6 +581,40 @@ public class MultithreadTest extends CommonTestMethodBase {
     }
 
 
+    @Test(timeout = 10000)
+    public void testFireUntilHaltWokenByInsertAndStoppedByHalt() throws InterruptedException {
+        String drl = "import org.drools.compiler.integrationtests.MultithreadTest.Bean\n" +
+                     "global java.util.concurrent.BlockingQueue fired\n" +
+                     "rule R when\n" +
+                     "    $b : Bean( )\n" +
+                     "then\n" +
+                     "    fired.add( $b.getSeed() );\n" +
+                     "end";
+
+        KnowledgeBase kbase = loadKnowledgeBaseFromString(drl);
+        final StatefulKnowledgeSession ksession = kbase.newStatefulKnowledgeSession();
+        BlockingQueue<Integer> fired = new LinkedBlockingQueue<Integer>();
+        ksession.setGlobal( "fired", fired );
+
+        Runner runner = new Runner( ksession );
+        runner.start();
+
+        try {
+            for ( int i = 0; i < 3; i++ ) {
+                // gives the firing thread the time to run out of work and park
+                Thread.sleep( 200 );
+                ksession.insert( new Bean( i ) );
+                assertEquals( Integer.valueOf( i ), fired.poll( 5, TimeUnit.SECONDS ) );
+            }
+
+            ksession.halt();
+            runner.join( 5000 );
+            assertFalse( runner.isAlive() );
+            assertNull( runner.getError() );
+        } finally {
+            ksession.dispose();
+        }
+    }
 
     public static class MyFact {
         Date timestamp = new Date();
@@ -0,0 +1,132 @@
+package org.drools.compiler.integrationtests;
+
+import org.drools.compiler.CommonTestMethodBase;
+import org.drools.compiler.compiler.PackageBuilderConfiguration;
+import org.drools.core.definitions.impl.KnowledgePackageImp;
+import org.drools.core.rule.JavaDialectRuntimeData;
+import org.drools.core.rule.Package;
+import org.junit.Test;
+import org.kie.api.io.ResourceType;
+import org.kie.internal.KnowledgeBase;
+import org.kie.internal.KnowledgeBaseFactory;
+import org.kie.internal.builder.CompositeKnowledgeBuilder;
+import org.kie.internal.builder.KnowledgeBuilder;
+import org.kie.internal.builder.KnowledgeBuilderConfiguration;
+import org.kie.internal.builder.KnowledgeBuilderError;
+import org.kie.internal.builder.KnowledgeBuilderFactory;
+import org.kie.internal.definition.KnowledgePackage;
+import org.kie.internal.io.ResourceFactory;
+import org.kie.internal.runtime.StatefulKnowledgeSession;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+public class ParallelBuildTest extends CommonTestMethodBase {
+
+    private static final int RESOURCES = 8;
+    private static final int RULES_PER_RESOURCE = 50;
+
+    private String createDrl(int resource, boolean withErrors) {
+        return createDrl( resource, RULES_PER_RESOURCE, withErrors );
+    }
+
+    private String createDrl(int resource, int rules, boolean withErrors) {
+        StringBuilder sb = new StringBuilder();
+        sb.append( "package org.drools.compiler.test" ).append( resource ).append( "\n" );
+        sb.append( "global java.util.List list\n" );
+        for ( int i = 0; i < rules; i++ ) {
+            sb.append( "rule R" ).append( resource ).append( "_" ).append( i ).append( " when\n" );
+            sb.append( "    $s : String( length > " ).append( i ).append( " )\n" );
+            sb.append( "then\n" );
+            if ( withErrors && i % 10 == 0 ) {
+                sb.append( "    list.add( $undefined" ).append( i ).append( " );\n" );
+            } else {
+                sb.append( "    list.add( \"" ).append( resource ).append( "_" ).append( i ).append( "\" );\n" );
+            }
+            sb.append( "end\n" );
+        }
+        return sb.toString();
+    }
+
+    private KnowledgeBuilder build(boolean parallel, boolean withErrors) {
+        KnowledgeBuilderConfiguration conf = KnowledgeBuilderFactory.newKnowledgeBuilderConfiguration();
+        conf.setProperty( PackageBuilderConfiguration.PARALLEL_COMPILATION, String.valueOf( parallel ) );
+        KnowledgeBuilder kbuilder = KnowledgeBuilderFactory.newKnowledgeBuilder( conf );
+        CompositeKnowledgeBuilder batch = kbuilder.batch();
+        for ( int i = 0; i < RESOURCES; i++ ) {
+            batch.add( ResourceFactory.newByteArrayResource( createDrl( i, withErrors && i % 2 == 0 ).getBytes() ), ResourceType.DRL );
+        }
+        batch.build();
+        return kbuilder;
+    }
+
+    private Map<String, byte[]> getBytecode(KnowledgeBuilder kbuilder) {
+        Map<String, byte[]> bytecode = new TreeMap<String, byte[]>();
+        for ( KnowledgePackage kpkg : kbuilder.getKnowledgePackages() ) {
+            Package pkg = ((KnowledgePackageImp) kpkg).pkg;
+            bytecode.putAll( ((JavaDialectRuntimeData) pkg.getDialectRuntimeRegistry().getDialectData( "java" )).getStore() );
+        }
+        return bytecode;
+    }
+
+    private List<String> getErrorMessages(KnowledgeBuilder kbuilder) {
+        List<String> messages = new ArrayList<String>();
+        for ( KnowledgeBuilderError error : kbuilder.getErrors() ) {
+            messages.add( error.getMessage() );
+        }
+        return messages;
+    }
+
+    @Test
+    public void testParallelBuild() {
+        KnowledgeBuilder kbuilder = build( true, false );
+        assertFalse( kbuilder.getErrors().toString(), kbuilder.hasErrors() );
+
+        KnowledgeBase kbase = KnowledgeBaseFactory.newKnowledgeBase();
+        kbase.addKnowledgePackages( kbuilder.getKnowledgePackages() );
+        StatefulKnowledgeSession ksession = createKnowledgeSession( kbase );
+        List<String> list = new ArrayList<String>();
+        ksession.setGlobal( "list", list );
+        ksession.insert( "abcde" );
+        ksession.fireAllRules();
+        // each resource has 5 rules accepting a string 5 chars long
+        assertEquals( RESOURCES * 5, list.size() );
+        ksession.dispose();
+    }
+
+    @Test
+    public void testParallelBuildReportsErrorsAsSerialBuild() {
+        KnowledgeBuilder serial = build( false, true );
+        KnowledgeBuilder parallel = build( true, true );
+        assertTrue( serial.hasErrors() );
+        assertEquals( getErrorMessages( serial ), getErrorMessages( parallel ) );
+    }
+
+    @Test
+    public void testParallelBuildOfALargePackageEqualsSerialBuild() {
+        // a single package generating a few hundred classes, split in small batches
+        // so that it is compiled in parallel also on a machine with a couple of cores
+        String drl = createDrl( 0, 300, false );
+        Map<String, byte[]> serial = getBytecode( buildSinglePackage( drl, false ) );
+        Map<String, byte[]> parallel = getBytecode( buildSinglePackage( drl, true ) );
+
+        assertTrue( serial.size() > 128 );
+        assertEquals( serial.keySet(), parallel.keySet() );
+        for ( Map.Entry<String, byte[]> entry : serial.entrySet() ) {
+            assertTrue( entry.getKey(), Arrays.equals( entry.getValue(), parallel.get( entry.getKey() ) ) );
+        }
+    }
+
+    private KnowledgeBuilder buildSinglePackage(String drl, boolean parallel) {
+        KnowledgeBuilderConfiguration conf = KnowledgeBuilderFactory.newKnowledgeBuilderConfiguration();
+        conf.setProperty( PackageBuilderConfiguration.PARALLEL_COMPILATION, String.valueOf( parallel ) );
+        conf.setProperty( PackageBuilderConfiguration.PARALLEL_COMPILATION_MIN_CLASSES_PER_BATCH, "16" );
+        KnowledgeBuilder kbuilder = KnowledgeBuilderFactory.newKnowledgeBuilder( conf );
+        kbuilder.add( ResourceFactory.newByteArrayResource( drl.getBytes() ), ResourceType.DRL );
+        assertFalse( kbuilder.getErrors().toString(), kbuilder.hasErrors() );
+        return kbuilder;
+    }
+}
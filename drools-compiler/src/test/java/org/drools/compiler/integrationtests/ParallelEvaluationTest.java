@@ -0,0 +1,206 @@
+package org.drools.compiler.integrationtests;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.drools.compiler.Cheese;
+import org.drools.compiler.CommonTestMethodBase;
+import org.drools.compiler.Person;
+import org.junit.Test;
+import org.kie.api.KieBaseConfiguration;
+import org.kie.api.runtime.rule.FactHandle;
+import org.kie.internal.KnowledgeBase;
+import org.kie.internal.KnowledgeBaseFactory;
+import org.kie.internal.builder.conf.RuleEngineOption;
+import org.kie.internal.conf.MaxThreadsOption;
+import org.kie.internal.conf.MultithreadEvaluationOption;
+import org.kie.internal.runtime.StatefulKnowledgeSession;
+
+public class ParallelEvaluationTest extends CommonTestMethodBase {
+
+    private static final int RULES = 20;
+
+    private String getDrl() {
+        StringBuilder sb = new StringBuilder();
+        sb.append( "import org.drools.compiler.Person;\n" );
+        sb.append( "import org.drools.compiler.Cheese;\n" );
+        sb.append( "global java.util.List results;\n" );
+        for ( int i = 0; i < RULES; i++ ) {
+            sb.append( "rule R" ).append( i ).append( " when\n" )
+              .append( "    $p : Person( age == " ).append( i ).append( " )\n" )
+              .append( "    $c : Cheese( price == " ).append( i ).append( ", type == $p.likes )\n" )
+              .append( "then\n" )
+              .append( "    results.add( kcontext.getRule().getName() + \":\" + $p.getName() );\n" )
+              .append( "end\n" );
+            if ( i % 2 == 0 ) {
+                // shares its first segment with R{i}, so it must be evaluated in the same partition
+                sb.append( "rule S" ).append( i ).append( " when\n" )
+                  .append( "    $p : Person( age == " ).append( i ).append( " )\n" )
+                  .append( "    $c : Cheese( price == " ).append( i ).append( ", type == $p.likes )\n" )
+                  .append( "    not Cheese( price == -1 )\n" )
+                  .append( "then\n" )
+                  .append( "    results.add( kcontext.getRule().getName() + \":\" + $p.getName() );\n" )
+                  .append( "end\n" );
+            }
+        }
+        return sb.toString();
+    }
+
+    private List<String> execute(boolean multithread) {
+        KieBaseConfiguration kconf = KnowledgeBaseFactory.newKnowledgeBaseConfiguration();
+        kconf.setOption( RuleEngineOption.PHREAK );
+        if ( multithread ) {
+            kconf.setOption( MultithreadEvaluationOption.YES );
+            kconf.setOption( MaxThreadsOption.get( 4 ) );
+        }
+        KnowledgeBase kbase = loadKnowledgeBaseFromString( kconf, getDrl() );
+        StatefulKnowledgeSession ksession = kbase.newStatefulKnowledgeSession();
+
+        List<String> results = new ArrayList<String>();
+        ksession.setGlobal( "results", results );
+
+        List<FactHandle> persons = new ArrayList<FactHandle>();
+        for ( int i = 0; i < RULES; i++ ) {
+            persons.add( ksession.insert( new Person( "p" + i, "type" + i, i ) ) );
+            ksession.insert( new Cheese( "type" + i, i ) );
+            ksession.insert( new Cheese( "other" + i, i ) );
+        }
+        ksession.fireAllRules();
+
+        // modify half of the persons so that they stop matching, and move the other half to the next rule
+        for ( int i = 0; i < RULES; i++ ) {
+            Person person = (Person) ksession.getObject( persons.get( i ) );
+            if ( i % 2 == 0 ) {
+                person.setLikes( "none" );
+            } else {
+                person.setAge( ( i + 1 ) % RULES );
+                person.setLikes( "type" + ( ( i + 1 ) % RULES ) );
+            }
+            ksession.update( persons.get( i ), person );
+        }
+        ksession.insert( new Cheese( "blocker", -1 ) );
+        ksession.fireAllRules();
+        ksession.dispose();
+
+        Collections.sort( results );
+        return results;
+    }
+
+    @Test
+    public void testParallelEvaluationMatchesSerialEvaluation() {
+        List<String> serial = execute( false );
+        List<String> parallel = execute( true );
+
+        assertEquals( RULES + RULES / 2 + RULES / 2, serial.size() );
+        assertEquals( serial, parallel );
+    }
+
+    @Test
+    public void testRulesLinkedDuringParallelEvaluationFireOnce() {
+        StringBuilder sb = new StringBuilder();
+        sb.append( "import org.drools.compiler.Person;\n" );
+        sb.append( "import org.drools.compiler.Cheese;\n" );
+        sb.append( "global java.util.List results;\n" );
+        for ( int i = 0; i < RULES; i++ ) {
+            // the right insert of a String unlinks the not node, and so the rule, while its path is evaluated
+            sb.append( "rule R" ).append( i ).append( " when\n" )
+              .append( "    $p : Person( age == " ).append( i ).append( " )\n" )
+              .append( "    $c : Cheese( price == " ).append( i ).append( ", type == $p.likes )\n" )
+              .append( "    not String( )\n" )
+              .append( "then\n" )
+              .append( "    results.add( kcontext.getRule().getName() );\n" )
+              .append( "end\n" );
+        }
+
+        KieBaseConfiguration kconf = KnowledgeBaseFactory.newKnowledgeBaseConfiguration();
+        kconf.setOption( RuleEngineOption.PHREAK );
+        kconf.setOption( MultithreadEvaluationOption.YES );
+        kconf.setOption( MaxThreadsOption.get( 4 ) );
+        KnowledgeBase kbase = loadKnowledgeBaseFromString( kconf, sb.toString() );
+
+        for ( int run = 0; run < 10; run++ ) {
+            StatefulKnowledgeSession ksession = kbase.newStatefulKnowledgeSession();
+            List<String> results = new ArrayList<String>();
+            ksession.setGlobal( "results", results );
+
+            for ( int i = 0; i < RULES; i++ ) {
+                ksession.insert( new Person( "p" + i, "type" + i, i ) );
+                ksession.insert( new Cheese( "type" + i, i ) );
+            }
+            FactHandle blocker = ksession.insert( "blocker" );
+            ksession.fireAllRules();
+            assertTrue( results.isEmpty() );
+
+            ksession.retract( blocker );
+            ksession.fireAllRules();
+            ksession.fireAllRules();
+
+            Collections.sort( results );
+            List<String> expected = new ArrayList<String>();
+            for ( int i = 0; i < RULES; i++ ) {
+                expected.add( "R" + i );
+            }
+            Collections.sort( expected );
+            assertEquals( expected, results );
+            ksession.dispose();
+        }
+    }
+
+    private List<String> executeWithSubnetworks(boolean multithread) {
+        StringBuilder sb = new StringBuilder();
+        sb.append( "import org.drools.compiler.Person;\n" );
+        sb.append( "import org.drools.compiler.Cheese;\n" );
+        sb.append( "global java.util.List results;\n" );
+        for ( int i = 0; i < RULES; i++ ) {
+            // the segments of the subnetwork are only created when its first fact is inserted
+            sb.append( "rule R" ).append( i ).append( " when\n" )
+              .append( "    $p : Person( age == " ).append( i ).append( " )\n" )
+              .append( "    not( Cheese( price == " ).append( i ).append( " ) and String( this == $p.name ) )\n" )
+              .append( "then\n" )
+              .append( "    results.add( kcontext.getRule().getName() + \":\" + $p.getName() );\n" )
+              .append( "end\n" );
+        }
+
+        KieBaseConfiguration kconf = KnowledgeBaseFactory.newKnowledgeBaseConfiguration();
+        kconf.setOption( RuleEngineOption.PHREAK );
+        if ( multithread ) {
+            kconf.setOption( MultithreadEvaluationOption.YES );
+            kconf.setOption( MaxThreadsOption.get( 4 ) );
+        }
+        KnowledgeBase kbase = loadKnowledgeBaseFromString( kconf, sb.toString() );
+        StatefulKnowledgeSession ksession = kbase.newStatefulKnowledgeSession();
+
+        List<String> results = new ArrayList<String>();
+        ksession.setGlobal( "results", results );
+
+        List<FactHandle> persons = new ArrayList<FactHandle>();
+        for ( int i = 0; i < RULES; i++ ) {
+            persons.add( ksession.insert( new Person( "p" + i, "type" + i, i ) ) );
+        }
+        ksession.fireAllRules();
+
+        // block half of the rules through their subnetwork, and fire the other ones again
+        for ( int i = 0; i < RULES; i++ ) {
+            if ( i % 2 == 0 ) {
+                ksession.insert( new Cheese( "type" + i, i ) );
+                ksession.insert( "p" + i );
+            }
+            ksession.update( persons.get( i ), ksession.getObject( persons.get( i ) ) );
+        }
+        ksession.fireAllRules();
+        ksession.dispose();
+
+        Collections.sort( results );
+        return results;
+    }
+
+    @Test
+    public void testSubnetworksMatchSerialEvaluation() {
+        List<String> serial = executeWithSubnetworks( false );
+        List<String> parallel = executeWithSubnetworks( true );
+
+        assertEquals( RULES + RULES / 2, serial.size() );
+        assertEquals( serial, parallel );
+    }
+}
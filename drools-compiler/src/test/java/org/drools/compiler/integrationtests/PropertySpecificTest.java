@@ -4,6 +4,8 @@ import static org.drools.core.reteoo.PropertySpecificUtil.calculateNegativeMask;
 import static org.drools.core.reteoo.PropertySpecificUtil.calculatePositiveMask;
 import static org.drools.core.reteoo.PropertySpecificUtil.getSettableProperties;
 
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.EnumMap;
 import java.util.List;
@@ -24,6 +26,10 @@ import org.drools.core.reteoo.LeftInputAdapterNode;
 import org.drools.core.reteoo.ObjectTypeNode;
 import org.drools.core.reteoo.ReteooWorkingMemoryInterface;
 import org.drools.core.reteoo.RuleTerminalNode;
+import org.drools.core.rule.JavaDialectRuntimeData;
+import org.drools.core.util.bitmask.AllSetBitMask;
+import org.drools.core.util.bitmask.BitMask;
+import org.drools.core.util.bitmask.EmptyBitMask;
 import org.junit.Ignore;
 import org.junit.Test;
 import org.kie.internal.KnowledgeBase;
@@ -58,8 +64,8 @@ public class PropertySpecificTest extends CommonTestMethodBase {
         LeftInputAdapterNode liaNode = ( LeftInputAdapterNode ) otn.getSinkPropagator().getSinks()[0];
         
         RuleTerminalNode rtNode = ( RuleTerminalNode ) liaNode.getSinkPropagator().getSinks()[0];
-        assertEquals( -1L, rtNode.getDeclaredMask() );
-        assertEquals( -1L, rtNode.getInferredMask() );
+        assertEquals( AllSetBitMask.get(), rtNode.getDeclaredMask() );
+        assertEquals( AllSetBitMask.get(), rtNode.getInferredMask() );
     }   
     
     @Test
@@ -80,8 +86,8 @@ public class PropertySpecificTest extends CommonTestMethodBase {
         LeftInputAdapterNode liaNode = ( LeftInputAdapterNode ) otn.getSinkPropagator().getSinks()[0];
         
         RuleTerminalNode rtNode = ( RuleTerminalNode ) liaNode.getSinkPropagator().getSinks()[0];
-        assertEquals( -1L, rtNode.getDeclaredMask() );
-        assertEquals( -1L, rtNode.getInferredMask() );
+        assertEquals( AllSetBitMask.get(), rtNode.getDeclaredMask() );
+        assertEquals( AllSetBitMask.get(), rtNode.getInferredMask() );
     }   
     
     @Test
@@ -100,15 +106,15 @@ public class PropertySpecificTest extends CommonTestMethodBase {
         assertNotNull( otn );
 
         AlphaNode alphaNode = ( AlphaNode ) otn.getSinkPropagator().getSinks()[0];
-        assertEquals( -1L, alphaNode.getDeclaredMask() );
-        assertEquals( -1L, alphaNode.getInferredMask() );
+        assertEquals( AllSetBitMask.get(), alphaNode.getDeclaredMask() );
+        assertEquals( AllSetBitMask.get(), alphaNode.getInferredMask() );
         
         
         LeftInputAdapterNode liaNode = ( LeftInputAdapterNode ) alphaNode.getSinkPropagator().getSinks()[0];
         
         RuleTerminalNode rtNode = ( RuleTerminalNode ) liaNode.getSinkPropagator().getSinks()[0];
-        assertEquals( -1L, rtNode.getDeclaredMask() );
-        assertEquals( -1L, rtNode.getInferredMask() );
+        assertEquals( AllSetBitMask.get(), rtNode.getDeclaredMask() );
+        assertEquals( AllSetBitMask.get(), rtNode.getInferredMask() );
     }  
     
     @Test
@@ -130,8 +136,8 @@ public class PropertySpecificTest extends CommonTestMethodBase {
 
         BetaNode betaNode = ( BetaNode ) otn.getSinkPropagator().getSinks()[0];
         
-        assertEquals( -1L, betaNode.getRightDeclaredMask() );
-        assertEquals( -1L, betaNode.getRightInferredMask() );
+        assertEquals( AllSetBitMask.get(), betaNode.getRightDeclaredMask() );
+        assertEquals( AllSetBitMask.get(), betaNode.getRightInferredMask() );
     }    
     
     @Test
@@ -152,13 +158,13 @@ public class PropertySpecificTest extends CommonTestMethodBase {
         assertNotNull( otn );
 
         AlphaNode alphaNode = ( AlphaNode ) otn.getSinkPropagator().getSinks()[0];
-        assertEquals( -1L, alphaNode.getDeclaredMask() );
-        assertEquals( -1L, alphaNode.getInferredMask() );
+        assertEquals( AllSetBitMask.get(), alphaNode.getDeclaredMask() );
+        assertEquals( AllSetBitMask.get(), alphaNode.getInferredMask() );
         
         BetaNode betaNode = ( BetaNode ) alphaNode.getSinkPropagator().getSinks()[0]; 
         
-        assertEquals( -1L, betaNode.getRightDeclaredMask() );
-        assertEquals( -1L, betaNode.getRightInferredMask() );
+        assertEquals( AllSetBitMask.get(), betaNode.getRightDeclaredMask() );
+        assertEquals( AllSetBitMask.get(), betaNode.getRightInferredMask() );
     }  
     
     @Test
@@ -180,10 +186,10 @@ public class PropertySpecificTest extends CommonTestMethodBase {
         LeftInputAdapterNode liaNode = ( LeftInputAdapterNode ) otn.getSinkPropagator().getSinks()[0];
         BetaNode betaNode = ( BetaNode ) liaNode.getSinkPropagator().getSinks()[1];
         
-        assertEquals( -1L, betaNode.getLeftDeclaredMask() );
-        assertEquals( -1L, betaNode.getLeftInferredMask() );
-        assertEquals( -1L, betaNode.getRightDeclaredMask() );
-        assertEquals( -1L, betaNode.getRightInferredMask() );
+        assertEquals( AllSetBitMask.get(), betaNode.getLeftDeclaredMask() );
+        assertEquals( AllSetBitMask.get(), betaNode.getLeftInferredMask() );
+        assertEquals( AllSetBitMask.get(), betaNode.getRightDeclaredMask() );
+        assertEquals( AllSetBitMask.get(), betaNode.getRightInferredMask() );
     }  
     
     @Test
@@ -206,10 +212,10 @@ public class PropertySpecificTest extends CommonTestMethodBase {
         LeftInputAdapterNode liaNode = ( LeftInputAdapterNode ) otn.getSinkPropagator().getSinks()[0];
         BetaNode betaNode = ( BetaNode ) liaNode.getSinkPropagator().getSinks()[1];
         
-        assertEquals( -1L, betaNode.getLeftDeclaredMask() );
-        assertEquals( -1L, betaNode.getLeftInferredMask() );
-        assertEquals( -1L, betaNode.getRightDeclaredMask() );
-        assertEquals( -1L, betaNode.getRightInferredMask() );
+        assertEquals( AllSetBitMask.get(), betaNode.getLeftDeclaredMask() );
+        assertEquals( AllSetBitMask.get(), betaNode.getLeftInferredMask() );
+        assertEquals( AllSetBitMask.get(), betaNode.getRightDeclaredMask() );
+        assertEquals( AllSetBitMask.get(), betaNode.getRightInferredMask() );
     }    
     
     @Test
@@ -236,30 +242,30 @@ public class PropertySpecificTest extends CommonTestMethodBase {
         assertNotNull( otn );
 
         AlphaNode alphaNode1 = ( AlphaNode ) otn.getSinkPropagator().getSinks()[0];
-        assertEquals( -1L, alphaNode1.getDeclaredMask() );
-        assertEquals( -1L, alphaNode1.getInferredMask() );
+        assertEquals( AllSetBitMask.get(), alphaNode1.getDeclaredMask() );
+        assertEquals( AllSetBitMask.get(), alphaNode1.getInferredMask() );
         
         
         // first share
         AlphaNode alphaNode1_1 = ( AlphaNode ) alphaNode1.getSinkPropagator().getSinks()[0];
-        assertEquals( -1L, alphaNode1_1.getDeclaredMask() );
-        assertEquals( -1L, alphaNode1_1.getInferredMask() );
+        assertEquals( AllSetBitMask.get(), alphaNode1_1.getDeclaredMask() );
+        assertEquals( AllSetBitMask.get(), alphaNode1_1.getInferredMask() );
         
         BetaNode betaNode1 = ( BetaNode ) alphaNode1_1.getSinkPropagator().getSinks()[0]; 
         
-        assertEquals( -1L, betaNode1.getRightDeclaredMask() );
-        assertEquals( -1L, betaNode1.getRightInferredMask() );
+        assertEquals( AllSetBitMask.get(), betaNode1.getRightDeclaredMask() );
+        assertEquals( AllSetBitMask.get(), betaNode1.getRightInferredMask() );
         
         
         // second share
         AlphaNode alphaNode1_2 = ( AlphaNode ) alphaNode1.getSinkPropagator().getSinks()[1];
-        assertEquals( -1L, alphaNode1_2.getDeclaredMask() );
-        assertEquals( -1L, alphaNode1_2.getInferredMask() );
+        assertEquals( AllSetBitMask.get(), alphaNode1_2.getDeclaredMask() );
+        assertEquals( AllSetBitMask.get(), alphaNode1_2.getInferredMask() );
         
         BetaNode betaNode2 = ( BetaNode ) alphaNode1_2.getSinkPropagator().getSinks()[0]; 
         
-        assertEquals( -1L, betaNode2.getRightDeclaredMask() );
-        assertEquals( -1L, betaNode2.getRightInferredMask() );
+        assertEquals( AllSetBitMask.get(), betaNode2.getRightDeclaredMask() );
+        assertEquals( AllSetBitMask.get(), betaNode2.getRightInferredMask() );
     }       
     
 
@@ -317,8 +323,8 @@ public class PropertySpecificTest extends CommonTestMethodBase {
         LeftInputAdapterNode liaNode = ( LeftInputAdapterNode ) otn.getSinkPropagator().getSinks()[0];
         
         RuleTerminalNode rtNode = ( RuleTerminalNode ) liaNode.getSinkPropagator().getSinks()[0];
-        assertEquals( 0, rtNode.getDeclaredMask() );
-        assertEquals( 0, rtNode.getInferredMask() );
+        assertEquals( EmptyBitMask.get(), rtNode.getDeclaredMask() );
+        assertEquals( EmptyBitMask.get(), rtNode.getInferredMask() );
     }   
     
     @Test
@@ -357,7 +363,7 @@ public class PropertySpecificTest extends CommonTestMethodBase {
         LeftInputAdapterNode liaNode = ( LeftInputAdapterNode ) alphaNode.getSinkPropagator().getSinks()[0];        
         
         RuleTerminalNode rtNode = ( RuleTerminalNode ) liaNode.getSinkPropagator().getSinks()[0];
-        assertEquals(  0, rtNode.getDeclaredMask() ); // rtn declares nothing
+        assertEquals(  EmptyBitMask.get(), rtNode.getDeclaredMask() ); // rtn declares nothing
         assertEquals(  calculatePositiveMask(list("a"), sp), rtNode.getInferredMask() ); // rtn infers from alpha 
     }  
     
@@ -407,7 +413,7 @@ public class PropertySpecificTest extends CommonTestMethodBase {
         LeftInputAdapterNode liaNode1 = ( LeftInputAdapterNode ) alphaNode1_1.getSinkPropagator().getSinks()[0];
         RuleTerminalNode rtNode1 = ( RuleTerminalNode ) liaNode1.getSinkPropagator().getSinks()[0];
         
-        assertEquals( 0, rtNode1.getDeclaredMask() );
+        assertEquals( EmptyBitMask.get(), rtNode1.getDeclaredMask() );
         assertEquals(  calculatePositiveMask(list("a", "b"), sp), rtNode1.getInferredMask() );
         
         
@@ -419,7 +425,7 @@ public class PropertySpecificTest extends CommonTestMethodBase {
         LeftInputAdapterNode liaNode2 = ( LeftInputAdapterNode ) alphaNode1_2.getSinkPropagator().getSinks()[0];
         RuleTerminalNode rtNode2 = ( RuleTerminalNode ) liaNode2.getSinkPropagator().getSinks()[0];
         
-        assertEquals( 0, rtNode2.getDeclaredMask() );
+        assertEquals( EmptyBitMask.get(), rtNode2.getDeclaredMask() );
         assertEquals(  calculatePositiveMask(list("a", "i"), sp), rtNode2.getInferredMask() );
         
         // test rule removal        
@@ -430,7 +436,7 @@ public class PropertySpecificTest extends CommonTestMethodBase {
         assertEquals( calculatePositiveMask(list("i"), sp), alphaNode1_2.getDeclaredMask( ) );
         assertEquals( calculatePositiveMask(list("a", "i"), sp), alphaNode1_2.getInferredMask() );
         
-        assertEquals(  0, rtNode2.getDeclaredMask() );
+        assertEquals(  EmptyBitMask.get(), rtNode2.getDeclaredMask() );
         assertEquals(  calculatePositiveMask(list("a", "i"), sp), rtNode2.getInferredMask() );
         
         // have to rebuild to remove r1
@@ -449,7 +455,7 @@ public class PropertySpecificTest extends CommonTestMethodBase {
         
         liaNode1 = ( LeftInputAdapterNode ) alphaNode1_1.getSinkPropagator().getSinks()[0];
         rtNode1 = ( RuleTerminalNode ) liaNode1.getSinkPropagator().getSinks()[0];       
-        assertEquals(  0, rtNode1.getDeclaredMask() );
+        assertEquals(  EmptyBitMask.get(), rtNode1.getDeclaredMask() );
         assertEquals(  calculatePositiveMask(list("a", "b"), sp), rtNode1.getInferredMask() );         
     }      
     
@@ -537,11 +543,11 @@ public class PropertySpecificTest extends CommonTestMethodBase {
         assertNotNull( otn );
 
         BetaNode betaNode = ( BetaNode )  otn.getSinkPropagator().getSinks()[0]; 
-        assertEquals( 0, betaNode.getRightDeclaredMask() );
-        assertEquals( 0, betaNode.getRightInferredMask() );
+        assertEquals( EmptyBitMask.get(), betaNode.getRightDeclaredMask() );
+        assertEquals( EmptyBitMask.get(), betaNode.getRightInferredMask() );
         
-        assertEquals( 0, betaNode.getLeftDeclaredMask() );
-        assertEquals( 0, betaNode.getLeftInferredMask() );        
+        assertEquals( EmptyBitMask.get(), betaNode.getLeftDeclaredMask() );
+        assertEquals( EmptyBitMask.get(), betaNode.getLeftInferredMask() );        
     }     
     
     @Test
@@ -586,7 +592,7 @@ public class PropertySpecificTest extends CommonTestMethodBase {
         assertEquals( calculatePositiveMask(list("a"), sp), alphaNode.getDeclaredMask( ) );
         assertEquals( calculatePositiveMask(list("a"), sp), alphaNode.getInferredMask());        
         
-        assertEquals(  0, betaNode.getLeftDeclaredMask() );
+        assertEquals(  EmptyBitMask.get(), betaNode.getLeftDeclaredMask() );
         assertEquals(  calculatePositiveMask(list("a"), sp), betaNode.getLeftInferredMask() );         
     }    
     
@@ -774,7 +780,7 @@ public class PropertySpecificTest extends CommonTestMethodBase {
         assertEquals( calculateNegativeMask(list("!a"), sp), betaNode1.getLeftNegativeMask() );
         assertEquals( calculatePositiveMask(list("j"), sp), betaNode2.getLeftDeclaredMask() );
         assertEquals( calculatePositiveMask(list("a", "j"), sp), betaNode2.getLeftInferredMask() );
-        assertEquals( 0L, betaNode2.getLeftNegativeMask() );
+        assertEquals( EmptyBitMask.get(), betaNode2.getLeftNegativeMask() );
 
         // test rule removal        
         kbase.removeRule( "org.drools.compiler.integrationtests", "r0" );
@@ -790,7 +796,7 @@ public class PropertySpecificTest extends CommonTestMethodBase {
 
         assertEquals( calculatePositiveMask(list("j"), sp), betaNode2.getLeftDeclaredMask() );
         assertEquals( calculatePositiveMask(list("a", "j"), sp), betaNode2.getLeftInferredMask() );
-        assertEquals( 0L, betaNode2.getLeftNegativeMask() );
+        assertEquals( EmptyBitMask.get(), betaNode2.getLeftNegativeMask() );
 
         // have to rebuild to remove r1
         kbase = getKnowledgeBase(rule1, rule2);
@@ -1060,6 +1066,50 @@ public class PropertySpecificTest extends CommonTestMethodBase {
         ksession.dispose();
     }
 
+    @Test
+    public void testModificationMaskIsStaticFieldOfRuleClass() throws Exception {
+        String rule = "package org.drools.compiler.integrationtests\n" +
+                "declare B\n" +
+                "    @propertyReactive\n" +
+                "    on : boolean\n" +
+                "    s : String\n" +
+                "end\n" +
+                "rule R1\n" +
+                "when\n" +
+                "    $b : B(on == false)\n" +
+                "then\n" +
+                "    modify($b) { setOn(true) }\n" +
+                "end\n";
+
+        KnowledgeBase kbase = loadKnowledgeBaseFromString( rule );
+
+        // the mask is created once with the rule class instead of on each modify
+        JavaDialectRuntimeData data = (JavaDialectRuntimeData) ( (InternalRuleBase) ( (KnowledgeBaseImpl) kbase ).getRuleBase() )
+                .getPackage( "org.drools.compiler.integrationtests" ).getDialectRuntimeRegistry().getDialectData( "java" );
+        int maskFields = 0;
+        for ( String resource : data.getStore().keySet() ) {
+            String className = resource.substring( 0, resource.length() - ".class".length() ).replace( '/', '.' );
+            if ( className.contains( "Rule_R1" ) && !className.endsWith( "Invoker" ) ) {
+                for ( Field field : data.getClassLoader().loadClass( className ).getDeclaredFields() ) {
+                    if ( field.getType() == BitMask.class && Modifier.isStatic( field.getModifiers() ) ) {
+                        maskFields++;
+                    }
+                }
+            }
+        }
+        assertEquals( 1, maskFields );
+
+        StatefulKnowledgeSession ksession = kbase.newStatefulKnowledgeSession();
+        FactType factTypeB = kbase.getFactType( "org.drools.compiler.integrationtests", "B" );
+        Object factB = factTypeB.newInstance();
+        factTypeB.set( factB, "on", false );
+        ksession.insert( factB );
+
+        assertEquals( 1, ksession.fireAllRules() );
+        assertEquals( true, factTypeB.get( factB, "on" ) );
+        ksession.dispose();
+    }
+
     @Test
     public void testWatchNothing() throws Exception {
         String rule = "package org.drools.compiler.integrationtests\n" +
@@ -2020,12 +2070,12 @@ public class PropertySpecificTest extends CommonTestMethodBase {
         BetaNode betaNodeA = ( BetaNode ) otnA.getSinkPropagator().getSinks()[0];
         assertEquals( calculatePositiveMask(list("i", "b", "c"), sp), betaNodeA.getRightDeclaredMask() );
         assertEquals( calculatePositiveMask(list("i", "b", "c"), sp), betaNodeA.getRightInferredMask() );
-        assertEquals( -1L, betaNodeA.getLeftDeclaredMask() );
-        assertEquals( -1L, betaNodeA.getLeftInferredMask() );
+        assertEquals( AllSetBitMask.get(), betaNodeA.getLeftDeclaredMask() );
+        assertEquals( AllSetBitMask.get(), betaNodeA.getLeftInferredMask() );
 
         BetaNode betaNodeC = ( BetaNode ) otnC.getSinkPropagator().getSinks()[0];
-        assertEquals( 0L, betaNodeC.getRightDeclaredMask() );
-        assertEquals( 0L, betaNodeC.getRightInferredMask() );
+        assertEquals( EmptyBitMask.get(), betaNodeC.getRightDeclaredMask() );
+        assertEquals( EmptyBitMask.get(), betaNodeC.getRightInferredMask() );
         assertEquals( calculatePositiveMask(list("k"), sp), betaNodeC.getLeftDeclaredMask() );
         assertEquals( calculatePositiveMask(list("a", "k"), sp), betaNodeC.getLeftInferredMask() );
     }
@@ -2047,10 +2097,10 @@ public class PropertySpecificTest extends CommonTestMethodBase {
         assertEquals( calculatePositiveMask(list("a", "k"), sp), betaNodeA.getLeftInferredMask() );
 
         BetaNode betaNodeC = ( BetaNode ) otnC.getSinkPropagator().getSinks()[0];
-        assertEquals(0L, betaNodeC.getRightDeclaredMask());
-        assertEquals( 0L, betaNodeC.getRightInferredMask() );
-        assertEquals( -1L, betaNodeC.getLeftDeclaredMask() );
-        assertEquals( -1L, betaNodeC.getLeftInferredMask() );
+        assertEquals(EmptyBitMask.get(), betaNodeC.getRightDeclaredMask());
+        assertEquals( EmptyBitMask.get(), betaNodeC.getRightInferredMask() );
+        assertEquals( AllSetBitMask.get(), betaNodeC.getLeftDeclaredMask() );
+        assertEquals( AllSetBitMask.get(), betaNodeC.getLeftInferredMask() );
     }
 
     @Test
@@ -2075,13 +2125,13 @@ public class PropertySpecificTest extends CommonTestMethodBase {
         assertSame(betaNodeC1, lia.getSinkPropagator().getSinks()[0]);
         assertSame(betaNodeC2, lia.getSinkPropagator().getSinks()[1]);
 
-        assertEquals( 0L, betaNodeC1.getRightDeclaredMask() );
-        assertEquals( 0L, betaNodeC1.getRightInferredMask() );
+        assertEquals( EmptyBitMask.get(), betaNodeC1.getRightDeclaredMask() );
+        assertEquals( EmptyBitMask.get(), betaNodeC1.getRightInferredMask() );
         assertEquals( calculatePositiveMask(list("b"), sp), betaNodeC1.getLeftDeclaredMask() );
         assertEquals( calculatePositiveMask(list("a", "b"), sp), betaNodeC1.getLeftInferredMask() );
 
-        assertEquals( 0L, betaNodeC2.getRightDeclaredMask() );
-        assertEquals( 0L, betaNodeC2.getRightInferredMask() );
+        assertEquals( EmptyBitMask.get(), betaNodeC2.getRightDeclaredMask() );
+        assertEquals( EmptyBitMask.get(), betaNodeC2.getRightInferredMask() );
         assertEquals( calculatePositiveMask(list("c"), sp), betaNodeC2.getLeftDeclaredMask() );
         assertEquals( calculatePositiveMask(list("a", "c"), sp), betaNodeC2.getLeftInferredMask() );
 
@@ -2092,8 +2142,8 @@ public class PropertySpecificTest extends CommonTestMethodBase {
         assertEquals( 1, lia.getSinkPropagator().getSinks().length );
         BetaNode betaNodeC = ( BetaNode ) lia.getSinkPropagator().getSinks()[0];
 
-        assertEquals( 0L, betaNodeC2.getRightDeclaredMask() );
-        assertEquals( 0L, betaNodeC2.getRightInferredMask() );
+        assertEquals( EmptyBitMask.get(), betaNodeC2.getRightDeclaredMask() );
+        assertEquals( EmptyBitMask.get(), betaNodeC2.getRightInferredMask() );
         assertEquals( calculatePositiveMask(list("c"), sp), betaNodeC2.getLeftDeclaredMask() );
         assertEquals( calculatePositiveMask(list("a", "c"), sp), betaNodeC2.getLeftInferredMask() );
     }
@@ -2117,20 +2167,20 @@ public class PropertySpecificTest extends CommonTestMethodBase {
         assertSame(betaNodeA1.getLeftTupleSource(), betaNodeC);
         assertSame(betaNodeA2.getLeftTupleSource(), betaNodeC);
 
-        assertEquals( 0L, betaNodeC.getRightDeclaredMask() );
-        assertEquals( 0L, betaNodeC.getRightInferredMask() );
-        assertEquals( 0L, betaNodeC.getLeftDeclaredMask() );
+        assertEquals( EmptyBitMask.get(), betaNodeC.getRightDeclaredMask() );
+        assertEquals( EmptyBitMask.get(), betaNodeC.getRightInferredMask() );
+        assertEquals( EmptyBitMask.get(), betaNodeC.getLeftDeclaredMask() );
         assertEquals( calculatePositiveMask(list("a"), sp), betaNodeC.getLeftInferredMask() );
 
-        assertEquals( 0L, betaNodeA1.getRightDeclaredMask() );
-        assertEquals( 0L, betaNodeA1.getRightInferredMask() );
-        assertEquals( -1L, betaNodeA1.getLeftDeclaredMask() );
-        assertEquals( -1L, betaNodeA1.getLeftInferredMask() );
+        assertEquals( EmptyBitMask.get(), betaNodeA1.getRightDeclaredMask() );
+        assertEquals( EmptyBitMask.get(), betaNodeA1.getRightInferredMask() );
+        assertEquals( AllSetBitMask.get(), betaNodeA1.getLeftDeclaredMask() );
+        assertEquals( AllSetBitMask.get(), betaNodeA1.getLeftInferredMask() );
 
         assertEquals( calculatePositiveMask(list("b", "c"), sp), betaNodeA2.getRightDeclaredMask() );
         assertEquals( calculatePositiveMask(list("b", "c"), sp), betaNodeA2.getRightInferredMask() );
-        assertEquals( -1L, betaNodeA2.getLeftDeclaredMask() );
-        assertEquals( -1L, betaNodeA2.getLeftInferredMask() );
+        assertEquals( AllSetBitMask.get(), betaNodeA2.getLeftDeclaredMask() );
+        assertEquals( AllSetBitMask.get(), betaNodeA2.getLeftInferredMask() );
 
         kbase.removeRule( "org.drools.compiler.integrationtests", "r0" );
         assertEquals(1, betaNodeC.getSinkPropagator().getSinks().length);
@@ -2167,18 +2217,18 @@ public class PropertySpecificTest extends CommonTestMethodBase {
         ObjectTypeNode otnC = getObjectTypeNode(kbase, "C" );
         BetaNode betaNodeC = ( BetaNode ) otnC.getSinkPropagator().getSinks()[0];
 
-        assertEquals( 0L, betaNodeC.getRightDeclaredMask() );
-        assertEquals( 0L, betaNodeC.getRightInferredMask() );
-        assertEquals( -1L, betaNodeC.getLeftDeclaredMask() );
-        assertEquals( -1L, betaNodeC.getLeftInferredMask() );
+        assertEquals( EmptyBitMask.get(), betaNodeC.getRightDeclaredMask() );
+        assertEquals( EmptyBitMask.get(), betaNodeC.getRightInferredMask() );
+        assertEquals( AllSetBitMask.get(), betaNodeC.getLeftDeclaredMask() );
+        assertEquals( AllSetBitMask.get(), betaNodeC.getLeftInferredMask() );
 
         ObjectTypeNode otnD = getObjectTypeNode(kbase, "D" );
         BetaNode betaNodeD = ( BetaNode ) otnC.getSinkPropagator().getSinks()[0];
 
-        assertEquals( 0L, betaNodeD.getRightDeclaredMask() );
-        assertEquals( 0L, betaNodeD.getRightInferredMask() );
-        assertEquals( -1L, betaNodeD.getLeftDeclaredMask() );
-        assertEquals( -1L, betaNodeD.getLeftInferredMask() );
+        assertEquals( EmptyBitMask.get(), betaNodeD.getRightDeclaredMask() );
+        assertEquals( EmptyBitMask.get(), betaNodeD.getRightInferredMask() );
+        assertEquals( AllSetBitMask.get(), betaNodeD.getLeftDeclaredMask() );
+        assertEquals( AllSetBitMask.get(), betaNodeD.getLeftInferredMask() );
 
         kbase.removeRule( "org.drools.compiler.integrationtests", "r1" );
         assertEquals( calculatePositiveMask(list("a"), sp), alphaNode.getDeclaredMask( ) );
@@ -2345,7 +2395,7 @@ public class PropertySpecificTest extends CommonTestMethodBase {
     }
 
     @Test
-    public void testDisablePropSpecWith64OrMoreFieldsAndRaiseWarning() {
+    public void testPropSpecWith64OrMoreFields() {
         StringBuilder drl = new StringBuilder();
         drl.append("package org.drools.compiler.integrationtests\n")
                 .append("declare A\n")
@@ -2362,7 +2412,65 @@ public class PropertySpecificTest extends CommonTestMethodBase {
             fail( kbuilder.getErrors().toString() );
         }
 
-        assertTrue(((KnowledgeBuilderImpl)kbuilder).hasWarnings());
+        // wide masks are supported, so property reactivity is no longer disabled
+        assertFalse(((KnowledgeBuilderImpl)kbuilder).hasWarnings());
+    }
+
+    @Test(timeout = 5000)
+    public void testModifyPropertyAbove64WithoutLoop() throws Exception {
+        StringBuilder drl = new StringBuilder();
+        drl.append("package org.drools.compiler.integrationtests\n")
+                .append("global java.util.List list\n")
+                .append("declare A\n")
+                .append("@propertyReactive\n");
+        for (int i = 0; i < 70; i++) {
+            drl.append("a" + i + " : int\n");
+        }
+        drl.append("end\n")
+                // modifies a68, whose bit is above 64, and doesn't listen to it
+                .append("rule R1 when\n")
+                .append("    $a : A( a0 == 0 )\n")
+                .append("then\n")
+                .append("    list.add( \"R1\" );\n")
+                .append("    modify( $a ) { setA68( $a.getA68() + 1 ) }\n")
+                .append("end\n")
+                .append("rule R2 when\n")
+                .append("    A( a68 > 0 )\n")
+                .append("then\n")
+                .append("    list.add( \"R2\" );\n")
+                .append("end\n")
+                // a4 would share the bit of a68 if the mask wrapped around at 64
+                .append("rule R3 when\n")
+                .append("    A( a4 == 0 )\n")
+                .append("then\n")
+                .append("    list.add( \"R3\" );\n")
+                .append("end\n");
+
+        KnowledgeBase kbase = loadKnowledgeBaseFromString( drl.toString() );
+        StatefulKnowledgeSession ksession = kbase.newStatefulKnowledgeSession();
+        List<String> list = new ArrayList<String>();
+        ksession.setGlobal( "list", list );
+
+        FactType factTypeA = kbase.getFactType( "org.drools.compiler.integrationtests", "A" );
+        Object factA = factTypeA.newInstance();
+        ksession.insert( factA );
+
+        assertEquals( 3, ksession.fireAllRules( 10 ) );
+        assertEquals( 1, factTypeA.get( factA, "a68" ) );
+        assertEquals( 1, count( list, "R1" ) );
+        assertEquals( 1, count( list, "R2" ) );
+        assertEquals( 1, count( list, "R3" ) );
+        ksession.dispose();
+    }
+
+    private static int count(List<String> list, String name) {
+        int count = 0;
+        for ( String s : list ) {
+            if ( s.equals( name ) ) {
+                count++;
+            }
+        }
+        return count;
     }
 
     @Test(timeout = 5000)
@@ -0,0 +1,116 @@
+package org.drools.compiler.integrationtests;
+
+import java.util.Map;
+
+import org.drools.compiler.CommonTestMethodBase;
+import org.drools.core.impl.StatefulKnowledgeSessionImpl;
+import org.drools.core.management.SessionMemoryEstimator;
+import org.drools.core.management.SessionMemoryEstimator.Estimate;
+import org.junit.Test;
+import org.kie.internal.KnowledgeBase;
+import org.kie.internal.runtime.StatefulKnowledgeSession;
+
+public class SessionMemoryEstimatorTest extends CommonTestMethodBase {
+
+    private static final String DRL =
+            "package org.drools.compiler.test\n" +
+            "rule Join when\n" +
+            "    $s : String( )\n" +
+            "    $i : Integer( intValue > $s.length )\n" +
+            "then\n" +
+            "end\n" +
+            "rule Accumulate when\n" +
+            "    $s : String( )\n" +
+            "    Number( ) from accumulate( $i : Integer( ), count( $i ) )\n" +
+            "then\n" +
+            "end\n" +
+            "rule Single when\n" +
+            "    Long( )\n" +
+            "then\n" +
+            "end\n";
+
+    private Estimate estimate(StatefulKnowledgeSession ksession) {
+        return SessionMemoryEstimator.estimate( ( (StatefulKnowledgeSessionImpl) ksession ).getInternalWorkingMemory() );
+    }
+
+    @Test
+    public void testEstimateGrowsWithFacts() {
+        KnowledgeBase kbase = loadKnowledgeBaseFromString( DRL );
+        StatefulKnowledgeSession ksession = createKnowledgeSession( kbase );
+
+        ksession.insert( 1L );
+        ksession.fireAllRules();
+        Estimate small = estimate( ksession );
+
+        for ( int i = 0; i < 100; i++ ) {
+            ksession.insert( "s" + i );
+            ksession.insert( i );
+        }
+        ksession.fireAllRules();
+        Estimate large = estimate( ksession );
+
+        assertTrue( large.getTotalBytes() > small.getTotalBytes() );
+        assertTrue( large.getBytesByEntryPoint().get( "DEFAULT" ) > small.getBytesByEntryPoint().get( "DEFAULT" ) );
+        assertFalse( large.getBytesByNode().isEmpty() );
+        assertFalse( large.getBytesBySegment().isEmpty() );
+
+        // the rules joining the strings and the integers retain more than the one matching a single long
+        Map<String, Long> byRule = large.getBytesByRule();
+        assertTrue( byRule.get( "Join" ) > byRule.get( "Single" ) );
+        assertTrue( byRule.get( "Accumulate" ) > byRule.get( "Single" ) );
+        assertFalse( large.getLargestRules( 2 ).containsKey( "Single" ) );
+        assertEquals( 1, large.getLargestRules( 1 ).size() );
+
+        ksession.dispose();
+    }
+
+    @Test(timeout = 20000)
+    public void testEstimateWhileInserting() throws Exception {
+        KnowledgeBase kbase = loadKnowledgeBaseFromString( DRL );
+        final StatefulKnowledgeSession ksession = createKnowledgeSession( kbase );
+
+        Thread producer = new Thread() {
+            public void run() {
+                for ( int i = 0; i < 2000; i++ ) {
+                    ksession.insert( "s" + i );
+                    ksession.insert( i );
+                    ksession.fireAllRules();
+                }
+            }
+        };
+        producer.start();
+        // the estimate is sampled while the engine creates and links the segments
+        SessionMemoryEstimator estimator = new SessionMemoryEstimator( ( (StatefulKnowledgeSessionImpl) ksession ).getInternalWorkingMemory() );
+        while ( producer.isAlive() ) {
+            assertTrue( estimator.estimate().getTotalBytes() > 0 );
+        }
+        producer.join();
+
+        assertTrue( estimator.estimate().getBytesByRule().get( "Join" ) > 0 );
+        ksession.dispose();
+    }
+
+    @Test
+    public void testEstimatorFollowsRuleBaseChanges() {
+        KnowledgeBase kbase = loadKnowledgeBaseFromString( DRL );
+        StatefulKnowledgeSession ksession = createKnowledgeSession( kbase );
+        SessionMemoryEstimator estimator = new SessionMemoryEstimator( ( (StatefulKnowledgeSessionImpl) ksession ).getInternalWorkingMemory() );
+
+        ksession.insert( 1L );
+        ksession.fireAllRules();
+        assertNull( estimator.estimate().getBytesByRule().get( "Added" ) );
+
+        // the nodes are cached by the estimator, but must be collected again when the network changes
+        kbase.addKnowledgePackages( loadKnowledgePackagesFromString( "package org.drools.compiler.test\n" +
+                                                                     "rule Added when\n" +
+                                                                     "    Long( )\n" +
+                                                                     "    String( )\n" +
+                                                                     "then\n" +
+                                                                     "end\n" ) );
+        ksession.insert( "s" );
+        ksession.fireAllRules();
+        assertTrue( estimator.estimate().getBytesByRule().get( "Added" ) > 0 );
+
+        ksession.dispose();
+    }
+}
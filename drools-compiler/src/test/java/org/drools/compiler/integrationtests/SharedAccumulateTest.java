@@ -0,0 +1,97 @@
+package org.drools.compiler.integrationtests;
+
+import org.drools.compiler.Cheese;
+import org.drools.compiler.CommonTestMethodBase;
+import org.drools.core.base.ClassObjectType;
+import org.drools.core.common.InternalRuleBase;
+import org.drools.core.impl.KnowledgeBaseImpl;
+import org.drools.core.reteoo.AccumulateNode;
+import org.drools.core.reteoo.ObjectSink;
+import org.drools.core.reteoo.ObjectTypeNode;
+import org.junit.Test;
+import org.kie.api.KieBaseConfiguration;
+import org.kie.api.runtime.rule.FactHandle;
+import org.kie.internal.KnowledgeBase;
+import org.kie.internal.KnowledgeBaseFactory;
+import org.kie.internal.runtime.StatefulKnowledgeSession;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class SharedAccumulateTest extends CommonTestMethodBase {
+
+    private static final String DRL =
+            "package org.drools.compiler.test\n" +
+            "import " + Cheese.class.getCanonicalName() + "\n" +
+            "global java.util.List list\n" +
+            "rule over10 when\n" +
+            "    Number( doubleValue > 10 ) from accumulate( Cheese( $p : price ), sum( $p ) )\n" +
+            "then\n" +
+            "    list.add( drools.getRule().getName() );\n" +
+            "end\n" +
+            "rule over20 when\n" +
+            "    Number( doubleValue > 20 ) from accumulate( Cheese( $p : price ), sum( $p ) )\n" +
+            "then\n" +
+            "    list.add( drools.getRule().getName() );\n" +
+            "end\n";
+
+    private int countAccumulateNodes(KnowledgeBase kbase) {
+        int count = 0;
+        List<ObjectTypeNode> nodes = ((InternalRuleBase)((KnowledgeBaseImpl)kbase).ruleBase).getRete().getObjectTypeNodes();
+        for ( ObjectTypeNode n : nodes ) {
+            if ( n.getObjectType() instanceof ClassObjectType && ((ClassObjectType)n.getObjectType()).getClassType() == Cheese.class ) {
+                for ( ObjectSink sink : n.getSinkPropagator().getSinks() ) {
+                    if ( sink instanceof AccumulateNode ) {
+                        count++;
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    private List<String> fire(StatefulKnowledgeSession ksession, List<String> list) {
+        list.clear();
+        ksession.fireAllRules();
+        List<String> fired = new ArrayList<String>( list );
+        Collections.sort( fired );
+        return fired;
+    }
+
+    @Test
+    public void testAccumulateSharedAcrossResultConstraints() {
+        KieBaseConfiguration kconf = KnowledgeBaseFactory.newKnowledgeBaseConfiguration();
+        kconf.setProperty( "drools.shareAccumulates", "true" );
+        KnowledgeBase kbase = loadKnowledgeBaseFromString( kconf, DRL );
+        assertEquals( 1, countAccumulateNodes( kbase ) );
+
+        StatefulKnowledgeSession ksession = createKnowledgeSession( kbase );
+        List<String> list = new ArrayList<String>();
+        ksession.setGlobal( "list", list );
+
+        Cheese stilton = new Cheese( "stilton", 15 );
+        FactHandle stiltonHandle = ksession.insert( stilton );
+        assertEquals( Arrays.asList( "over10" ), fire( ksession, list ) );
+
+        FactHandle brieHandle = ksession.insert( new Cheese( "brie", 10 ) );
+        assertEquals( Arrays.asList( "over10", "over20" ), fire( ksession, list ) );
+
+        ksession.delete( brieHandle );
+        stilton.setPrice( 5 );
+        ksession.update( stiltonHandle, stilton );
+        assertEquals( Collections.<String>emptyList(), fire( ksession, list ) );
+
+        stilton.setPrice( 12 );
+        ksession.update( stiltonHandle, stilton );
+        assertEquals( Arrays.asList( "over10" ), fire( ksession, list ) );
+        ksession.dispose();
+    }
+
+    @Test
+    public void testResultConstraintsKeptInNodeByDefault() {
+        KnowledgeBase kbase = loadKnowledgeBaseFromString( DRL );
+        assertEquals( 2, countAccumulateNodes( kbase ) );
+    }
+}
@@ -7,12 +7,14 @@ import java.util.List;
 
 import org.drools.compiler.Cheese;
 import org.drools.compiler.CommonTestMethodBase;
+import org.drools.compiler.Person;
 import org.drools.core.FactHandle;
 import org.drools.core.RuleBase;
 import org.drools.core.RuleBaseConfiguration;
 import org.drools.core.RuleBaseFactory;
 import org.drools.core.StatefulSession;
 import org.drools.compiler.compiler.PackageBuilder;
+import org.drools.core.impl.StatefulKnowledgeSessionImpl;
 import org.drools.core.rule.Package;
 import org.junit.Test;
 import org.kie.internal.KnowledgeBase;
@@ -65,6 +67,49 @@ public class StatefulSessionTest extends CommonTestMethodBase {
         assertSame( o, stilton );
     }
     
+    @Test
+    public void testInsertAll() throws Exception {
+        String str = "";
+        str += "package org.kie \n";
+        str += "import org.drools.compiler.Cheese \n";
+        str += "import org.drools.compiler.Person \n";
+        str += "global java.util.List list \n";
+        str += "rule rule1 \n";
+        str += "  when \n";
+        str += "    $p : Person( $type : likes ) \n";
+        str += "    $c : Cheese( type == $type, price > 10 ) \n";
+        str += "  then \n";
+        str += "    list.add( $p.getName() + \":\" + $c.getPrice() ); \n";
+        str += "end\n";
+
+        KnowledgeBase kbase = loadKnowledgeBaseFromString( str );
+        StatefulKnowledgeSession ksession = kbase.newStatefulKnowledgeSession();
+        List<String> results = new ArrayList<String>();
+        ksession.setGlobal( "list", results );
+
+        Cheese stilton = new Cheese( "stilton", 20 );
+        List<Object> facts = new ArrayList<Object>();
+        facts.add( new Person( "mark", "stilton" ) );
+        facts.add( new Cheese( "stilton", 5 ) );
+        facts.add( stilton );
+        facts.add( new Person( "bob", "brie" ) );
+        facts.add( new Cheese( "brie", 15 ) );
+        facts.add( stilton );
+
+        List<? extends org.kie.api.runtime.rule.FactHandle> handles = ((StatefulKnowledgeSessionImpl) ksession).insertAll( facts );
+        assertEquals( facts.size(), handles.size() );
+        for ( int i = 0; i < facts.size(); i++ ) {
+            assertSame( facts.get( i ), ksession.getObject( handles.get( i ) ) );
+        }
+        // the same object is inserted only once
+        assertSame( handles.get( 2 ), handles.get( 5 ) );
+        assertEquals( 5, ksession.getFactCount() );
+
+        assertEquals( 2, ksession.fireAllRules() );
+        assertTrue( results.contains( "mark:20" ) );
+        assertTrue( results.contains( "bob:15" ) );
+    }
+
     @Test
     public void testSequentialException() {
         RuleBaseConfiguration config = new RuleBaseConfiguration();
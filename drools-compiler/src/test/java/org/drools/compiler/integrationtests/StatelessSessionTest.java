@@ -4,6 +4,7 @@ import java.io.InputStreamReader;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -11,7 +12,9 @@ import java.util.Set;
 import org.drools.compiler.Cheese;
 import org.drools.compiler.Cheesery;
 import org.drools.compiler.CommonTestMethodBase;
+import org.drools.core.ClockType;
 import org.drools.core.RuleBase;
+import org.drools.core.SessionConfiguration;
 import org.drools.core.StatelessSession;
 import org.drools.core.StatelessSessionResult;
 import org.drools.core.base.CopyIdentifiersGlobalExporter;
@@ -19,6 +22,8 @@ import org.drools.core.base.MapGlobalResolver;
 import org.drools.core.base.ReferenceOriginalGlobalExporter;
 import org.drools.core.command.impl.GenericCommand;
 import org.drools.core.command.runtime.BatchExecutionCommandImpl;
+import org.drools.core.impl.StatelessKnowledgeSessionImpl;
+import org.drools.core.impl.StatelessSessionPool;
 import org.drools.compiler.compiler.PackageBuilder;
 import org.drools.core.rule.Package;
 import org.drools.core.spi.GlobalResolver;
@@ -457,6 +462,208 @@ public class StatelessSessionTest extends CommonTestMethodBase {
         assertNull( ksession.getChannels().get( "x" ) );
     }
 
+    @Test
+    public void testSessionPooling() throws Exception {
+        String str = "";
+        str += "package org.kie \n";
+        str += "import org.drools.compiler.Cheese \n";
+        str += "global java.util.List list \n";
+        str += "rule countCheese \n";
+        str += "  when \n";
+        str += "    Number( $count : intValue ) from accumulate( Cheese(), count( 1 ) ) \n";
+        str += "  then \n";
+        str += "    list.add( $count ); \n";
+        str += "end\n";
+        str += "rule noCheese \n";
+        str += "  when \n";
+        str += "    not Cheese() \n";
+        str += "  then \n";
+        str += "    list.add( \"none\" ); \n";
+        str += "end\n";
+
+        KnowledgeBase kbase = loadKnowledgeBaseFromString( str );
+        SessionConfiguration conf = new SessionConfiguration();
+        conf.setStatelessSessionPoolSize( 2 );
+        StatelessKnowledgeSession ksession = kbase.newStatelessKnowledgeSession( conf );
+
+        List results = new ArrayList();
+        ksession.setGlobal( "list", results );
+
+        ksession.execute( Arrays.asList( new Cheese( "stilton", 5 ), new Cheese( "brie", 3 ) ) );
+        assertEquals( Arrays.asList( 2 ), results );
+
+        // the facts of the previous execution must not be visible anymore
+        results.clear();
+        ksession.execute( new Cheese( "cheddar", 7 ) );
+        assertEquals( Arrays.asList( 1 ), results );
+
+        results.clear();
+        ksession.execute( new ArrayList() );
+        assertEquals( 2, results.size() );
+        assertTrue( results.contains( 0 ) );
+        assertTrue( results.contains( "none" ) );
+
+        StatelessSessionPool pool = ((StatelessKnowledgeSessionImpl) ksession).getSessionPool();
+        assertEquals( 1, pool.getMisses() );
+        assertEquals( 2, pool.getHits() );
+        assertEquals( 1, pool.getIdleCount() );
+    }
+
+    @Test
+    public void testPooledSessionDropsGlobalsSetByCommands() throws Exception {
+        String str = "";
+        str += "package org.kie \n";
+        str += "import org.drools.compiler.Cheese \n";
+        str += "global java.util.List list \n";
+        str += "rule collectCheese \n";
+        str += "  when \n";
+        str += "    $c : Cheese() \n";
+        str += "  then \n";
+        str += "    list.add( $c.getType() ); \n";
+        str += "end\n";
+
+        KnowledgeBase kbase = loadKnowledgeBaseFromString( str );
+        SessionConfiguration conf = new SessionConfiguration();
+        conf.setStatelessSessionPoolSize( 1 );
+        StatelessKieSession ksession = kbase.newStatelessKnowledgeSession( conf );
+
+        List results = new ArrayList();
+        List<Command> cmds = new ArrayList<Command>();
+        cmds.add( CommandFactory.newSetGlobal( "list", results ) );
+        cmds.add( CommandFactory.newInsert( new Cheese( "stilton", 5 ) ) );
+        ksession.execute( CommandFactory.newBatchExecution( cmds ) );
+        assertEquals( Arrays.asList( "stilton" ), results );
+
+        // the same session is reused, but the global set by the previous execution must be gone
+        cmds = new ArrayList<Command>();
+        cmds.add( CommandFactory.newGetGlobal( "list" ) );
+        ExecutionResults result = ksession.execute( CommandFactory.newBatchExecution( cmds ) );
+        assertNull( result.getValue( "list" ) );
+
+        StatelessSessionPool pool = ((StatelessKnowledgeSessionImpl) ksession).getSessionPool();
+        assertEquals( 1, pool.getHits() );
+    }
+
+    @Test(timeout = 20000)
+    public void testConcurrentExecutionsOnPooledSessions() throws Exception {
+        String str = "";
+        str += "package org.kie \n";
+        str += "import org.drools.compiler.Cheese \n";
+        str += "global java.util.List list \n";
+        str += "rule collectCheese \n";
+        str += "  when \n";
+        str += "    $c : Cheese() \n";
+        str += "  then \n";
+        str += "    list.add( $c.getType() ); \n";
+        str += "end\n";
+
+        KnowledgeBase kbase = loadKnowledgeBaseFromString( str );
+        SessionConfiguration conf = new SessionConfiguration();
+        conf.setStatelessSessionPoolSize( 2 );
+        final StatelessKieSession ksession = kbase.newStatelessKnowledgeSession( conf );
+
+        int threadCount = 4;
+        final int executions = 50;
+        final List<Throwable> errors = Collections.synchronizedList( new ArrayList<Throwable>() );
+        Thread[] threads = new Thread[threadCount];
+        for ( int i = 0; i < threadCount; i++ ) {
+            final String type = "cheese" + i;
+            threads[i] = new Thread( new Runnable() {
+                public void run() {
+                    try {
+                        for ( int j = 0; j < executions; j++ ) {
+                            List results = new ArrayList();
+                            List<Command> cmds = new ArrayList<Command>();
+                            cmds.add( CommandFactory.newSetGlobal( "list", results ) );
+                            cmds.add( CommandFactory.newInsert( new Cheese( type, j ) ) );
+                            ksession.execute( CommandFactory.newBatchExecution( cmds ) );
+                            // each execution only sees its own facts and its own global
+                            assertEquals( Arrays.asList( type ), results );
+                        }
+                    } catch ( Throwable t ) {
+                        errors.add( t );
+                    }
+                }
+            } );
+            threads[i].start();
+        }
+        for ( Thread thread : threads ) {
+            thread.join();
+        }
+        assertTrue( errors.toString(), errors.isEmpty() );
+    }
+
+    @Test
+    public void testClosedPoolUnregistersItsSessions() throws Exception {
+        String str = "";
+        str += "package org.kie \n";
+        str += "import org.drools.compiler.Cheese \n";
+        str += "global java.util.List list \n";
+        str += "rule collectCheese \n";
+        str += "  when \n";
+        str += "    $c : Cheese() \n";
+        str += "  then \n";
+        str += "    list.add( $c.getType() ); \n";
+        str += "end\n";
+
+        KnowledgeBase kbase = loadKnowledgeBaseFromString( str );
+        SessionConfiguration conf = new SessionConfiguration();
+        conf.setStatelessSessionPoolSize( 2 );
+        StatelessKnowledgeSession ksession = kbase.newStatelessKnowledgeSession( conf );
+
+        List results = new ArrayList();
+        ksession.setGlobal( "list", results );
+        ksession.execute( new Cheese( "stilton", 5 ) );
+        assertEquals( Arrays.asList( "stilton" ), results );
+
+        // the idle session is registered with the knowledge base until the pool is closed
+        assertEquals( 1, kbase.getStatefulKnowledgeSessions().size() );
+
+        StatelessKnowledgeSessionImpl impl = (StatelessKnowledgeSessionImpl) ksession;
+        impl.close();
+        StatelessSessionPool pool = impl.getSessionPool();
+        assertTrue( pool.isClosed() );
+        assertEquals( 0, pool.getIdleCount() );
+        assertEquals( 0, kbase.getStatefulKnowledgeSessions().size() );
+
+        // executions still work, but their sessions are not kept
+        results.clear();
+        ksession.execute( new Cheese( "brie", 3 ) );
+        assertEquals( Arrays.asList( "brie" ), results );
+        assertEquals( 0, pool.getIdleCount() );
+        assertEquals( 0, kbase.getStatefulKnowledgeSessions().size() );
+    }
+
+    @Test
+    public void testPooledSessionRestartsPseudoClock() throws Exception {
+        String str = "";
+        str += "package org.kie \n";
+        str += "import org.drools.compiler.Cheese \n";
+        str += "global java.util.List list \n";
+        str += "rule recordTime \n";
+        str += "  when \n";
+        str += "    $c : Cheese() \n";
+        str += "  then \n";
+        str += "    list.add( kcontext.getKieRuntime().getSessionClock().getCurrentTime() ); \n";
+        str += "    ((org.kie.api.time.SessionPseudoClock) kcontext.getKieRuntime().getSessionClock()).advanceTime( 10, java.util.concurrent.TimeUnit.SECONDS ); \n";
+        str += "end\n";
+
+        KnowledgeBase kbase = loadKnowledgeBaseFromString( str );
+        SessionConfiguration conf = new SessionConfiguration();
+        conf.setStatelessSessionPoolSize( 1 );
+        conf.setClockType( ClockType.PSEUDO_CLOCK );
+        StatelessKnowledgeSession ksession = kbase.newStatelessKnowledgeSession( conf );
+
+        List results = new ArrayList();
+        ksession.setGlobal( "list", results );
+        ksession.execute( new Cheese( "stilton", 5 ) );
+        ksession.execute( new Cheese( "brie", 3 ) );
+
+        // the second execution reuses the session, but not the time of the first one
+        assertEquals( Arrays.asList( 0L, 0L ), results );
+        assertEquals( 1, ((StatelessKnowledgeSessionImpl) ksession).getSessionPool().getHits() );
+    }
+
     private StatelessSession getSession() throws Exception {
         final PackageBuilder builder = new PackageBuilder();
         builder.addPackageFromDrl( new InputStreamReader( getClass().getResourceAsStream( "literal_rule_test.drl" ) ) );
@@ -1,13 +1,20 @@
 package org.drools.compiler.integrationtests;
 
+import java.io.File;
 import java.io.InputStreamReader;
 import java.io.Reader;
+import java.util.List;
 
 import org.drools.compiler.CommonTestMethodBase;
 import org.drools.core.RuleBase;
 import org.drools.core.RuleBaseFactory;
 import org.drools.core.StatefulSession;
+import org.drools.core.audit.BinaryAuditLogConverter;
+import org.drools.core.audit.WorkingMemoryBinaryLogger;
 import org.drools.core.audit.WorkingMemoryFileLogger;
+import org.drools.core.audit.event.ActivationLogEvent;
+import org.drools.core.audit.event.LogEvent;
+import org.drools.core.audit.event.ObjectLogEvent;
 import org.drools.compiler.compiler.PackageBuilder;
 import org.junit.Ignore;
 import org.junit.Test;
@@ -30,4 +37,65 @@ public class WorkingMemoryLoggerTest extends CommonTestMethodBase {
         }
     }
 
+    @Test
+    public void testBinaryLog() throws Exception {
+        String drl = "package org.drools.compiler.test\n" +
+                     "rule R1 ruleflow-group \"group\" when\n" +
+                     "    String( )\n" +
+                     "    Integer( )\n" +
+                     "then\n" +
+                     "end\n";
+        KnowledgeBase kbase = loadKnowledgeBaseFromString( drl );
+        StatefulKnowledgeSession session = createKnowledgeSession( kbase );
+        String fileName = File.createTempFile( "audit", "" ).getAbsolutePath();
+        WorkingMemoryBinaryLogger logger = new WorkingMemoryBinaryLogger( session, fileName );
+
+        session.insert( "test" );
+        session.insert( 1 );
+        session.fireAllRules();
+        session.dispose();
+        logger.close();
+
+        List<LogEvent> events = BinaryAuditLogConverter.readEvents( fileName );
+        assertEquals( 5, events.size() );
+        assertEquals( LogEvent.INSERTED, events.get( 0 ).getType() );
+        assertEquals( String.class.getName(), ( (ObjectLogEvent) events.get( 0 ) ).getObjectToString() );
+        assertEquals( LogEvent.INSERTED, events.get( 1 ).getType() );
+        assertEquals( LogEvent.ACTIVATION_CREATED, events.get( 2 ).getType() );
+        ActivationLogEvent activation = (ActivationLogEvent) events.get( 2 );
+        assertEquals( "R1", activation.getRule() );
+        assertEquals( "group", activation.getRuleFlowGroup() );
+        assertEquals( "R1 [" + ( (ObjectLogEvent) events.get( 0 ) ).getFactId() + ", " +
+                      ( (ObjectLogEvent) events.get( 1 ) ).getFactId() + "]", activation.getActivationId() );
+        assertEquals( LogEvent.BEFORE_ACTIVATION_FIRE, events.get( 3 ).getType() );
+        assertEquals( LogEvent.AFTER_ACTIVATION_FIRE, events.get( 4 ).getType() );
+
+        BinaryAuditLogConverter.convert( fileName, fileName );
+        assertTrue( new File( fileName + ".log" ).length() > 0 );
+    }
+
+    @Test
+    public void testBinaryLogKeepsTheNewestEvents() throws Exception {
+        KnowledgeBase kbase = loadKnowledgeBase( "empty.drl" );
+        StatefulKnowledgeSession session = createKnowledgeSession( kbase );
+        String fileName = File.createTempFile( "audit", "" ).getAbsolutePath();
+        WorkingMemoryBinaryLogger logger = new WorkingMemoryBinaryLogger( session, fileName, 4096, 4 );
+
+        for ( int i = 0; i < 1000; i++ ) {
+            session.insert( i );
+        }
+        session.dispose();
+        logger.close();
+
+        // the ring only retains the last segments, whose events are still read in order
+        List<LogEvent> events = BinaryAuditLogConverter.readEvents( fileName );
+        assertTrue( events.size() > 0 );
+        assertTrue( events.size() < 1000 );
+        for ( int i = 1; i < events.size(); i++ ) {
+            assertTrue( ( (ObjectLogEvent) events.get( i - 1 ) ).getFactId() < ( (ObjectLogEvent) events.get( i ) ).getFactId() );
+        }
+        ObjectLogEvent last = (ObjectLogEvent) events.get( events.size() - 1 );
+        assertEquals( Integer.class.getName(), last.getObjectToString() );
+    }
+
 }
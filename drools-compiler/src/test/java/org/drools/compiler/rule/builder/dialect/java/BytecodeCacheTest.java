@@ -0,0 +1,194 @@
+package org.drools.compiler.rule.builder.dialect.java;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.drools.compiler.compiler.PackageBuilderConfiguration;
+import org.drools.core.factmodel.ClassBuilderFactory;
+import org.drools.core.factmodel.ClassDefinition;
+import org.drools.core.factmodel.FieldDefinition;
+import org.drools.core.rule.MapBackedClassLoader;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.kie.api.io.ResourceType;
+import org.kie.internal.KnowledgeBase;
+import org.kie.internal.KnowledgeBaseFactory;
+import org.kie.internal.builder.KnowledgeBuilder;
+import org.kie.internal.builder.KnowledgeBuilderConfiguration;
+import org.kie.internal.builder.KnowledgeBuilderFactory;
+import org.kie.internal.io.ResourceFactory;
+import org.kie.internal.runtime.StatefulKnowledgeSession;
+
+import static org.junit.Assert.*;
+
+public class BytecodeCacheTest {
+
+    private File   dir;
+
+    private Object factValue;
+
+    @Before
+    public void setUp() throws Exception {
+        dir = File.createTempFile( "bytecodeCache", "" );
+        dir.delete();
+        dir.mkdirs();
+    }
+
+    @After
+    public void tearDown() {
+        BytecodeCache.getCache( dir, Long.MAX_VALUE ).clear();
+        dir.delete();
+    }
+
+    private String createDrl(String message) {
+        return "package org.drools.compiler.test\n" +
+               "global java.util.List list\n" +
+               "function String greet(String s) { return \"hello \" + s; }\n" +
+               "rule R1 when\n" +
+               "    $s : String( )\n" +
+               "then\n" +
+               "    list.add( greet( $s ) );\n" +
+               "end\n" +
+               "rule R2 when\n" +
+               "    Integer( $i : intValue > 1 )\n" +
+               "then\n" +
+               "    list.add( \"" + message + "\" + $i );\n" +
+               "end\n";
+    }
+
+    private List<Object> buildAndFire(String drl) {
+        KnowledgeBuilderConfiguration conf = KnowledgeBuilderFactory.newKnowledgeBuilderConfiguration();
+        conf.setProperty( PackageBuilderConfiguration.BYTECODE_CACHE_DIR, dir.getAbsolutePath() );
+        KnowledgeBuilder kbuilder = KnowledgeBuilderFactory.newKnowledgeBuilder( conf );
+        kbuilder.add( ResourceFactory.newByteArrayResource( drl.getBytes() ), ResourceType.DRL );
+        assertFalse( kbuilder.getErrors().toString(), kbuilder.hasErrors() );
+
+        KnowledgeBase kbase = KnowledgeBaseFactory.newKnowledgeBase();
+        kbase.addKnowledgePackages( kbuilder.getKnowledgePackages() );
+        StatefulKnowledgeSession ksession = kbase.newStatefulKnowledgeSession();
+        List<Object> list = new ArrayList<Object>();
+        ksession.setGlobal( "list", list );
+        ksession.insert( "world" );
+        ksession.insert( 2 );
+        ksession.fireAllRules();
+        ksession.dispose();
+        return list;
+    }
+
+    private List<Object> buildAndFire(String drl,
+                                      ClassLoader loader) throws Exception {
+        KnowledgeBuilderConfiguration conf = KnowledgeBuilderFactory.newKnowledgeBuilderConfiguration( null, loader );
+        conf.setProperty( PackageBuilderConfiguration.BYTECODE_CACHE_DIR, dir.getAbsolutePath() );
+        KnowledgeBuilder kbuilder = KnowledgeBuilderFactory.newKnowledgeBuilder( conf );
+        kbuilder.add( ResourceFactory.newByteArrayResource( drl.getBytes() ), ResourceType.DRL );
+        assertFalse( kbuilder.getErrors().toString(), kbuilder.hasErrors() );
+
+        KnowledgeBase kbase = KnowledgeBaseFactory.newKnowledgeBase( KnowledgeBaseFactory.newKnowledgeBaseConfiguration( null, loader ) );
+        kbase.addKnowledgePackages( kbuilder.getKnowledgePackages() );
+        StatefulKnowledgeSession ksession = kbase.newStatefulKnowledgeSession();
+        List<Object> list = new ArrayList<Object>();
+        ksession.setGlobal( "list", list );
+
+        Class<?> factClass = loader.loadClass( "org.drools.compiler.test.model.Fact" );
+        Object fact = factClass.newInstance();
+        factClass.getMethod( "setValue", factClass.getMethod( "getValue" ).getReturnType() ).invoke( fact, factValue );
+        ksession.insert( fact );
+        ksession.fireAllRules();
+        ksession.dispose();
+        return list;
+    }
+
+    private int countEntries() {
+        return dir.list().length;
+    }
+
+    @Test
+    public void testReuseCachedClasses() {
+        BytecodeCache cache = BytecodeCache.getCache( dir, Long.MAX_VALUE );
+        List<Object> list = buildAndFire( createDrl( "value " ) );
+        assertTrue( list.contains( "hello world" ) );
+        assertTrue( list.contains( "value 2" ) );
+        int entries = countEntries();
+        assertTrue( entries > 0 );
+        assertEquals( 0, cache.getHits() );
+        long sources = cache.getMisses();
+
+        // nothing changed, so all the classes come from the cache: as no source is left to compile,
+        // the compiler is not invoked at all
+        list = buildAndFire( createDrl( "value " ) );
+        assertTrue( list.contains( "hello world" ) );
+        assertTrue( list.contains( "value 2" ) );
+        assertEquals( entries, countEntries() );
+        assertEquals( sources, cache.getHits() );
+        assertEquals( sources, cache.getMisses() );
+
+        // only the classes generated by the changed rule are compiled again
+        list = buildAndFire( createDrl( "number " ) );
+        assertTrue( list.contains( "hello world" ) );
+        assertTrue( list.contains( "number 2" ) );
+        assertTrue( countEntries() > entries );
+        assertTrue( cache.getMisses() > sources );
+        assertTrue( cache.getHits() > sources );
+    }
+
+    @Test
+    public void testChangedFactClassIsNotReused() throws Exception {
+        String drl = "package org.drools.compiler.test\n" +
+                     "import org.drools.compiler.test.model.*\n" +
+                     "global java.util.List list\n" +
+                     "rule R1 when\n" +
+                     "    $f : Fact( )\n" +
+                     "then\n" +
+                     "    list.add( \"value \" + $f.getValue() );\n" +
+                     "end\n";
+        BytecodeCache cache = BytecodeCache.getCache( dir, Long.MAX_VALUE );
+
+        assertEquals( Arrays.asList( "value 1" ), buildAndFire( drl, createFactClassLoader( "int", 1 ) ) );
+        long sources = cache.getMisses();
+        assertTrue( sources > 0 );
+
+        assertEquals( Arrays.asList( "value 1" ), buildAndFire( drl, createFactClassLoader( "int", 1 ) ) );
+        assertEquals( sources, cache.getHits() );
+        assertEquals( sources, cache.getMisses() );
+
+        // the fact class changed while the rule did not: the cached classes would invoke a getter
+        // returning an int, so they must be compiled again
+        assertEquals( Arrays.asList( "value x" ), buildAndFire( drl, createFactClassLoader( "java.lang.String", "x" ) ) );
+        assertTrue( cache.getMisses() > sources );
+    }
+
+    private MapBackedClassLoader createFactClassLoader(String valueType,
+                                                       Object value) throws Exception {
+        ClassDefinition classDef = new ClassDefinition( "org.drools.compiler.test.model.Fact",
+                                                        null,
+                                                        new String[]{"java.io.Serializable"} );
+        classDef.addField( new FieldDefinition( "value",
+                                                valueType ) );
+        MapBackedClassLoader loader = new MapBackedClassLoader( getClass().getClassLoader() );
+        loader.addResource( "org/drools/compiler/test/model/Fact.class",
+                            ClassBuilderFactory.getDefaultBeanClassBuilder().buildClass( classDef ) );
+        this.factValue = value;
+        return loader;
+    }
+
+    @Test
+    public void testEvictLeastRecentlyUsed() throws Exception {
+        BytecodeCache cache = BytecodeCache.getCache( dir, 2500 );
+        for ( int i = 0; i < 5; i++ ) {
+            Map<String, byte[]> classes = new HashMap<String, byte[]>();
+            classes.put( "org/test/Class" + i + ".class", new byte[1000] );
+            cache.put( BytecodeCache.computeKey( ( "key" + i ).getBytes() ), classes );
+            // makes sure the entries have different modification times
+            new File( dir, BytecodeCache.computeKey( ( "key" + i ).getBytes() ) + ".bytecode" ).setLastModified( i * 1000L );
+        }
+        assertEquals( 2, countEntries() );
+        assertNull( cache.get( BytecodeCache.computeKey( "key2".getBytes() ) ) );
+        Map<String, byte[]> cached = cache.get( BytecodeCache.computeKey( "key4".getBytes() ) );
+        assertEquals( 1000, cached.get( "org/test/Class4.class" ).length );
+    }
+}
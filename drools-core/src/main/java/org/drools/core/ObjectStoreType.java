@@ -0,0 +1,66 @@
+/*
+ * Copyright 2014 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core;
+
+import java.util.concurrent.locks.Lock;
+
+import org.drools.core.common.CompactObjectStore;
+import org.drools.core.common.ObjectStore;
+import org.drools.core.common.SingleThreadedObjectStore;
+
+public enum ObjectStoreType {
+
+    DEFAULT("default") {
+        public ObjectStore createInstance(RuleBaseConfiguration conf, Lock lock) {
+            return new SingleThreadedObjectStore( conf, lock );
+        }
+    },
+
+    COMPACT("compact") {
+        public ObjectStore createInstance(RuleBaseConfiguration conf, Lock lock) {
+            return new CompactObjectStore( conf, lock );
+        }
+    };
+
+    public abstract ObjectStore createInstance(RuleBaseConfiguration conf, Lock lock);
+
+    private final String string;
+    ObjectStoreType( String string ) {
+        this.string = string;
+    }
+
+    public String toExternalForm() {
+        return this.string;
+    }
+
+    public String toString() {
+        return this.string;
+    }
+
+    public String getId() {
+        return this.string;
+    }
+
+    public static ObjectStoreType resolveObjectStoreType( String id ) {
+        if( DEFAULT.getId().equalsIgnoreCase( id ) ) {
+            return DEFAULT;
+        } else if( COMPACT.getId().equalsIgnoreCase( id ) ) {
+            return COMPACT;
+        }
+        throw new IllegalArgumentException( "Illegal enum value '" + id + "' for ObjectStoreType" );
+    }
+}
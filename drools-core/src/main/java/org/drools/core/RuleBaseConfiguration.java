@@ -167,6 +167,12 @@ public class RuleBaseConfiguration
     private List<Map<String, Object>> workDefinitions;
     private boolean                   advancedProcessRuleIntegration;
 
+    // generates the alpha network of each ObjectTypeNode as bytecode
+    private boolean                   compiledAlphaNetwork;
+
+    // evaluates the accumulate result constraints in a separate node, so the accumulate node can be shared
+    private boolean                   shareAccumulates;
+
     private transient ClassLoader classLoader;
 
     private KieComponentFactory componentFactory;
@@ -198,6 +204,8 @@ public class RuleBaseConfiguration
         out.writeObject(ruleBaseUpdateHandler);
         out.writeObject(conflictResolver);
         out.writeBoolean(advancedProcessRuleIntegration);
+        out.writeBoolean(compiledAlphaNetwork);
+        out.writeBoolean(shareAccumulates);
         out.writeBoolean(multithread);
         out.writeInt(maxThreads);
         out.writeObject(eventProcessingMode);
@@ -229,6 +237,8 @@ public class RuleBaseConfiguration
         ruleBaseUpdateHandler = (String) in.readObject();
         conflictResolver = (ConflictResolver) in.readObject();
         advancedProcessRuleIntegration = in.readBoolean();
+        compiledAlphaNetwork = in.readBoolean();
+        shareAccumulates = in.readBoolean();
         multithread = in.readBoolean();
         maxThreads = in.readInt();
         eventProcessingMode = (EventProcessingOption) in.readObject();
@@ -315,6 +325,10 @@ public class RuleBaseConfiguration
             setConflictResolver(determineConflictResolver(StringUtils.isEmpty(value) ? DepthConflictResolver.class.getName() : value));
         } else if ( name.equals( "drools.advancedProcessRuleIntegration" ) ) {
             setAdvancedProcessRuleIntegration(StringUtils.isEmpty(value) ? false : Boolean.valueOf(value));
+        } else if ( name.equals( "drools.compiledAlphaNetwork" ) ) {
+            setCompiledAlphaNetwork(StringUtils.isEmpty(value) ? false : Boolean.valueOf(value));
+        } else if ( name.equals( "drools.shareAccumulates" ) ) {
+            setShareAccumulates(StringUtils.isEmpty(value) ? false : Boolean.valueOf(value));
         } else if ( name.equals( MultithreadEvaluationOption.PROPERTY_NAME ) ) {
             setMultithreadEvaluation(StringUtils.isEmpty(value) ? false : Boolean.valueOf(value));
         } else if ( name.equals( MaxThreadsOption.PROPERTY_NAME ) ) {
@@ -370,6 +384,10 @@ public class RuleBaseConfiguration
             return getConflictResolver().getClass().getName();
         } else if ( name.equals( "drools.advancedProcessRuleIntegration" ) ) {
             return Boolean.toString(isAdvancedProcessRuleIntegration());
+        } else if ( name.equals( "drools.compiledAlphaNetwork" ) ) {
+            return Boolean.toString(isCompiledAlphaNetwork());
+        } else if ( name.equals( "drools.shareAccumulates" ) ) {
+            return Boolean.toString(isShareAccumulates());
         } else if ( name.equals( MultithreadEvaluationOption.PROPERTY_NAME ) ) {
             return Boolean.toString( isMultithreadEvaluation() );
         } else if ( name.equals( MaxThreadsOption.PROPERTY_NAME ) ) {
@@ -459,6 +477,12 @@ public class RuleBaseConfiguration
         setAdvancedProcessRuleIntegration( Boolean.valueOf( this.chainedProperties.getProperty( "drools.advancedProcessRuleIntegration",
                                                                                                 "false" ) ).booleanValue() );
 
+        setCompiledAlphaNetwork( Boolean.valueOf( this.chainedProperties.getProperty( "drools.compiledAlphaNetwork",
+                                                                                      "false" ) ).booleanValue() );
+
+        setShareAccumulates( Boolean.valueOf( this.chainedProperties.getProperty( "drools.shareAccumulates",
+                                                                                  "false" ) ).booleanValue() );
+
         setMultithreadEvaluation( Boolean.valueOf( this.chainedProperties.getProperty( MultithreadEvaluationOption.PROPERTY_NAME,
                                                                                        "false" ) ).booleanValue() );
 
@@ -677,18 +701,19 @@ public class RuleBaseConfiguration
      * threads for evaluating the rules ("true"), or if the rulebase 
      * should work in classic single thread mode ("false").
      * 
+     * Only the phreak engine supports multi-thread evaluation: before conflict
+     * resolution the dirty rules of the focused agenda group are partitioned by the
+     * segments they share, and partitions that share no segment are evaluated
+     * concurrently. Rule consequences are still fired by a single thread. As eval and
+     * from expressions may run concurrently, they must be thread safe.
+     * The option is ignored by the ReteOO engine.
+     * 
      * @param enableMultithread true for multi-thread or 
      *                     false for single-thread. Default is false.
      */
     public void setMultithreadEvaluation(boolean enableMultithread) {
         checkCanChange();
-        if( enableMultithread ) {
-            throw new IllegalArgumentException( "Multithread mode is currently not supported. Please disable it." );
-        }
         this.multithread = enableMultithread;
-        if (multithread && isPhreakEnabled()) {
-            throw new IllegalArgumentException( "Multithread evaluation cannot be used when Left & Right Unlinking is enabled." );
-        }
     }
 
     /**
@@ -703,13 +728,13 @@ public class RuleBaseConfiguration
 
     /**
      * If multi-thread evaluation is enabled, this parameter configures the 
-     * maximum number of threads each session can use for concurrent Rete
-     * propagation. 
+     * maximum number of threads each session can use for concurrent network
+     * evaluation, including the firing thread.
      * 
      * @param maxThreads the maximum number of threads to use. If 0 or a 
      *                   negative number is set, the engine will use number
-     *                   of threads equal to the number of partitions in the
-     *                   rule base. Default number of threads is 0. 
+     *                   of threads equal to the number of available processors.
+     *                   Default number of threads is 3.
      */
     public void setMaxThreads(final int maxThreads) {
         this.maxThreads = maxThreads;
@@ -818,6 +843,24 @@ public class RuleBaseConfiguration
     public void setAdvancedProcessRuleIntegration(boolean advancedProcessRuleIntegration) {
         this.advancedProcessRuleIntegration = advancedProcessRuleIntegration;
     }
+
+    public boolean isCompiledAlphaNetwork() {
+        return compiledAlphaNetwork;
+    }
+
+    public void setCompiledAlphaNetwork(boolean compiledAlphaNetwork) {
+        checkCanChange(); // throws an exception if a change isn't possible;
+        this.compiledAlphaNetwork = compiledAlphaNetwork;
+    }
+
+    public boolean isShareAccumulates() {
+        return shareAccumulates;
+    }
+
+    public void setShareAccumulates(boolean shareAccumulates) {
+        checkCanChange(); // throws an exception if a change isn't possible;
+        this.shareAccumulates = shareAccumulates;
+    }
     
     public void addActivationListener(String name, ActivationListenerFactory factory) {
         if ( this.activationListeners == null ) {
@@ -69,6 +69,10 @@ import static org.drools.core.common.ProjectClassLoader.createProjectClassLoader
  * 
  * drools.keepReference = <true|false>
  * drools.clockType = <pseudo|realtime|heartbeat|implicit>
+ * drools.statelessSessionPoolSize = <0..n>
+ * drools.objectStore = <default|compact>
+ * drools.timingWheel = <true|false>
+ * drools.concurrentInsertion = <true|false>
  */
 public class SessionConfiguration
     implements
@@ -76,6 +80,14 @@ public class SessionConfiguration
     Externalizable {
     private static final long              serialVersionUID = 510l;
 
+    public static final String             STATELESS_SESSION_POOL_SIZE = "drools.statelessSessionPoolSize";
+
+    public static final String             OBJECT_STORE = "drools.objectStore";
+
+    public static final String             TIMING_WHEEL = "drools.timingWheel";
+
+    public static final String             CONCURRENT_INSERTION = "drools.concurrentInsertion";
+
     private ChainedProperties              chainedProperties;
 
     private volatile boolean               immutable;
@@ -99,6 +111,14 @@ public class SessionConfiguration
     private transient TimerJobFactoryManager timerJobFactoryManager;
     private TimerJobFactoryType              timerJobFactoryType;
 
+    private int                              statelessSessionPoolSize;
+
+    private ObjectStoreType                  objectStoreType;
+
+    private boolean                          timingWheel;
+
+    private boolean                          concurrentInsertion;
+
     public void writeExternal(ObjectOutput out) throws IOException {
         out.writeObject( chainedProperties );
         out.writeBoolean(immutable);
@@ -106,6 +126,10 @@ public class SessionConfiguration
         out.writeObject(clockType);
         out.writeObject( queryListener );
         out.writeObject( timerJobFactoryType );
+        out.writeInt( statelessSessionPoolSize );
+        out.writeObject( objectStoreType );
+        out.writeBoolean( timingWheel );
+        out.writeBoolean( concurrentInsertion );
     }
     
     private static final SessionConfiguration defaultInstance = new SessionConfiguration();
@@ -123,6 +147,10 @@ public class SessionConfiguration
         clockType = (ClockType) in.readObject();
         queryListener = (QueryListenerOption) in.readObject();
         timerJobFactoryType = (TimerJobFactoryType) in.readObject();
+        statelessSessionPoolSize = in.readInt();
+        objectStoreType = (ObjectStoreType) in.readObject();
+        timingWheel = in.readBoolean();
+        concurrentInsertion = in.readBoolean();
     }
 
     /**
@@ -175,6 +203,18 @@ public class SessionConfiguration
 
         setTimerJobFactoryType( TimerJobFactoryType.resolveTimerJobFactoryType( this.chainedProperties.getProperty( TimerJobFactoryOption.PROPERTY_NAME,
                                                                                                                     TimerJobFactoryType.DEFUALT.getId() ) ) );
+
+        setStatelessSessionPoolSize( Integer.parseInt( this.chainedProperties.getProperty( STATELESS_SESSION_POOL_SIZE,
+                                                                                          "0" ) ) );
+
+        setObjectStoreType( ObjectStoreType.resolveObjectStoreType( this.chainedProperties.getProperty( OBJECT_STORE,
+                                                                                                       ObjectStoreType.DEFAULT.getId() ) ) );
+
+        setTimingWheel( Boolean.valueOf( this.chainedProperties.getProperty( TIMING_WHEEL,
+                                                                             "false" ) ).booleanValue() );
+
+        setConcurrentInsertion( Boolean.valueOf( this.chainedProperties.getProperty( CONCURRENT_INSERTION,
+                                                                                     "false" ) ).booleanValue() );
     }
 
     public void addDefaultProperties(Properties properties) {
@@ -205,6 +245,14 @@ public class SessionConfiguration
             setTimerJobFactoryType(TimerJobFactoryType.resolveTimerJobFactoryType(StringUtils.isEmpty(value) ? "default" : value));
         } else if ( name.equals( QueryListenerOption.PROPERTY_NAME ) ) {
             setQueryListenerClass( StringUtils.isEmpty( value ) ? QueryListenerOption.STANDARD.getAsString() : value );
+        } else if ( name.equals( STATELESS_SESSION_POOL_SIZE ) ) {
+            setStatelessSessionPoolSize( StringUtils.isEmpty( value ) ? 0 : Integer.parseInt( value ) );
+        } else if ( name.equals( OBJECT_STORE ) ) {
+            setObjectStoreType( ObjectStoreType.resolveObjectStoreType( StringUtils.isEmpty( value ) ? ObjectStoreType.DEFAULT.getId() : value ) );
+        } else if ( name.equals( TIMING_WHEEL ) ) {
+            setTimingWheel( !StringUtils.isEmpty( value ) && Boolean.parseBoolean( value ) );
+        } else if ( name.equals( CONCURRENT_INSERTION ) ) {
+            setConcurrentInsertion( !StringUtils.isEmpty( value ) && Boolean.parseBoolean( value ) );
         }
     }
 
@@ -222,6 +270,14 @@ public class SessionConfiguration
             return this.timerJobFactoryType.toExternalForm();
         } else if ( name.equals( QueryListenerOption.PROPERTY_NAME ) ) {
             return this.queryListener.getAsString();
+        } else if ( name.equals( STATELESS_SESSION_POOL_SIZE ) ) {
+            return Integer.toString( this.statelessSessionPoolSize );
+        } else if ( name.equals( OBJECT_STORE ) ) {
+            return this.objectStoreType.toExternalForm();
+        } else if ( name.equals( TIMING_WHEEL ) ) {
+            return Boolean.toString( this.timingWheel );
+        } else if ( name.equals( CONCURRENT_INSERTION ) ) {
+            return Boolean.toString( this.concurrentInsertion );
         }
         return null;
     }
@@ -285,6 +341,62 @@ public class SessionConfiguration
         this.clockType = clockType;
     }
 
+    /**
+     * Sets the maximum number of idle sessions a stateless session keeps around to be reset and
+     * reused by the following executions, instead of creating a new session for each of them.
+     * 0, the default, disables the pooling.
+     */
+    public void setStatelessSessionPoolSize(int statelessSessionPoolSize) {
+        checkCanChange(); // throws an exception if a change isn't possible;
+        this.statelessSessionPoolSize = statelessSessionPoolSize;
+    }
+
+    public int getStatelessSessionPoolSize() {
+        return this.statelessSessionPoolSize;
+    }
+
+    /**
+     * Sets the kind of store keeping the fact handles of each entry point. The compact store
+     * trades some lookup speed for a much smaller per fact overhead, for very large working memories.
+     */
+    public void setObjectStoreType(ObjectStoreType objectStoreType) {
+        checkCanChange(); // throws an exception if a change isn't possible;
+        this.objectStoreType = objectStoreType;
+    }
+
+    public ObjectStoreType getObjectStoreType() {
+        return this.objectStoreType;
+    }
+
+    /**
+     * Makes both the realtime and the pseudo clock keep their jobs in a hierarchical timing wheel,
+     * with O(1) scheduling and cancellation, instead of a priority queue. Worth it for event streams
+     * scheduling many expirations.
+     */
+    public void setTimingWheel(boolean timingWheel) {
+        checkCanChange(); // throws an exception if a change isn't possible;
+        this.timingWheel = timingWheel;
+    }
+
+    public boolean isTimingWheel() {
+        return this.timingWheel;
+    }
+
+    /**
+     * Lets many threads insert facts in the same session without propagating them while holding its lock.
+     * The inserts done out of the engine are staged and only propagated when the engine drains them, that is
+     * when firing the rules, running a query, listing the facts or updating and deleting facts of the same
+     * entry point.
+     */
+    public void setConcurrentInsertion(boolean concurrentInsertion) {
+        checkCanChange(); // throws an exception if a change isn't possible;
+        this.concurrentInsertion = concurrentInsertion;
+    }
+
+    public boolean isConcurrentInsertion() {
+        return this.concurrentInsertion;
+    }
+
     public TimerJobFactoryManager getTimerJobFactoryManager() {
         if (timerJobFactoryManager == null) {
             timerJobFactoryManager = getTimerJobFactoryType().createInstance();
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2014 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.audit;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.drools.core.audit.event.ActivationLogEvent;
+import org.drools.core.audit.event.LogEvent;
+import org.drools.core.audit.event.ObjectLogEvent;
+
+import com.thoughtworks.xstream.XStream;
+
+import static org.drools.core.audit.WorkingMemoryBinaryLogger.*;
+
+/**
+ * Converts a log written by the WorkingMemoryBinaryLogger to the XML format written by
+ * the WorkingMemoryFileLogger, so that it can be opened in the audit view.
+ * 
+ * The binary log doesn't contain the values of the facts: objects are described by
+ * their class name and activations don't list their declarations.
+ * 
+ * Usage: BinaryAuditLogConverter &lt;binary log name&gt; [&lt;xml log name&gt;]
+ */
+public class BinaryAuditLogConverter {
+
+    public static void main(String[] args) throws IOException {
+        if ( args.length < 1 ) {
+            System.err.println( "Usage: BinaryAuditLogConverter <binary log name> [<xml log name>]" );
+            System.exit( 1 );
+        }
+        convert( args[0],
+                 args.length > 1 ? args[1] : args[0] );
+    }
+
+    /**
+     * Converts the binary log with the given name to the XML log fileName.log
+     */
+    public static void convert(final String binaryFileName,
+                               final String fileName) throws IOException {
+        final List<LogEvent> events = readEvents( binaryFileName );
+        final XStream xstream = new XStream();
+        final FileWriter writer = new FileWriter( fileName + ".log" );
+        try {
+            writer.write( "<object-stream>\n" );
+            for ( LogEvent event : events ) {
+                writer.write( xstream.toXML( event ) + "\n" );
+            }
+            writer.write( "</object-stream>\n" );
+        } finally {
+            writer.close();
+        }
+    }
+
+    /**
+     * Reads the events of the binary log with the given name, from the oldest to the newest.
+     */
+    public static List<LogEvent> readEvents(final String binaryFileName) throws IOException {
+        final Map<Integer, String[]> names = readNames( binaryFileName + NAMES_EXTENSION );
+        final ByteBuffer buffer = readFile( binaryFileName + LOG_EXTENSION );
+        if ( buffer.getInt( 0 ) != MAGIC || buffer.getInt( 4 ) != VERSION ) {
+            throw new IOException( binaryFileName + LOG_EXTENSION + " is not a binary audit log" );
+        }
+        final int segmentSize = buffer.getInt( 8 );
+        final int segmentCount = buffer.getInt( 12 );
+
+        // the ring may have wrapped, so the segments are sorted by the number of their first record
+        final SortedMap<Long, Integer> segments = new TreeMap<Long, Integer>();
+        for ( int i = 0; i < segmentCount; i++ ) {
+            final long segment = buffer.getLong( FILE_HEADER_SIZE + i * segmentSize ) >>> 32;
+            if ( segment != 0 ) {
+                segments.put( segment,
+                              FILE_HEADER_SIZE + i * segmentSize );
+            }
+        }
+
+        final List<LogEvent> events = new ArrayList<LogEvent>();
+        for ( Map.Entry<Long, Integer> entry : segments.entrySet() ) {
+            final int start = entry.getValue().intValue();
+            int offset = 0;
+            while ( offset + RECORD_DATA_OFFSET <= segmentSize ) {
+                final long header = buffer.getLong( start + offset );
+                final int length = (int) header;
+                // a record left by a previous turn of the ring or not completely written ends the segment
+                if ( (header >>> 32) != entry.getKey().longValue() || length < RECORD_DATA_OFFSET || offset + length > segmentSize ) {
+                    break;
+                }
+                events.add( readEvent( buffer,
+                                       start + offset,
+                                       names ) );
+                offset += length;
+            }
+        }
+        return events;
+    }
+
+    private static LogEvent readEvent(final ByteBuffer buffer,
+                                      final int index,
+                                      final Map<Integer, String[]> names) {
+        final int type = buffer.get( index + RECORD_HEADER_SIZE );
+        final int data = index + RECORD_DATA_OFFSET;
+        switch ( type ) {
+            case LogEvent.INSERTED :
+            case LogEvent.UPDATED :
+            case LogEvent.RETRACTED : {
+                final String[] className = names.get( buffer.getInt( data + 4 ) );
+                return new ObjectLogEvent( type,
+                                           buffer.getInt( data ),
+                                           className != null ? className[0] : "" );
+            }
+            default : {
+                final String[] rule = names.get( buffer.getInt( data ) );
+                final String ruleName = rule != null ? rule[0] : "";
+                final int handles = buffer.getInt( data + 4 );
+                final StringBuilder activationId = new StringBuilder( ruleName );
+                activationId.append( " [" );
+                for ( int i = 0; i < handles; i++ ) {
+                    activationId.append( buffer.getInt( data + 8 + i * 4 ) );
+                    if ( i < handles - 1 ) {
+                        activationId.append( ", " );
+                    }
+                }
+                activationId.append( "]" );
+                return new ActivationLogEvent( type,
+                                               activationId.toString(),
+                                               ruleName,
+                                               "",
+                                               rule != null && rule[1].length() > 0 ? rule[1] : null );
+            }
+        }
+    }
+
+    private static Map<Integer, String[]> readNames(final String namesFileName) throws IOException {
+        final Map<Integer, String[]> names = new HashMap<Integer, String[]>();
+        final DataInputStream in = new DataInputStream( new FileInputStream( namesFileName ) );
+        try {
+            while ( true ) {
+                in.readByte();
+                final int id = in.readInt();
+                names.put( id,
+                           new String[]{in.readUTF(), in.readUTF()} );
+            }
+        } catch ( EOFException e ) {
+            // all the names have been read
+        } finally {
+            in.close();
+        }
+        return names;
+    }
+
+    private static ByteBuffer readFile(final String logFileName) throws IOException {
+        final RandomAccessFile file = new RandomAccessFile( logFileName,
+                                                            "r" );
+        try {
+            final byte[] bytes = new byte[(int) file.length()];
+            file.readFully( bytes );
+            return ByteBuffer.wrap( bytes );
+        } finally {
+            file.close();
+        }
+    }
+}
@@ -0,0 +1,505 @@
+/*
+ * Copyright 2014 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.audit;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.drools.core.FactHandle;
+import org.drools.core.WorkingMemory;
+import org.drools.core.WorkingMemoryEventManager;
+import org.drools.core.audit.event.LogEvent;
+import org.drools.core.command.impl.CommandBasedStatefulKnowledgeSession;
+import org.drools.core.command.impl.KnowledgeCommandContext;
+import org.drools.core.common.InternalFactHandle;
+import org.drools.core.common.InternalWorkingMemory;
+import org.drools.core.event.ActivationCancelledEvent;
+import org.drools.core.event.ActivationCreatedEvent;
+import org.drools.core.event.ActivationEventHook;
+import org.drools.core.event.AfterActivationFiredEvent;
+import org.drools.core.event.AgendaEventListener;
+import org.drools.core.event.AgendaGroupPoppedEvent;
+import org.drools.core.event.AgendaGroupPushedEvent;
+import org.drools.core.event.BeforeActivationFiredEvent;
+import org.drools.core.event.ObjectInsertedEvent;
+import org.drools.core.event.ObjectRetractedEvent;
+import org.drools.core.event.ObjectUpdatedEvent;
+import org.drools.core.event.RuleFlowGroupActivatedEvent;
+import org.drools.core.event.RuleFlowGroupDeactivatedEvent;
+import org.drools.core.event.WorkingMemoryEventHook;
+import org.drools.core.event.WorkingMemoryEventListener;
+import org.drools.core.impl.StatefulKnowledgeSessionImpl;
+import org.drools.core.reteoo.LeftTuple;
+import org.drools.core.rule.Rule;
+import org.drools.core.spi.Activation;
+import org.drools.core.spi.PropagationContext;
+import org.kie.api.event.rule.MatchCancelledCause;
+import org.kie.internal.event.KnowledgeRuntimeEventManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A logger of the working memory and activation events that appends compact
+ * binary records to a memory-mapped file, instead of keeping LogEvents in memory
+ * and serializing them with XStream like the WorkingMemoryFileLogger does.
+ * 
+ * Each record only contains the type of the event, a timestamp, the id of the rule
+ * and the ids of the fact handles involved: rule and class names are written once,
+ * the first time they are met, in a separate names file. Records are appended
+ * without locking, each thread claiming its own region of the file, and the file
+ * is used as a ring: once it is full the oldest segment is overwritten.
+ * 
+ * The log can be converted offline to the XML format of the audit view with the
+ * BinaryAuditLogConverter.
+ */
+public class WorkingMemoryBinaryLogger
+    implements
+    WorkingMemoryEventHook,
+    ActivationEventHook {
+
+    protected static transient Logger logger = LoggerFactory.getLogger( WorkingMemoryBinaryLogger.class );
+
+    public static final String LOG_EXTENSION      = ".bin";
+    public static final String NAMES_EXTENSION    = ".names";
+
+    public static final int    DEFAULT_CAPACITY   = 64 * 1024 * 1024;
+    public static final int    DEFAULT_SEGMENTS   = 16;
+
+    static final int           MAGIC              = 0x44524c41;
+    static final int           VERSION            = 1;
+    static final int           FILE_HEADER_SIZE   = 16;
+
+    // the segment number and the length of a record, written last to commit it
+    static final int           RECORD_HEADER_SIZE = 8;
+    // the header, followed by the event type and the timestamp
+    static final int           RECORD_DATA_OFFSET = RECORD_HEADER_SIZE + 1 + 8;
+
+    static final byte          RULE_NAME          = 1;
+    static final byte          CLASS_NAME         = 2;
+
+    private final String                     fileName;
+    private final int                        segmentSize;
+    private final int                        segmentCount;
+    private final int                        maxHandles;
+    private final RandomAccessFile           file;
+    private final MappedByteBuffer           buffer;
+    private final AtomicLong                 tail     = new AtomicLong();
+
+    private final ConcurrentMap<Rule, Integer>     ruleIds  = new ConcurrentHashMap<Rule, Integer>();
+    private final ConcurrentMap<Class<?>, Integer> classIds = new ConcurrentHashMap<Class<?>, Integer>();
+    private final DataOutputStream           names;
+    private int                              nextNameId;
+
+    private WorkingMemoryEventManager        eventManager;
+    private volatile boolean                 closed;
+
+    /**
+     * Creates a new WorkingMemoryBinaryLogger for the given working memory, logging
+     * in a ring file of the default capacity.
+     */
+    public WorkingMemoryBinaryLogger(final WorkingMemory workingMemory,
+                                     final String fileName) {
+        this( workingMemory,
+              fileName,
+              DEFAULT_CAPACITY,
+              DEFAULT_SEGMENTS );
+    }
+
+    public WorkingMemoryBinaryLogger(final WorkingMemory workingMemory,
+                                     final String fileName,
+                                     final int capacity,
+                                     final int segments) {
+        this( fileName,
+              capacity,
+              segments );
+        attach( workingMemory );
+    }
+
+    public WorkingMemoryBinaryLogger(final KnowledgeRuntimeEventManager session,
+                                     final String fileName) {
+        this( session,
+              fileName,
+              DEFAULT_CAPACITY,
+              DEFAULT_SEGMENTS );
+    }
+
+    public WorkingMemoryBinaryLogger(final KnowledgeRuntimeEventManager session,
+                                     final String fileName,
+                                     final int capacity,
+                                     final int segments) {
+        this( fileName,
+              capacity,
+              segments );
+        if ( session instanceof StatefulKnowledgeSessionImpl ) {
+            attach( ((StatefulKnowledgeSessionImpl) session).session );
+        } else if ( session instanceof CommandBasedStatefulKnowledgeSession ) {
+            attach( ((StatefulKnowledgeSessionImpl) ((KnowledgeCommandContext) ((CommandBasedStatefulKnowledgeSession) session).getCommandService().getContext()).getKieSession()).session );
+        } else {
+            close();
+            throw new IllegalArgumentException( "Not supported session in logger: " + session.getClass() );
+        }
+    }
+
+    private WorkingMemoryBinaryLogger(final String fileName,
+                                      final int capacity,
+                                      final int segments) {
+        if ( segments <= 0 || capacity / segments < 1024 ) {
+            throw new IllegalArgumentException( "The log capacity must allow segments of at least 1024 bytes" );
+        }
+        this.fileName = fileName;
+        this.segmentCount = segments;
+        this.segmentSize = (capacity / segments) & ~7;
+        this.maxHandles = (this.segmentSize - RECORD_DATA_OFFSET - 8) / 4;
+        try {
+            this.file = new RandomAccessFile( fileName + LOG_EXTENSION,
+                                              "rw" );
+            // a new log always starts from an empty file, so no stale record can be read back
+            this.file.setLength( 0 );
+            this.file.setLength( FILE_HEADER_SIZE + (long) this.segmentSize * this.segmentCount );
+            this.buffer = this.file.getChannel().map( FileChannel.MapMode.READ_WRITE,
+                                                      0,
+                                                      this.file.length() );
+            this.buffer.putInt( 0, MAGIC );
+            this.buffer.putInt( 4, VERSION );
+            this.buffer.putInt( 8, this.segmentSize );
+            this.buffer.putInt( 12, this.segmentCount );
+            this.names = new DataOutputStream( new FileOutputStream( new File( fileName + NAMES_EXTENSION ) ) );
+        } catch ( IOException e ) {
+            throw new RuntimeException( "Unable to create the audit log " + fileName,
+                                        e );
+        }
+    }
+
+    private void attach(final WorkingMemoryEventManager eventManager) {
+        this.eventManager = eventManager;
+        eventManager.addEventListener( (WorkingMemoryEventListener) this );
+        eventManager.addEventListener( (AgendaEventListener) this );
+    }
+
+    public String getFileName() {
+        return this.fileName;
+    }
+
+    /**
+     * Stops logging, detaching this logger from the session and flushing the log to disk.
+     */
+    public void close() {
+        if ( this.closed ) {
+            return;
+        }
+        this.closed = true;
+        if ( this.eventManager != null ) {
+            this.eventManager.removeEventListener( (WorkingMemoryEventListener) this );
+            this.eventManager.removeEventListener( (AgendaEventListener) this );
+        }
+        try {
+            this.buffer.force();
+            synchronized ( this.names ) {
+                this.names.close();
+            }
+            this.file.close();
+        } catch ( IOException e ) {
+            logger.error( "Unable to close the audit log " + this.fileName,
+                          e );
+        }
+    }
+
+    public void objectInserted(final ObjectInsertedEvent event) {
+        objectInserted( event.getPropagationContext(),
+                        event.getFactHandle(),
+                        event.getObject(),
+                        (InternalWorkingMemory) event.getWorkingMemory() );
+    }
+
+    public void objectInserted(final PropagationContext propagationContext,
+                               final FactHandle handle,
+                               final Object object,
+                               final InternalWorkingMemory workingMemory) {
+        logObject( LogEvent.INSERTED,
+                   handle,
+                   object );
+    }
+
+    public void objectUpdated(final ObjectUpdatedEvent event) {
+        objectUpdated( event.getPropagationContext(),
+                       event.getFactHandle(),
+                       event.getOldObject(),
+                       event.getObject(),
+                       (InternalWorkingMemory) event.getWorkingMemory() );
+    }
+
+    public void objectUpdated(final PropagationContext propagationContext,
+                              final FactHandle handle,
+                              final Object oldObject,
+                              final Object object,
+                              final InternalWorkingMemory workingMemory) {
+        logObject( LogEvent.UPDATED,
+                   handle,
+                   object );
+    }
+
+    public void objectRetracted(final ObjectRetractedEvent event) {
+        objectRetracted( event.getPropagationContext(),
+                         event.getFactHandle(),
+                         event.getOldObject(),
+                         (InternalWorkingMemory) event.getWorkingMemory() );
+    }
+
+    public void objectRetracted(final PropagationContext propagationContext,
+                                final FactHandle handle,
+                                final Object oldObject,
+                                final InternalWorkingMemory workingMemory) {
+        logObject( LogEvent.RETRACTED,
+                   handle,
+                   oldObject );
+    }
+
+    public void activationCreated(final ActivationCreatedEvent event,
+                                  final WorkingMemory workingMemory) {
+        activationCreated( event.getActivation(),
+                           workingMemory );
+    }
+
+    public void activationCreated(final Activation activation,
+                                  final WorkingMemory workingMemory) {
+        logActivation( LogEvent.ACTIVATION_CREATED,
+                       activation );
+    }
+
+    public void activationCancelled(final ActivationCancelledEvent event,
+                                    final WorkingMemory workingMemory) {
+        activationCancelled( event.getActivation(),
+                             workingMemory,
+                             event.getCause() );
+    }
+
+    public void activationCancelled(final Activation activation,
+                                    final WorkingMemory workingMemory,
+                                    final MatchCancelledCause cause) {
+        logActivation( LogEvent.ACTIVATION_CANCELLED,
+                       activation );
+    }
+
+    public void beforeActivationFired(final BeforeActivationFiredEvent event,
+                                      final WorkingMemory workingMemory) {
+        beforeActivationFired( event.getActivation(),
+                               workingMemory );
+    }
+
+    public void beforeActivationFired(final Activation activation,
+                                      final WorkingMemory workingMemory) {
+        logActivation( LogEvent.BEFORE_ACTIVATION_FIRE,
+                       activation );
+    }
+
+    public void afterActivationFired(final AfterActivationFiredEvent event,
+                                     final WorkingMemory workingMemory) {
+        afterActivationFired( event.getActivation(),
+                              workingMemory );
+    }
+
+    public void afterActivationFired(final Activation activation,
+                                     final WorkingMemory workingMemory) {
+        logActivation( LogEvent.AFTER_ACTIVATION_FIRE,
+                       activation );
+    }
+
+    public void agendaGroupPopped(final AgendaGroupPoppedEvent event,
+                                  final WorkingMemory workingMemory) {
+        // we don't audit this yet
+    }
+
+    public void agendaGroupPushed(final AgendaGroupPushedEvent event,
+                                  final WorkingMemory workingMemory) {
+        // we don't audit this yet
+    }
+
+    public void beforeRuleFlowGroupActivated(final RuleFlowGroupActivatedEvent event,
+                                             final WorkingMemory workingMemory) {
+        // we don't audit this yet
+    }
+
+    public void afterRuleFlowGroupActivated(final RuleFlowGroupActivatedEvent event,
+                                            final WorkingMemory workingMemory) {
+        // we don't audit this yet
+    }
+
+    public void beforeRuleFlowGroupDeactivated(final RuleFlowGroupDeactivatedEvent event,
+                                               final WorkingMemory workingMemory) {
+        // we don't audit this yet
+    }
+
+    public void afterRuleFlowGroupDeactivated(final RuleFlowGroupDeactivatedEvent event,
+                                              final WorkingMemory workingMemory) {
+        // we don't audit this yet
+    }
+
+    private void logObject(final int type,
+                           final FactHandle handle,
+                           final Object object) {
+        if ( this.closed ) {
+            return;
+        }
+        final int classId = object != null ? getClassId( object.getClass() ) : -1;
+        final int length = align( RECORD_DATA_OFFSET + 8 );
+        final long position = claim( length );
+        final int index = indexOf( position );
+        this.buffer.put( index + RECORD_HEADER_SIZE,
+                         (byte) type );
+        this.buffer.putLong( index + RECORD_HEADER_SIZE + 1,
+                             System.currentTimeMillis() );
+        this.buffer.putInt( index + RECORD_DATA_OFFSET,
+                            ((InternalFactHandle) handle).getId() );
+        this.buffer.putInt( index + RECORD_DATA_OFFSET + 4,
+                            classId );
+        commit( position,
+                index,
+                length );
+    }
+
+    private void logActivation(final int type,
+                               final Activation activation) {
+        if ( this.closed ) {
+            return;
+        }
+        final int ruleId = getRuleId( activation.getRule() );
+        final LeftTuple tuple = activation.getTuple();
+        final int handles = tuple != null ? Math.min( tuple.size(),
+                                                      this.maxHandles ) : 0;
+        final int length = align( RECORD_DATA_OFFSET + 8 + handles * 4 );
+        final long position = claim( length );
+        final int index = indexOf( position );
+        this.buffer.put( index + RECORD_HEADER_SIZE,
+                         (byte) type );
+        this.buffer.putLong( index + RECORD_HEADER_SIZE + 1,
+                             System.currentTimeMillis() );
+        this.buffer.putInt( index + RECORD_DATA_OFFSET,
+                            ruleId );
+        this.buffer.putInt( index + RECORD_DATA_OFFSET + 4,
+                            handles );
+        // walks the tuple instead of using toFactHandles(), that allocates an array
+        final int handlesIndex = index + RECORD_DATA_OFFSET + 8;
+        for ( LeftTuple entry = tuple; entry != null; entry = entry.getParent() ) {
+            if ( entry.getIndex() < handles ) {
+                this.buffer.putInt( handlesIndex + entry.getIndex() * 4,
+                                    entry.getHandle() != null ? entry.getHandle().getId() : 0 );
+            }
+        }
+        commit( position,
+                index,
+                length );
+    }
+
+    /**
+     * Reserves the region of the log in which a record of the given length will be
+     * written. Records never span two segments, so when the current segment can't
+     * contain it the record starts at the beginning of the following one.
+     */
+    private long claim(final int length) {
+        while ( true ) {
+            final long current = this.tail.get();
+            final long offset = current % this.segmentSize;
+            final long start = offset + length <= this.segmentSize ? current : current - offset + this.segmentSize;
+            if ( this.tail.compareAndSet( current,
+                                          start + length ) ) {
+                return start;
+            }
+        }
+    }
+
+    private int indexOf(final long position) {
+        return FILE_HEADER_SIZE + (int) ((position / this.segmentSize) % this.segmentCount) * this.segmentSize + (int) (position % this.segmentSize);
+    }
+
+    /**
+     * Writes the header of a record once all its data has been written. The header contains
+     * the number of the segment, so that a reader can tell the records of the current turn
+     * of the ring from the stale ones left by the previous turns.
+     */
+    private void commit(final long position,
+                        final int index,
+                        final int length) {
+        final long segment = position / this.segmentSize + 1;
+        this.buffer.putLong( index,
+                             (segment << 32) | length );
+    }
+
+    private static int align(final int length) {
+        return (length + 7) & ~7;
+    }
+
+    private int getRuleId(final Rule rule) {
+        final Integer id = this.ruleIds.get( rule );
+        if ( id != null ) {
+            return id.intValue();
+        }
+        synchronized ( this.names ) {
+            Integer existing = this.ruleIds.get( rule );
+            if ( existing == null ) {
+                existing = writeName( RULE_NAME,
+                                      rule.getName(),
+                                      rule.getRuleFlowGroup() );
+                this.ruleIds.put( rule,
+                                  existing );
+            }
+            return existing.intValue();
+        }
+    }
+
+    private int getClassId(final Class<?> clazz) {
+        final Integer id = this.classIds.get( clazz );
+        if ( id != null ) {
+            return id.intValue();
+        }
+        synchronized ( this.names ) {
+            Integer existing = this.classIds.get( clazz );
+            if ( existing == null ) {
+                existing = writeName( CLASS_NAME,
+                                      clazz.getName(),
+                                      null );
+                this.classIds.put( clazz,
+                                   existing );
+            }
+            return existing.intValue();
+        }
+    }
+
+    private Integer writeName(final byte kind,
+                              final String name,
+                              final String group) {
+        final int id = this.nextNameId++;
+        try {
+            this.names.writeByte( kind );
+            this.names.writeInt( id );
+            this.names.writeUTF( name );
+            this.names.writeUTF( group != null ? group : "" );
+            this.names.flush();
+        } catch ( IOException e ) {
+            logger.error( "Unable to write the names of the audit log " + this.fileName,
+                          e );
+        }
+        return Integer.valueOf( id );
+    }
+}
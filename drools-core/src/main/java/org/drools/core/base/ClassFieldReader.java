@@ -70,6 +70,10 @@ public class ClassFieldReader
         this.reader = reader;
     }
 
+    public InternalReadAccessor getReadAccessor() {
+        return this.reader;
+    }
+
     public int getIndex() {
         return this.reader.getIndex();
     }
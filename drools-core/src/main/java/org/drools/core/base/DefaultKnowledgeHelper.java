@@ -60,6 +60,8 @@ import org.drools.core.spi.Activation;
 import org.drools.core.spi.KnowledgeHelper;
 import org.drools.core.spi.PropagationContext;
 import org.drools.core.spi.Tuple;
+import org.drools.core.util.bitmask.AllSetBitMask;
+import org.drools.core.util.bitmask.BitMask;
 import org.kie.api.runtime.Channel;
 import org.kie.api.runtime.KieRuntime;
 import org.kie.internal.runtime.KnowledgeRuntime;
@@ -71,6 +73,9 @@ import org.kie.api.runtime.process.WorkflowProcessInstance;
 import org.kie.api.runtime.rule.Match;
 import org.kie.api.runtime.rule.EntryPoint;
 
+import static org.drools.core.reteoo.PropertySpecificUtil.allSetButTraitBitMask;
+import static org.drools.core.reteoo.PropertySpecificUtil.onlyTraitBitSetMask;
+
 public class DefaultKnowledgeHelper
     implements
     KnowledgeHelper,
@@ -349,7 +354,7 @@ public class DefaultKnowledgeHelper
         InternalFactHandle h = (InternalFactHandle) handle;
         ((InternalWorkingMemoryEntryPoint) h.getEntryPoint()).update( h,
                                                                       newObject,
-                                                                      Long.MIN_VALUE,
+                                                                      onlyTraitBitSetMask(),
                                                                       newObject.getClass(),
                                                                       this.activation );
         if ( getIdentityMap() != null ) {
@@ -359,10 +364,10 @@ public class DefaultKnowledgeHelper
     }
 
     public void update(final FactHandle handle) {
-        update( handle, Long.MAX_VALUE );
+        update( handle, allSetButTraitBitMask(), Object.class );
     }
 
-    public void update(final FactHandle handle, long mask, Class<?> modifiedClass) {
+    public void update(final FactHandle handle, BitMask mask, Class<?> modifiedClass) {
         InternalFactHandle h = (InternalFactHandle) handle;
         ((NamedEntryPoint) h.getEntryPoint()).update( h,
                                                       h.getEqualityKey() != null && h.getEqualityKey().getStatus() == EqualityKey.JUSTIFIED,
@@ -393,7 +398,7 @@ public class DefaultKnowledgeHelper
         }
     }
 
-    private void updateTraits( Object object, long mask, Thing originator, Class<?> modifiedClass, BitSet veto ) {
+    private void updateTraits( Object object, BitMask mask, Thing originator, Class<?> modifiedClass, BitSet veto ) {
         TraitableBean txBean = (TraitableBean) object;
 
         Collection<Thing> px = txBean.getMostSpecificTraits();
@@ -429,10 +434,10 @@ public class DefaultKnowledgeHelper
     }
 
     public void update( Object object ) {
-        update(object, Long.MAX_VALUE, Object.class);
+        update(object, allSetButTraitBitMask(), Object.class);
     }
 
-    public void update(Object object, long mask, Class<?> modifiedClass) {
+    public void update(Object object, BitMask mask, Class<?> modifiedClass) {
         update(getFactHandle(object), mask, modifiedClass);
     }
     
@@ -705,10 +710,10 @@ public class DefaultKnowledgeHelper
                 ((NamedEntryPoint) h.getEntryPoint()).update( h,
                                                               logical,
                                                               ((InternalFactHandle)handle).getObject(),
-                                                              Long.MIN_VALUE,
+                                                              onlyTraitBitSetMask(),
                                                               core.getClass(),
                                                               this.activation );
-                updateTraits( inner, -1L, null, trait, veto );
+                updateTraits( inner, AllSetBitMask.get(), null, trait, veto );
             } else {
                 handle = this.workingMemory.insert( inner,
                                                     null,
@@ -745,8 +750,8 @@ public class DefaultKnowledgeHelper
     public <T,K,X extends TraitableBean> Thing<K> shed( TraitableBean<K,X> core, Class<T> trait ) {
         if ( trait.isAssignableFrom( core.getClass() ) ) {
             core.removeTrait( trait.getName() );
-            update( core, Long.MIN_VALUE, core.getClass() );
-            updateTraits( core, Long.MIN_VALUE, null, core.getClass(), null );
+            update( core, onlyTraitBitSetMask(), core.getClass() );
+            updateTraits( core, onlyTraitBitSetMask(), null, core.getClass(), null );
             return (Thing<K>) core;
         } else {
             Collection<Thing<K>> removedTypes;
@@ -777,8 +782,8 @@ public class DefaultKnowledgeHelper
                 }
             }
 
-            update( core, Long.MIN_VALUE, core.getClass() );
-            updateTraits( core, Long.MIN_VALUE, null, core.getClass(), null );
+            update( core, onlyTraitBitSetMask(), core.getClass() );
+            updateTraits( core, onlyTraitBitSetMask(), null, core.getClass(), null );
             return thing;
         }
     }
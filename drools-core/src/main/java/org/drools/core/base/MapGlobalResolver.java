@@ -103,6 +103,13 @@ public class MapGlobalResolver
                       value );
     }
 
+    /**
+     * Removes the globals set on this resolver, while keeping its delegate.
+     */
+    public void clear() {
+        this.map.clear();
+    }
+
     public Entry<String, Object>[] getGlobals() {
         if ( delegate == null ) {
             return (Entry<String, Object>[]) this.map.entrySet().toArray(new Entry[this.map.size()]);
@@ -23,9 +23,9 @@ import java.util.List;
 
 import org.drools.core.base.mvel.MVELCompilationUnit.DroolsVarFactory;
 import org.drools.core.common.InternalRuleBase;
-import org.drools.core.util.BitMaskUtil;
 import org.drools.core.rule.TypeDeclaration;
 import org.drools.core.spi.KnowledgeHelper;
+import org.drools.core.util.bitmask.BitMask;
 import org.mvel2.ast.ASTNode;
 import org.mvel2.ast.WithNode;
 import org.mvel2.compiler.AccessorNode;
@@ -36,6 +36,9 @@ import org.mvel2.integration.VariableResolverFactory;
 import org.mvel2.optimizers.impl.refl.nodes.MethodAccessor;
 import org.mvel2.optimizers.impl.refl.nodes.SetterAccessor;
 
+import static org.drools.core.reteoo.PropertySpecificUtil.allSetButTraitBitMask;
+import static org.drools.core.reteoo.PropertySpecificUtil.getEmptyPropertyReactiveMask;
+import static org.drools.core.reteoo.PropertySpecificUtil.setPropertyOnMask;
 import static org.drools.core.util.ClassUtils.*;
 
 public class ModifyInterceptor
@@ -44,14 +47,15 @@ public class ModifyInterceptor
     Externalizable {
     private static final long serialVersionUID = 510l;
 
-    private long modificationMask = -1L;
+    // lazily calculated at the first modify
+    private BitMask modificationMask;
 
     public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
-        modificationMask = in.readLong();
+        modificationMask = (BitMask) in.readObject();
     }
 
     public void writeExternal(ObjectOutput out) throws IOException {
-        out.writeLong(modificationMask);
+        out.writeObject(modificationMask);
     }
 
     public int doBefore(ASTNode node,
@@ -72,7 +76,7 @@ public class ModifyInterceptor
 
         KnowledgeHelper knowledgeHelper = ((DroolsVarFactory)factory).getKnowledgeHelper();
 
-        if (modificationMask < 0) {
+        if (modificationMask == null) {
             calculateModificationMask(knowledgeHelper, (WithNode)node);
         }
 
@@ -85,33 +89,33 @@ public class ModifyInterceptor
         InternalRuleBase ruleBase = (InternalRuleBase)knowledgeHelper.getWorkingMemory().getRuleBase();
         TypeDeclaration typeDeclaration = ruleBase.getTypeDeclaration(nodeClass);
         if (typeDeclaration == null || !typeDeclaration.isPropertyReactive()) {
-            modificationMask = Long.MAX_VALUE;
+            modificationMask = allSetButTraitBitMask();
             return;
         }
 
         List<String> settableProperties = typeDeclaration.getSettableProperties();
-        modificationMask = 0L;
+        modificationMask = getEmptyPropertyReactiveMask(settableProperties.size());
 
         // TODO: access parmValuePairs without reflection
         WithNode.ParmValuePair[] parmValuePairs = getFieldValue(WithNode.class, "withExpressions", node);
         for (WithNode.ParmValuePair parmValuePair : parmValuePairs) {
             Method method = extractMethod(parmValuePair);
             if (method == null) {
-                modificationMask = Long.MAX_VALUE;
+                modificationMask = allSetButTraitBitMask();
                 return;
             }
 
             String propertyName = setter2property(method.getName());
             if (propertyName != null) {
                 int pos = settableProperties.indexOf(propertyName);
-                if (pos >= 0) modificationMask = BitMaskUtil.set(modificationMask, pos);
+                if (pos >= 0) modificationMask = setPropertyOnMask(modificationMask, pos);
             }
 
             List<String> modifiedProps = typeDeclaration.getTypeClassDef().getModifiedPropsByMethod(method);
             if (modifiedProps != null) {
                 for (String modifiedProp : modifiedProps) {
                     int pos = settableProperties.indexOf(modifiedProp);
-                    if (pos >= 0) modificationMask = BitMaskUtil.set(modificationMask, pos);
+                    if (pos >= 0) modificationMask = setPropertyOnMask(modificationMask, pos);
                 }
             }
         }
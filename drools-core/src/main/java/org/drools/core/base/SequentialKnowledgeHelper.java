@@ -33,6 +33,7 @@ import org.drools.core.rule.Rule;
 import org.drools.core.spi.Activation;
 import org.drools.core.spi.KnowledgeHelper;
 import org.drools.core.spi.Tuple;
+import org.drools.core.util.bitmask.BitMask;
 import org.kie.internal.runtime.KnowledgeRuntime;
 import org.kie.api.runtime.Channel;
 import org.kie.api.runtime.KieRuntime;
@@ -257,7 +258,7 @@ public class SequentialKnowledgeHelper
         // TODO Auto-generated method stub
     }
 
-    public void update(FactHandle newObject, long mask, Class<?> typeClass) {
+    public void update(FactHandle newObject, BitMask mask, Class<?> typeClass) {
         // TODO Auto-generated method stub
     }
 
@@ -269,7 +270,7 @@ public class SequentialKnowledgeHelper
         // TODO Auto-generated method stub
     }
 
-    public void update(Object newObject, long mask, Class<?> typeClass) {
+    public void update(Object newObject, BitMask mask, Class<?> typeClass) {
         // TODO Auto-generated method stub
     }
 
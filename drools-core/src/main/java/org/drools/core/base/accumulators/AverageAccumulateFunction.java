@@ -22,6 +22,7 @@ import java.io.ObjectInput;
 import java.io.ObjectOutput;
 import java.io.Serializable;
 
+import org.drools.core.util.NumberUtils;
 import org.kie.api.runtime.rule.AccumulateFunction;
 
 /**
@@ -40,17 +41,41 @@ public class AverageAccumulateFunction implements AccumulateFunction {
     public static class AverageData implements Externalizable {
         public int    count = 0;
         public double total = 0;
+        // integral values are summed apart, so that they are exact and reversing them leaves no rounding error
+        public long   integralTotal = 0;
         
         public AverageData() {}
 
         public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
             count   = in.readInt();
             total   = in.readDouble();
+            integralTotal = in.readLong();
         }
 
         public void writeExternal(ObjectOutput out) throws IOException {
             out.writeInt(count);
             out.writeDouble(total);
+            out.writeLong(integralTotal);
+        }
+
+        public void add(Object value, boolean reverse) {
+            if ( NumberUtils.isIntegral( value ) ) {
+                long v = ((Number) value).longValue();
+                if ( reverse ) {
+                    v = -v;
+                }
+                long result = integralTotal + v;
+                if ( !NumberUtils.isAddOverflow( integralTotal, v, result ) && v != Long.MIN_VALUE ) {
+                    integralTotal = result;
+                    return;
+                }
+            }
+            double v = ((Number) value).doubleValue();
+            total += reverse ? -v : v;
+        }
+
+        public double getTotal() {
+            return integralTotal + total;
         }
 
     }
@@ -69,6 +94,7 @@ public class AverageAccumulateFunction implements AccumulateFunction {
         AverageData data = (AverageData) context;
         data.count = 0;
         data.total = 0;
+        data.integralTotal = 0;
     }
 
     /* (non-Javadoc)
@@ -78,7 +104,7 @@ public class AverageAccumulateFunction implements AccumulateFunction {
                            Object value) {
         AverageData data = (AverageData) context;
         data.count++;
-        data.total += ((Number) value).doubleValue();
+        data.add( value, false );
     }
 
     /* (non-Javadoc)
@@ -88,7 +114,7 @@ public class AverageAccumulateFunction implements AccumulateFunction {
                         Object value) throws Exception {
         AverageData data = (AverageData) context;
         data.count--;
-        data.total -= ((Number) value).doubleValue();
+        data.add( value, true );
     }
 
     /* (non-Javadoc)
@@ -96,7 +122,7 @@ public class AverageAccumulateFunction implements AccumulateFunction {
      */
     public Object getResult(Serializable context) throws Exception {
         AverageData data = (AverageData) context;
-        return new Double( data.count == 0 ? 0 : data.total / data.count );
+        return new Double( data.count == 0 ? 0 : data.getTotal() / data.count );
     }
 
     /* (non-Javadoc)
@@ -163,6 +163,24 @@ public class JavaAccumulatorFunctionExecutor
         return null;
     }
 
+    public int hashCode() {
+        // the expression is wired after the rule is compiled, so it can't be part of the hash code
+        return this.function.getClass().hashCode();
+    }
+
+    public boolean equals(Object obj) {
+        if ( this == obj ) {
+            return true;
+        }
+        if ( obj == null || getClass() != obj.getClass() ) {
+            return false;
+        }
+        // same function over the same expression, so that identical accumulates of different rules can share their node.
+        // Compiled expressions are equal when their bytecode is
+        JavaAccumulatorFunctionExecutor other = (JavaAccumulatorFunctionExecutor) obj;
+        return this.function.getClass() == other.function.getClass() && this.expression != null && this.expression.equals( other.expression );
+    }
+
     private static class JavaAccumulatorFunctionContext
         implements
         Externalizable {
@@ -157,6 +157,22 @@ public class MVELAccumulatorFunctionExecutor
         return null; //this.model.clone();
     }
 
+    public int hashCode() {
+        return this.function.getClass().hashCode() ^ this.unit.getExpression().hashCode();
+    }
+
+    public boolean equals(Object obj) {
+        if ( this == obj ) {
+            return true;
+        }
+        if ( obj == null || getClass() != obj.getClass() ) {
+            return false;
+        }
+        // same function over the same expression, so that identical accumulates of different rules can share their node
+        MVELAccumulatorFunctionExecutor other = (MVELAccumulatorFunctionExecutor) obj;
+        return this.function.getClass() == other.function.getClass() && this.unit.getExpression().equals( other.unit.getExpression() );
+    }
+
     private static class MVELAccumulatorFunctionContext
         implements
         Externalizable {
@@ -22,6 +22,7 @@ import java.io.ObjectInput;
 import java.io.ObjectOutput;
 import java.io.Serializable;
 
+import org.drools.core.util.DoubleMaxHeap;
 import org.kie.api.runtime.rule.AccumulateFunction;
 
 /**
@@ -30,16 +31,17 @@ import org.kie.api.runtime.rule.AccumulateFunction;
 public class MaxAccumulateFunction implements AccumulateFunction {
 
     protected static class MaxData implements Externalizable {
-        public double max = -Double.MAX_VALUE;
+        // the values are kept in a max heap, so that they can be removed in O(log n)
+        public DoubleMaxHeap values = new DoubleMaxHeap();
         
         public MaxData() {}
 
         public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
-            max   = in.readDouble();
+            values = (DoubleMaxHeap) in.readObject();
         }
 
         public void writeExternal(ObjectOutput out) throws IOException {
-            out.writeDouble(max);
+            out.writeObject(values);
         }
     }
 
@@ -62,7 +64,7 @@ public class MaxAccumulateFunction implements AccumulateFunction {
      */
     public void init(Serializable context) throws Exception {
         MaxData data = (MaxData) context;
-        data.max = -Double.MAX_VALUE;
+        data.values.clear();
     }
 
     /* (non-Javadoc)
@@ -71,7 +73,7 @@ public class MaxAccumulateFunction implements AccumulateFunction {
     public void accumulate(Serializable context,
                            Object value) {
         MaxData data = (MaxData) context;
-        data.max = Math.max( data.max, ((Number)value).doubleValue() );
+        data.values.add( ((Number) value).doubleValue() );
     }
 
     /* (non-Javadoc)
@@ -79,6 +81,8 @@ public class MaxAccumulateFunction implements AccumulateFunction {
      */
     public void reverse(Serializable context,
                         Object value) throws Exception {
+        MaxData data = (MaxData) context;
+        data.values.remove( ((Number) value).doubleValue() );
     }
 
     /* (non-Javadoc)
@@ -86,14 +90,14 @@ public class MaxAccumulateFunction implements AccumulateFunction {
      */
     public Object getResult(Serializable context) throws Exception {
         MaxData data = (MaxData) context;
-        return new Double( data.max );
+        return new Double( data.values.isEmpty() ? -Double.MAX_VALUE : data.values.peek() );
     }
 
     /* (non-Javadoc)
      * @see org.kie.base.accumulators.AccumulateFunction#supportsReverse()
      */
     public boolean supportsReverse() {
-        return false;
+        return true;
     }
 
     /**
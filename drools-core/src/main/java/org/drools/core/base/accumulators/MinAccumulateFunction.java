@@ -22,6 +22,7 @@ import java.io.ObjectInput;
 import java.io.ObjectOutput;
 import java.io.Serializable;
 
+import org.drools.core.util.DoubleMaxHeap;
 import org.kie.api.runtime.rule.AccumulateFunction;
 
 /**
@@ -38,16 +39,17 @@ public class MinAccumulateFunction implements AccumulateFunction {
     }
 
     protected static class MinData implements Externalizable {
-        public double min = Double.MAX_VALUE;
+        // the values are kept negated in a max heap, so that they can be removed in O(log n)
+        public DoubleMaxHeap values = new DoubleMaxHeap();
         
         public MinData() {}
 
         public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
-            min   = in.readDouble();
+            values = (DoubleMaxHeap) in.readObject();
         }
 
         public void writeExternal(ObjectOutput out) throws IOException {
-            out.writeDouble(min);
+            out.writeObject(values);
         }
     }
 
@@ -63,7 +65,7 @@ public class MinAccumulateFunction implements AccumulateFunction {
      */
     public void init(Serializable context) throws Exception {
         MinData data = (MinData) context;
-        data.min = Double.MAX_VALUE;
+        data.values.clear();
     }
 
     /* (non-Javadoc)
@@ -72,7 +74,7 @@ public class MinAccumulateFunction implements AccumulateFunction {
     public void accumulate(Serializable context,
                            Object value) {
         MinData data = (MinData) context;
-        data.min = Math.min( data.min, ((Number)value).doubleValue() );
+        data.values.add( -((Number) value).doubleValue() );
     }
 
     /* (non-Javadoc)
@@ -80,6 +82,8 @@ public class MinAccumulateFunction implements AccumulateFunction {
      */
     public void reverse(Serializable context,
                         Object value) throws Exception {
+        MinData data = (MinData) context;
+        data.values.remove( -((Number) value).doubleValue() );
     }
 
     /* (non-Javadoc)
@@ -87,14 +91,14 @@ public class MinAccumulateFunction implements AccumulateFunction {
      */
     public Object getResult(Serializable context) throws Exception {
         MinData data = (MinData) context;
-        return new Double( data.min );
+        return new Double( data.values.isEmpty() ? Double.MAX_VALUE : -data.values.peek() );
     }
 
     /* (non-Javadoc)
      * @see org.kie.base.accumulators.AccumulateFunction#supportsReverse()
      */
     public boolean supportsReverse() {
-        return false;
+        return true;
     }
 
     /**
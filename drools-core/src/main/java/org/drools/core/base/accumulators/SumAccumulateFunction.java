@@ -22,6 +22,7 @@ import java.io.ObjectInput;
 import java.io.ObjectOutput;
 import java.io.Serializable;
 
+import org.drools.core.util.NumberUtils;
 import org.kie.api.runtime.rule.AccumulateFunction;
 
 /**
@@ -39,15 +40,39 @@ public class SumAccumulateFunction implements AccumulateFunction {
 
     protected static class SumData implements Externalizable {
         public double total = 0;
+        // integral values are summed apart, so that they are exact and reversing them leaves no rounding error
+        public long   integralTotal = 0;
 
         public SumData() {}
 
         public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
             total   = in.readDouble();
+            integralTotal = in.readLong();
         }
 
         public void writeExternal(ObjectOutput out) throws IOException {
             out.writeDouble(total);
+            out.writeLong(integralTotal);
+        }
+
+        public void add(Object value, boolean reverse) {
+            if ( NumberUtils.isIntegral( value ) ) {
+                long v = ((Number) value).longValue();
+                if ( reverse ) {
+                    v = -v;
+                }
+                long result = integralTotal + v;
+                if ( !NumberUtils.isAddOverflow( integralTotal, v, result ) && v != Long.MIN_VALUE ) {
+                    integralTotal = result;
+                    return;
+                }
+            }
+            double v = ((Number) value).doubleValue();
+            total += reverse ? -v : v;
+        }
+
+        public double getTotal() {
+            return integralTotal + total;
         }
 
     }
@@ -65,6 +90,7 @@ public class SumAccumulateFunction implements AccumulateFunction {
     public void init(Serializable context) throws Exception {
         SumData data = (SumData) context;
         data.total = 0;
+        data.integralTotal = 0;
     }
 
     /* (non-Javadoc)
@@ -73,7 +99,7 @@ public class SumAccumulateFunction implements AccumulateFunction {
     public void accumulate(Serializable context,
                            Object value) {
         SumData data = (SumData) context;
-        data.total += ((Number) value).doubleValue();
+        data.add( value, false );
     }
 
     /* (non-Javadoc)
@@ -82,7 +108,7 @@ public class SumAccumulateFunction implements AccumulateFunction {
     public void reverse(Serializable context,
                         Object value) throws Exception {
         SumData data = (SumData) context;
-        data.total -= ((Number) value).doubleValue();
+        data.add( value, true );
     }
 
     /* (non-Javadoc)
@@ -90,7 +116,7 @@ public class SumAccumulateFunction implements AccumulateFunction {
      */
     public Object getResult(Serializable context) throws Exception {
         SumData data = (SumData) context;
-        return new Double( data.total );
+        return new Double( data.getTotal() );
     }
 
     /* (non-Javadoc)
@@ -15,4 +15,6 @@ public interface MVELClassFieldReader {
     public void setValueType(ValueType valueType);
     
     public void setExecutableStatement(ExecutableStatement expression);
+
+    public void setNestedReader(NestedPropertyReader nestedReader);
 }
@@ -37,6 +37,8 @@ public class MVELNumberClassFieldReader extends BaseNumberClassFieldReader imple
 
     private ExecutableStatement mvelExpression   = null;
 
+    private NestedPropertyReader nestedReader;
+
     private String              className;
     private String              expr;
     private boolean             typesafe;
@@ -76,6 +78,10 @@ public class MVELNumberClassFieldReader extends BaseNumberClassFieldReader imple
         this.mvelExpression = expression;
     }
 
+    public void setNestedReader(NestedPropertyReader nestedReader) {
+        this.nestedReader = nestedReader;
+    }
+
     public String getClassName() {
         return this.className;
     }
@@ -99,6 +105,12 @@ public class MVELNumberClassFieldReader extends BaseNumberClassFieldReader imple
      */
     public Object getValue(InternalWorkingMemory workingMemory,
                            Object object) {
+        if ( nestedReader != null ) {
+            Object value = nestedReader.getValue( object );
+            if ( value != NestedPropertyReader.UNRESOLVED ) {
+                return value;
+            }
+        }
         return MVEL.executeExpression( mvelExpression,
                                        object  );
     }
@@ -38,6 +38,8 @@ public class MVELObjectClassFieldReader extends BaseObjectClassFieldReader imple
     private static final long  serialVersionUID = 510l;
 
     private ExecutableStatement mvelExpression   = null;
+
+    private NestedPropertyReader nestedReader;
     
     private String className;
     private String expr;
@@ -78,6 +80,14 @@ public class MVELObjectClassFieldReader extends BaseObjectClassFieldReader imple
         this.mvelExpression = expression;
     }
 
+    public void setNestedReader(NestedPropertyReader nestedReader) {
+        this.nestedReader = nestedReader;
+    }
+
+    public NestedPropertyReader getNestedReader() {
+        return this.nestedReader;
+    }
+
     public String getClassName() {
         return this.className;
     }
@@ -116,6 +126,13 @@ public class MVELObjectClassFieldReader extends BaseObjectClassFieldReader imple
         target.setExecutableStatement( mvelExpression );
         target.setFieldType( returnType );
         target.setValueType( ValueType.determineValueType( returnType ) );
+
+        try {
+            // plain property paths are read with direct accesses, falling back to MVEL only when needed
+            target.setNestedReader( NestedPropertyReaderGenerator.generate( cls, target.getExpression(), runtimeData.getRootClassLoader() ) );
+        } catch ( RuntimeException e ) {
+            target.setNestedReader( null );
+        }
     } 
 
     /* (non-Javadoc)
@@ -123,6 +140,12 @@ public class MVELObjectClassFieldReader extends BaseObjectClassFieldReader imple
      */
     public Object getValue(InternalWorkingMemory workingMemory,
                            Object object) {
+        if ( nestedReader != null ) {
+            Object value = nestedReader.getValue( object );
+            if ( value != NestedPropertyReader.UNRESOLVED ) {
+                return value;
+            }
+        }
         return MVEL.executeExpression( mvelExpression,
                                        object  );
     }
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2014 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.drools.core.base.extractors;
+
+/**
+ * Reads a nested property path, like a.b.c, out of an object through direct invocations
+ * of the getters, instead of interpreting the path with MVEL.
+ *
+ * @see NestedPropertyReaderGenerator
+ */
+public interface NestedPropertyReader {
+
+    /**
+     * Returned when the path cannot be navigated directly on the given object, because it is not
+     * of the expected type or one of the intermediate values is null. The caller is then expected
+     * to evaluate the path in the usual way, so its semantic is preserved.
+     */
+    Object UNRESOLVED = new Object();
+
+    Object getValue(Object object);
+}
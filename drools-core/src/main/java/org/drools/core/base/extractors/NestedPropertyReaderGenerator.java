@@ -0,0 +1,182 @@
+/*
+ * Copyright 2014 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.drools.core.base.extractors;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.drools.core.rule.builder.dialect.asm.ClassGenerator;
+import org.mvel2.asm.Label;
+import org.mvel2.asm.MethodVisitor;
+import org.mvel2.util.PropertyTools;
+
+import static org.drools.core.util.StringUtils.generateUUID;
+import static org.mvel2.asm.Opcodes.*;
+
+/**
+ * Generates the bytecode of a {@link NestedPropertyReader} navigating a path of properties
+ * through a chain of invokevirtual, invokeinterface and getfield instructions.
+ *
+ * Only paths made of plain property names, resolved by MVEL to public accessors or fields
+ * of public types, are supported. For anything else, like method calls, maps or collections,
+ * no reader is generated and the path is still evaluated by MVEL.
+ */
+public class NestedPropertyReaderGenerator {
+
+    private NestedPropertyReaderGenerator() { }
+
+    /**
+     * Returns a reader of the given path on the given class, or null if the path cannot be
+     * compiled into direct accesses
+     */
+    public static NestedPropertyReader generate(Class<?> cls,
+                                                String expression,
+                                                ClassLoader classLoader) {
+        List<Member> accessors = resolvePath( cls, expression );
+        if ( accessors == null ) {
+            return null;
+        }
+        ClassGenerator generator = new ClassGenerator( "NestedPropertyReader" + generateUUID(), classLoader )
+                .setInterfaces( NestedPropertyReader.class )
+                .addDefaultConstructor();
+
+        generator.addMethod( ACC_PUBLIC,
+                             "getValue",
+                             generator.methodDescr( Object.class, Object.class ),
+                             new GetValueMethodGenerator( cls, accessors ) );
+
+        return generator.newInstance();
+    }
+
+    static List<Member> resolvePath(Class<?> cls,
+                                    String expression) {
+        if ( expression == null || !isAccessible( cls ) ) {
+            return null;
+        }
+        String[] properties = expression.trim().split( "\\.", -1 );
+        List<Member> accessors = new ArrayList<Member>( properties.length );
+        Class<?> type = cls;
+        for ( int i = 0; i < properties.length; i++ ) {
+            String property = properties[i];
+            if ( i == 0 && properties.length > 1 && property.equals( "this" ) ) {
+                continue;
+            }
+            if ( !isIdentifier( property ) || type.isPrimitive() || !isAccessible( type ) || Map.class.isAssignableFrom( type ) ) {
+                return null;
+            }
+            Member member = PropertyTools.getFieldOrAccessor( type, property );
+            if ( member == null || !isAccessible( member ) ) {
+                return null;
+            }
+            accessors.add( member );
+            type = getType( member );
+        }
+        return accessors.isEmpty() ? null : accessors;
+    }
+
+    private static boolean isIdentifier(String s) {
+        if ( s.length() == 0 || !Character.isJavaIdentifierStart( s.charAt( 0 ) ) ) {
+            return false;
+        }
+        for ( int i = 1; i < s.length(); i++ ) {
+            if ( !Character.isJavaIdentifierPart( s.charAt( i ) ) ) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isAccessible(Class<?> type) {
+        return Modifier.isPublic( type.getModifiers() ) && !type.isArray();
+    }
+
+    private static boolean isAccessible(Member member) {
+        int modifiers = member.getModifiers();
+        if ( !Modifier.isPublic( modifiers ) || Modifier.isStatic( modifiers ) || !isAccessible( member.getDeclaringClass() ) ) {
+            return false;
+        }
+        if ( member instanceof Method ) {
+            Method method = (Method) member;
+            return method.getParameterTypes().length == 0 && method.getReturnType() != void.class;
+        }
+        return member instanceof Field;
+    }
+
+    private static Class<?> getType(Member member) {
+        return member instanceof Method ? ( (Method) member ).getReturnType() : ( (Field) member ).getType();
+    }
+
+    private static class GetValueMethodGenerator extends ClassGenerator.MethodBody {
+
+        private final Class<?>     cls;
+        private final List<Member> accessors;
+
+        private GetValueMethodGenerator(Class<?> cls,
+                                        List<Member> accessors) {
+            this.cls = cls;
+            this.accessors = accessors;
+        }
+
+        public void body(MethodVisitor mv) {
+            Label unresolved = new Label();
+            Label nullValue = new Label();
+
+            mv.visitVarInsn( ALOAD, 1 );
+            instanceOf( cls );
+            mv.visitJumpInsn( IFEQ, unresolved );
+            mv.visitVarInsn( ALOAD, 1 );
+            cast( cls );
+
+            Class<?> type = cls;
+            for ( int i = 0; i < accessors.size(); i++ ) {
+                if ( i > 0 ) {
+                    // a null in the middle of the path is left to MVEL
+                    mv.visitInsn( DUP );
+                    mv.visitJumpInsn( IFNULL, nullValue );
+                }
+                Member member = accessors.get( i );
+                if ( member instanceof Method ) {
+                    Method method = (Method) member;
+                    if ( type.isInterface() ) {
+                        invokeInterface( type, method.getName(), method.getReturnType() );
+                    } else {
+                        invokeVirtual( type, method.getName(), method.getReturnType() );
+                    }
+                } else {
+                    readField( (Field) member );
+                }
+                type = getType( member );
+            }
+            if ( type.isPrimitive() ) {
+                convertPrimitiveToObject( type );
+            }
+            mv.visitInsn( ARETURN );
+
+            mv.visitLabel( nullValue );
+            mv.visitInsn( POP );
+            mv.visitLabel( unresolved );
+            mv.visitFieldInsn( GETSTATIC, internalName( NestedPropertyReader.class ), "UNRESOLVED", typeDescr( Object.class ) );
+            mv.visitInsn( ARETURN );
+        }
+    }
+}
@@ -14,6 +14,8 @@ import org.drools.core.reteoo.ObjectTypeConf;
 import org.drools.core.spi.Activation;
 import org.drools.core.spi.PropagationContext;
 
+import static org.drools.core.reteoo.PropertySpecificUtil.allSetButTraitBitMask;
+
 public class JTMSBeliefSystem
         implements
         BeliefSystem {
@@ -209,7 +211,7 @@ public class JTMSBeliefSystem
 
             // Equality might have changed on the object, so remove (which uses the handle id) and add back in
             ((NamedEntryPoint) handle.getEntryPoint()).getObjectStore().updateHandle( handle, object );
-            ((NamedEntryPoint) handle.getEntryPoint() ).update( handle, true, handle.getObject(), Long.MAX_VALUE, Object.class, null );
+            ((NamedEntryPoint) handle.getEntryPoint() ).update( handle, true, handle.getObject(), allSetButTraitBitMask(), Object.class, null );
         }
     }
 
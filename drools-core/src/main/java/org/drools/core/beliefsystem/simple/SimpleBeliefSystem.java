@@ -11,6 +11,8 @@ import org.drools.core.reteoo.ObjectTypeConf;
 import org.drools.core.spi.Activation;
 import org.drools.core.spi.PropagationContext;
 
+import static org.drools.core.reteoo.PropertySpecificUtil.allSetButTraitBitMask;
+
 /**
  * Default implementation emulates classical Drools TMS behaviour.
  *
@@ -80,7 +82,7 @@ public class SimpleBeliefSystem
             // Equality might have changed on the object, so remove (which uses the handle id) and add back in
             ((NamedEntryPoint)bfh.getEntryPoint()).getObjectStore().updateHandle( bfh,  ((LinkedListEntry<LogicalDependency>) beliefSet.getFirst()).getObject().getObject() );
 
-            ((NamedEntryPoint) bfh.getEntryPoint() ).update( bfh, true, bfh.getObject(), Long.MAX_VALUE, Object.class, null );
+            ((NamedEntryPoint) bfh.getEntryPoint() ).update( bfh, true, bfh.getObject(), allSetButTraitBitMask(), Object.class, null );
         }
     }
 
@@ -101,6 +101,7 @@ import org.drools.core.runtime.process.ProcessRuntimeFactory;
 import org.drools.core.runtime.rule.impl.LiveQueryImpl;
 import org.drools.core.runtime.rule.impl.OpenQueryViewChangedEventListenerAdapter;
 import org.drools.core.spi.Activation;
+import org.drools.core.spi.ActivationGroup;
 import org.drools.core.spi.AgendaFilter;
 import org.drools.core.spi.AsyncExceptionHandler;
 import org.drools.core.spi.FactHandleFactory;
@@ -111,8 +112,10 @@ import org.drools.core.spi.RuleBaseUpdateListenerFactory;
 import org.drools.core.time.AcceptsTimerJobFactoryManager;
 import org.drools.core.time.TimerService;
 import org.drools.core.time.TimerServiceFactory;
+import org.drools.core.time.impl.PseudoClockScheduler;
 import org.drools.core.type.DateFormats;
 import org.drools.core.type.DateFormatsImpl;
+import org.drools.core.util.bitmask.BitMask;
 import org.kie.api.conf.EventProcessingOption;
 import org.kie.api.event.process.ProcessEventListener;
 import org.kie.api.event.process.ProcessEventManager;
@@ -139,6 +142,8 @@ import org.kie.internal.process.CorrelationAwareProcessRuntime;
 import org.kie.internal.process.CorrelationKey;
 import org.kie.internal.runtime.StatefulKnowledgeSession;
 
+import static org.drools.core.reteoo.PropertySpecificUtil.allSetButTraitBitMask;
+
 /**
  * Implementation of <code>WorkingMemory</code>.
  */
@@ -756,6 +761,53 @@ public class AbstractWorkingMemory
         // this.workItemManager.clear();
     }
 
+    /**
+     * Brings this session back to the state it had right after its creation, so that it can be
+     * reused instead of being rebuilt: the node memories, the agenda, the entry points and the
+     * fact handle and propagation counters are cleared, and the InitialFact is asserted again.
+     * The globals set on this session, the process instances and the work items of the previous
+     * execution are dropped too, while the delegate of the globals, the channels and the event
+     * listeners are left to the owner of the session.
+     */
+    public void resetForReuse() {
+        for ( WorkingMemoryEntryPoint ep : this.entryPoints.values() ) {
+            // detaches the property change listeners, it must be done while the node memories still hold the facts
+            ep.dispose();
+        }
+
+        reset( 0,
+               0,
+               1 ); // pCTx starts at 1, as InitialFact is 0
+
+        // recencies restart from 0 together with the handle factory
+        for ( InternalAgendaGroup group : this.agenda.getAgendaGroupsMap().values() ) {
+            group.setActive( false );
+            group.setActivatedForRecency( 0 );
+            group.setClearedForRecency( -1 );
+        }
+        for ( ActivationGroup group : this.agenda.getActivationGroupsMap().values() ) {
+            group.setTriggeredForRecency( -1 );
+        }
+
+        if ( this.globalResolver instanceof MapGlobalResolver ) {
+            // only the globals of the session itself, the delegate still resolves the shared ones
+            ((MapGlobalResolver) this.globalResolver).clear();
+        }
+        if ( this.processRuntime != null ) {
+            this.processRuntime.clearProcessInstances();
+        }
+        if ( this.workItemManager != null ) {
+            ((org.drools.core.process.instance.WorkItemManager) this.workItemManager).clear();
+        }
+
+        if ( this.timerService instanceof PseudoClockScheduler ) {
+            // the previous execution may have advanced the clock, a real time clock has nothing to reset
+            ((PseudoClockScheduler) this.timerService).setStartupTime( 0 );
+        }
+
+        initInitialFact( this.ruleBase, null );
+    }
+
     public void setWorkingMemoryEventSupport(WorkingMemoryEventSupport workingMemoryEventSupport) {
         this.workingMemoryEventSupport = workingMemoryEventSupport;
     }
@@ -1042,7 +1094,7 @@ public class AbstractWorkingMemory
      * @see org.drools.core.WorkingMemory
      */
     public FactHandle getFactHandleByIdentity(final Object object) {
-        return getObjectStore().getHandleForObjectIdentity( object );
+        return this.defaultEntryPoint.getFactHandleByIdentity( object );
     }
 
     /**
@@ -1120,6 +1172,13 @@ public class AbstractWorkingMemory
                        null );
     }
 
+    /**
+     * @see NamedEntryPoint#insertAll(Collection)
+     */
+    public List<FactHandle> insertAll(final Collection<?> objects) throws FactException {
+        return this.defaultEntryPoint.insertAll( objects );
+    }
+
     public FactHandle insertLogical(final Object object,
                                     final boolean dynamic) throws FactException {
         return insert( object,
@@ -1195,14 +1254,14 @@ public class AbstractWorkingMemory
                        final Object object) throws FactException {
         update( (FactHandle) handle,
                 object,
-                Long.MAX_VALUE,
+                allSetButTraitBitMask(),
                 Object.class,
                 null );
     }
 
     public void update(final org.kie.api.runtime.rule.FactHandle factHandle,
                        final Object object,
-                       final long mask,
+                       final BitMask mask,
                        Class<?> modifiedClass,
                        final Activation activation) throws FactException {
 
@@ -1221,7 +1280,7 @@ public class AbstractWorkingMemory
      */
     public void update(FactHandle factHandle,
                        final Object object,
-                       final long mask,
+                       final BitMask mask,
                        Class<?> modifiedClass,
                        final Activation activation) throws FactException {
         this.defaultEntryPoint.update( factHandle,
@@ -1237,6 +1296,12 @@ public class AbstractWorkingMemory
             if ( evaluatingActionQueue.compareAndSet( false,
                                                       true ) ) {
                 try {
+                    if ( config.isConcurrentInsertion() ) {
+                        for ( WorkingMemoryEntryPoint ep : this.entryPoints.values() ) {
+                            ((NamedEntryPoint) ep).flushStagedInserts();
+                        }
+                    }
+
                     if ( actionQueue!= null && !actionQueue.isEmpty() ) {
                         WorkingMemoryAction action = null;
 
@@ -1791,7 +1856,7 @@ public class AbstractWorkingMemory
     }
 
     public long getFactCount() {
-        return getObjectStore().size();
+        return this.defaultEntryPoint.getFactCount();
     }
 
     public long getTotalFactCount() {
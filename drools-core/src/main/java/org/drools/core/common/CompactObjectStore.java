@@ -0,0 +1,347 @@
+/*
+ * Copyright 2014 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.common;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.locks.Lock;
+
+import org.drools.core.RuleBaseConfiguration;
+import org.drools.core.RuleBaseConfiguration.AssertBehaviour;
+import org.drools.core.util.AbstractHashTable.ObjectComparator;
+import org.kie.api.runtime.ObjectFilter;
+import org.kie.api.runtime.rule.FactHandle;
+
+/**
+ * An ObjectStore for very large working memories.
+ *
+ * Unlike SingleThreadedObjectStore, which allocates a map entry per fact and per map, the handles are
+ * kept in open addressing tables made of two parallel arrays, one for the handles and one for their
+ * cached hash codes. This saves an object per fact in identity mode and two in equality mode, and
+ * gives the garbage collector far fewer objects to trace.
+ */
+public class CompactObjectStore implements Externalizable, ObjectStore {
+
+    private HandleTable     assertTable;
+    private HandleTable     identityTable;
+    private AssertBehaviour behaviour;
+    private Lock            lock;
+
+    public CompactObjectStore() {
+
+    }
+
+    public CompactObjectStore(RuleBaseConfiguration conf, Lock lock) {
+        this.behaviour = conf.getAssertBehaviour();
+        this.lock = lock;
+        init();
+    }
+
+    private void init() {
+        if ( AssertBehaviour.IDENTITY.equals( this.behaviour ) ) {
+            this.assertTable = new HandleTable( new IdentityAssertMapComparator() );
+            this.identityTable = this.assertTable;
+        } else {
+            this.assertTable = new HandleTable( new EqualityAssertMapComparator() );
+            this.identityTable = new HandleTable( new IdentityAssertMapComparator() );
+        }
+    }
+
+    public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        behaviour = (AssertBehaviour) in.readObject();
+        lock = (Lock) in.readObject();
+        init();
+        for ( int i = 0, size = in.readInt(); i < size; i++ ) {
+            addHandle( (InternalFactHandle) in.readObject(), null );
+        }
+    }
+
+    public void writeExternal(ObjectOutput out) throws IOException {
+        out.writeObject( behaviour );
+        out.writeObject( lock );
+        out.writeInt( assertTable.size );
+        for ( InternalFactHandle handle : assertTable.handles ) {
+            if ( handle != null ) {
+                out.writeObject( handle );
+            }
+        }
+    }
+
+    public int size() {
+        return this.assertTable.size;
+    }
+
+    public boolean isEmpty() {
+        return this.assertTable.size == 0;
+    }
+
+    public void clear() {
+        this.assertTable.clear();
+        this.identityTable.clear();
+    }
+
+    public Object getObjectForHandle(FactHandle handle) {
+        try {
+            this.lock.lock();
+
+            // Make sure the FactHandle is from this WorkingMemory
+            final InternalFactHandle internalHandle = this.assertTable.get( handle );
+            if ( internalHandle == null ) {
+                return null;
+            }
+
+            return internalHandle.getObject();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    public InternalFactHandle getHandleForObject(Object object) {
+        if ( object == null ) {
+            return null;
+        } else {
+            return this.assertTable.get( object );
+        }
+    }
+
+    public InternalFactHandle reconnect(FactHandle factHandle) {
+        return this.assertTable.get( factHandle );
+    }
+
+    public InternalFactHandle getHandleForObjectIdentity(Object object) {
+        return this.identityTable.get( object );
+    }
+
+    public void updateHandle(InternalFactHandle handle, Object object) {
+        // the handle must be removed before setting the new object, as it caches the hash codes of the old one
+        this.assertTable.remove( handle );
+        if ( AssertBehaviour.EQUALITY.equals( this.behaviour ) ) {
+            this.identityTable.remove( handle );
+        }
+        handle.setObject( object );
+        this.assertTable.add( handle );
+        if ( AssertBehaviour.EQUALITY.equals( this.behaviour ) ) {
+            this.identityTable.add( handle );
+        }
+    }
+
+    public void addHandle(InternalFactHandle handle, Object object) {
+        this.assertTable.add( handle );
+        if ( AssertBehaviour.EQUALITY.equals( this.behaviour ) ) {
+            this.identityTable.add( handle );
+        }
+    }
+
+    public void removeHandle(final FactHandle handle) {
+        this.assertTable.remove( handle );
+        if ( AssertBehaviour.EQUALITY.equals( this.behaviour ) ) {
+            this.identityTable.remove( handle );
+        }
+    }
+
+    public Iterator iterateObjects() {
+        return new HandleIterator( this.assertTable.iterate(), true, null );
+    }
+
+    public Iterator iterateObjects(ObjectFilter filter) {
+        return new HandleIterator( this.assertTable.iterate(), true, filter );
+    }
+
+    public Iterator iterateFactHandles() {
+        return new HandleIterator( this.assertTable.iterate(), false, null );
+    }
+
+    public Iterator iterateFactHandles(ObjectFilter filter) {
+        return new HandleIterator( this.assertTable.iterate(), false, filter );
+    }
+
+    /**
+     * A linear probing hash table of fact handles. Removals shift back the following entries of the
+     * probe sequence, instead of leaving tombstones, so lookups never scan more than the live entries.
+     *
+     * As a removal can move an entry behind the cursor of an iterator, or wrap it around to the end of
+     * the table, iterators walk the array the table had when they were created, and the first removal
+     * after that copies the array instead of shifting the entries of the one being iterated.
+     */
+    private static class HandleTable {
+        private static final int   INITIAL_CAPACITY = 64;
+        private static final float LOAD_FACTOR      = 0.75f;
+
+        private final ObjectComparator comparator;
+
+        private InternalFactHandle[]   handles;
+        private int[]                  hashes;
+        private int                    size;
+        private int                    threshold;
+
+        // whether the handles array is being walked by an iterator and must not be shifted
+        private boolean                iterated;
+
+        private HandleTable(ObjectComparator comparator) {
+            this.comparator = comparator;
+            allocate( INITIAL_CAPACITY );
+        }
+
+        private void allocate(int capacity) {
+            this.handles = new InternalFactHandle[capacity];
+            this.hashes = new int[capacity];
+            this.threshold = (int) ( capacity * LOAD_FACTOR );
+            this.iterated = false;
+        }
+
+        private InternalFactHandle[] iterate() {
+            iterated = true;
+            return handles;
+        }
+
+        /**
+         * Spreads the high bits of the hash code over the low ones, used to pick the slot,
+         * as many hash codes, e.g. of boxed numbers or small records, only differ in their
+         * high bits or are multiples of a power of two
+         */
+        private static int spread(int h) {
+            h = ( h ^ ( h >>> 16 ) ) * 0x9E3779B9;
+            return h ^ ( h >>> 16 );
+        }
+
+        private InternalFactHandle get(Object key) {
+            int index = indexOf( key );
+            return index >= 0 ? handles[index] : null;
+        }
+
+        private void add(InternalFactHandle handle) {
+            if ( size >= threshold ) {
+                resize( handles.length << 1 );
+            }
+            insert( handle, spread( comparator.hashCodeOf( handle ) ) );
+            size++;
+        }
+
+        private void insert(InternalFactHandle handle, int hash) {
+            int mask = handles.length - 1;
+            int i = hash & mask;
+            while ( handles[i] != null ) {
+                i = ( i + 1 ) & mask;
+            }
+            handles[i] = handle;
+            hashes[i] = hash;
+        }
+
+        private InternalFactHandle remove(Object key) {
+            int index = indexOf( key );
+            if ( index < 0 ) {
+                return null;
+            }
+            InternalFactHandle removed = handles[index];
+            delete( index );
+            size--;
+            return removed;
+        }
+
+        private int indexOf(Object key) {
+            int hash = spread( comparator.hashCodeOf( key ) );
+            int mask = handles.length - 1;
+            for ( int i = hash & mask; handles[i] != null; i = ( i + 1 ) & mask ) {
+                if ( hashes[i] == hash && comparator.equal( key, handles[i] ) ) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private void delete(int hole) {
+            if ( iterated ) {
+                handles = handles.clone();
+                iterated = false;
+            }
+            int mask = handles.length - 1;
+            handles[hole] = null;
+            for ( int i = ( hole + 1 ) & mask; handles[i] != null; i = ( i + 1 ) & mask ) {
+                int home = hashes[i] & mask;
+                // the entry can fill the hole only if its home slot is not cyclically within (hole, i]
+                boolean movable = hole <= i ? ( home <= hole || home > i ) : ( home <= hole && home > i );
+                if ( movable ) {
+                    handles[hole] = handles[i];
+                    hashes[hole] = hashes[i];
+                    handles[i] = null;
+                    hole = i;
+                }
+            }
+        }
+
+        private void resize(int capacity) {
+            InternalFactHandle[] oldHandles = handles;
+            int[] oldHashes = hashes;
+            allocate( capacity );
+            for ( int i = 0; i < oldHandles.length; i++ ) {
+                if ( oldHandles[i] != null ) {
+                    insert( oldHandles[i], oldHashes[i] );
+                }
+            }
+        }
+
+        private void clear() {
+            // drop the arrays as well, a cleared store should not hold the capacity of its largest size
+            allocate( INITIAL_CAPACITY );
+            size = 0;
+        }
+    }
+
+    private static class HandleIterator implements Iterator {
+        private final InternalFactHandle[] handles;
+        private final boolean              objects;
+        private final ObjectFilter         filter;
+        private int                        next = -1;
+
+        private HandleIterator(InternalFactHandle[] handles, boolean objects, ObjectFilter filter) {
+            this.handles = handles;
+            this.objects = objects;
+            this.filter = filter;
+            setNext();
+        }
+
+        private void setNext() {
+            for ( next++; next < handles.length; next++ ) {
+                InternalFactHandle handle = handles[next];
+                if ( handle != null && ( filter == null || filter.accept( handle.getObject() ) ) ) {
+                    return;
+                }
+            }
+        }
+
+        public boolean hasNext() {
+            return next < handles.length;
+        }
+
+        public Object next() {
+            if ( next >= handles.length ) {
+                throw new NoSuchElementException( "No more elements to return" );
+            }
+            InternalFactHandle handle = handles[next];
+            setNext();
+            return objects ? handle.getObject() : handle;
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException( "remove() is not support" );
+        }
+    }
+}
@@ -27,9 +27,12 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 
 import org.drools.core.RuleBaseConfiguration;
 import org.drools.core.WorkingMemory;
+import org.drools.core.phreak.ParallelNetworkEvaluator;
 import org.drools.core.phreak.RuleAgendaItem;
 import org.drools.core.phreak.RuleExecutor;
 import org.drools.core.phreak.StackEntry;
@@ -110,8 +113,10 @@ public class DefaultAgenda
 
     protected AtomicBoolean                                      halt               = new AtomicBoolean( true );
     protected volatile boolean                                 fireUntilHalt      = false;
+    // the thread running fireUntilHalt, unparked by notifyHalt when there is new work
+    private volatile Thread                                      firingThread;
 
-    protected int                                                activationCounter;
+    protected AtomicLong                                         activationCounter  = new AtomicLong();
 
     private boolean                                              declarativeAgenda;
 
@@ -119,6 +124,8 @@ public class DefaultAgenda
 
     private ActivationsFilter                                    activationsFilter;
 
+    private ParallelNetworkEvaluator                             parallelEvaluator;
+
     // ------------------------------------------------------------
     // Constructors
     // ------------------------------------------------------------
@@ -174,6 +181,14 @@ public class DefaultAgenda
         }
 
         this.declarativeAgenda = rb.getConfiguration().isDeclarativeAgenda();
+
+        initParallelEvaluator( rb.getConfiguration() );
+    }
+
+    private void initParallelEvaluator(RuleBaseConfiguration conf) {
+        if ( conf.isMultithreadEvaluation() && !conf.isSequential() ) {
+            this.parallelEvaluator = new ParallelNetworkEvaluator( conf.getMaxThreads() );
+        }
     }
 
     public void readExternal(ObjectInput in) throws IOException,
@@ -188,6 +203,10 @@ public class DefaultAgenda
         knowledgeHelper = (KnowledgeHelper) in.readObject();
         legacyConsequenceExceptionHandler = (ConsequenceExceptionHandler) in.readObject();
         declarativeAgenda = in.readBoolean();
+        if ( in instanceof DroolsObjectInputStream && ((DroolsObjectInputStream) in).getRuleBase() != null ) {
+            // the evaluator holds threads, it is not serialized but built again from the configuration
+            initParallelEvaluator( ((DroolsObjectInputStream) in).getRuleBase().getConfiguration() );
+        }
     }
 
     public void writeExternal(ObjectOutput out) throws IOException {
@@ -211,9 +230,9 @@ public class DefaultAgenda
 
         RuleAgendaItem lazyAgendaItem;
         if ( !StringUtils.isEmpty(ruleFlowGroupName) ) {
-            lazyAgendaItem = new RuleAgendaItem( activationCounter++, null, salience, null, rs, rtn, isDeclarativeAgenda(), (InternalAgendaGroup) getAgendaGroup( ruleFlowGroupName ));
+            lazyAgendaItem = new RuleAgendaItem( activationCounter.getAndIncrement(), null, salience, null, rs, rtn, isDeclarativeAgenda(), (InternalAgendaGroup) getAgendaGroup( ruleFlowGroupName ));
         }  else {
-            lazyAgendaItem = new RuleAgendaItem( activationCounter++, null, salience, null, rs, rtn, isDeclarativeAgenda(), (InternalAgendaGroup) getRuleFlowGroup( agendaGroupName ));
+            lazyAgendaItem = new RuleAgendaItem( activationCounter.getAndIncrement(), null, salience, null, rs, rtn, isDeclarativeAgenda(), (InternalAgendaGroup) getRuleFlowGroup( agendaGroupName ));
         }
 
         return lazyAgendaItem;
@@ -221,7 +240,7 @@ public class DefaultAgenda
 
     @Override
     public long getNextActivationCounter() {
-        return  activationCounter++;
+        return  activationCounter.getAndIncrement();
     }
 
     public AgendaItem createAgendaItem(final LeftTuple tuple,
@@ -231,7 +250,7 @@ public class DefaultAgenda
                                        RuleAgendaItem ruleAgendaItem,
                                        InternalAgendaGroup agendaGroup) {
         RuleTerminalNodeLeftTuple rtnLeftTuple = (RuleTerminalNodeLeftTuple) tuple;
-        rtnLeftTuple.init(activationCounter++,
+        rtnLeftTuple.init(activationCounter.getAndIncrement(),
                           salience,
                           context,
                           ruleAgendaItem, agendaGroup);
@@ -933,6 +952,11 @@ public class DefaultAgenda
                     }   else {
                         item = (RuleAgendaItem) group.peek();
                     }
+                    if ( item != null && parallelEvaluator != null && item.getRuleExecutor().isDirty() ) {
+                        // the network changed since the last evaluation, so first evaluate all dirty rules concurrently
+                        parallelEvaluator.evaluate( group, this.workingMemory );
+                        item = (RuleAgendaItem) group.peek();
+                    }
                     if (item != null) {
                         localFireCount = item.getRuleExecutor().evaluateNetworkAndFire(this.workingMemory, filter,
                                                                                        fireCount, fireLimit);
@@ -1151,6 +1175,7 @@ public class DefaultAgenda
     public void fireUntilHalt(final AgendaFilter agendaFilter) {
         if( this.halt.compareAndSet( true, false ) ) { // if this was false already means someone else is firing rules already
             fireUntilHalt = true;
+            firingThread = Thread.currentThread();
             try {
                 if ( log.isTraceEnabled() ) {
                     log.trace("Starting fireUntilHalt");
@@ -1158,23 +1183,18 @@ public class DefaultAgenda
                 while ( continueFiring( -1 ) ) {
                     boolean fired = fireNextItem( agendaFilter, 0, -1 ) > 0 ||
                                     !((AbstractWorkingMemory) this.workingMemory).getActionQueue().isEmpty();
+                    // drains all the actions queued by the producers since the last iteration
                     this.workingMemory.executeQueuedActions();
-                    if ( !fired ) {
-                        synchronized ( this.halt ) {
-                            // has to check in here because a different thread might have set the halt flag already
-                            if( ! this.halt.get() ) {
-                                // need to check again the agenda is still empty as a new activation
-                                // could have been created between the time it did not fire the last 
-                                // one and the synchronized block started
-                                InternalAgendaGroup nextFocus = getNextFocus();
-                                if( nextFocus == null || nextFocus.isEmpty() ) {
-                                    try {
-                                        this.halt.wait();
-                                    } catch (InterruptedException e) {
-                                        // nothing to do
-                                    }
-                                }
-                            }
+                    if ( !fired && !this.halt.get() ) {
+                        // need to check again the agenda is still empty as a new activation
+                        // could have been created since the last one was fired
+                        InternalAgendaGroup nextFocus = getNextFocus();
+                        if( nextFocus == null || nextFocus.isEmpty() ) {
+                            // no wakeup can be lost: an unpark issued after firingThread was set, even
+                            // before parking, leaves a permit that makes this park return immediately
+                            LockSupport.park( this );
+                            // as with the former wait(), an interrupt just wakes up the loop
+                            Thread.interrupted();
                         }
                     }
                 }
@@ -1182,6 +1202,7 @@ public class DefaultAgenda
                     log.trace("Ending fireUntilHalt");
                 }
             } finally {
+                firingThread = null;
                 fireUntilHalt = false;
                 this.halt.set(true);
             }
@@ -1217,8 +1238,11 @@ public class DefaultAgenda
     }
 
     public void notifyHalt() {
-        synchronized ( this.halt ) {
-            this.halt.notifyAll();
+        // no monitor is taken, so that producer threads inserting facts concurrently
+        // with fireUntilHalt do not contend on it
+        Thread thread = firingThread;
+        if ( thread != null ) {
+            LockSupport.unpark( thread );
         }
     }
 
@@ -24,9 +24,11 @@ import org.drools.core.rule.ContextEntry;
 import org.drools.core.rule.MutableTypeConstraint;
 import org.drools.core.rule.constraint.MvelConstraint;
 import org.drools.core.spi.BetaNodeFieldConstraint;
+import org.drools.core.util.bitmask.BitMask;
 import org.kie.internal.conf.IndexPrecedenceOption;
 
 import static org.drools.core.util.index.IndexUtil.isIndexableForNode;
+import static org.drools.core.reteoo.PropertySpecificUtil.allSetButTraitBitMask;
 
 public class DoubleBetaConstraints extends MultipleBetaConstraint {
 
@@ -157,11 +159,11 @@ public class DoubleBetaConstraints extends MultipleBetaConstraint {
         throw new UnsupportedOperationException();
     }
 
-    public long getListenedPropertyMask(List<String> settableProperties) {
+    public BitMask getListenedPropertyMask(List<String> settableProperties) {
         if (constraints[0] instanceof MvelConstraint && constraints[1] instanceof MvelConstraint) {
-            return ((MvelConstraint)constraints[0]).getListenedPropertyMask(settableProperties) |
-                    ((MvelConstraint)constraints[1]).getListenedPropertyMask(settableProperties);
+            return ((MvelConstraint)constraints[0]).getListenedPropertyMask(settableProperties)
+                    .setAll(((MvelConstraint)constraints[1]).getListenedPropertyMask(settableProperties));
         }
-        return Long.MAX_VALUE;
+        return allSetButTraitBitMask();
     }
 }
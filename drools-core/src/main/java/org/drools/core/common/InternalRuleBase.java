@@ -61,6 +61,8 @@ public interface InternalRuleBase
     
     Map<String, Package> getPackagesMap();
 
+    void addStatefulSession(StatefulSession statefulSession);
+
     void disposeStatefulSession(StatefulSession statefulSession);
     
     void executeQueuedActions();
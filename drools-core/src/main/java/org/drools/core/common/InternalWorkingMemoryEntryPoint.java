@@ -25,6 +25,7 @@ import org.drools.core.rule.Rule;
 
 
 import org.drools.core.spi.Activation;
+import org.drools.core.util.bitmask.BitMask;
 import org.kie.api.runtime.rule.EntryPoint;
 
 public interface InternalWorkingMemoryEntryPoint extends EntryPoint {
@@ -35,7 +36,7 @@ public interface InternalWorkingMemoryEntryPoint extends EntryPoint {
                         final Activation activation) throws FactException;
     public void update(org.kie.api.runtime.rule.FactHandle handle,
                        Object object,
-                       long mask,
+                       BitMask mask,
                        Class<?> modifiedClass,
                        Activation activation) throws FactException;
 
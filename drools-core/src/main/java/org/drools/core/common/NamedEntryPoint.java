@@ -20,10 +20,17 @@ import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.locks.ReentrantLock;
 
 import org.drools.core.FactException;
@@ -50,9 +57,12 @@ import org.drools.core.spi.Activation;
 import org.drools.core.spi.FactHandleFactory;
 import org.drools.core.spi.ObjectType;
 import org.drools.core.spi.PropagationContext;
+import org.drools.core.util.bitmask.BitMask;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import static org.drools.core.reteoo.PropertySpecificUtil.allSetButTraitBitMask;
+
 public class NamedEntryPoint
     implements
     InternalWorkingMemoryEntryPoint,
@@ -86,6 +96,14 @@ public class NamedEntryPoint
 
     protected Set<InternalFactHandle> dynamicFacts = null;
 
+    // the inserts staged by the producer threads when the session allows concurrent insertion,
+    // striped by thread so that each producer always appends to the same queue
+    private final ConcurrentLinkedQueue<StagedInsert>[] stagedInserts;
+
+    // the handles of the staged inserts not propagated yet, keyed as the object store does,
+    // so that inserting the same object again before a flush returns the same handle
+    private final ConcurrentMap<Object, InternalFactHandle> stagedHandles;
+
     public NamedEntryPoint(EntryPointId entryPoint,
                            EntryPointNode entryPointNode,
                            AbstractWorkingMemory wm) {
@@ -107,12 +125,32 @@ public class NamedEntryPoint
         this.typeConfReg = new ObjectTypeConfigurationRegistry(this.ruleBase);
         this.handleFactory = this.wm.getFactHandleFactory();
         this.pctxFactory = ruleBase.getConfiguration().getComponentFactory().getPropagationContextFactory();
-        this.objectStore = new SingleThreadedObjectStore(this.ruleBase.getConfiguration(),
-                                                         this.lock);
+        this.objectStore = this.wm.getSessionConfiguration().getObjectStoreType().createInstance(this.ruleBase.getConfiguration(),
+                                                                                                 this.lock);
+        this.stagedInserts = this.wm.getSessionConfiguration().isConcurrentInsertion() ? createStripes() : null;
+        this.stagedHandles = this.stagedInserts != null ? new ConcurrentHashMap<Object, InternalFactHandle>() : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ConcurrentLinkedQueue<StagedInsert>[] createStripes() {
+        int stripes = Integer.highestOneBit( Math.max( 1, Runtime.getRuntime().availableProcessors() - 1 ) ) << 1;
+        ConcurrentLinkedQueue<StagedInsert>[] queues = new ConcurrentLinkedQueue[stripes];
+        for ( int i = 0; i < stripes; i++ ) {
+            queues[i] = new ConcurrentLinkedQueue<StagedInsert>();
+        }
+        return queues;
     }
 
     public void reset() {
+        if ( this.stagedInserts != null ) {
+            for ( ConcurrentLinkedQueue<StagedInsert> queue : this.stagedInserts ) {
+                queue.clear();
+            }
+            this.stagedHandles.clear();
+        }
         this.objectStore.clear();
+        // the equality keys refer to the facts just cleared
+        this.tms = null;
     }
 
     public ObjectStore getObjectStore() {
@@ -146,6 +184,136 @@ public class NamedEntryPoint
                       null);
     }
 
+    /**
+     * Inserts all the given objects as a single batch. The locks are acquired, and the queued
+     * actions and staged activations flushed, once for the whole batch instead of once per object.
+     *
+     * The objects are propagated grouped by their ObjectTypeConf, so that all the facts of a type
+     * go through the same ObjectTypeNodes and alpha constraints one after the other; as a consequence
+     * facts of different types are not propagated in the order of the collection. Objects whose type
+     * is under truth maintenance, and all the objects of a sequential session, go through the plain
+     * insert.
+     *
+     * @return the handles of the given objects, in the order of the collection
+     */
+    public List<FactHandle> insertAll(final Collection<?> objects) throws FactException {
+        final Object[] array = objects.toArray();
+        final FactHandle[] handles = new FactHandle[array.length];
+        if ( array.length == 0 ) {
+            return Arrays.asList( handles );
+        }
+
+        if ( this.wm.isSequential() ) {
+            for ( int i = 0; i < array.length; i++ ) {
+                handles[i] = insert( array[i] );
+            }
+            return Arrays.asList( handles );
+        }
+
+        try {
+            this.wm.startOperation();
+
+            // counting sort of the objects by type, keeping the order of the collection within a type
+            final Map<ObjectTypeConf, Integer> typeIndexes = new IdentityHashMap<ObjectTypeConf, Integer>();
+            final List<ObjectTypeConf> typeConfs = new ArrayList<ObjectTypeConf>();
+            final int[] objectTypes = new int[array.length];
+            int[] typeCounts = new int[8];
+            for ( int i = 0; i < array.length; i++ ) {
+                if ( array[i] == null ) {
+                    // you cannot assert a null object
+                    objectTypes[i] = -1;
+                    continue;
+                }
+                ObjectTypeConf typeConf = this.typeConfReg.getObjectTypeConf( this.entryPoint,
+                                                                              array[i] );
+                Integer typeIndex = typeIndexes.get( typeConf );
+                if ( typeIndex == null ) {
+                    typeIndex = typeConfs.size();
+                    typeIndexes.put( typeConf, typeIndex );
+                    typeConfs.add( typeConf );
+                    if ( typeIndex == typeCounts.length ) {
+                        typeCounts = Arrays.copyOf( typeCounts, typeCounts.length << 1 );
+                    }
+                }
+                objectTypes[i] = typeIndex;
+                typeCounts[typeIndex]++;
+            }
+
+            final int[] typeStarts = new int[typeConfs.size() + 1];
+            for ( int t = 0; t < typeConfs.size(); t++ ) {
+                typeStarts[t + 1] = typeStarts[t] + typeCounts[t];
+            }
+            final int[] sorted = new int[typeStarts[typeConfs.size()]];
+            final int[] next = Arrays.copyOf( typeStarts, typeConfs.size() );
+            for ( int i = 0; i < array.length; i++ ) {
+                if ( objectTypes[i] >= 0 ) {
+                    sorted[next[objectTypes[i]]++] = i;
+                }
+            }
+
+            try {
+                this.lock.lock();
+                this.ruleBase.readLock();
+
+                this.ruleBase.executeQueuedActions();
+                this.wm.executeQueuedActions();
+
+                for ( int t = 0; t < typeConfs.size(); t++ ) {
+                    ObjectTypeConf typeConf = typeConfs.get( t );
+                    for ( int s = typeStarts[t]; s < typeStarts[t + 1]; s++ ) {
+                        int i = sorted[s];
+                        if ( typeConf.isTMSEnabled() ) {
+                            handles[i] = insert( array[i] );
+                        } else {
+                            handles[i] = insertInBatch( array[i], typeConf );
+                        }
+                    }
+                }
+
+                this.wm.executeQueuedActions();
+                this.wm.getAgenda().unstageActivations();
+            } finally {
+                this.ruleBase.readUnlock();
+                this.lock.unlock();
+            }
+            return Arrays.asList( handles );
+        } finally {
+            this.wm.endOperation();
+        }
+    }
+
+    private InternalFactHandle insertInBatch(final Object object,
+                                             final ObjectTypeConf typeConf) {
+        InternalFactHandle handle = this.objectStore.getHandleForObject( object );
+        if ( handle != null ) {
+            // the object, or an equal one, is already in the working memory
+            return handle;
+        }
+        handle = createHandle( object,
+                               typeConf );
+
+        if ( typeConf.isDynamic() ) {
+            addPropertyChangeListener( handle, false );
+        }
+
+        final PropagationContext propagationContext = this.pctxFactory.createPropagationContext( this.wm.getNextPropagationIdCounter(), PropagationContext.INSERTION, null,
+                                                                                                 null, handle, entryPoint );
+        this.entryPointNode.assertObject( handle,
+                                          propagationContext,
+                                          typeConf,
+                                          this.wm );
+
+        propagationContext.evaluateActionQueue( this.wm );
+
+        if ( !this.wm.workingMemoryEventSupport.isEmpty() ) {
+            this.wm.workingMemoryEventSupport.fireObjectInserted( propagationContext,
+                                                                  handle,
+                                                                  object,
+                                                                  this.wm );
+        }
+        return handle;
+    }
+
     protected FactHandle insert(final Object object,
                                 final Object tmsValue,
                                 final boolean dynamic,
@@ -157,6 +325,17 @@ public class NamedEntryPoint
             return null;
         }
 
+        if ( this.stagedInserts != null ) {
+            if ( rule == null && !logical && !this.lock.isHeldByCurrentThread() && !this.wm.isSequential() ) {
+                return stageInsert( object,
+                                    dynamic );
+            }
+            if ( getStagedHandle( object ) != null ) {
+                // the same object is still staged, it must be in the object store to be found
+                flushStagedInserts();
+            }
+        }
+
         try {
             this.wm.startOperation();
 
@@ -250,7 +429,7 @@ public class NamedEntryPoint
                                 TruthMaintenanceSystemHelper.clearLogicalDependencies( justifiedHandle, propagationContext );
                                 
                                 // now update existing handle to new value
-                                return update( justifiedHandle, true, object, Long.MAX_VALUE, Object.class, activation );
+                                return update( justifiedHandle, true, object, allSetButTraitBitMask(), Object.class, activation );
                         } else   {  // STATED 
                             handle = createHandle( object,
                                                    typeConf ); // we know the handle is null                                                    
@@ -293,6 +472,179 @@ public class NamedEntryPoint
 
     }
 
+    /**
+     * Creates the handle of the given object and stages it until the engine propagates it with
+     * {@link #flushStagedInserts()}. The entry point lock is only held to check whether the object is
+     * already known, while the propagation is left to the engine thread. If the same object, or an
+     * equal one under equality assert behaviour, is already in the working memory or still staged,
+     * its handle is returned instead, as done by a plain insert.
+     */
+    private FactHandle stageInsert(final Object object,
+                                   final boolean dynamic) {
+        ObjectTypeConf typeConf = this.typeConfReg.getObjectTypeConf( this.entryPoint,
+                                                                      object );
+        Object key = getStagingKey( object );
+        InternalFactHandle handle;
+        try {
+            this.lock.lock();
+            handle = this.objectStore.getHandleForObject( object );
+            if ( handle == null && typeConf.isTMSEnabled() && getTruthMaintenanceSystem().get( object ) != null ) {
+                // an equal object is stated or justified, its status can only be changed by a plain insert
+                return insert( object, null, dynamic, false, null, null );
+            }
+            if ( handle != null ) {
+                return handle;
+            }
+            handle = this.stagedHandles.get( key );
+            if ( handle != null ) {
+                return handle;
+            }
+
+            handle = this.handleFactory.newFactHandle( object,
+                                                       typeConf,
+                                                       this.wm,
+                                                       this );
+            this.stagedHandles.put( key,
+                                    handle );
+            ConcurrentLinkedQueue<StagedInsert> queue = this.stagedInserts[(int) Thread.currentThread().getId() & ( this.stagedInserts.length - 1 )];
+            queue.add( new StagedInsert( handle,
+                                         key,
+                                         typeConf,
+                                         dynamic ) );
+        } finally {
+            this.lock.unlock();
+        }
+        // wakes up fireUntilHalt, if it is waiting for something to do
+        this.wm.agenda.notifyHalt();
+        return handle;
+    }
+
+    /**
+     * Propagates the inserts staged by the producer threads. Each queue is drained in order, so the
+     * facts inserted by the same thread are propagated in the order they have been inserted.
+     */
+    public void flushStagedInserts() {
+        if ( this.stagedInserts == null || !hasStagedInserts() ) {
+            return;
+        }
+        try {
+            this.lock.lock();
+            this.ruleBase.readLock();
+            this.wm.startOperation();
+            for ( ConcurrentLinkedQueue<StagedInsert> queue : this.stagedInserts ) {
+                StagedInsert staged;
+                while ( (staged = queue.poll()) != null ) {
+                    insertStaged( staged );
+                    // only now the handle can be found in the object store
+                    this.stagedHandles.remove( staged.key,
+                                               staged.handle );
+                }
+            }
+            this.wm.getAgenda().unstageActivations();
+        } finally {
+            this.wm.endOperation();
+            this.ruleBase.readUnlock();
+            this.lock.unlock();
+        }
+    }
+
+    private Object getStagingKey(Object object) {
+        return AssertBehaviour.IDENTITY.equals( this.ruleBase.getConfiguration().getAssertBehaviour() ) ?
+               new IdentityKey( object ) :
+               object;
+    }
+
+    private InternalFactHandle getStagedHandle(Object object) {
+        return this.stagedHandles != null && !this.stagedHandles.isEmpty() ?
+               this.stagedHandles.get( getStagingKey( object ) ) :
+               null;
+    }
+
+    private boolean hasStagedInserts() {
+        for ( ConcurrentLinkedQueue<StagedInsert> queue : this.stagedInserts ) {
+            if ( !queue.isEmpty() ) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void insertStaged(final StagedInsert staged) {
+        // the objects already in the working memory, or having an equality key, are never staged, and
+        // inserting an object while it is staged propagates it first, so this is always a new fact
+        final InternalFactHandle handle = staged.handle;
+        final Object object = handle.getObject();
+
+        final ObjectTypeConf typeConf = staged.typeConf;
+        if ( typeConf.isTMSEnabled() ) {
+            TruthMaintenanceSystem tms = getTruthMaintenanceSystem();
+            EqualityKey key = tms.get( object );
+            if ( key == null ) {
+                key = new EqualityKey( handle );
+                tms.put( key );
+            } else {
+                key.addFactHandle( handle );
+            }
+            handle.setEqualityKey( key );
+            key.setStatus( EqualityKey.STATED );
+        }
+
+        this.objectStore.addHandle( handle,
+                                    object );
+        if ( staged.dynamic || typeConf.isDynamic() ) {
+            addPropertyChangeListener( handle, staged.dynamic );
+        }
+
+        final PropagationContext propagationContext = this.pctxFactory.createPropagationContext( this.wm.getNextPropagationIdCounter(), PropagationContext.INSERTION, null,
+                                                                                                 null, handle, entryPoint );
+        this.entryPointNode.assertObject( handle,
+                                          propagationContext,
+                                          typeConf,
+                                          this.wm );
+
+        propagationContext.evaluateActionQueue( this.wm );
+
+        if ( !this.wm.workingMemoryEventSupport.isEmpty() ) {
+            this.wm.workingMemoryEventSupport.fireObjectInserted( propagationContext,
+                                                                  handle,
+                                                                  object,
+                                                                  this.wm );
+        }
+    }
+
+    private static class StagedInsert {
+        private final InternalFactHandle handle;
+        private final Object             key;
+        private final ObjectTypeConf     typeConf;
+        private final boolean            dynamic;
+
+        private StagedInsert(InternalFactHandle handle,
+                             Object key,
+                             ObjectTypeConf typeConf,
+                             boolean dynamic) {
+            this.handle = handle;
+            this.key = key;
+            this.typeConf = typeConf;
+            this.dynamic = dynamic;
+        }
+    }
+
+    private static class IdentityKey {
+        private final Object object;
+
+        private IdentityKey(Object object) {
+            this.object = object;
+        }
+
+        public boolean equals(Object other) {
+            return other instanceof IdentityKey && ( (IdentityKey) other ).object == this.object;
+        }
+
+        public int hashCode() {
+            return System.identityHashCode( this.object );
+        }
+    }
+
     private void insertWhenHandleExists(final Object object,
                                               final Object tmsValue,
                                               boolean logical,
@@ -382,14 +734,14 @@ public class NamedEntryPoint
         update( handle,
                 false,
                 object,
-                Long.MAX_VALUE,
+                allSetButTraitBitMask(),
                 Object.class,
                 null );
     }
     
     public void update(final org.kie.api.runtime.rule.FactHandle factHandle,
                        final Object object,
-                       final long mask,
+                       final BitMask mask,
                        final Class<?> modifiedClass,
                        final Activation activation) throws FactException {
         InternalFactHandle handle = (InternalFactHandle) factHandle;
@@ -404,9 +756,11 @@ public class NamedEntryPoint
     public InternalFactHandle update(InternalFactHandle handle,
                                      final boolean updateLogical,
                                      final Object object,
-                                     final long mask,
+                                     final BitMask mask,
                                      final Class<?> modifiedClass,
                                      final Activation activation) throws FactException {
+        // the handle might still be staged
+        flushStagedInserts();
         try {
             this.lock.lock();
             this.ruleBase.readLock();
@@ -545,6 +899,8 @@ public class NamedEntryPoint
         if ( factHandle == null ) {
             throw new IllegalArgumentException( "FactHandle cannot be null " );
         }
+        // the handle might still be staged
+        flushStagedInserts();
         try {
             this.lock.lock();
             this.ruleBase.readLock();
@@ -718,7 +1074,8 @@ public class NamedEntryPoint
     }
 
     public FactHandle getFactHandle(Object object) {
-        return this.objectStore.getHandleForObject( object );
+        InternalFactHandle staged = getStagedHandle( object );
+        return staged != null ? staged : this.objectStore.getHandleForObject( object );
     }
 
     public EntryPointId getEntryPoint() {
@@ -730,7 +1087,8 @@ public class NamedEntryPoint
     }
 
     public FactHandle getFactHandleByIdentity(final Object object) {
-        return this.objectStore.getHandleForObjectIdentity( object );
+        InternalFactHandle staged = getStagedHandle( object );
+        return staged != null && staged.getObject() == object ? staged : this.objectStore.getHandleForObjectIdentity( object );
     }
 
     public Object getObject(org.kie.api.runtime.rule.FactHandle factHandle) {
@@ -739,6 +1097,7 @@ public class NamedEntryPoint
 
     @SuppressWarnings("unchecked")
     public <T extends org.kie.api.runtime.rule.FactHandle> Collection<T> getFactHandles() {
+        flushStagedInserts();
         return new ObjectStoreWrapper( this.objectStore,
                                        null,
                                        ObjectStoreWrapper.FACT_HANDLE );
@@ -746,6 +1105,7 @@ public class NamedEntryPoint
 
     @SuppressWarnings("unchecked")
     public <T extends org.kie.api.runtime.rule.FactHandle> Collection<T> getFactHandles(org.kie.api.runtime.ObjectFilter filter) {
+        flushStagedInserts();
         return new ObjectStoreWrapper( this.objectStore,
                                        filter,
                                        ObjectStoreWrapper.FACT_HANDLE );
@@ -753,6 +1113,7 @@ public class NamedEntryPoint
 
     @SuppressWarnings("unchecked")
     public Collection<? extends Object> getObjects() {
+        flushStagedInserts();
         return new ObjectStoreWrapper( this.objectStore,
                                        null,
                                        ObjectStoreWrapper.OBJECT );
@@ -760,6 +1121,7 @@ public class NamedEntryPoint
 
     @SuppressWarnings("unchecked")
     public Collection<? extends Object> getObjects(org.kie.api.runtime.ObjectFilter filter) {
+        flushStagedInserts();
         return new ObjectStoreWrapper( this.objectStore,
                                        filter,
                                        ObjectStoreWrapper.OBJECT );
@@ -770,6 +1132,8 @@ public class NamedEntryPoint
     }
 
     public long getFactCount() {
+        // the staged inserts might refer to objects already in the working memory
+        flushStagedInserts();
         return this.objectStore.size();
     }
     
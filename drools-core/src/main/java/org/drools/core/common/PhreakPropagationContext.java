@@ -26,7 +26,7 @@ import org.drools.core.rule.Rule;
 import org.drools.core.rule.TypeDeclaration;
 import org.drools.core.spi.ObjectType;
 import org.drools.core.spi.PropagationContext;
-import org.drools.core.util.BitMaskUtil;
+import org.drools.core.util.bitmask.BitMask;
 
 import java.io.IOException;
 import java.io.ObjectInput;
@@ -35,6 +35,13 @@ import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 
+import static org.drools.core.reteoo.PropertySpecificUtil.TRAITSET_BIT;
+import static org.drools.core.reteoo.PropertySpecificUtil.allSetButTraitBitMask;
+import static org.drools.core.reteoo.PropertySpecificUtil.getEmptyPropertyReactiveMask;
+import static org.drools.core.reteoo.PropertySpecificUtil.isPropertySetOnMask;
+import static org.drools.core.reteoo.PropertySpecificUtil.isTraitBitSet;
+import static org.drools.core.reteoo.PropertySpecificUtil.setPropertyOnMask;
+
 public class PhreakPropagationContext
         implements
         PropagationContext {
@@ -55,9 +62,9 @@ public class PhreakPropagationContext
 
     private int                             originOffset;
 
-    private long                            modificationMask = Long.MAX_VALUE;
+    private BitMask                         modificationMask = allSetButTraitBitMask();
 
-    private long                            originalMask = Long.MAX_VALUE;
+    private BitMask                         originalMask = allSetButTraitBitMask();
 
     private Class<?>                        modifiedClass;
 
@@ -82,7 +89,7 @@ public class PhreakPropagationContext
               leftTuple,
               factHandle,
               EntryPointId.DEFAULT,
-              Long.MAX_VALUE,
+              allSetButTraitBitMask(),
               Object.class,
               null );
         this.originOffset = -1;
@@ -100,7 +107,7 @@ public class PhreakPropagationContext
               leftTuple,
               factHandle,
               entryPoint,
-              Long.MAX_VALUE,
+              allSetButTraitBitMask(),
               Object.class,
               null );
     }
@@ -113,7 +120,7 @@ public class PhreakPropagationContext
                                     final int activeActivations,
                                     final int dormantActivations,
                                     final EntryPointId entryPoint,
-                                    final long modificationMask) {
+                                    final BitMask modificationMask) {
         this( number,
               type,
               rule,
@@ -138,7 +145,7 @@ public class PhreakPropagationContext
               leftTuple,
               factHandle,
               entryPoint,
-              Long.MAX_VALUE,
+              allSetButTraitBitMask(),
               Object.class,
               readerContext );
     }
@@ -149,7 +156,7 @@ public class PhreakPropagationContext
                                     final LeftTuple leftTuple,
                                     final InternalFactHandle factHandle,
                                     final EntryPointId entryPoint,
-                                    final long modificationMask,
+                                    final BitMask modificationMask,
                                     final Class<?> modifiedClass,
                                     final MarshallerReaderContext readerContext) {
         this.type = type;
@@ -173,7 +180,7 @@ public class PhreakPropagationContext
         this.leftTuple = (LeftTuple) in.readObject();
         this.entryPoint = (EntryPointId) in.readObject();
         this.originOffset = in.readInt();
-        this.modificationMask = in.readLong();
+        this.modificationMask = (BitMask) in.readObject();
     }
 
     public void writeExternal(ObjectOutput out) throws IOException {
@@ -183,7 +190,7 @@ public class PhreakPropagationContext
         out.writeObject( this.leftTuple );
         out.writeObject( this.entryPoint );
         out.writeInt( this.originOffset );
-        out.writeLong(this.modificationMask);
+        out.writeObject(this.modificationMask);
     }
 
     public long getPropagationNumber() {
@@ -283,50 +290,47 @@ public class PhreakPropagationContext
         // return, do nothing, this is for rete only
     }
 
-    public long getModificationMask() {
+    public BitMask getModificationMask() {
         return modificationMask;
     }
 
     public PropagationContext adaptModificationMaskForObjectType(ObjectType type, InternalWorkingMemory workingMemory) {
         modificationMask = originalMask;
-        if (modificationMask == Long.MAX_VALUE || !(type instanceof ClassObjectType)) {
+        if (modificationMask == allSetButTraitBitMask() || !(type instanceof ClassObjectType)) {
             return this;
         }
 
-        long typeBit = modificationMask & Long.MIN_VALUE;
-        modificationMask &= Long.MAX_VALUE;
-
         ClassObjectType classObjectType = (ClassObjectType)type;
         Class<?> classType = classObjectType.getClassType();
         String pkgName = classType.getPackage().getName();
 
         if (classType == modifiedClass || "java.lang".equals(pkgName) || !(classType.isInterface() || modifiedClass.isInterface())) {
-            modificationMask |= typeBit;
             return this;
         }
 
-        Long cachedMask = classObjectType.getTransformedMask(modifiedClass, originalMask);
+        BitMask cachedMask = classObjectType.getTransformedMask(modifiedClass, originalMask);
         if (cachedMask != null) {
             modificationMask = cachedMask;
-            modificationMask |= typeBit;
             return this;
         }
 
-        modificationMask = 0L;
         List<String> typeClassProps = getSettableProperties(workingMemory, classType, pkgName);
         List<String> modifiedClassProps = getSettableProperties( workingMemory, modifiedClass );
 
+        modificationMask = getEmptyPropertyReactiveMask(typeClassProps.size());
+        if (isTraitBitSet(originalMask)) {
+            modificationMask = modificationMask.set(TRAITSET_BIT);
+        }
+
         for (int i = 0; i < modifiedClassProps.size(); i++) {
-            if (BitMaskUtil.isPositionSet(originalMask, i)) {
+            if (isPropertySetOnMask(originalMask, i)) {
                 int posInType = typeClassProps.indexOf(modifiedClassProps.get(i));
                 if (posInType >= 0) {
-                    modificationMask = BitMaskUtil.set(modificationMask, posInType);
+                    modificationMask = setPropertyOnMask(modificationMask, posInType);
                 }
             }
         }
 
-        modificationMask |= typeBit;
-
         classObjectType.storeTransformedMask(modifiedClass, originalMask, modificationMask);
 
         return this;
@@ -5,6 +5,7 @@ import org.drools.core.reteoo.LeftTuple;
 import org.drools.core.rule.EntryPointId;
 import org.drools.core.rule.Rule;
 import org.drools.core.spi.PropagationContext;
+import org.drools.core.util.bitmask.BitMask;
 
 public interface PropagationContextFactory {
 
@@ -14,7 +15,7 @@ public interface PropagationContextFactory {
                                                        final LeftTuple leftTuple,
                                                        final InternalFactHandle factHandle,
                                                        final EntryPointId entryPoint,
-                                                       final long modificationMask,
+                                                       final BitMask modificationMask,
                                                        final Class<?> modifiedClass,
                                                        final MarshallerReaderContext readerContext);
 
@@ -34,7 +35,7 @@ public interface PropagationContextFactory {
                                                        final int activeActivations,
                                                        final int dormantActivations,
                                                        final EntryPointId entryPoint,
-                                                       final long modificationMask);
+                                                       final BitMask modificationMask);
 
     public PropagationContext createPropagationContext(final long number,
                                                        final int type,
@@ -29,6 +29,9 @@ import org.drools.core.rule.ContextEntry;
 import org.drools.core.rule.MutableTypeConstraint;
 import org.drools.core.rule.constraint.MvelConstraint;
 import org.drools.core.spi.BetaNodeFieldConstraint;
+import org.drools.core.util.bitmask.BitMask;
+
+import static org.drools.core.reteoo.PropertySpecificUtil.allSetButTraitBitMask;
 
 public class QuadroupleNonIndexSkipBetaConstraints 
     implements
@@ -158,14 +161,14 @@ public class QuadroupleNonIndexSkipBetaConstraints
         return this.constraints.isAllowedCachedRight( context, tuple );
     }
 
-    public long getListenedPropertyMask(List<String> settableProperties) {
+    public BitMask getListenedPropertyMask(List<String> settableProperties) {
         if (constraint0 instanceof MvelConstraint && constraint1 instanceof MvelConstraint && constraint2 instanceof MvelConstraint && constraint3 instanceof MvelConstraint) {
-            return ((MvelConstraint)constraint0).getListenedPropertyMask(settableProperties) |
-                    ((MvelConstraint)constraint1).getListenedPropertyMask(settableProperties) |
-                    ((MvelConstraint)constraint2).getListenedPropertyMask(settableProperties) |
-                    ((MvelConstraint)constraint3).getListenedPropertyMask(settableProperties);
+            return ((MvelConstraint)constraint0).getListenedPropertyMask(settableProperties)
+                    .setAll(((MvelConstraint)constraint1).getListenedPropertyMask(settableProperties))
+                    .setAll(((MvelConstraint)constraint2).getListenedPropertyMask(settableProperties))
+                    .setAll(((MvelConstraint)constraint3).getListenedPropertyMask(settableProperties));
         }
-        return Long.MAX_VALUE;
+        return allSetButTraitBitMask();
     }
 
     public boolean isLeftUpdateOptimizationAllowed() {
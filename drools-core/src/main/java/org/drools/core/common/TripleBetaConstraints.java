@@ -22,10 +22,13 @@ import org.drools.core.rule.ContextEntry;
 import org.drools.core.rule.MutableTypeConstraint;
 import org.drools.core.rule.constraint.MvelConstraint;
 import org.drools.core.spi.BetaNodeFieldConstraint;
+import org.drools.core.util.bitmask.BitMask;
 import org.kie.internal.conf.IndexPrecedenceOption;
 
 import java.util.List;
 
+import static org.drools.core.reteoo.PropertySpecificUtil.allSetButTraitBitMask;
+
 public class TripleBetaConstraints extends MultipleBetaConstraint {
 
     private static final long             serialVersionUID = 510l;
@@ -167,12 +170,12 @@ public class TripleBetaConstraints extends MultipleBetaConstraint {
         throw new UnsupportedOperationException();
     }
 
-    public long getListenedPropertyMask(List<String> settableProperties) {
+    public BitMask getListenedPropertyMask(List<String> settableProperties) {
         if (constraints[0] instanceof MvelConstraint && constraints[1] instanceof MvelConstraint && constraints[2] instanceof MvelConstraint) {
-            return ((MvelConstraint)constraints[0]).getListenedPropertyMask(settableProperties) |
-                    ((MvelConstraint)constraints[1]).getListenedPropertyMask(settableProperties) |
-                    ((MvelConstraint)constraints[2]).getListenedPropertyMask(settableProperties);
+            return ((MvelConstraint)constraints[0]).getListenedPropertyMask(settableProperties)
+                    .setAll(((MvelConstraint)constraints[1]).getListenedPropertyMask(settableProperties))
+                    .setAll(((MvelConstraint)constraints[2]).getListenedPropertyMask(settableProperties));
         }
-        return Long.MAX_VALUE;
+        return allSetButTraitBitMask();
     }
 }
@@ -24,12 +24,15 @@ import org.drools.core.rule.ContextEntry;
 import org.drools.core.rule.MutableTypeConstraint;
 import org.drools.core.rule.constraint.MvelConstraint;
 import org.drools.core.spi.BetaNodeFieldConstraint;
+import org.drools.core.util.bitmask.BitMask;
 
 import java.io.IOException;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
 import java.util.List;
 
+import static org.drools.core.reteoo.PropertySpecificUtil.allSetButTraitBitMask;
+
 public class TripleNonIndexSkipBetaConstraints 
     implements
     BetaConstraints {
@@ -154,13 +157,13 @@ public class TripleNonIndexSkipBetaConstraints
         return this.constraints.isAllowedCachedRight( context, tuple );
     }
 
-    public long getListenedPropertyMask(List<String> settableProperties) {
+    public BitMask getListenedPropertyMask(List<String> settableProperties) {
         if (constraint0 instanceof MvelConstraint && constraint1 instanceof MvelConstraint && constraint2 instanceof MvelConstraint) {
-            return ((MvelConstraint)constraint0).getListenedPropertyMask(settableProperties) |
-                    ((MvelConstraint)constraint1).getListenedPropertyMask(settableProperties) |
-                    ((MvelConstraint)constraint2).getListenedPropertyMask(settableProperties);
+            return ((MvelConstraint)constraint0).getListenedPropertyMask(settableProperties)
+                    .setAll(((MvelConstraint)constraint1).getListenedPropertyMask(settableProperties))
+                    .setAll(((MvelConstraint)constraint2).getListenedPropertyMask(settableProperties));
         }
-        return Long.MAX_VALUE;
+        return allSetButTraitBitMask();
     }
 
     public boolean isLeftUpdateOptimizationAllowed() {
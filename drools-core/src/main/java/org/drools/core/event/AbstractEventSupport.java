@@ -45,6 +45,7 @@ public abstract class AbstractEventSupport<E extends EventListener> implements E
     @SuppressWarnings("unchecked")
     public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
         listeners = (List<E>) in.readObject();
+        listenersChanged();
     }
 
     public void writeExternal(ObjectOutput out) throws IOException {
@@ -64,6 +65,7 @@ public abstract class AbstractEventSupport<E extends EventListener> implements E
     public final synchronized void addEventListener(final E listener) {
         if (!this.listeners.contains(listener)) {
             this.listeners.add(listener);
+            listenersChanged();
         }
     }
 
@@ -83,10 +85,13 @@ public abstract class AbstractEventSupport<E extends EventListener> implements E
                 listenerIndex++;
             }
         }
+        listenersChanged();
     }
 
-    public final void removeEventListener(final E listener) {
-        this.listeners.remove(listener);
+    public final synchronized void removeEventListener(final E listener) {
+        if (this.listeners.remove(listener)) {
+            listenersChanged();
+        }
     }
 
     public List<E> getEventListeners() {
@@ -101,7 +106,15 @@ public abstract class AbstractEventSupport<E extends EventListener> implements E
         return this.listeners.isEmpty();
     }
         
-    public void clear() {
+    public synchronized void clear() {
         this.listeners.clear();
+        listenersChanged();
+    }
+
+    /**
+     * Invoked after each change to the listeners, so that subclasses can cache what they need to
+     * know about them instead of iterating them on each event
+     */
+    protected void listenersChanged() {
     }
 }
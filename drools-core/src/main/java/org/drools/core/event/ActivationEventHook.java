@@ -0,0 +1,47 @@
+/*
+ * Copyright 2014 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.event;
+
+import org.drools.core.WorkingMemory;
+import org.drools.core.spi.Activation;
+import org.kie.api.event.rule.MatchCancelledCause;
+
+/**
+ * An agenda listener notified with the activation itself instead of an event object.
+ * When a listener implements this interface the AgendaEventSupport calls these methods
+ * in place of the event based ones, so that notifying it doesn't allocate anything on
+ * the firing path. This is meant for listeners that are always registered, like the
+ * monitoring ones.
+ */
+public interface ActivationEventHook
+    extends
+    AgendaEventListener {
+
+    void activationCreated(Activation activation,
+                           WorkingMemory workingMemory);
+
+    void activationCancelled(Activation activation,
+                             WorkingMemory workingMemory,
+                             MatchCancelledCause cause);
+
+    void beforeActivationFired(Activation activation,
+                               WorkingMemory workingMemory);
+
+    void afterActivationFired(Activation activation,
+                              WorkingMemory workingMemory);
+
+}
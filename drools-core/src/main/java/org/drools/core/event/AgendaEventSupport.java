@@ -20,6 +20,7 @@ import java.util.Iterator;
 
 import org.drools.core.WorkingMemory;
 import org.drools.core.common.InternalWorkingMemory;
+import org.drools.core.rule.Rule;
 import org.drools.core.spi.Activation;
 import org.drools.core.spi.AgendaGroup;
 import org.drools.core.spi.RuleFlowGroup;
@@ -27,6 +28,9 @@ import org.kie.api.event.rule.MatchCancelledCause;
 
 public class AgendaEventSupport extends AbstractEventSupport<AgendaEventListener> {
 
+    // whether any listener is a RuleEvaluationHook, checked on each network evaluation
+    private volatile boolean ruleEvaluationObserved;
+
     public AgendaEventSupport() {
     }
 
@@ -35,10 +39,18 @@ public class AgendaEventSupport extends AbstractEventSupport<AgendaEventListener
         final Iterator<AgendaEventListener> iter = getEventListenersIterator();
 
         if (iter.hasNext()) {
-            final ActivationCreatedEvent event = new ActivationCreatedEvent(activation);
+            ActivationCreatedEvent event = null;
 
             do{
-                iter.next().activationCreated(event, workingMemory);
+                final AgendaEventListener listener = iter.next();
+                if (listener instanceof ActivationEventHook) {
+                    ((ActivationEventHook) listener).activationCreated(activation, workingMemory);
+                } else {
+                    if (event == null) {
+                        event = new ActivationCreatedEvent(activation);
+                    }
+                    listener.activationCreated(event, workingMemory);
+                }
             }  while (iter.hasNext());
         }
     }
@@ -49,10 +61,18 @@ public class AgendaEventSupport extends AbstractEventSupport<AgendaEventListener
         final Iterator<AgendaEventListener> iter = getEventListenersIterator();
 
         if (iter.hasNext()) {
-            final ActivationCancelledEvent event = new ActivationCancelledEvent(activation, cause);
+            ActivationCancelledEvent event = null;
 
             do{
-                iter.next().activationCancelled(event, workingMemory);
+                final AgendaEventListener listener = iter.next();
+                if (listener instanceof ActivationEventHook) {
+                    ((ActivationEventHook) listener).activationCancelled(activation, workingMemory, cause);
+                } else {
+                    if (event == null) {
+                        event = new ActivationCancelledEvent(activation, cause);
+                    }
+                    listener.activationCancelled(event, workingMemory);
+                }
             }  while (iter.hasNext());
         }
     }
@@ -62,10 +82,18 @@ public class AgendaEventSupport extends AbstractEventSupport<AgendaEventListener
         final Iterator<AgendaEventListener> iter = getEventListenersIterator();
 
         if (iter.hasNext()) {
-            final BeforeActivationFiredEvent event = new BeforeActivationFiredEvent(activation);
+            BeforeActivationFiredEvent event = null;
 
             do{
-                iter.next().beforeActivationFired(event, workingMemory);
+                final AgendaEventListener listener = iter.next();
+                if (listener instanceof ActivationEventHook) {
+                    ((ActivationEventHook) listener).beforeActivationFired(activation, workingMemory);
+                } else {
+                    if (event == null) {
+                        event = new BeforeActivationFiredEvent(activation);
+                    }
+                    listener.beforeActivationFired(event, workingMemory);
+                }
             }  while (iter.hasNext());
         }
     }
@@ -75,14 +103,52 @@ public class AgendaEventSupport extends AbstractEventSupport<AgendaEventListener
         final Iterator<AgendaEventListener> iter = getEventListenersIterator();
 
         if (iter.hasNext()) {
-            final AfterActivationFiredEvent event = new AfterActivationFiredEvent(activation);
+            AfterActivationFiredEvent event = null;
 
             do{
-                iter.next().afterActivationFired(event, workingMemory);
+                final AgendaEventListener listener = iter.next();
+                if (listener instanceof ActivationEventHook) {
+                    ((ActivationEventHook) listener).afterActivationFired(activation, workingMemory);
+                } else {
+                    if (event == null) {
+                        event = new AfterActivationFiredEvent(activation);
+                    }
+                    listener.afterActivationFired(event, workingMemory);
+                }
             }  while (iter.hasNext());
         }
     }
 
+    public boolean isRuleEvaluationObserved() {
+        return ruleEvaluationObserved;
+    }
+
+    @Override
+    protected void listenersChanged() {
+        boolean observed = false;
+        final Iterator<AgendaEventListener> iter = getEventListenersIterator();
+        while (iter.hasNext()) {
+            if (iter.next() instanceof RuleEvaluationHook) {
+                observed = true;
+                break;
+            }
+        }
+        ruleEvaluationObserved = observed;
+    }
+
+    public void fireRuleEvaluated(final Rule rule,
+                                  final long nanos,
+                                  final WorkingMemory workingMemory) {
+        final Iterator<AgendaEventListener> iter = getEventListenersIterator();
+
+        while (iter.hasNext()) {
+            final AgendaEventListener listener = iter.next();
+            if (listener instanceof RuleEvaluationHook) {
+                ((RuleEvaluationHook) listener).ruleEvaluated(rule, nanos, workingMemory);
+            }
+        }
+    }
+
     public void fireAgendaGroupPopped(final AgendaGroup agendaGroup,
                                       final InternalWorkingMemory workingMemory) {
         final Iterator<AgendaEventListener> iter = getEventListenersIterator();
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2014 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.drools.core.event;
+
+import org.drools.core.WorkingMemory;
+import org.drools.core.rule.Rule;
+
+/**
+ * An agenda listener notified each time the network of a rule has been evaluated, with
+ * the time taken by the evaluation. The evaluations are timed only while at least one
+ * such listener is registered.
+ */
+public interface RuleEvaluationHook
+    extends
+    AgendaEventListener {
+
+    void ruleEvaluated(Rule rule,
+                       long nanos,
+                       WorkingMemory workingMemory);
+
+}
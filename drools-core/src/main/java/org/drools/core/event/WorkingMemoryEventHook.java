@@ -0,0 +1,49 @@
+/*
+ * Copyright 2014 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.event;
+
+import org.drools.core.FactHandle;
+import org.drools.core.common.InternalWorkingMemory;
+import org.drools.core.spi.PropagationContext;
+
+/**
+ * A working memory listener notified with the fact handle and the object instead of an
+ * event object. When a listener implements this interface the WorkingMemoryEventSupport
+ * calls these methods in place of the event based ones, so that notifying it doesn't
+ * allocate anything for each insert, update or delete.
+ */
+public interface WorkingMemoryEventHook
+    extends
+    WorkingMemoryEventListener {
+
+    void objectInserted(PropagationContext propagationContext,
+                        FactHandle handle,
+                        Object object,
+                        InternalWorkingMemory workingMemory);
+
+    void objectUpdated(PropagationContext propagationContext,
+                       FactHandle handle,
+                       Object oldObject,
+                       Object object,
+                       InternalWorkingMemory workingMemory);
+
+    void objectRetracted(PropagationContext propagationContext,
+                         FactHandle handle,
+                         Object oldObject,
+                         InternalWorkingMemory workingMemory);
+
+}
@@ -31,13 +31,21 @@ public class WorkingMemoryEventSupport extends AbstractEventSupport<WorkingMemor
         final Iterator<WorkingMemoryEventListener> iter = getEventListenersIterator();
 
         if (iter.hasNext()) {
-            final ObjectInsertedEvent event = new ObjectInsertedEvent(workingMemory,
-                    propagationContext,
-                    handle,
-                    object);
+            ObjectInsertedEvent event = null;
 
             do {
-                iter.next().objectInserted(event);
+                final WorkingMemoryEventListener listener = iter.next();
+                if (listener instanceof WorkingMemoryEventHook) {
+                    ((WorkingMemoryEventHook) listener).objectInserted(propagationContext, handle, object, workingMemory);
+                } else {
+                    if (event == null) {
+                        event = new ObjectInsertedEvent(workingMemory,
+                                propagationContext,
+                                handle,
+                                object);
+                    }
+                    listener.objectInserted(event);
+                }
             } while (iter.hasNext());
         }
     }
@@ -50,14 +58,22 @@ public class WorkingMemoryEventSupport extends AbstractEventSupport<WorkingMemor
         final Iterator<WorkingMemoryEventListener> iter = getEventListenersIterator();
 
         if (iter.hasNext()) {
-            final ObjectUpdatedEvent event = new ObjectUpdatedEvent(workingMemory,
-                    propagationContext,
-                    handle,
-                    oldObject,
-                    object);
+            ObjectUpdatedEvent event = null;
 
             do {
-                iter.next().objectUpdated(event);
+                final WorkingMemoryEventListener listener = iter.next();
+                if (listener instanceof WorkingMemoryEventHook) {
+                    ((WorkingMemoryEventHook) listener).objectUpdated(propagationContext, handle, oldObject, object, workingMemory);
+                } else {
+                    if (event == null) {
+                        event = new ObjectUpdatedEvent(workingMemory,
+                                propagationContext,
+                                handle,
+                                oldObject,
+                                object);
+                    }
+                    listener.objectUpdated(event);
+                }
             } while (iter.hasNext());
         }
     }
@@ -69,13 +85,21 @@ public class WorkingMemoryEventSupport extends AbstractEventSupport<WorkingMemor
         final Iterator<WorkingMemoryEventListener> iter = getEventListenersIterator();
 
         if (iter.hasNext()) {
-            final ObjectRetractedEvent event = new ObjectRetractedEvent(workingMemory,
-                    propagationContext,
-                    handle,
-                    oldObject);
+            ObjectRetractedEvent event = null;
 
             do {
-                iter.next().objectRetracted(event);
+                final WorkingMemoryEventListener listener = iter.next();
+                if (listener instanceof WorkingMemoryEventHook) {
+                    ((WorkingMemoryEventHook) listener).objectRetracted(propagationContext, handle, oldObject, workingMemory);
+                } else {
+                    if (event == null) {
+                        event = new ObjectRetractedEvent(workingMemory,
+                                propagationContext,
+                                handle,
+                                oldObject);
+                    }
+                    listener.objectRetracted(event);
+                }
             } while (iter.hasNext());
         }
     }
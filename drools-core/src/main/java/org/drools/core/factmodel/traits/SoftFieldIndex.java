@@ -0,0 +1,77 @@
+/*
+ * Copyright 2014 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.drools.core.factmodel.traits;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Assigns a dense ordinal to each soft field name, so that the soft fields of a core object
+ * can be stored in a {@link SoftFieldSlotMap} array instead of being hashed on each access.
+ * Ordinals are only ever added, so they are stable for the lifetime of the index.
+ */
+public class SoftFieldIndex {
+
+    private final Map<String, Integer> ordinals = new ConcurrentHashMap<String, Integer>();
+
+    private volatile String[]          names    = new String[0];
+
+    /**
+     * Returns the ordinal of the given name, assigning a new one if it has never been seen
+     */
+    public int getOrdinal(String name) {
+        Integer ordinal = ordinals.get( name );
+        return ordinal != null ? ordinal : assignOrdinal( name );
+    }
+
+    private synchronized int assignOrdinal(String name) {
+        Integer ordinal = ordinals.get( name );
+        if ( ordinal == null ) {
+            String[] newNames = Arrays.copyOf( names, names.length + 1 );
+            newNames[names.length] = name.intern();
+            ordinal = names.length;
+            names = newNames;
+            ordinals.put( newNames[ordinal], ordinal );
+        }
+        return ordinal;
+    }
+
+    /**
+     * Returns the ordinal of the given name, or -1 if it has never been seen
+     */
+    public int lookup(String name) {
+        Integer ordinal = ordinals.get( name );
+        return ordinal != null ? ordinal : -1;
+    }
+
+    public String getName(int ordinal) {
+        return names[ordinal];
+    }
+
+    public int size() {
+        return names.length;
+    }
+
+    boolean isOrdinalOf(int ordinal,
+                        String name) {
+        String[] n = names;
+        // names are interned, as the constants in the generated proxies
+        return ordinal < n.length && ( n[ordinal] == name || n[ordinal].equals( name ) );
+    }
+}
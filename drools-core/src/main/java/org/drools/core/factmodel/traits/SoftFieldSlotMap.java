@@ -0,0 +1,313 @@
+/*
+ * Copyright 2014 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.drools.core.factmodel.traits;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.drools.core.common.DroolsObjectInputStream;
+import org.drools.core.common.InternalRuleBase;
+import org.drools.core.marshalling.impl.MarshallerReaderContext;
+
+/**
+ * The soft fields of a core object, stored in an array indexed by the ordinals assigned
+ * by a {@link SoftFieldIndex}. The proxies built in {@link TraitFactory.VirtualPropertyMode#SLOTS}
+ * mode read and write the slots directly, by ordinal, while the Map interface is still
+ * available for all the other accesses.
+ */
+public class SoftFieldSlotMap extends AbstractMap<String, Object> implements Externalizable {
+
+    private static final Object[] EMPTY      = new Object[0];
+
+    // marks the slots explicitly set to null, to tell them from the empty ones
+    private static final Object   NULL_VALUE = new Object();
+
+    private SoftFieldIndex        index;
+
+    private Object[]              slots      = EMPTY;
+
+    private int                   size;
+
+    public SoftFieldSlotMap() {
+        this( new SoftFieldIndex() );
+    }
+
+    public SoftFieldSlotMap(SoftFieldIndex index) {
+        this.index = index;
+    }
+
+    /**
+     * Reads a soft field from the given storage, using the ordinal if the storage is
+     * a slot map based on the same ordinals, the name otherwise.
+     */
+    public static Object get(Map<String, Object> map,
+                             int ordinal,
+                             String name) {
+        if ( map instanceof SoftFieldSlotMap ) {
+            SoftFieldSlotMap slotMap = (SoftFieldSlotMap) map;
+            if ( slotMap.index.isOrdinalOf( ordinal, name ) ) {
+                return slotMap.getSlot( ordinal );
+            }
+        }
+        return map.get( name );
+    }
+
+    /**
+     * Writes a soft field in the given storage, using the ordinal if the storage is
+     * a slot map based on the same ordinals, the name otherwise.
+     */
+    public static void set(Map<String, Object> map,
+                           int ordinal,
+                           String name,
+                           Object value) {
+        if ( map instanceof SoftFieldSlotMap ) {
+            SoftFieldSlotMap slotMap = (SoftFieldSlotMap) map;
+            if ( slotMap.index.isOrdinalOf( ordinal, name ) ) {
+                slotMap.setSlot( ordinal, value );
+                return;
+            }
+        }
+        map.put( name, value );
+    }
+
+    public SoftFieldIndex getIndex() {
+        return index;
+    }
+
+    public Object getSlot(int ordinal) {
+        return ordinal < slots.length ? unmask( slots[ordinal] ) : null;
+    }
+
+    public Object setSlot(int ordinal,
+                          Object value) {
+        if ( ordinal >= slots.length ) {
+            // the index is shared by all the cores, so most of its fields are never set on this one
+            slots = Arrays.copyOf( slots, ordinal + 1 );
+        }
+        Object old = slots[ordinal];
+        if ( old == null ) {
+            size++;
+        }
+        slots[ordinal] = value != null ? value : NULL_VALUE;
+        return unmask( old );
+    }
+
+    /**
+     * Moves the fields to the given index if they are indexed by another one, as it happens
+     * when the map has been deserialized without knowing the rule base it belongs to.
+     */
+    public void attach(SoftFieldIndex sharedIndex) {
+        if ( index == sharedIndex ) {
+            return;
+        }
+        SoftFieldIndex oldIndex = index;
+        Object[] oldSlots = slots;
+        index = sharedIndex;
+        slots = EMPTY;
+        size = 0;
+        for ( int i = 0; i < oldSlots.length; i++ ) {
+            if ( oldSlots[i] != null ) {
+                setSlot( index.getOrdinal( oldIndex.getName( i ) ), unmask( oldSlots[i] ) );
+            }
+        }
+    }
+
+    public Object removeSlot(int ordinal) {
+        if ( ordinal >= slots.length || slots[ordinal] == null ) {
+            return null;
+        }
+        Object old = slots[ordinal];
+        slots[ordinal] = null;
+        size--;
+        return unmask( old );
+    }
+
+    private static Object unmask(Object value) {
+        return value == NULL_VALUE ? null : value;
+    }
+
+    private int lookup(Object key) {
+        return key instanceof String ? index.lookup( (String) key ) : -1;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        int ordinal = lookup( key );
+        return ordinal >= 0 && ordinal < slots.length && slots[ordinal] != null;
+    }
+
+    @Override
+    public Object get(Object key) {
+        int ordinal = lookup( key );
+        return ordinal >= 0 ? getSlot( ordinal ) : null;
+    }
+
+    @Override
+    public Object put(String key,
+                      Object value) {
+        return setSlot( index.getOrdinal( key ), value );
+    }
+
+    @Override
+    public Object remove(Object key) {
+        int ordinal = lookup( key );
+        return ordinal >= 0 ? removeSlot( ordinal ) : null;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill( slots, null );
+        size = 0;
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return new AbstractSet<Entry<String, Object>>() {
+            public Iterator<Entry<String, Object>> iterator() {
+                return new SlotIterator();
+            }
+
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    public void writeExternal(ObjectOutput out) throws IOException {
+        out.writeInt( size );
+        for ( int i = 0; i < slots.length; i++ ) {
+            if ( slots[i] != null ) {
+                out.writeObject( index.getName( i ) );
+                out.writeObject( unmask( slots[i] ) );
+            }
+        }
+    }
+
+    public void readExternal(ObjectInput in) throws IOException,
+                                                    ClassNotFoundException {
+        // the ordinals are not portable, so the fields are indexed again by name
+        index = getSharedIndex( in );
+        slots = EMPTY;
+        size = 0;
+        int n = in.readInt();
+        for ( int i = 0; i < n; i++ ) {
+            String name = (String) in.readObject();
+            put( name, in.readObject() );
+        }
+    }
+
+    private static SoftFieldIndex getSharedIndex(ObjectInput in) {
+        InternalRuleBase ruleBase = null;
+        if ( in instanceof DroolsObjectInputStream ) {
+            ruleBase = ( (DroolsObjectInputStream) in ).getRuleBase();
+        } else if ( in instanceof MarshallerReaderContext ) {
+            ruleBase = ( (MarshallerReaderContext) in ).ruleBase;
+        }
+        // without a rule base the map is attached to its index when it is next used by the trait factory
+        return ruleBase != null ?
+               ruleBase.getConfiguration().getComponentFactory().getTraitRegistry().getSoftFieldIndex() :
+               new SoftFieldIndex();
+    }
+
+    private class SlotIterator implements Iterator<Entry<String, Object>> {
+
+        private int next    = advance( 0 );
+        private int current = -1;
+
+        private int advance(int from) {
+            while ( from < slots.length && slots[from] == null ) {
+                from++;
+            }
+            return from;
+        }
+
+        public boolean hasNext() {
+            return next < slots.length;
+        }
+
+        public Entry<String, Object> next() {
+            if ( !hasNext() ) {
+                throw new NoSuchElementException();
+            }
+            current = next;
+            next = advance( next + 1 );
+            return new SlotEntry( current );
+        }
+
+        public void remove() {
+            if ( current < 0 ) {
+                throw new IllegalStateException();
+            }
+            removeSlot( current );
+            current = -1;
+        }
+    }
+
+    private class SlotEntry implements Entry<String, Object> {
+
+        private final int ordinal;
+
+        private SlotEntry(int ordinal) {
+            this.ordinal = ordinal;
+        }
+
+        public String getKey() {
+            return index.getName( ordinal );
+        }
+
+        public Object getValue() {
+            return getSlot( ordinal );
+        }
+
+        public Object setValue(Object value) {
+            return setSlot( ordinal, value );
+        }
+
+        public boolean equals(Object o) {
+            if ( !( o instanceof Entry ) ) {
+                return false;
+            }
+            Entry e = (Entry) o;
+            Object value = getValue();
+            return getKey().equals( e.getKey() ) && ( value == null ? e.getValue() == null : value.equals( e.getValue() ) );
+        }
+
+        public int hashCode() {
+            Object value = getValue();
+            return getKey().hashCode() ^ ( value == null ? 0 : value.hashCode() );
+        }
+
+        public String toString() {
+            return getKey() + "=" + getValue();
+        }
+    }
+}
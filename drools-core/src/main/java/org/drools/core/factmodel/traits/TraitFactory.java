@@ -53,7 +53,7 @@ public class TraitFactory<T extends Thing<K>, K extends TraitableBean> implement
 
 //    private static TripleStore store = new TripleStore( 500, 0.6f );
 
-    public enum VirtualPropertyMode { MAP, TRIPLES }
+    public enum VirtualPropertyMode { MAP, TRIPLES, SLOTS }
 
     private VirtualPropertyMode mode = VirtualPropertyMode.TRIPLES;
 
@@ -82,6 +82,10 @@ public class TraitFactory<T extends Thing<K>, K extends TraitableBean> implement
                 cbf.setPropertyWrapperBuilder(new TraitTriplePropertyWrapperClassBuilderImpl());
                 cbf.setTraitProxyBuilder(new TraitTripleProxyClassBuilderImpl());
                 break;
+            case SLOTS:
+                cbf.setPropertyWrapperBuilder(new TraitMapPropertyWrapperClassBuilderImpl());
+                cbf.setTraitProxyBuilder(new TraitSlotProxyClassBuilderImpl());
+                break;
             default:
                 throw new RuntimeException(" This should not happen : unexpected property wrapping method " + newMode);
         }
@@ -129,6 +133,8 @@ public class TraitFactory<T extends Thing<K>, K extends TraitableBean> implement
                     break;
                 case TRIPLES:   proxy = konst.newInstance( core, ruleBase.getTripleStore(), getTripleFactory() );
                     break;
+                case SLOTS:     proxy = konst.newInstance( core, getSoftFieldSlots( core ) );
+                    break;
                 default     :   throw new RuntimeException( " This should not happen : unexpected property wrapping method " + mode );
             }
 
@@ -151,6 +157,18 @@ public class TraitFactory<T extends Thing<K>, K extends TraitableBean> implement
     }
 
 
+    private Map<String, Object> getSoftFieldSlots( K core ) {
+        Map<String, Object> map = core._getDynamicProperties();
+        if ( map == null ) {
+            core._setDynamicProperties( new SoftFieldSlotMap( ruleBase.getTraitRegistry().getSoftFieldIndex() ) );
+            // some cores, like MapCore, do not allow to replace their properties
+            map = core._getDynamicProperties();
+        } else if ( map instanceof SoftFieldSlotMap ) {
+            ( (SoftFieldSlotMap) map ).attach( ruleBase.getTraitRegistry().getSoftFieldIndex() );
+        }
+        return map;
+    }
+
     public ReteooRuleBase getRuleBase() {
         return ruleBase;
     }
@@ -168,7 +186,8 @@ public class TraitFactory<T extends Thing<K>, K extends TraitableBean> implement
         try {
             Constructor konst;
             switch ( mode ) {
-                case MAP    :   konst = proxyClass.getConstructor( core.getClass(), Map.class );
+                case MAP    :
+                case SLOTS  :   konst = proxyClass.getConstructor( core.getClass(), Map.class );
                     break;
                 case TRIPLES:   konst = proxyClass.getConstructor( core.getClass(), TripleStore.class, TripleFactory.class );
                     break;
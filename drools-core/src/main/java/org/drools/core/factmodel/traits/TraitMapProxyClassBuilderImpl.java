@@ -55,6 +55,10 @@ public class TraitMapProxyClassBuilderImpl implements TraitProxyClassBuilder, Se
         return trait;
     }
 
+    protected TraitRegistry getTraitRegistry() {
+        return traitRegistry;
+    }
+
     public void init( ClassDefinition trait, Class<?> baseClass, TraitRegistry traitRegistry ) {
         this.trait = trait;
         this.proxyBaseClass = baseClass;
@@ -612,12 +616,10 @@ public class TraitMapProxyClassBuilderImpl implements TraitProxyClassBuilder, Se
 
 
 
-    private void buildSoftSetter( ClassVisitor cw, String fieldName, String type, String proxy, String core ) {
-        String setter = BuildUtils.setterName( fieldName, type );
-
-
-        MethodVisitor mv = cw.visitMethod( ACC_PUBLIC, setter, "(" + BuildUtils.getTypeDescriptor( type ) + ")V", null, null );
-        mv.visitCode();
+    /**
+     * Puts the value of the setter argument in the soft field storage
+     */
+    protected void putSoftField( MethodVisitor mv, String fieldName, String type, String proxy ) {
         mv.visitVarInsn( ALOAD, 0 );
         mv.visitFieldInsn( GETFIELD, BuildUtils.getInternalType( proxy ), "map", Type.getDescriptor( Map.class ) );
         mv.visitLdcInsn( fieldName );
@@ -628,6 +630,25 @@ public class TraitMapProxyClassBuilderImpl implements TraitProxyClassBuilder, Se
         mv.visitMethodInsn( INVOKEINTERFACE, Type.getInternalName( Map.class ), "put",
                 "(" + Type.getDescriptor( Object.class ) + Type.getDescriptor( Object.class ) + ")" + Type.getDescriptor( Object.class ) );
         mv.visitInsn( POP );
+    }
+
+    /**
+     * Leaves the (boxed) value of the soft field on the stack
+     */
+    protected void getSoftField( MethodVisitor mv, String fieldName, String proxy ) {
+        mv.visitVarInsn( ALOAD, 0 );
+        mv.visitFieldInsn( GETFIELD, BuildUtils.getInternalType( proxy ), "map", Type.getDescriptor( Map.class ) );
+        mv.visitLdcInsn( fieldName );
+        mv.visitMethodInsn( INVOKEINTERFACE, Type.getInternalName( Map.class ), "get", "(" + Type.getDescriptor( Object.class ) + ")" + Type.getDescriptor( Object.class ) );
+    }
+
+    private void buildSoftSetter( ClassVisitor cw, String fieldName, String type, String proxy, String core ) {
+        String setter = BuildUtils.setterName( fieldName, type );
+
+
+        MethodVisitor mv = cw.visitMethod( ACC_PUBLIC, setter, "(" + BuildUtils.getTypeDescriptor( type ) + ")V", null, null );
+        mv.visitCode();
+        putSoftField( mv, fieldName, type, proxy );
         mv.visitInsn( RETURN );
 //        mv.visitMaxs( 2 + BuildUtils.sizeOf( type ), 1 + BuildUtils.sizeOf( type ) );
         mv.visitMaxs( 0, 0 );
@@ -643,10 +664,7 @@ public class TraitMapProxyClassBuilderImpl implements TraitProxyClassBuilder, Se
 
         MethodVisitor mv = cw.visitMethod( ACC_PUBLIC, getter, "()"+ BuildUtils.getTypeDescriptor( type ), null, null );
         mv.visitCode();
-        mv.visitVarInsn( ALOAD, 0 );
-        mv.visitFieldInsn( GETFIELD, BuildUtils.getInternalType( proxy ), "map", Type.getDescriptor( Map.class ) );
-        mv.visitLdcInsn( fieldName );
-        mv.visitMethodInsn( INVOKEINTERFACE, Type.getInternalName( Map.class ), "get", "(" + Type.getDescriptor( Object.class ) + ")" + Type.getDescriptor( Object.class ) );
+        getSoftField( mv, fieldName, proxy );
 
         if ( BuildUtils.isPrimitive( type ) ) {
             mv.visitVarInsn( ASTORE, 1 );
@@ -43,6 +43,9 @@ public class TraitRegistry implements Externalizable {
 
     private HierarchyEncoder<String> hierarchy = new HierarchyEncoderImpl<String>();
 
+    // ordinals of the soft fields, they are not serialized since they only index in-memory slots
+    private SoftFieldIndex softFieldIndex = new SoftFieldIndex();
+
 
     public TraitRegistry() {
         init();
@@ -239,4 +242,8 @@ public class TraitRegistry implements Externalizable {
     public HierarchyEncoder getHierarchy() {
         return hierarchy;
     }
+
+    public SoftFieldIndex getSoftFieldIndex() {
+        return softFieldIndex;
+    }
 }
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2014 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.drools.core.factmodel.traits;
+
+import java.util.Map;
+
+import org.drools.core.factmodel.BuildUtils;
+import org.mvel2.asm.MethodVisitor;
+import org.mvel2.asm.Type;
+
+/**
+ * Builds proxies storing the soft fields in a {@link SoftFieldSlotMap}. The ordinal of each
+ * soft field is assigned by the {@link TraitRegistry} when the proxy is built and baked in
+ * the accessors, so that reading or writing a soft field does not need any hash lookup.
+ */
+public class TraitSlotProxyClassBuilderImpl extends TraitMapProxyClassBuilderImpl {
+
+    protected void putSoftField( MethodVisitor mv, String fieldName, String type, String proxy ) {
+        mv.visitVarInsn( ALOAD, 0 );
+        mv.visitFieldInsn( GETFIELD, BuildUtils.getInternalType( proxy ), "map", Type.getDescriptor( Map.class ) );
+        mv.visitLdcInsn( getTraitRegistry().getSoftFieldIndex().getOrdinal( fieldName ) );
+        mv.visitLdcInsn( fieldName );
+        mv.visitVarInsn( BuildUtils.varType( type ), 1 );
+        if ( BuildUtils.isPrimitive( type ) ) {
+            TraitFactory.valueOf( mv, type );
+        }
+        mv.visitMethodInsn( INVOKESTATIC, Type.getInternalName( SoftFieldSlotMap.class ), "set",
+                "(" + Type.getDescriptor( Map.class ) + "I" + Type.getDescriptor( String.class ) + Type.getDescriptor( Object.class ) + ")V" );
+    }
+
+    protected void getSoftField( MethodVisitor mv, String fieldName, String proxy ) {
+        mv.visitVarInsn( ALOAD, 0 );
+        mv.visitFieldInsn( GETFIELD, BuildUtils.getInternalType( proxy ), "map", Type.getDescriptor( Map.class ) );
+        mv.visitLdcInsn( getTraitRegistry().getSoftFieldIndex().getOrdinal( fieldName ) );
+        mv.visitLdcInsn( fieldName );
+        mv.visitMethodInsn( INVOKESTATIC, Type.getInternalName( SoftFieldSlotMap.class ), "get",
+                "(" + Type.getDescriptor( Map.class ) + "I" + Type.getDescriptor( String.class ) + ")" + Type.getDescriptor( Object.class ) );
+    }
+}
@@ -1,5 +1,7 @@
 package org.drools.core.factmodel.traits;
 
+import org.drools.core.util.HierarchyCode;
+
 import java.io.Externalizable;
 import java.io.IOException;
 import java.io.ObjectInput;
@@ -18,7 +20,7 @@ public class TraitTypeMap<T extends String, K extends Thing<C>, C>
 
     private Map<String,Thing<C>> innerMap;
 
-    private BitSet currentTypeCode = new BitSet();
+    private BitSet currentTypeCode = new HierarchyCode();
 
     public TraitTypeMap() {
     }
@@ -100,7 +102,7 @@ public class TraitTypeMap<T extends String, K extends Thing<C>, C>
     }
 
     private void resetCurrentCode() {
-        currentTypeCode = new BitSet();
+        currentTypeCode = new HierarchyCode();
         for ( Thing x : this.values() ) {
             currentTypeCode.or( ((TraitType) x).getTypeCode() );
         }
@@ -43,6 +43,7 @@ import org.drools.core.common.ObjectTypeConfigurationRegistry;
 import org.drools.core.common.WorkingMemoryAction;
 import org.drools.core.event.ActivationCancelledEvent;
 import org.drools.core.event.ActivationCreatedEvent;
+import org.drools.core.event.ActivationEventHook;
 import org.drools.core.event.AfterActivationFiredEvent;
 import org.drools.core.event.AgendaGroupPoppedEvent;
 import org.drools.core.event.AgendaGroupPushedEvent;
@@ -74,12 +75,14 @@ import org.drools.core.runtime.rule.impl.AgendaImpl;
 import org.drools.core.runtime.rule.impl.NativeQueryResults;
 import org.drools.core.spi.Activation;
 import org.drools.core.time.TimerService;
+import org.drools.core.util.bitmask.BitMask;
 import org.kie.api.runtime.rule.TimedRuleExecutionFilter;
 import org.kie.internal.KnowledgeBase;
 import org.kie.api.command.Command;
 import org.kie.internal.command.Context;
 import org.kie.api.event.process.ProcessEventListener;
 import org.kie.api.event.rule.AgendaEventListener;
+import org.kie.api.event.rule.MatchCancelledCause;
 import org.kie.api.event.rule.WorkingMemoryEventListener;
 import org.kie.internal.process.CorrelationAwareProcessRuntime;
 import org.kie.internal.process.CorrelationKey;
@@ -286,6 +289,14 @@ public class StatefulKnowledgeSessionImpl extends AbstractRuntime
         return this.session.insert( object );
     }
 
+    /**
+     * Inserts all the given objects into the default entry point as a single batch.
+     * @see org.drools.core.common.NamedEntryPoint#insertAll(Collection)
+     */
+    public List<? extends FactHandle> insertAll(Collection<?> objects) {
+        return ((AbstractWorkingMemory) this.session).insertAll( objects );
+    }
+
     public void retract(FactHandle factHandle) {
         this.session.delete( factHandle );
     }
@@ -437,7 +448,7 @@ public class StatefulKnowledgeSessionImpl extends AbstractRuntime
 
     public void update(FactHandle factHandle,
                        Object object,
-                       long mask,
+                       BitMask mask,
                        Class<?> modifiedClass,
                        Activation activation) throws FactException {
         this.session.update( (org.drools.core.FactHandle) factHandle,
@@ -644,7 +655,7 @@ public class StatefulKnowledgeSessionImpl extends AbstractRuntime
 
     public static class AgendaEventListenerWrapper
             implements
-            org.drools.core.event.AgendaEventListener {
+            ActivationEventHook {
         private final AgendaEventListener listener;
 
         public AgendaEventListenerWrapper(AgendaEventListener listener) {
@@ -653,28 +664,47 @@ public class StatefulKnowledgeSessionImpl extends AbstractRuntime
 
         public void activationCancelled(ActivationCancelledEvent event,
                                         WorkingMemory workingMemory) {
+            activationCancelled(event.getActivation(), workingMemory, event.getCause());
+        }
 
-            listener.matchCancelled(new ActivationCancelledEventImpl(event.getActivation(),
+        public void activationCancelled(Activation activation,
+                                        WorkingMemory workingMemory,
+                                        MatchCancelledCause cause) {
+            listener.matchCancelled(new ActivationCancelledEventImpl(activation,
                     ((InternalWorkingMemory) workingMemory).getKnowledgeRuntime(),
-                    event.getCause()));
-
+                    cause));
         }
 
         public void activationCreated(ActivationCreatedEvent event,
                                       WorkingMemory workingMemory) {
-            listener.matchCreated(new ActivationCreatedEventImpl(event.getActivation(),
+            activationCreated(event.getActivation(), workingMemory);
+        }
+
+        public void activationCreated(Activation activation,
+                                      WorkingMemory workingMemory) {
+            listener.matchCreated(new ActivationCreatedEventImpl(activation,
                     ((InternalWorkingMemory) workingMemory).getKnowledgeRuntime()));
         }
 
         public void beforeActivationFired(BeforeActivationFiredEvent event,
                                           WorkingMemory workingMemory) {
-            listener.beforeMatchFired(new BeforeActivationFiredEventImpl(event.getActivation(),
+            beforeActivationFired(event.getActivation(), workingMemory);
+        }
+
+        public void beforeActivationFired(Activation activation,
+                                          WorkingMemory workingMemory) {
+            listener.beforeMatchFired(new BeforeActivationFiredEventImpl(activation,
                     ((InternalWorkingMemory) workingMemory).getKnowledgeRuntime()));
         }
 
         public void afterActivationFired(AfterActivationFiredEvent event,
                                          WorkingMemory workingMemory) {
-            listener.afterMatchFired(new AfterActivationFiredEventImpl(event.getActivation(),
+            afterActivationFired(event.getActivation(), workingMemory);
+        }
+
+        public void afterActivationFired(Activation activation,
+                                         WorkingMemory workingMemory) {
+            listener.afterMatchFired(new AfterActivationFiredEventImpl(activation,
                     ((InternalWorkingMemory) workingMemory).getKnowledgeRuntime()));
         }
 
@@ -16,6 +16,7 @@
 
 package org.drools.core.impl;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -99,6 +100,8 @@ public class StatelessKnowledgeSessionImpl extends AbstractRuntime
 
     private WorkingMemoryFactory wmFactory;
 
+    private StatelessSessionPool sessionPool;
+
     public StatelessKnowledgeSessionImpl() {
     }
 
@@ -110,6 +113,11 @@ public class StatelessKnowledgeSessionImpl extends AbstractRuntime
         this.conf = (conf != null) ? conf : SessionConfiguration.getDefaultInstance();
         this.environment = EnvironmentFactory.newEnvironment();
         this.wmFactory = ruleBase.getConfiguration().getComponentFactory().getWorkingMemoryFactory();
+
+        int poolSize = ((SessionConfiguration) this.conf).getStatelessSessionPoolSize();
+        if ( poolSize > 0 ) {
+            this.sessionPool = new StatelessSessionPool( poolSize );
+        }
     }
 
     public InternalRuleBase getRuleBase() {
@@ -124,7 +132,34 @@ public class StatelessKnowledgeSessionImpl extends AbstractRuntime
         return this.kagent;
     }
 
+    /**
+     * Returns the pool of reusable sessions, or null if pooling is not enabled
+     * in the session configuration.
+     */
+    public StatelessSessionPool getSessionPool() {
+        return this.sessionPool;
+    }
+
+    /**
+     * Disposes the idle sessions of the pool, if pooling is enabled. The pooled sessions are
+     * registered with the rule base, so this has to be called once this session is no longer
+     * used; executions after it still work, but their sessions are not pooled any more.
+     */
+    public void close() {
+        if ( this.sessionPool != null ) {
+            this.sessionPool.close();
+        }
+    }
+
+    /**
+     * Returns the session to be used by an execution. A pooled session is only owned by the
+     * execution that acquired it, so it is never kept in this instance and has to be given
+     * back through dispose(StatefulKnowledgeSession).
+     */
     public StatefulKnowledgeSession newWorkingMemory() {
+        if ( this.sessionPool != null ) {
+            return newPooledWorkingMemory();
+        }
         if (ksession != null && ((StatefulKnowledgeSessionImpl)ksession).isAlive()) {
             return ksession;
         }
@@ -179,6 +214,82 @@ public class StatelessKnowledgeSessionImpl extends AbstractRuntime
         }
     }
 
+    /**
+     * Takes an idle session from the pool, or creates a new one if there isn't any.
+     * Pooled sessions keep their own event support, holding their system listeners,
+     * and the custom listeners are only added to it for the duration of an execution.
+     */
+    private StatefulKnowledgeSessionImpl newPooledWorkingMemory() {
+        InternalRuleBase ruleBase = getRuleBase();
+        ruleBase.readLock();
+        try {
+            StatefulKnowledgeSessionImpl pooled = this.sessionPool.acquire( ruleBase );
+            if ( pooled == null ) {
+                AbstractWorkingMemory wm = (AbstractWorkingMemory) wmFactory.createWorkingMemory(ruleBase.nextWorkingMemoryCounter(), ruleBase,
+                                                                                                 (SessionConfiguration) this.conf, this.environment);
+                pooled = new StatefulKnowledgeSessionImpl(wm,
+                                                          new KnowledgeBaseImpl(ruleBase));
+                // the session outlives this execution, so it must follow the changes of the rule base
+                ruleBase.addStatefulSession( wm );
+            }
+
+            AbstractWorkingMemory wm = (AbstractWorkingMemory) pooled.getInternalWorkingMemory();
+            ((Globals) wm.getGlobalResolver()).setDelegate(this.sessionGlobals);
+
+            if ( mappedAgendaListeners != null ) {
+                for (org.drools.core.event.AgendaEventListener agendaListener : mappedAgendaListeners.values()) {
+                    wm.addEventListener( agendaListener );
+                }
+            }
+            if ( mappedWorkingMemoryListeners != null ) {
+                for (org.drools.core.event.WorkingMemoryEventListener wmListener : mappedWorkingMemoryListeners.values()) {
+                    wm.addEventListener( wmListener );
+                }
+            }
+            InternalProcessRuntime processRuntime = wm.getProcessRuntime();
+            if ( processRuntime != null && cachedProcessEventListener != null ) {
+                for (ProcessEventListener processListener : cachedProcessEventListener) {
+                    processRuntime.addEventListener( processListener );
+                }
+            }
+
+            for( Map.Entry<String, Channel> entry : this.channels.entrySet() ) {
+                wm.registerChannel( entry.getKey(), entry.getValue() );
+            }
+
+            return pooled;
+        } finally {
+            ruleBase.readUnlock();
+        }
+    }
+
+    private void disposePooledWorkingMemory(StatefulKnowledgeSessionImpl pooled) {
+        AbstractWorkingMemory wm = (AbstractWorkingMemory) pooled.getInternalWorkingMemory();
+
+        if ( mappedAgendaListeners != null ) {
+            for (org.drools.core.event.AgendaEventListener agendaListener : mappedAgendaListeners.values()) {
+                wm.removeEventListener( agendaListener );
+            }
+        }
+        if ( mappedWorkingMemoryListeners != null ) {
+            for (org.drools.core.event.WorkingMemoryEventListener wmListener : mappedWorkingMemoryListeners.values()) {
+                wm.removeEventListener( wmListener );
+            }
+        }
+        InternalProcessRuntime processRuntime = wm.getProcessRuntime();
+        if ( processRuntime != null && cachedProcessEventListener != null ) {
+            for (ProcessEventListener processListener : cachedProcessEventListener) {
+                processRuntime.removeEventListener( processListener );
+            }
+        }
+
+        for ( String name : new ArrayList<String>( wm.getChannels().keySet() ) ) {
+            wm.unregisterChannel( name );
+        }
+
+        this.sessionPool.release( pooled );
+    }
+
     private void registerSystemListeners(AbstractWorkingMemory wm) {
         for (org.drools.core.event.AgendaEventListener listener : wm.getAgendaEventSupport().getEventListeners()) {
             this.agendaEventSupport.addEventListener(listener);
@@ -318,11 +429,14 @@ public class StatelessKnowledgeSessionImpl extends AbstractRuntime
 
     @Override
     public KieBase getKieBase() {
+        if ( this.sessionPool != null ) {
+            return new KnowledgeBaseImpl( getRuleBase() );
+        }
         return newWorkingMemory().getKieBase();
     }
 
     public <T> T execute(Command<T> command) {
-        newWorkingMemory();
+        StatefulKnowledgeSession ksession = newWorkingMemory();
 
         FixedKnowledgeCommandContext context = new FixedKnowledgeCommandContext( new ContextImpl( "ksession",
                                                                                                   null ),
@@ -358,29 +472,29 @@ public class StatelessKnowledgeSessionImpl extends AbstractRuntime
             }
         } finally {
             ((StatefulKnowledgeSessionImpl) ksession).session.endBatchExecution();
-            dispose();
+            dispose( ksession );
         }
     }
 
     public void execute(Object object) {
-        newWorkingMemory();
+        StatefulKnowledgeSession ksession = newWorkingMemory();
         try {
             ksession.insert( object );
             ksession.fireAllRules();
         } finally {
-            dispose();
+            dispose( ksession );
         }
     }
 
     public void execute(Iterable objects) {
-        newWorkingMemory();
+        StatefulKnowledgeSession ksession = newWorkingMemory();
         try {
             for ( Object object : objects ) {
                 ksession.insert( object );
             }
             ksession.fireAllRules();
         } finally {
-            dispose();
+            dispose( ksession );
         }
     }
 
@@ -388,6 +502,14 @@ public class StatelessKnowledgeSessionImpl extends AbstractRuntime
         return environment;
     }
 
+    protected void dispose(StatefulKnowledgeSession ksession) {
+        if ( this.sessionPool != null ) {
+            disposePooledWorkingMemory( (StatefulKnowledgeSessionImpl) ksession );
+            return;
+        }
+        dispose();
+    }
+
     protected void dispose( ) {
         AbstractWorkingMemory wm = (AbstractWorkingMemory) ((StatefulKnowledgeSessionImpl) ksession).getInternalWorkingMemory();
 
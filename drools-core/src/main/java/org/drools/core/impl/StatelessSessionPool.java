@@ -0,0 +1,193 @@
+/*
+ * Copyright 2014 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.impl;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.drools.core.common.AbstractWorkingMemory;
+import org.drools.core.common.InternalRuleBase;
+
+/**
+ * A bounded pool of idle sessions, used by StatelessKnowledgeSessionImpl to avoid building
+ * a new session, with its node memories, agenda and entry points, for each execution.
+ *
+ * Sessions are reset when they are given back to the pool, so that idle sessions never hold
+ * the facts of a previous execution. Each thread starts looking for a free slot from its own
+ * home slot, so that a thread keeps on reusing the same session as long as it is not competing
+ * with other threads for it.
+ *
+ * Pooled sessions are registered with their rule base, so that they follow its changes, and
+ * they stay registered until they are disposed: the pool has to be closed once it is no longer
+ * used, to dispose its idle sessions and the ones given back after that.
+ */
+public class StatelessSessionPool {
+
+    private final AtomicReferenceArray<StatefulKnowledgeSessionImpl> slots;
+
+    private final AtomicLong hits      = new AtomicLong();
+    private final AtomicLong misses    = new AtomicLong();
+    private final AtomicLong discarded = new AtomicLong();
+
+    private volatile boolean closed;
+
+    public StatelessSessionPool(int size) {
+        if ( size <= 0 ) {
+            throw new IllegalArgumentException( "The size of a session pool must be positive: " + size );
+        }
+        this.slots = new AtomicReferenceArray<StatefulKnowledgeSessionImpl>( size );
+    }
+
+    /**
+     * Returns an idle session built from the given rule base, or null if there isn't any.
+     */
+    public StatefulKnowledgeSessionImpl acquire(InternalRuleBase ruleBase) {
+        if ( closed ) {
+            misses.incrementAndGet();
+            return null;
+        }
+        int length = slots.length();
+        int home = homeSlot( length );
+        for ( int i = 0; i < length; i++ ) {
+            StatefulKnowledgeSessionImpl ksession = slots.getAndSet( ( home + i ) % length, null );
+            if ( ksession == null ) {
+                continue;
+            }
+            if ( ksession.session.getRuleBase() != ruleBase ) {
+                // the rule base has been replaced, i.e. by a knowledge agent
+                discard( ksession );
+                continue;
+            }
+            hits.incrementAndGet();
+            return ksession;
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Resets the given session and keeps it for a later execution, or disposes it
+     * if it cannot be reused or the pool is full.
+     */
+    public void release(StatefulKnowledgeSessionImpl ksession) {
+        AbstractWorkingMemory wm = (AbstractWorkingMemory) ksession.session;
+        if ( closed || !isReusable( wm ) ) {
+            discard( ksession );
+            return;
+        }
+
+        InternalRuleBase ruleBase = (InternalRuleBase) wm.getRuleBase();
+        ruleBase.readLock();
+        try {
+            wm.resetForReuse();
+        } finally {
+            ruleBase.readUnlock();
+        }
+
+        int length = slots.length();
+        int home = homeSlot( length );
+        for ( int i = 0; i < length; i++ ) {
+            int slot = ( home + i ) % length;
+            if ( slots.compareAndSet( slot, null, ksession ) ) {
+                if ( closed && slots.compareAndSet( slot, ksession, null ) ) {
+                    // closed while the session was being given back
+                    discard( ksession );
+                }
+                return;
+            }
+        }
+        discard( ksession );
+    }
+
+    /**
+     * Disposes all the idle sessions and unregisters them from their rule base. Sessions
+     * given back after this are disposed as well, and no session is handed out any more.
+     */
+    public void close() {
+        closed = true;
+        clear();
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Disposes all the idle sessions.
+     */
+    public void clear() {
+        for ( int i = 0, length = slots.length(); i < length; i++ ) {
+            StatefulKnowledgeSessionImpl ksession = slots.getAndSet( i, null );
+            if ( ksession != null ) {
+                ksession.dispose();
+            }
+        }
+    }
+
+    private boolean isReusable(AbstractWorkingMemory wm) {
+        // pending timers, i.e. from temporal rules, would fire against the facts of the next execution
+        return wm.getTimerService().getTimerJobInstances( wm.getId() ).isEmpty();
+    }
+
+    private void discard(StatefulKnowledgeSessionImpl ksession) {
+        discarded.incrementAndGet();
+        ksession.dispose();
+    }
+
+    private static int homeSlot(int length) {
+        return (int) ( Thread.currentThread().getId() % length );
+    }
+
+    public int getSize() {
+        return slots.length();
+    }
+
+    public int getIdleCount() {
+        int count = 0;
+        for ( int i = 0, length = slots.length(); i < length; i++ ) {
+            if ( slots.get( i ) != null ) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * The number of executions that reused an idle session.
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * The number of executions that had to create a new session.
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * The number of sessions disposed instead of being given back to the pool.
+     */
+    public long getDiscarded() {
+        return discarded.get();
+    }
+
+    public String toString() {
+        return "StatelessSessionPool[size=" + getSize() + ", hits=" + getHits() + ", misses=" + getMisses() + ", discarded=" + getDiscarded() + "]";
+    }
+}
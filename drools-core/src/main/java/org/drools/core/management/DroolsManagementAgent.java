@@ -116,6 +116,15 @@ public class DroolsManagementAgent
         } catch ( Exception e ) {
             logger.error("Unable to instantiate and register KieSessionMonitoringMBean");
         }
+        RuleStatsMonitor ruleStatsMonitor = new RuleStatsMonitor( ksession,
+                                                                  mbean.agendaStats );
+        registerMBean( ksession,
+                       ruleStatsMonitor,
+                       ruleStatsMonitor.getName() );
+        MemoryMonitor memoryMonitor = new MemoryMonitor( ksession );
+        registerMBean( ksession,
+                       memoryMonitor,
+                       memoryMonitor.getName() );
     }
 
     public void unregisterKnowledgeSession(InternalWorkingMemory ksession) {
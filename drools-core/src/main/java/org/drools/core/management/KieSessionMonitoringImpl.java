@@ -18,8 +18,10 @@ package org.drools.core.management;
 
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -30,21 +32,26 @@ import org.drools.core.common.InternalRuleBase;
 import org.drools.core.common.InternalWorkingMemory;
 import org.drools.core.event.ActivationCancelledEvent;
 import org.drools.core.event.ActivationCreatedEvent;
+import org.drools.core.event.ActivationEventHook;
 import org.drools.core.event.AfterActivationFiredEvent;
-import org.drools.core.event.AgendaEventListener;
 import org.drools.core.event.AgendaGroupPoppedEvent;
 import org.drools.core.event.AgendaGroupPushedEvent;
 import org.drools.core.event.BeforeActivationFiredEvent;
 import org.drools.core.event.RuleFlowGroupActivatedEvent;
+import org.drools.core.event.RuleEvaluationHook;
 import org.drools.core.event.RuleFlowGroupDeactivatedEvent;
 import org.drools.core.management.KieSessionMonitoringImpl.AgendaStats.AgendaStatsData;
 import org.drools.core.management.KieSessionMonitoringImpl.ProcessStats.ProcessInstanceStatsData;
 import org.drools.core.management.KieSessionMonitoringImpl.ProcessStats.ProcessStatsData;
+import org.drools.core.rule.Rule;
+import org.drools.core.spi.Activation;
+import org.drools.core.util.StripedLongCounter;
 import org.kie.api.event.process.ProcessCompletedEvent;
 import org.kie.api.event.process.ProcessNodeLeftEvent;
 import org.kie.api.event.process.ProcessNodeTriggeredEvent;
 import org.kie.api.event.process.ProcessStartedEvent;
 import org.kie.api.event.process.ProcessVariableChangedEvent;
+import org.kie.api.event.rule.MatchCancelledCause;
 import org.kie.api.management.KieSessionMonitoringMBean;
 
 /**
@@ -89,6 +96,17 @@ public class KieSessionMonitoringImpl implements KieSessionMonitoringMBean {
         this.processStats.reset();
     }
 
+    /**
+     * Adds a registry to which the per rule metrics of this session are forwarded
+     */
+    public void addMetricsRegistry(RuleMetricsRegistry registry) {
+        this.agendaStats.addMetricsRegistry( registry );
+    }
+
+    public void removeMetricsRegistry(RuleMetricsRegistry registry) {
+        this.agendaStats.removeMetricsRegistry( registry );
+    }
+
     public InternalWorkingMemory getKsession() {
         return ksession;
     }
@@ -185,13 +203,22 @@ public class KieSessionMonitoringImpl implements KieSessionMonitoringMBean {
         return result;
     }
     
-    public static class AgendaStats implements AgendaEventListener {
+    public static class AgendaStats implements ActivationEventHook, RuleEvaluationHook {
         
         private AgendaStatsData consolidated = new AgendaStatsData();
         private ConcurrentHashMap<String, AgendaStatsData> ruleStats = new ConcurrentHashMap<String, AgendaStatsData>();
+        private List<RuleMetricsRegistry> registries = new CopyOnWriteArrayList<RuleMetricsRegistry>();
 
         public AgendaStats() {
         }
+
+        public void addMetricsRegistry( RuleMetricsRegistry registry ) {
+            this.registries.add( registry );
+        }
+
+        public void removeMetricsRegistry( RuleMetricsRegistry registry ) {
+            this.registries.remove( registry );
+        }
         
         public AgendaStatsData getConsolidatedStats() {
             return this.consolidated;
@@ -212,25 +239,64 @@ public class KieSessionMonitoringImpl implements KieSessionMonitoringMBean {
         
         public void activationCancelled(ActivationCancelledEvent event,
                                         WorkingMemory workingMemory) {
-            this.consolidated.matchesCancelled.incrementAndGet();
-            AgendaStatsData data = getRuleStatsInstance( event.getActivation().getRule().getName() );
-            data.matchesCancelled.incrementAndGet();
+            activationCancelled( event.getActivation(), workingMemory, event.getCause() );
+        }
+
+        public void activationCancelled(Activation activation,
+                                        WorkingMemory workingMemory,
+                                        MatchCancelledCause cause) {
+            String ruleName = activation.getRule().getName();
+            this.consolidated.matchesCancelled.increment();
+            AgendaStatsData data = getRuleStatsInstance( ruleName );
+            data.matchesCancelled.increment();
+            for ( RuleMetricsRegistry registry : this.registries ) {
+                registry.matchCancelled( ruleName );
+            }
         }
 
         public void activationCreated(ActivationCreatedEvent event,
                                       WorkingMemory workingMemory) {
-            this.consolidated.matchesCreated.incrementAndGet();
-            AgendaStatsData data = getRuleStatsInstance( event.getActivation().getRule().getName() );
-            data.matchesCreated.incrementAndGet();
+            activationCreated( event.getActivation(), workingMemory );
+        }
+
+        public void activationCreated(Activation activation,
+                                      WorkingMemory workingMemory) {
+            String ruleName = activation.getRule().getName();
+            this.consolidated.matchesCreated.increment();
+            AgendaStatsData data = getRuleStatsInstance( ruleName );
+            data.matchesCreated.increment();
+            for ( RuleMetricsRegistry registry : this.registries ) {
+                registry.matchCreated( ruleName );
+            }
         }
 
         public void afterActivationFired(AfterActivationFiredEvent event,
                                          WorkingMemory workingMemory) {
-            AgendaStatsData data = getRuleStatsInstance( event.getActivation().getRule().getName() );
+            afterActivationFired( event.getActivation(), workingMemory );
+        }
+
+        public void afterActivationFired(Activation activation,
+                                         WorkingMemory workingMemory) {
+            String ruleName = activation.getRule().getName();
+            AgendaStatsData data = getRuleStatsInstance( ruleName );
             this.consolidated.stopFireClock();
-            data.stopFireClock();
-            this.consolidated.matchesFired.incrementAndGet();
-            data.matchesFired.incrementAndGet();
+            long consequenceNanos = data.stopFireClock();
+            this.consolidated.matchesFired.increment();
+            data.matchesFired.increment();
+            for ( RuleMetricsRegistry registry : this.registries ) {
+                registry.matchFired( ruleName, consequenceNanos );
+            }
+        }
+
+        public void ruleEvaluated(Rule rule,
+                                  long nanos,
+                                  WorkingMemory workingMemory) {
+            String ruleName = rule.getName();
+            this.consolidated.evaluationTimes.record( nanos );
+            getRuleStatsInstance( ruleName ).evaluationTimes.record( nanos );
+            for ( RuleMetricsRegistry registry : this.registries ) {
+                registry.ruleEvaluated( ruleName, nanos );
+            }
         }
 
         public void agendaGroupPopped(AgendaGroupPoppedEvent event,
@@ -265,7 +331,12 @@ public class KieSessionMonitoringImpl implements KieSessionMonitoringMBean {
 
         public void beforeActivationFired(BeforeActivationFiredEvent event,
                                           WorkingMemory workingMemory) {
-            AgendaStatsData data = getRuleStatsInstance( event.getActivation().getRule().getName() );
+            beforeActivationFired( event.getActivation(), workingMemory );
+        }
+
+        public void beforeActivationFired(Activation activation,
+                                          WorkingMemory workingMemory) {
+            AgendaStatsData data = getRuleStatsInstance( activation.getRule().getName() );
             this.consolidated.startFireClock();
             data.startFireClock();
         }
@@ -274,16 +345,24 @@ public class KieSessionMonitoringImpl implements KieSessionMonitoringMBean {
             AgendaStatsData data = this.ruleStats.get( ruleName );
             if( data == null ) {
                 data = new AgendaStatsData();
-                this.ruleStats.put( ruleName, data );
+                AgendaStatsData existing = this.ruleStats.putIfAbsent( ruleName, data );
+                if ( existing != null ) {
+                    data = existing;
+                }
             }
             return data;
         }
 
         public static class AgendaStatsData {
-            public AtomicLong matchesFired;
-            public AtomicLong matchesCreated;
-            public AtomicLong matchesCancelled;
-            public AtomicLong firingTime;
+            // matches can be created and cancelled by more threads inserting at once
+            public StripedLongCounter matchesFired;
+            public StripedLongCounter matchesCreated;
+            public StripedLongCounter matchesCancelled;
+            public StripedLongCounter firingTime;
+
+            // the durations of the consequences and of the network evaluations
+            public LatencyHistogram firingTimes;
+            public LatencyHistogram evaluationTimes;
 
             public AtomicReference<Date> lastReset;
             
@@ -291,10 +370,12 @@ public class KieSessionMonitoringImpl implements KieSessionMonitoringMBean {
             public long start;
 
             public AgendaStatsData() {
-                this.matchesFired = new AtomicLong(0);
-                this.matchesCreated = new AtomicLong(0);
-                this.matchesCancelled = new AtomicLong(0);
-                this.firingTime = new AtomicLong(0);
+                this.matchesFired = new StripedLongCounter();
+                this.matchesCreated = new StripedLongCounter();
+                this.matchesCancelled = new StripedLongCounter();
+                this.firingTime = new StripedLongCounter();
+                this.firingTimes = new LatencyHistogram();
+                this.evaluationTimes = new LatencyHistogram();
                 this.lastReset = new AtomicReference<Date>(new Date());
             }
             
@@ -302,15 +383,20 @@ public class KieSessionMonitoringImpl implements KieSessionMonitoringMBean {
                 this.start = System.nanoTime();
             }
             
-            public void stopFireClock() {
-                this.firingTime.addAndGet( System.nanoTime()-this.start );
+            public long stopFireClock() {
+                long elapsed = System.nanoTime()-this.start;
+                this.firingTime.add( elapsed );
+                this.firingTimes.record( elapsed );
+                return elapsed;
             }
             
             public void reset() {
-                this.matchesFired.set( 0 );
-                this.matchesCreated.set( 0 );
-                this.matchesCancelled.set( 0 );
-                this.firingTime.set( 0 );
+                this.matchesFired.reset();
+                this.matchesCreated.reset();
+                this.matchesCancelled.reset();
+                this.firingTime.reset();
+                this.firingTimes.reset();
+                this.evaluationTimes.reset();
                 this.lastReset.set( new Date() );
             }
             
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2014 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.drools.core.management;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock free histogram of durations in nanoseconds, used to compute their percentiles.
+ * As in an HDR histogram the buckets grow exponentially, and each power of 2 is split
+ * in 16 linear sub buckets, so the values are recorded with a relative error below 1/16
+ * and a fixed footprint. Durations longer than about two minutes are recorded as the longest
+ * trackable one.
+ */
+public class LatencyHistogram {
+
+    private static final int  SUB_BUCKET_BITS  = 4;
+
+    private static final int  SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    private static final int  MAX_BIT          = 36;
+
+    public static final long  MAX_TRACKABLE    = ( 1L << ( MAX_BIT + 1 ) ) - 1;
+
+    private final AtomicLongArray buckets = new AtomicLongArray( bucketIndex( MAX_TRACKABLE ) + 1 );
+
+    private final AtomicLong      count   = new AtomicLong();
+
+    private final AtomicLong      total   = new AtomicLong();
+
+    private final AtomicLong      max     = new AtomicLong();
+
+    static int bucketIndex(long value) {
+        int shift = Math.max( 0, 63 - Long.numberOfLeadingZeros( value ) - SUB_BUCKET_BITS );
+        return shift * SUB_BUCKET_COUNT + (int) ( value >>> shift );
+    }
+
+    /**
+     * The highest value recorded in the bucket with the given index
+     */
+    static long highestValueInBucket(int index) {
+        int shift = Math.max( 0, ( index >>> SUB_BUCKET_BITS ) - 1 );
+        long base = index - shift * SUB_BUCKET_COUNT;
+        return ( ( base + 1 ) << shift ) - 1;
+    }
+
+    public void record(long nanos) {
+        long value = nanos < 0 ? 0 : Math.min( nanos, MAX_TRACKABLE );
+        buckets.incrementAndGet( bucketIndex( value ) );
+        count.incrementAndGet();
+        total.addAndGet( value );
+        long currentMax = max.get();
+        while ( value > currentMax && !max.compareAndSet( currentMax, value ) ) {
+            currentMax = max.get();
+        }
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    public long getTotal() {
+        return total.get();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    public double getMean() {
+        long n = count.get();
+        return n > 0 ? (double) total.get() / n : 0;
+    }
+
+    /**
+     * The value below which the given percentage of the recorded values fall,
+     * or 0 if nothing has been recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        long recorded = 0;
+        for ( int i = 0; i < buckets.length(); i++ ) {
+            recorded += buckets.get( i );
+        }
+        if ( recorded == 0 ) {
+            return 0;
+        }
+        long target = Math.max( 1, (long) Math.ceil( Math.min( percentile, 100.0 ) / 100.0 * recorded ) );
+        long seen = 0;
+        for ( int i = 0; i < buckets.length(); i++ ) {
+            seen += buckets.get( i );
+            if ( seen >= target ) {
+                return Math.min( highestValueInBucket( i ), max.get() );
+            }
+        }
+        return max.get();
+    }
+
+    public void reset() {
+        for ( int i = 0; i < buckets.length(); i++ ) {
+            buckets.set( i, 0 );
+        }
+        count.set( 0 );
+        total.set( 0 );
+        max.set( 0 );
+    }
+
+    public String toString() {
+        return "count=" + getCount() + " p50=" + getValueAtPercentile( 50 ) + "ns p99=" + getValueAtPercentile( 99 ) +
+               "ns p999=" + getValueAtPercentile( 99.9 ) + "ns max=" + getMax() + "ns";
+    }
+}
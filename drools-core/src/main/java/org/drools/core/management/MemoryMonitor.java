@@ -0,0 +1,89 @@
+/*
+ * Copyright 2014 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.management;
+
+import java.util.Map;
+
+import javax.management.ObjectName;
+
+import org.drools.core.common.InternalRuleBase;
+import org.drools.core.common.InternalWorkingMemory;
+import org.drools.core.management.SessionMemoryEstimator.Estimate;
+
+/**
+ * The monitor MBean for the memories of a session. The estimate is sampled at most
+ * once per second, so reading all its attributes walks the memories only once.
+ */
+public class MemoryMonitor implements MemoryMonitorMBean {
+
+    private static final String KSESSION_PREFIX = "org.drools.kbases";
+
+    private static final long   SAMPLE_INTERVAL = 1000;
+
+    private InternalWorkingMemory  ksession;
+    private SessionMemoryEstimator estimator;
+    private ObjectName             name;
+
+    private volatile Estimate     estimate;
+    private volatile long         sampleTime;
+
+    public MemoryMonitor(InternalWorkingMemory ksession) {
+        this.ksession = ksession;
+        this.estimator = new SessionMemoryEstimator( ksession );
+        this.name = DroolsManagementAgent.createObjectName( KSESSION_PREFIX + ":type=" + ( (InternalRuleBase) ksession.getRuleBase() ).getId() +
+                                                            ",group=Sessions,sessionId=Session-" + ksession.getId() + ",component=Memory" );
+    }
+
+    public ObjectName getName() {
+        return name;
+    }
+
+    private Estimate getEstimate() {
+        long now = System.currentTimeMillis();
+        Estimate current = this.estimate;
+        if ( current == null || now - sampleTime > SAMPLE_INTERVAL ) {
+            current = estimator.estimate();
+            this.estimate = current;
+            this.sampleTime = now;
+        }
+        return current;
+    }
+
+    public long getEstimatedTotalBytes() {
+        return getEstimate().getTotalBytes();
+    }
+
+    public Map<Integer, Long> getEstimatedBytesByNode() {
+        return getEstimate().getBytesByNode();
+    }
+
+    public Map<String, Long> getEstimatedBytesByRule() {
+        return getEstimate().getBytesByRule();
+    }
+
+    public Map<String, Long> getEstimatedBytesBySegment() {
+        return getEstimate().getBytesBySegment();
+    }
+
+    public Map<String, Long> getEstimatedBytesByEntryPoint() {
+        return getEstimate().getBytesByEntryPoint();
+    }
+
+    public Map<String, Long> getLargestRules(int count) {
+        return getEstimate().getLargestRules( count );
+    }
+}
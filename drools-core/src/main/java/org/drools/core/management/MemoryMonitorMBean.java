@@ -0,0 +1,70 @@
+/*
+ * Copyright 2014 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.management;
+
+import java.util.Map;
+
+/**
+ * An interface for the MBean estimating the heap used by the memories of a session
+ */
+public interface MemoryMonitorMBean {
+
+    /**
+     * The estimated bytes retained by all the node and segment memories
+     *
+     * @return
+     */
+    public long getEstimatedTotalBytes();
+
+    /**
+     * The estimated bytes retained by the memory of each node, keyed by node id
+     *
+     * @return
+     */
+    public Map<Integer, Long> getEstimatedBytesByNode();
+
+    /**
+     * The estimated bytes retained by the memories of the nodes used by each rule.
+     * Nodes shared by more rules are counted for each of them.
+     *
+     * @return
+     */
+    public Map<String, Long> getEstimatedBytesByRule();
+
+    /**
+     * The estimated bytes retained by each segment, keyed by the ids of its root and tip nodes
+     *
+     * @return
+     */
+    public Map<String, Long> getEstimatedBytesBySegment();
+
+    /**
+     * The estimated bytes retained by the facts of each entry point
+     *
+     * @return
+     */
+    public Map<String, Long> getEstimatedBytesByEntryPoint();
+
+    /**
+     * The given number of rules retaining the most bytes, from the largest one
+     *
+     * @param count
+     * @return
+     */
+    public Map<String, Long> getLargestRules(int count);
+
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2014 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.drools.core.management;
+
+/**
+ * A registry of per rule metrics, to which the monitoring of a session forwards what it
+ * measures, so that the metrics can be exported to an external monitoring system.
+ * Implementations are called on the firing path, possibly by more threads at once, so they
+ * should be thread safe and cheap.
+ *
+ * @see KieSessionMonitoringImpl#addMetricsRegistry(RuleMetricsRegistry)
+ */
+public interface RuleMetricsRegistry {
+
+    void matchCreated(String ruleName);
+
+    void matchCancelled(String ruleName);
+
+    /**
+     * A match of the rule has fired, and its consequence took the given nanoseconds
+     */
+    void matchFired(String ruleName,
+                    long consequenceNanos);
+
+    /**
+     * The network of the rule has been evaluated in the given nanoseconds
+     */
+    void ruleEvaluated(String ruleName,
+                       long evaluationNanos);
+
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2014 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.drools.core.management;
+
+import java.beans.ConstructorProperties;
+
+import org.drools.core.management.KieSessionMonitoringImpl.AgendaStats.AgendaStatsData;
+
+/**
+ * A snapshot of the statistics of a rule, exposed through JMX as composite data.
+ * All the durations are in nanoseconds.
+ */
+public class RuleStats {
+
+    private final String ruleName;
+    private final long   matchesCreated;
+    private final long   matchesCancelled;
+    private final long   matchesFired;
+    private final long   firingTimeP50;
+    private final long   firingTimeP99;
+    private final long   firingTimeP999;
+    private final long   firingTimeMax;
+    private final long   evaluations;
+    private final long   evaluationTimeP50;
+    private final long   evaluationTimeP99;
+    private final long   evaluationTimeP999;
+    private final long   evaluationTimeMax;
+
+    @ConstructorProperties({"ruleName", "matchesCreated", "matchesCancelled", "matchesFired",
+                            "firingTimeP50", "firingTimeP99", "firingTimeP999", "firingTimeMax",
+                            "evaluations", "evaluationTimeP50", "evaluationTimeP99", "evaluationTimeP999", "evaluationTimeMax"})
+    public RuleStats(String ruleName,
+                     long matchesCreated,
+                     long matchesCancelled,
+                     long matchesFired,
+                     long firingTimeP50,
+                     long firingTimeP99,
+                     long firingTimeP999,
+                     long firingTimeMax,
+                     long evaluations,
+                     long evaluationTimeP50,
+                     long evaluationTimeP99,
+                     long evaluationTimeP999,
+                     long evaluationTimeMax) {
+        this.ruleName = ruleName;
+        this.matchesCreated = matchesCreated;
+        this.matchesCancelled = matchesCancelled;
+        this.matchesFired = matchesFired;
+        this.firingTimeP50 = firingTimeP50;
+        this.firingTimeP99 = firingTimeP99;
+        this.firingTimeP999 = firingTimeP999;
+        this.firingTimeMax = firingTimeMax;
+        this.evaluations = evaluations;
+        this.evaluationTimeP50 = evaluationTimeP50;
+        this.evaluationTimeP99 = evaluationTimeP99;
+        this.evaluationTimeP999 = evaluationTimeP999;
+        this.evaluationTimeMax = evaluationTimeMax;
+    }
+
+    static RuleStats of(String ruleName,
+                        AgendaStatsData data) {
+        return new RuleStats( ruleName,
+                              data.matchesCreated.get(),
+                              data.matchesCancelled.get(),
+                              data.matchesFired.get(),
+                              data.firingTimes.getValueAtPercentile( 50 ),
+                              data.firingTimes.getValueAtPercentile( 99 ),
+                              data.firingTimes.getValueAtPercentile( 99.9 ),
+                              data.firingTimes.getMax(),
+                              data.evaluationTimes.getCount(),
+                              data.evaluationTimes.getValueAtPercentile( 50 ),
+                              data.evaluationTimes.getValueAtPercentile( 99 ),
+                              data.evaluationTimes.getValueAtPercentile( 99.9 ),
+                              data.evaluationTimes.getMax() );
+    }
+
+    public String getRuleName() {
+        return ruleName;
+    }
+
+    public long getMatchesCreated() {
+        return matchesCreated;
+    }
+
+    public long getMatchesCancelled() {
+        return matchesCancelled;
+    }
+
+    public long getMatchesFired() {
+        return matchesFired;
+    }
+
+    public long getFiringTimeP50() {
+        return firingTimeP50;
+    }
+
+    public long getFiringTimeP99() {
+        return firingTimeP99;
+    }
+
+    public long getFiringTimeP999() {
+        return firingTimeP999;
+    }
+
+    public long getFiringTimeMax() {
+        return firingTimeMax;
+    }
+
+    public long getEvaluations() {
+        return evaluations;
+    }
+
+    public long getEvaluationTimeP50() {
+        return evaluationTimeP50;
+    }
+
+    public long getEvaluationTimeP99() {
+        return evaluationTimeP99;
+    }
+
+    public long getEvaluationTimeP999() {
+        return evaluationTimeP999;
+    }
+
+    public long getEvaluationTimeMax() {
+        return evaluationTimeMax;
+    }
+
+    public String toString() {
+        return ruleName + ": matchesCreated=" + matchesCreated + " matchesCancelled=" + matchesCancelled + " matchesFired=" + matchesFired +
+               " firingTime[p50=" + firingTimeP50 + "ns p99=" + firingTimeP99 + "ns p999=" + firingTimeP999 + "ns max=" + firingTimeMax + "ns]" +
+               " evaluations=" + evaluations +
+               " evaluationTime[p50=" + evaluationTimeP50 + "ns p99=" + evaluationTimeP99 + "ns p999=" + evaluationTimeP999 + "ns max=" + evaluationTimeMax + "ns]";
+    }
+}
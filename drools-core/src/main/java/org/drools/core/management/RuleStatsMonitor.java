@@ -0,0 +1,86 @@
+/*
+ * Copyright 2014 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.drools.core.management;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import javax.management.ObjectName;
+
+import org.drools.core.common.InternalRuleBase;
+import org.drools.core.common.InternalWorkingMemory;
+import org.drools.core.management.KieSessionMonitoringImpl.AgendaStats;
+import org.drools.core.management.KieSessionMonitoringImpl.AgendaStats.AgendaStatsData;
+
+/**
+ * The monitor MXBean for the statistics of the rules of a session, as gathered
+ * by the agenda stats of its KieSessionMonitoringImpl
+ */
+public class RuleStatsMonitor implements RuleStatsMonitorMXBean {
+
+    private static final String KSESSION_PREFIX = "org.drools.kbases";
+
+    private AgendaStats agendaStats;
+    private ObjectName  name;
+
+    public RuleStatsMonitor(InternalWorkingMemory ksession,
+                            AgendaStats agendaStats) {
+        this.agendaStats = agendaStats;
+        this.name = DroolsManagementAgent.createObjectName( KSESSION_PREFIX + ":type=" + ( (InternalRuleBase) ksession.getRuleBase() ).getId() +
+                                                            ",group=Sessions,sessionId=Session-" + ksession.getId() + ",component=Rules" );
+    }
+
+    public ObjectName getName() {
+        return name;
+    }
+
+    public RuleStats getConsolidatedStats() {
+        return RuleStats.of( null, agendaStats.getConsolidatedStats() );
+    }
+
+    public List<RuleStats> getRuleStats() {
+        List<RuleStats> result = new ArrayList<RuleStats>();
+        for ( Map.Entry<String, AgendaStatsData> entry : agendaStats.getRulesStats().entrySet() ) {
+            result.add( RuleStats.of( entry.getKey(), entry.getValue() ) );
+        }
+        return result;
+    }
+
+    public RuleStats getStatsForRule(String ruleName) {
+        AgendaStatsData data = agendaStats.getRuleStats( ruleName );
+        return data == null ? null : RuleStats.of( ruleName, data );
+    }
+
+    public List<RuleStats> getSlowestRules(int count) {
+        List<RuleStats> result = getRuleStats();
+        Collections.sort( result, new Comparator<RuleStats>() {
+            public int compare(RuleStats s1,
+                               RuleStats s2) {
+                return s1.getFiringTimeP99() < s2.getFiringTimeP99() ? 1 : s1.getFiringTimeP99() == s2.getFiringTimeP99() ? 0 : -1;
+            }
+        } );
+        return result.size() > count ? new ArrayList<RuleStats>( result.subList( 0, count ) ) : result;
+    }
+
+    public void reset() {
+        agendaStats.reset();
+    }
+}
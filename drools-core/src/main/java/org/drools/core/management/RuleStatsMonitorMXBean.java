@@ -0,0 +1,64 @@
+/*
+ * Copyright 2014 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.drools.core.management;
+
+import java.util.List;
+
+/**
+ * An interface for the MXBean exposing the statistics of each rule of a session,
+ * including the percentiles of the durations of their consequences and network evaluations
+ */
+public interface RuleStatsMonitorMXBean {
+
+    /**
+     * The statistics of all the rules of the session together
+     *
+     * @return
+     */
+    public RuleStats getConsolidatedStats();
+
+    /**
+     * The statistics of each rule that had at least a match or a network evaluation
+     *
+     * @return
+     */
+    public List<RuleStats> getRuleStats();
+
+    /**
+     * The statistics of the given rule, or null if it had no match or network evaluation yet
+     *
+     * @param ruleName
+     * @return
+     */
+    public RuleStats getStatsForRule(String ruleName);
+
+    /**
+     * The given number of rules with the highest 99th percentile of the consequence duration,
+     * from the slowest one
+     *
+     * @param count
+     * @return
+     */
+    public List<RuleStats> getSlowestRules(int count);
+
+    /**
+     * Resets all the statistics of the session
+     */
+    public void reset();
+
+}
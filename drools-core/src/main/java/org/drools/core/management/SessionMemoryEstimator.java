@@ -0,0 +1,365 @@
+/*
+ * Copyright 2014 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.management;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.drools.core.common.BaseNode;
+import org.drools.core.common.InternalWorkingMemory;
+import org.drools.core.common.LeftTupleSets;
+import org.drools.core.common.Memory;
+import org.drools.core.common.NetworkNode;
+import org.drools.core.common.NodeMemories;
+import org.drools.core.common.RightTupleSets;
+import org.drools.core.phreak.RuleAgendaItem;
+import org.drools.core.reteoo.AccumulateNode.AccumulateMemory;
+import org.drools.core.reteoo.BetaMemory;
+import org.drools.core.reteoo.BetaNode;
+import org.drools.core.reteoo.EntryPointNode;
+import org.drools.core.reteoo.FromNode.FromMemory;
+import org.drools.core.reteoo.LeftTupleSink;
+import org.drools.core.reteoo.LeftTupleSource;
+import org.drools.core.reteoo.NodeTypeEnums;
+import org.drools.core.reteoo.ObjectSink;
+import org.drools.core.reteoo.ObjectSource;
+import org.drools.core.reteoo.ObjectTypeNode;
+import org.drools.core.reteoo.ObjectTypeNode.ObjectTypeNodeMemory;
+import org.drools.core.reteoo.PathMemory;
+import org.drools.core.reteoo.Rete;
+import org.drools.core.reteoo.ReteooRuleBase;
+import org.drools.core.reteoo.SegmentMemory;
+import org.drools.core.rule.Rule;
+import org.drools.core.util.AbstractHashTable;
+
+/**
+ * Estimates the heap retained by the node and segment memories of a session.
+ *
+ * The estimate is computed out of the number of tuples and facts held by each memory
+ * and the size of its index tables, without iterating them, so it is cheap enough to be
+ * sampled on a live session. The sizes of the single objects are the ones of a 64 bit
+ * JVM with compressed references.
+ *
+ * The bytes of a node are charged to all the rules sharing it, so the totals of the rules
+ * can sum to more than the total of the session. The bytes of an entry point are the
+ * ones of the facts in its object type nodes and in the right memories they feed.
+ */
+public class SessionMemoryEstimator {
+
+    public static final int REFERENCE_SIZE          = 4;
+    public static final int MEMORY_SIZE             = 48;
+    public static final int SEGMENT_SIZE            = 96;
+    public static final int LEFT_TUPLE_SIZE         = 88;
+    public static final int RIGHT_TUPLE_SIZE        = 64;
+    public static final int ACTIVATION_SIZE         = 136;
+    public static final int FACT_ENTRY_SIZE         = 32;
+    public static final int ACCUMULATE_CONTEXT_SIZE = 40;
+
+    // the memories are walked while the engine keeps working on them
+    private static final int MAX_ATTEMPTS           = 3;
+
+    private final InternalWorkingMemory wm;
+
+    // the nodes of the network, walked again only when the rule base changes
+    private NetworkInfo                 network;
+    private int                         networkVersion;
+
+    private Estimate                    lastEstimate;
+
+    public SessionMemoryEstimator(InternalWorkingMemory wm) {
+        this.wm = wm;
+    }
+
+    /**
+     * Estimates the memories of the given session once, use an instance of this class
+     * to sample the same session repeatedly
+     */
+    public static Estimate estimate(InternalWorkingMemory wm) {
+        return new SessionMemoryEstimator( wm ).estimate();
+    }
+
+    /**
+     * Estimates the memories of the session. If the memories keep changing under the walk, the last
+     * estimate that could be completed is returned instead, or the failure if there is none yet.
+     */
+    public synchronized Estimate estimate() {
+        ReteooRuleBase ruleBase = (ReteooRuleBase) wm.getRuleBase();
+        // keeps the nodes, and the rules associated to them, from changing
+        ruleBase.readLock();
+        try {
+            if ( network == null || networkVersion != ruleBase.getNetworkVersion() ) {
+                NetworkInfo collected = new NetworkInfo();
+                collectNodes( ruleBase.getRete(), null, collected );
+                network = collected;
+                networkVersion = ruleBase.getNetworkVersion();
+            }
+
+            for ( int attempt = 1; ; attempt++ ) {
+                try {
+                    lastEstimate = estimate( wm, network );
+                    return lastEstimate;
+                } catch ( RuntimeException e ) {
+                    // the segments are created and linked by the engine without any lock, so the walk can
+                    // find them half done in many ways, while it is not worth to stop the engine for an estimate
+                    if ( attempt == MAX_ATTEMPTS ) {
+                        if ( lastEstimate != null ) {
+                            return lastEstimate;
+                        }
+                        throw e;
+                    }
+                }
+            }
+        } finally {
+            ruleBase.readUnlock();
+        }
+    }
+
+    private static Estimate estimate(InternalWorkingMemory wm,
+                                     NetworkInfo network) {
+        Estimate estimate = new Estimate();
+        Map<Memory, Long> bytesByMemory = new IdentityHashMap<Memory, Long>();
+        Map<SegmentMemory, Boolean> segments = new IdentityHashMap<SegmentMemory, Boolean>();
+
+        NodeMemories memories = wm.getNodeMemories();
+        for ( int i = 0; i < memories.length(); i++ ) {
+            Memory memory = memories.peekNodeMemory( i );
+            if ( memory == null ) {
+                continue;
+            }
+            long rightBytes = estimateRightMemory( memory );
+            long bytes = estimateMemory( memory ) + rightBytes;
+            bytesByMemory.put( memory, bytes );
+            estimate.totalBytes += bytes;
+            estimate.bytesByNode.put( i, bytes );
+
+            BaseNode node = network.nodes.get( i );
+            if ( node != null ) {
+                for ( Rule rule : node.getAssociations().keySet() ) {
+                    estimate.addRuleBytes( rule, bytes );
+                }
+            }
+            if ( memory instanceof ObjectTypeNodeMemory ) {
+                estimate.addEntryPointBytes( network.entryPoints.get( i ), bytes );
+            } else if ( rightBytes > 0 ) {
+                estimate.addEntryPointBytes( network.entryPoints.get( i ), rightBytes );
+            }
+
+            // the memories of the alpha network are not part of any segment
+            if ( memory.getNodeType() > NodeTypeEnums.PropagationQueueingNode ) {
+                SegmentMemory smem = memory.getSegmentMemory();
+                if ( smem != null ) {
+                    segments.put( smem, Boolean.TRUE );
+                }
+            }
+        }
+
+        for ( SegmentMemory smem : segments.keySet() ) {
+            long stagedBytes = SEGMENT_SIZE + stagedSize( smem.getStagedLeftTuples() ) * LEFT_TUPLE_SIZE;
+            long bytes = stagedBytes;
+            for ( Memory memory = smem.getNodeMemories().getFirst(); memory != null; memory = memory.getNext() ) {
+                Long memoryBytes = bytesByMemory.get( memory );
+                if ( memoryBytes != null ) {
+                    bytes += memoryBytes;
+                }
+            }
+            estimate.totalBytes += stagedBytes;
+            estimate.bytesBySegment.put( getSegmentName( smem ), bytes );
+            for ( PathMemory pmem : smem.getPathMemories() ) {
+                estimate.addRuleBytes( pmem.getRule(), stagedBytes );
+            }
+        }
+
+        return estimate;
+    }
+
+    private static long estimateMemory(Memory memory) {
+        if ( memory instanceof BetaMemory ) {
+            return estimateBetaMemory( (BetaMemory) memory );
+        }
+        if ( memory instanceof AccumulateMemory ) {
+            BetaMemory betaMemory = ( (AccumulateMemory) memory ).getBetaMemory();
+            // each left tuple owns the context accumulating its group
+            return MEMORY_SIZE + estimateBetaMemory( betaMemory ) +
+                   (long) betaMemory.getLeftTupleMemory().size() * ACCUMULATE_CONTEXT_SIZE;
+        }
+        if ( memory instanceof FromMemory ) {
+            return MEMORY_SIZE + estimateBetaMemory( ( (FromMemory) memory ).betaMemory );
+        }
+        if ( memory instanceof ObjectTypeNodeMemory ) {
+            AbstractHashTable facts = ( (ObjectTypeNodeMemory) memory ).memory;
+            return MEMORY_SIZE + (long) facts.size() * FACT_ENTRY_SIZE + tableSize( facts );
+        }
+        if ( memory instanceof PathMemory ) {
+            RuleAgendaItem item = ( (PathMemory) memory ).getRuleAgendaItem();
+            return item == null ? MEMORY_SIZE : MEMORY_SIZE + (long) item.getRuleExecutor().getLeftTupleList().size() * ACTIVATION_SIZE;
+        }
+        return MEMORY_SIZE;
+    }
+
+    private static long estimateBetaMemory(BetaMemory memory) {
+        long bytes = MEMORY_SIZE;
+        if ( memory.getLeftTupleMemory() != null ) {
+            bytes += (long) memory.getLeftTupleMemory().size() * LEFT_TUPLE_SIZE + tableSize( memory.getLeftTupleMemory() );
+        }
+        return bytes;
+    }
+
+    private static long estimateRightMemory(Memory memory) {
+        BetaMemory betaMemory = null;
+        if ( memory instanceof BetaMemory ) {
+            betaMemory = (BetaMemory) memory;
+        } else if ( memory instanceof AccumulateMemory ) {
+            betaMemory = ( (AccumulateMemory) memory ).getBetaMemory();
+        }
+        if ( betaMemory == null || betaMemory.getRightTupleMemory() == null ) {
+            return 0;
+        }
+        // staged deletes and updates are still in the right memory, while inserts are not there yet
+        long tuples = betaMemory.getRightTupleMemory().size();
+        RightTupleSets staged = betaMemory.getStagedRightTuples();
+        if ( staged != null ) {
+            tuples += staged.insertSize();
+        }
+        return tuples * RIGHT_TUPLE_SIZE + tableSize( betaMemory.getRightTupleMemory() );
+    }
+
+    private static long tableSize(Object tupleMemory) {
+        return tupleMemory instanceof AbstractHashTable ? (long) ( (AbstractHashTable) tupleMemory ).getTable().length * REFERENCE_SIZE : 0;
+    }
+
+    private static long stagedSize(LeftTupleSets staged) {
+        return staged == null ? 0 : staged.insertSize() + staged.deleteSize() + staged.updateSize();
+    }
+
+    private static String getSegmentName(SegmentMemory smem) {
+        NetworkNode tip = smem.getTipNode();
+        return smem.getRootNode().getId() + "-" + ( tip != null ? tip.getId() : smem.getRootNode().getId() );
+    }
+
+    private static void collectNodes(NetworkNode node,
+                                     String entryPoint,
+                                     NetworkInfo network) {
+        if ( node instanceof BaseNode ) {
+            if ( network.nodes.containsKey( node.getId() ) ) {
+                return;
+            }
+            network.nodes.put( node.getId(), (BaseNode) node );
+        }
+
+        if ( node instanceof Rete ) {
+            for ( EntryPointNode epn : ( (Rete) node ).getEntryPointNodes().values() ) {
+                collectNodes( epn, epn.getEntryPoint().getEntryPointId(), network );
+            }
+        } else if ( node instanceof EntryPointNode ) {
+            for ( ObjectTypeNode otn : ( (EntryPointNode) node ).getObjectTypeNodes().values() ) {
+                network.entryPoints.put( otn.getId(), entryPoint );
+                collectNodes( otn, entryPoint, network );
+            }
+        } else if ( node instanceof ObjectSource ) {
+            for ( ObjectSink sink : ( (ObjectSource) node ).getSinkPropagator().getSinks() ) {
+                if ( sink instanceof BetaNode ) {
+                    // the right memory of a beta node holds the facts of the entry point feeding it
+                    network.entryPoints.put( sink.getId(), entryPoint );
+                }
+                collectNodes( sink, entryPoint, network );
+            }
+        } else if ( node instanceof LeftTupleSource ) {
+            for ( LeftTupleSink sink : ( (LeftTupleSource) node ).getSinkPropagator().getSinks() ) {
+                collectNodes( sink, entryPoint, network );
+            }
+        }
+    }
+
+    private static class NetworkInfo {
+        private final Map<Integer, BaseNode> nodes       = new HashMap<Integer, BaseNode>();
+        private final Map<Integer, String>   entryPoints = new HashMap<Integer, String>();
+    }
+
+    /**
+     * The estimated bytes retained by a session, in total and grouped by node, rule, segment and entry point
+     */
+    public static class Estimate {
+        private long                totalBytes;
+        private Map<Integer, Long>  bytesByNode       = new LinkedHashMap<Integer, Long>();
+        private Map<String, Long>   bytesByRule       = new HashMap<String, Long>();
+        private Map<String, Long>   bytesBySegment    = new HashMap<String, Long>();
+        private Map<String, Long>   bytesByEntryPoint = new HashMap<String, Long>();
+
+        private void addRuleBytes(Rule rule,
+                                  long bytes) {
+            add( bytesByRule, rule.getName(), bytes );
+        }
+
+        private void addEntryPointBytes(String entryPoint,
+                                        long bytes) {
+            if ( entryPoint != null ) {
+                add( bytesByEntryPoint, entryPoint, bytes );
+            }
+        }
+
+        private static void add(Map<String, Long> map,
+                                String key,
+                                long bytes) {
+            Long current = map.get( key );
+            map.put( key, current == null ? bytes : current + bytes );
+        }
+
+        public long getTotalBytes() {
+            return totalBytes;
+        }
+
+        public Map<Integer, Long> getBytesByNode() {
+            return bytesByNode;
+        }
+
+        public Map<String, Long> getBytesByRule() {
+            return bytesByRule;
+        }
+
+        public Map<String, Long> getBytesBySegment() {
+            return bytesBySegment;
+        }
+
+        public Map<String, Long> getBytesByEntryPoint() {
+            return bytesByEntryPoint;
+        }
+
+        /**
+         * Returns the given number of rules retaining the most bytes, from the largest one
+         */
+        public Map<String, Long> getLargestRules(int count) {
+            List<Map.Entry<String, Long>> entries = new ArrayList<Map.Entry<String, Long>>( bytesByRule.entrySet() );
+            Collections.sort( entries, new Comparator<Map.Entry<String, Long>>() {
+                public int compare(Map.Entry<String, Long> e1,
+                                   Map.Entry<String, Long> e2) {
+                    return e2.getValue().compareTo( e1.getValue() );
+                }
+            } );
+            Map<String, Long> result = new LinkedHashMap<String, Long>();
+            for ( int i = 0; i < entries.size() && i < count; i++ ) {
+                result.put( entries.get( i ).getKey(), entries.get( i ).getValue() );
+            }
+            return result;
+        }
+    }
+}
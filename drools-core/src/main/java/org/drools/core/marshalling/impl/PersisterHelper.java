@@ -287,7 +287,13 @@ public class PersisterHelper {
                 } else if(context.ruleBase != null){
                     classLoader = context.ruleBase.getRootClassLoader();
                 }
-                ctx.read( new DroolsObjectInputStream( _entry.getData().newInput(), classLoader) );
+                DroolsObjectInputStream ois = new DroolsObjectInputStream( _entry.getData().newInput(), classLoader );
+                if ( context.ruleBase != null ) {
+                    // lets the objects read re-attach to the rule base, e.g. the soft fields of traitable beans
+                    ois.setRuleBase( context.ruleBase );
+                    ois.setClassLoader( classLoader );
+                }
+                ctx.read( ois );
             }
         }
     }
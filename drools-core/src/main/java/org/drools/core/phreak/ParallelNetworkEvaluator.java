@@ -0,0 +1,340 @@
+package org.drools.core.phreak;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+
+import org.drools.core.RuntimeDroolsException;
+import org.drools.core.common.InternalAgendaGroup;
+import org.drools.core.common.InternalWorkingMemory;
+import org.drools.core.common.Memory;
+import org.drools.core.reteoo.AccumulateNode.AccumulateMemory;
+import org.drools.core.reteoo.BetaMemory;
+import org.drools.core.reteoo.BetaNode;
+import org.drools.core.reteoo.LeftTupleSource;
+import org.drools.core.reteoo.NodeTypeEnums;
+import org.drools.core.reteoo.PathMemory;
+import org.drools.core.reteoo.RightInputAdapterNode;
+import org.drools.core.reteoo.SegmentMemory;
+import org.drools.core.reteoo.TerminalNode;
+import org.drools.core.rule.Rule;
+import org.drools.core.spi.Activation;
+import org.drools.core.util.StringUtils;
+import org.kie.internal.concurrent.ExecutorProviderFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Evaluates the dirty rules of an agenda group concurrently, before conflict resolution.
+ *
+ * Rules are partitioned by the SegmentMemories of their paths: two rules sharing a segment,
+ * directly or through a subnetwork, always end up in the same partition, as the evaluation of
+ * one rule stages tuples into the child segments of the other. Partitions are then evaluated on
+ * up to maxThreads threads, the firing thread included. Tuples reaching the terminal nodes are not
+ * added to the agenda by the evaluation threads, but deferred and flushed by the firing thread once
+ * all partitions are evaluated, so that agenda, event support and truth maintenance are only ever
+ * touched by a single thread and in a deterministic order.
+ *
+ * Rules that cannot safely be evaluated concurrently (queries, timers, conditional branches,
+ * stream mode tuple queues) are left to the usual serial evaluation.
+ */
+public class ParallelNetworkEvaluator {
+
+    protected static transient Logger log = LoggerFactory.getLogger(ParallelNetworkEvaluator.class);
+
+    private static final Executor EXECUTOR = ExecutorProviderFactory.getExecutorProvider().getExecutor();
+
+    // the rules linked or unlinked by a thread while it evaluates a bucket, to be queued later by the firing thread
+    private static final ThreadLocal<List<PathMemory>> DEFERRED_QUEUEING = new ThreadLocal<List<PathMemory>>();
+
+    private final int maxThreads;
+
+    public ParallelNetworkEvaluator(int maxThreads) {
+        this.maxThreads = maxThreads > 0 ? maxThreads : Runtime.getRuntime().availableProcessors();
+    }
+
+    public int getMaxThreads() {
+        return maxThreads;
+    }
+
+    /**
+     * Evaluates all the dirty rules of the given group, if there are at least two independent partitions
+     * of them. Returns the number of rules evaluated concurrently.
+     */
+    public int evaluate(InternalAgendaGroup group, InternalWorkingMemory wm) {
+        if (maxThreads < 2 || group.size() < 2) {
+            return 0;
+        }
+
+        List<RuleExecutor> executors = new ArrayList<RuleExecutor>();
+        for (Activation activation : group.getActivations()) {
+            if (activation.isRuleAgendaItem()) {
+                RuleExecutor executor = ((RuleAgendaItem) activation).getRuleExecutor();
+                if (executor.isDirty() && isParallelizable(executor)) {
+                    executors.add(executor);
+                }
+            }
+        }
+        if (executors.size() < 2) {
+            return 0;
+        }
+
+        List<List<RuleExecutor>> partitions = partition(executors);
+        if (partitions.size() < 2) {
+            return 0;
+        }
+
+        if (log.isTraceEnabled()) {
+            log.trace("Evaluating {} rules in {} partitions", executors.size(), partitions.size());
+        }
+
+        List<List<PathMemory>> linked = new ArrayList<List<PathMemory>>();
+        try {
+            evaluatePartitions(partitions, linked, wm);
+        } finally {
+            // back on the firing thread: hand over the collected tuples to the agenda, in the group order
+            for (RuleExecutor executor : executors) {
+                executor.flushDeferredTuples(wm);
+            }
+            // and queue the rules linked or unlinked during the evaluation
+            Map<PathMemory, Boolean> queued = new IdentityHashMap<PathMemory, Boolean>();
+            for (List<PathMemory> pmems : linked) {
+                for (PathMemory pmem : pmems) {
+                    if (queued.put(pmem, Boolean.TRUE) == null) {
+                        pmem.queueRuleAgendaItem(wm);
+                    }
+                }
+            }
+        }
+        wm.executeQueuedActions();
+
+        return executors.size();
+    }
+
+    private void evaluatePartitions(List<List<RuleExecutor>> partitions, final List<List<PathMemory>> linked, final InternalWorkingMemory wm) {
+        int threads = Math.min(maxThreads, partitions.size());
+
+        // round robin the partitions over the available threads, the first bucket is run by the firing thread
+        final List<List<RuleExecutor>> buckets = new ArrayList<List<RuleExecutor>>(threads);
+        for (int i = 0; i < threads; i++) {
+            buckets.add(new ArrayList<RuleExecutor>());
+            linked.add(new ArrayList<PathMemory>());
+        }
+        for (int i = 0, length = partitions.size(); i < length; i++) {
+            buckets.get(i % threads).addAll(partitions.get(i));
+        }
+
+        final CountDownLatch latch = new CountDownLatch(threads - 1);
+        final Throwable[] errors = new Throwable[threads];
+        for (int i = 1; i < threads; i++) {
+            final int bucket = i;
+            EXECUTOR.execute(new Runnable() {
+                public void run() {
+                    try {
+                        evaluateBucket(buckets.get(bucket), linked.get(bucket), wm);
+                    } catch (Throwable t) {
+                        errors[bucket] = t;
+                    } finally {
+                        latch.countDown();
+                    }
+                }
+            });
+        }
+
+        try {
+            evaluateBucket(buckets.get(0), linked.get(0), wm);
+        } catch (Throwable t) {
+            errors[0] = t;
+        }
+
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeDroolsException("Interrupted while waiting for the parallel network evaluation", e);
+        }
+
+        for (Throwable t : errors) {
+            if (t != null) {
+                if (t instanceof RuntimeException) {
+                    throw (RuntimeException) t;
+                }
+                throw new RuntimeDroolsException("Error during parallel network evaluation", t);
+            }
+        }
+    }
+
+    private static void evaluateBucket(List<RuleExecutor> executors, List<PathMemory> linked, InternalWorkingMemory wm) {
+        DEFERRED_QUEUEING.set(linked);
+        try {
+            for (RuleExecutor executor : executors) {
+                executor.evaluateNetworkDeferred(wm);
+            }
+        } finally {
+            DEFERRED_QUEUEING.remove();
+        }
+    }
+
+    /**
+     * Called when a rule is linked or unlinked: if the current thread is evaluating a bucket, the rule
+     * is recorded to be queued on the agenda by the firing thread, and true is returned.
+     */
+    public static boolean deferQueueing(PathMemory pmem) {
+        List<PathMemory> linked = DEFERRED_QUEUEING.get();
+        if (linked == null) {
+            return false;
+        }
+        linked.add(pmem);
+        return true;
+    }
+
+    /**
+     * Groups the executors whose paths share at least one segment.
+     */
+    static List<List<RuleExecutor>> partition(List<RuleExecutor> executors) {
+        Map<SegmentMemory, Partition> segmentPartitions = new IdentityHashMap<SegmentMemory, Partition>();
+        List<Partition> partitions = new ArrayList<Partition>();
+
+        for (RuleExecutor executor : executors) {
+            List<SegmentMemory> segments = new ArrayList<SegmentMemory>();
+            collectSegments(executor.getPathMemory(), segments);
+
+            Partition partition = null;
+            for (SegmentMemory sm : segments) {
+                Partition other = segmentPartitions.get(sm);
+                if (other == null || other == partition) {
+                    continue;
+                }
+                if (partition == null) {
+                    partition = other;
+                } else {
+                    // the executor bridges two partitions, merge them
+                    Partition merged = partition.merge(other, segmentPartitions);
+                    partitions.remove(merged == partition ? other : partition);
+                    partition = merged;
+                }
+            }
+            if (partition == null) {
+                partition = new Partition();
+                partitions.add(partition);
+            }
+            partition.executors.add(executor);
+            for (SegmentMemory sm : segments) {
+                if (segmentPartitions.put(sm, partition) == null) {
+                    partition.segments.add(sm);
+                }
+            }
+        }
+
+        List<List<RuleExecutor>> result = new ArrayList<List<RuleExecutor>>(partitions.size());
+        for (Partition partition : partitions) {
+            result.add(partition.executors);
+        }
+        return result;
+    }
+
+    private static void collectSegments(PathMemory pmem, List<SegmentMemory> segments) {
+        for (SegmentMemory sm : pmem.getSegmentMemories()) {
+            if (sm == null) {
+                continue;
+            }
+            segments.add(sm);
+            for (Memory mem = sm.getNodeMemories().getFirst(); mem != null; mem = mem.getNext()) {
+                PathMemory riaPmem = getRiaRuleMemory(mem);
+                if (riaPmem != null) {
+                    // subnetworks are evaluated as part of the outer path
+                    collectSegments(riaPmem, segments);
+                }
+            }
+        }
+    }
+
+    private static PathMemory getRiaRuleMemory(Memory mem) {
+        if (mem instanceof BetaMemory) {
+            return ((BetaMemory) mem).getRiaRuleMemory();
+        }
+        if (mem instanceof AccumulateMemory) {
+            return ((AccumulateMemory) mem).getBetaMemory().getRiaRuleMemory();
+        }
+        return null;
+    }
+
+    /**
+     * Returns true if all the segments of the given path, and of the subnetwork paths
+     * it contains, are created: creating them while evaluating would touch other paths
+     */
+    private static boolean hasAllSegments(PathMemory pmem) {
+        for (SegmentMemory sm : pmem.getSegmentMemories()) {
+            if (sm == null) {
+                return false;
+            }
+            for (Memory mem = sm.getNodeMemories().getFirst(); mem != null; mem = mem.getNext()) {
+                PathMemory riaPmem = getRiaRuleMemory(mem);
+                if (riaPmem != null && !hasAllSegments(riaPmem)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    static boolean isParallelizable(RuleExecutor executor) {
+        PathMemory pmem = executor.getPathMemory();
+        if (pmem.getTupleQueue() != null) {
+            // stream mode queues must be consumed in order with the rule firing
+            return false;
+        }
+        if (!hasAllSegments(pmem)) {
+            return false;
+        }
+
+        TerminalNode rtn = (TerminalNode) pmem.getNetworkNode();
+        Rule rule = rtn.getRule();
+        if (rule.isEager() || !StringUtils.isEmpty(rule.getActivationGroup())) {
+            return false;
+        }
+
+        return isParallelizable(rtn.getLeftTupleSource());
+    }
+
+    private static boolean isParallelizable(LeftTupleSource lts) {
+        for (; lts != null; lts = lts.getLeftTupleSource()) {
+            switch (lts.getType()) {
+                case NodeTypeEnums.QueryElementNode:
+                case NodeTypeEnums.TimerConditionNode:
+                case NodeTypeEnums.ConditionalBranchNode:
+                    return false;
+            }
+            if (NodeTypeEnums.isBetaNode(lts) && ((BetaNode) lts).isRightInputIsRiaNode()) {
+                RightInputAdapterNode riaNode = (RightInputAdapterNode) ((BetaNode) lts).getRightInput();
+                if (!isParallelizable(riaNode.getLeftTupleSource())) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static class Partition {
+        private final List<RuleExecutor>  executors = new ArrayList<RuleExecutor>();
+        private final List<SegmentMemory> segments  = new ArrayList<SegmentMemory>();
+
+        private Partition merge(Partition other, Map<SegmentMemory, Partition> segmentPartitions) {
+            Partition target = this;
+            Partition source = other;
+            if (source.segments.size() > target.segments.size()) {
+                target = other;
+                source = this;
+            }
+            for (SegmentMemory sm : source.segments) {
+                segmentPartitions.put(sm, target);
+            }
+            target.segments.addAll(source.segments);
+            target.executors.addAll(source.executors);
+            return target;
+        }
+    }
+}
@@ -7,12 +7,15 @@ import org.drools.core.common.EventSupport;
 import org.drools.core.common.InternalAgenda;
 import org.drools.core.common.InternalWorkingMemory;
 import org.drools.core.common.LeftTupleSets;
+import org.drools.core.common.LeftTupleSetsImpl;
+import org.drools.core.event.AgendaEventSupport;
 import org.drools.core.reteoo.BetaMemory;
 import org.drools.core.reteoo.LeftTuple;
 import org.drools.core.reteoo.PathMemory;
 import org.drools.core.reteoo.RuleTerminalNode;
 import org.drools.core.reteoo.RuleTerminalNodeLeftTuple;
 import org.drools.core.reteoo.SegmentMemory;
+import org.drools.core.reteoo.TerminalNode;
 import org.drools.core.rule.Rule;
 import org.drools.core.spi.Activation;
 import org.drools.core.spi.AgendaFilter;
@@ -28,6 +31,7 @@ public class RuleExecutor {
 
     protected static transient Logger         log               = LoggerFactory.getLogger(RuleExecutor.class);
     private static final RuleNetworkEvaluator NETWORK_EVALUATOR = new RuleNetworkEvaluator();
+    private static final PhreakRuleTerminalNode RULE_TERMINAL_NODE = new PhreakRuleTerminalNode();
     private final PathMemory                  pmem;
     private RuleAgendaItem                    ruleAgendaItem;
     private LeftTupleList                     tupleList;
@@ -35,6 +39,8 @@ public class RuleExecutor {
     private volatile boolean                  dirty;
     private boolean                           declarativeAgendaEnabled;
     private boolean                           fireExitedEarly;
+    private TerminalNode                      deferredRtn;
+    private LeftTupleSets                     deferredTuples;
 
     public RuleExecutor(final PathMemory pmem,
             RuleAgendaItem ruleAgendaItem,
@@ -49,11 +55,59 @@ public class RuleExecutor {
     }
 
     public synchronized void evaluateNetwork(InternalWorkingMemory wm) {
-        NETWORK_EVALUATOR.evaluateNetwork(pmem, null, this, wm);
+        evaluateNetwork(null, wm);
         setDirty(false);
         wm.executeQueuedActions();
     }
 
+    /**
+     * Evaluates the network on behalf of the ParallelNetworkEvaluator, without touching the agenda:
+     * the tuples reaching the terminal node are only collected, and are added to the agenda later
+     * on the firing thread by flushDeferredTuples. Queued actions are also left to the firing thread.
+     */
+    public synchronized void evaluateNetworkDeferred(InternalWorkingMemory wm) {
+        deferredTuples = new LeftTupleSetsImpl();
+        evaluateNetwork(null, wm);
+        setDirty(false);
+    }
+
+    public boolean isDeferringTerminalTuples() {
+        return deferredTuples != null;
+    }
+
+    public void deferTerminalTuples(TerminalNode rtn, LeftTupleSets srcLeftTuples) {
+        deferredRtn = rtn;
+        // same order as PhreakRuleTerminalNode, so that clashes are resolved as they would have been by the terminal node
+        for (LeftTuple leftTuple = srcLeftTuples.getDeleteFirst(); leftTuple != null; ) {
+            LeftTuple next = leftTuple.getStagedNext();
+            leftTuple.clearStaged();
+            deferredTuples.addDelete(leftTuple);
+            leftTuple = next;
+        }
+        for (LeftTuple leftTuple = srcLeftTuples.getUpdateFirst(); leftTuple != null; ) {
+            LeftTuple next = leftTuple.getStagedNext();
+            leftTuple.clearStaged();
+            deferredTuples.addUpdate(leftTuple);
+            leftTuple = next;
+        }
+        for (LeftTuple leftTuple = srcLeftTuples.getInsertFirst(); leftTuple != null; ) {
+            LeftTuple next = leftTuple.getStagedNext();
+            leftTuple.clearStaged();
+            deferredTuples.addInsert(leftTuple);
+            leftTuple = next;
+        }
+        srcLeftTuples.resetAll();
+    }
+
+    public synchronized void flushDeferredTuples(InternalWorkingMemory wm) {
+        LeftTupleSets tuples = deferredTuples;
+        deferredTuples = null;
+        if (tuples != null && !tuples.isEmpty()) {
+            RULE_TERMINAL_NODE.doNode(deferredRtn, wm, tuples, this);
+        }
+        deferredRtn = null;
+    }
+
     public synchronized int evaluateNetworkAndFire(InternalWorkingMemory wm,
             final AgendaFilter filter,
             int fireCount,
@@ -190,17 +244,28 @@ public class RuleExecutor {
             if (pmem.getTupleQueue() != null) {
                 while (!pmem.getTupleQueue().isEmpty()) {
                     removeQueuedTupleEntry();
-                    NETWORK_EVALUATOR.evaluateNetwork(pmem, outerStack, this, wm);
+                    evaluateNetwork(outerStack, wm);
                     evaled = true;
                 }
             }
 
             if (!evaled) {
-                NETWORK_EVALUATOR.evaluateNetwork(pmem, outerStack, this, wm);
+                evaluateNetwork(outerStack, wm);
             }
         }
     }
 
+    private void evaluateNetwork(LinkedList<StackEntry> outerStack, InternalWorkingMemory wm) {
+        AgendaEventSupport agendaEventSupport = ((EventSupport) wm).getAgendaEventSupport();
+        if (!agendaEventSupport.isRuleEvaluationObserved()) {
+            NETWORK_EVALUATOR.evaluateNetwork(pmem, outerStack, this, wm);
+            return;
+        }
+        long start = System.nanoTime();
+        NETWORK_EVALUATOR.evaluateNetwork(pmem, outerStack, this, wm);
+        agendaEventSupport.fireRuleEvaluated(ruleAgendaItem.getRule(), System.nanoTime() - start, wm);
+    }
+
     private void removeQueuedTupleEntry() {
         TupleEntry tupleEntry = pmem.getTupleQueue().remove();
         PropagationContext originalPctx = tupleEntry.getPropagationContext();
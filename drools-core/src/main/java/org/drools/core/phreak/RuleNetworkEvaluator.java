@@ -313,6 +313,8 @@ public class RuleNetworkEvaluator {
                                    wm,
                                    srcTuples,
                                    stack);
+                } else if (executor.isDeferringTerminalTuples()) {
+                    executor.deferTerminalTuples(rtn, srcTuples);
                 } else {
                     pRtNode.doNode(rtn,
                                    wm,
@@ -43,8 +43,6 @@ import org.drools.core.rule.ContextEntry;
 import org.drools.core.spi.AlphaNodeFieldConstraint;
 import org.drools.core.spi.PropagationContext;
 
-import static org.drools.core.util.BitMaskUtil.intersect;
-
 /**
  * AccumulateNode
  * A beta node capable of doing accumulate logic.
@@ -412,14 +410,14 @@ public class AccumulateNode extends BetaNode {
                 // things staged as inserts, are left as inserts and use the pctx associated from the time of insertion
                 rightTuple.setPropagationContext( context );
             }
-            if ( intersect( context.getModificationMask(), getRightInferredMask() ) ) {
+            if ( context.getModificationMask().intersects( getRightInferredMask() ) ) {
                 // RightTuple previously existed, so continue as modify
                 BetaMemory bm = getBetaMemory( this, wm );
                 rightTuple.setPropagationContext( context );
                 doUpdateRightTuple(rightTuple, wm, bm);
             }
         } else {
-            if ( intersect( context.getModificationMask(), getRightInferredMask() ) ) {
+            if ( context.getModificationMask().intersects( getRightInferredMask() ) ) {
                 // RightTuple does not exist for this node, so create and continue as assert
                 assertObject( factHandle,
                               context,
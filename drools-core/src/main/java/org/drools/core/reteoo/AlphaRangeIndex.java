@@ -0,0 +1,401 @@
+/*
+ * Copyright 2014 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.reteoo;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import org.drools.core.base.ValueType;
+import org.drools.core.base.extractors.MVELObjectClassFieldReader;
+import org.drools.core.common.InternalFactHandle;
+import org.drools.core.common.InternalWorkingMemory;
+import org.drools.core.rule.IndexableConstraint;
+import org.drools.core.spi.AlphaNodeFieldConstraint;
+import org.drools.core.spi.FieldValue;
+import org.drools.core.spi.InternalReadAccessor;
+import org.drools.core.spi.PropagationContext;
+import org.drools.core.util.LinkedListNode;
+import org.drools.core.util.index.IndexUtil.ConstraintType;
+
+/**
+ * Indexes the sibling AlphaNodes comparing the same numeric field with a literal, like
+ * <code>amount &gt; 100</code>, <code>amount &gt;= 500</code> or <code>amount &lt; 10</code>.
+ *
+ * The lower bounds (&gt; and &gt;=) are sorted by ascending threshold and the upper bounds (&lt; and &lt;=)
+ * by descending threshold, inclusive bounds first on ties. This way the nodes matched by a value are
+ * a prefix of each array, found with a binary search instead of evaluating all the constraints.
+ */
+public class AlphaRangeIndex
+    implements
+    LinkedListNode<AlphaRangeIndex>,
+    Externalizable {
+
+    private int                  index;
+    private InternalReadAccessor fieldExtractor;
+    private boolean              decimal;
+
+    private List<AlphaNode>      nodes;
+
+    private Bounds               lowerBounds;
+    private Bounds               upperBounds;
+
+    private AlphaRangeIndex      previous;
+    private AlphaRangeIndex      next;
+
+    public AlphaRangeIndex() {
+    }
+
+    public AlphaRangeIndex(final int index,
+                           final InternalReadAccessor fieldExtractor) {
+        this.index = index;
+        this.fieldExtractor = fieldExtractor;
+        this.decimal = fieldExtractor.getValueType().isFloatNumber();
+        this.nodes = new ArrayList<AlphaNode>();
+        rebuild();
+    }
+
+    public void readExternal(ObjectInput in) throws IOException,
+                                            ClassNotFoundException {
+        index = in.readInt();
+        fieldExtractor = (InternalReadAccessor) in.readObject();
+        decimal = in.readBoolean();
+        nodes = (List<AlphaNode>) in.readObject();
+        lowerBounds = (Bounds) in.readObject();
+        upperBounds = (Bounds) in.readObject();
+    }
+
+    public void writeExternal(ObjectOutput out) throws IOException {
+        out.writeInt( index );
+        out.writeObject( fieldExtractor );
+        out.writeBoolean( decimal );
+        out.writeObject( nodes );
+        out.writeObject( lowerBounds );
+        out.writeObject( upperBounds );
+    }
+
+    /**
+     * Returns true if the given sink is an AlphaNode whose constraint can be range indexed, that is
+     * a comparison of an int, long, float or double field, or their wrappers, with a non null numeric
+     * literal. An integral field is only indexed against an integral literal, as the index compares
+     * it as a long and a threshold like 10.5 would be truncated.
+     */
+    public static boolean isRangeIndexable(final ObjectSink sink) {
+        if ( sink.getType() != NodeTypeEnums.AlphaNode ) {
+            return false;
+        }
+        final AlphaNodeFieldConstraint fieldConstraint = ((AlphaNode) sink).getConstraint();
+        if ( !( fieldConstraint instanceof IndexableConstraint ) ) {
+            return false;
+        }
+        final IndexableConstraint indexableConstraint = (IndexableConstraint) fieldConstraint;
+        if ( !indexableConstraint.getConstraintType().isComparison() || indexableConstraint.getField() == null ||
+             indexableConstraint.getField().isNull() || indexableConstraint.getFieldExtractor() == null ||
+             // our current implementation does not support indexing of deeply nested properties
+             indexableConstraint.getFieldExtractor() instanceof MVELObjectClassFieldReader ) {
+            return false;
+        }
+        final ValueType vtype = indexableConstraint.getFieldExtractor().getValueType();
+        if ( vtype == ValueType.BIG_INTEGER_TYPE || vtype == ValueType.BIG_DECIMAL_TYPE ) {
+            return false;
+        }
+        final Object literal = indexableConstraint.getField().getValue();
+        if ( vtype.isFloatNumber() ) {
+            return literal instanceof Number;
+        }
+        return vtype.isIntegerNumber() && isIntegral( literal );
+    }
+
+    private static boolean isIntegral(final Object literal) {
+        if ( literal instanceof Long || literal instanceof Integer || literal instanceof Short || literal instanceof Byte ) {
+            return true;
+        }
+        if ( literal instanceof Double || literal instanceof Float ) {
+            final double value = ((Number) literal).doubleValue();
+            // out of the long range the conversion would saturate instead of truncate, so leave those alone too
+            return value == Math.rint( value ) && value >= Long.MIN_VALUE && value < Long.MAX_VALUE;
+        }
+        return false;
+    }
+
+    public static int getIndex(final AlphaNode alphaNode) {
+        return ((IndexableConstraint) alphaNode.getConstraint()).getFieldExtractor().getIndex();
+    }
+
+    public int getIndex() {
+        return this.index;
+    }
+
+    public InternalReadAccessor getFieldExtractor() {
+        return this.fieldExtractor;
+    }
+
+    public List<AlphaNode> getNodes() {
+        return this.nodes;
+    }
+
+    public int size() {
+        return this.nodes.size();
+    }
+
+    public void add(final AlphaNode alphaNode) {
+        this.nodes.add( alphaNode );
+        rebuild();
+    }
+
+    public boolean remove(final AlphaNode alphaNode) {
+        if ( this.nodes.remove( alphaNode ) ) {
+            rebuild();
+            return true;
+        }
+        return false;
+    }
+
+    private void rebuild() {
+        final List<AlphaNode> lower = new ArrayList<AlphaNode>();
+        final List<AlphaNode> upper = new ArrayList<AlphaNode>();
+        for ( AlphaNode alphaNode : this.nodes ) {
+            if ( getConstraintType( alphaNode ).isAscending() ) {
+                lower.add( alphaNode );
+            } else {
+                upper.add( alphaNode );
+            }
+        }
+        this.lowerBounds = new Bounds( lower, true, this.decimal );
+        this.upperBounds = new Bounds( upper, false, this.decimal );
+    }
+
+    private static ConstraintType getConstraintType(final AlphaNode alphaNode) {
+        return ((IndexableConstraint) alphaNode.getConstraint()).getConstraintType();
+    }
+
+    private static FieldValue getField(final AlphaNode alphaNode) {
+        return ((IndexableConstraint) alphaNode.getConstraint()).getField();
+    }
+
+    public void propagateAssertObject(final InternalFactHandle factHandle,
+                                      final PropagationContext context,
+                                      final InternalWorkingMemory workingMemory) {
+        final Object object = factHandle.getObject();
+        if ( this.fieldExtractor.isNullValue( workingMemory, object ) ) {
+            return;
+        }
+        // go straight to the AlphaNodes' propagators, as we know the constraints are true and no need to retest
+        for ( int i = 0, length = matching( this.lowerBounds, object, workingMemory ); i < length; i++ ) {
+            this.lowerBounds.nodes[i].getSinkPropagator().propagateAssertObject( factHandle, context, workingMemory );
+        }
+        for ( int i = 0, length = matching( this.upperBounds, object, workingMemory ); i < length; i++ ) {
+            this.upperBounds.nodes[i].getSinkPropagator().propagateAssertObject( factHandle, context, workingMemory );
+        }
+    }
+
+    public void propagateModifyObject(final InternalFactHandle factHandle,
+                                      final ModifyPreviousTuples modifyPreviousTuples,
+                                      final PropagationContext context,
+                                      final InternalWorkingMemory workingMemory) {
+        final Object object = factHandle.getObject();
+        if ( this.fieldExtractor.isNullValue( workingMemory, object ) ) {
+            return;
+        }
+        for ( int i = 0, length = matching( this.lowerBounds, object, workingMemory ); i < length; i++ ) {
+            this.lowerBounds.nodes[i].getSinkPropagator().propagateModifyObject( factHandle, modifyPreviousTuples, context, workingMemory );
+        }
+        for ( int i = 0, length = matching( this.upperBounds, object, workingMemory ); i < length; i++ ) {
+            this.upperBounds.nodes[i].getSinkPropagator().propagateModifyObject( factHandle, modifyPreviousTuples, context, workingMemory );
+        }
+    }
+
+    public void byPassModifyToBetaNode(final InternalFactHandle factHandle,
+                                       final ModifyPreviousTuples modifyPreviousTuples,
+                                       final PropagationContext context,
+                                       final InternalWorkingMemory workingMemory) {
+        final Object object = factHandle.getObject();
+        if ( this.fieldExtractor.isNullValue( workingMemory, object ) ) {
+            return;
+        }
+        for ( int i = 0, length = matching( this.lowerBounds, object, workingMemory ); i < length; i++ ) {
+            this.lowerBounds.nodes[i].getSinkPropagator().byPassModifyToBetaNode( factHandle, modifyPreviousTuples, context, workingMemory );
+        }
+        for ( int i = 0, length = matching( this.upperBounds, object, workingMemory ); i < length; i++ ) {
+            this.upperBounds.nodes[i].getSinkPropagator().byPassModifyToBetaNode( factHandle, modifyPreviousTuples, context, workingMemory );
+        }
+    }
+
+    private int matching(final Bounds bounds,
+                         final Object object,
+                         final InternalWorkingMemory workingMemory) {
+        if ( bounds.nodes.length == 0 ) {
+            return 0;
+        }
+        if ( this.decimal ) {
+            final double value = this.fieldExtractor.getDoubleValue( workingMemory, object );
+            // NaN compares false with any threshold
+            return Double.isNaN( value ) ? 0 : bounds.matching( value );
+        }
+        return bounds.matching( this.fieldExtractor.getLongValue( workingMemory, object ) );
+    }
+
+    public AlphaRangeIndex getNext() {
+        return this.next;
+    }
+
+    public AlphaRangeIndex getPrevious() {
+        return this.previous;
+    }
+
+    public void setNext(final AlphaRangeIndex next) {
+        this.next = next;
+    }
+
+    public void setPrevious(final AlphaRangeIndex previous) {
+        this.previous = previous;
+    }
+
+    public void nullPrevNext() {
+        this.previous = null;
+        this.next = null;
+    }
+
+    /**
+     * The bounds of one direction, sorted so that the ones matching a value come first.
+     */
+    public static class Bounds
+        implements
+        Externalizable {
+
+        private AlphaNode[] nodes;
+        private long[]      longThresholds;
+        private double[]    doubleThresholds;
+        private boolean[]   inclusive;
+        private boolean     ascending;
+
+        public Bounds() {
+        }
+
+        Bounds(final List<AlphaNode> list,
+               final boolean ascending,
+               final boolean decimal) {
+            this.ascending = ascending;
+            final int sign = ascending ? 1 : -1;
+            Collections.sort( list, new Comparator<AlphaNode>() {
+                public int compare(AlphaNode n1, AlphaNode n2) {
+                    FieldValue f1 = getField( n1 );
+                    FieldValue f2 = getField( n2 );
+                    int result = decimal ? compareDoubles( f1.getDoubleValue(), f2.getDoubleValue() ) :
+                                           compareLongs( f1.getLongValue(), f2.getLongValue() );
+                    if ( result != 0 ) {
+                        return sign * result;
+                    }
+                    // on the same threshold the inclusive bound matches more values, so it comes first
+                    return ( isInclusive( n1 ) ? 0 : 1 ) - ( isInclusive( n2 ) ? 0 : 1 );
+                }
+            } );
+
+            final int size = list.size();
+            this.nodes = list.toArray( new AlphaNode[size] );
+            this.longThresholds = new long[size];
+            this.doubleThresholds = new double[size];
+            this.inclusive = new boolean[size];
+            for ( int i = 0; i < size; i++ ) {
+                FieldValue field = getField( this.nodes[i] );
+                if ( decimal ) {
+                    this.doubleThresholds[i] = field.getDoubleValue();
+                } else {
+                    this.longThresholds[i] = field.getLongValue();
+                }
+                this.inclusive[i] = isInclusive( this.nodes[i] );
+            }
+        }
+
+        public void readExternal(ObjectInput in) throws IOException,
+                                                ClassNotFoundException {
+            nodes = (AlphaNode[]) in.readObject();
+            longThresholds = (long[]) in.readObject();
+            doubleThresholds = (double[]) in.readObject();
+            inclusive = (boolean[]) in.readObject();
+            ascending = in.readBoolean();
+        }
+
+        public void writeExternal(ObjectOutput out) throws IOException {
+            out.writeObject( nodes );
+            out.writeObject( longThresholds );
+            out.writeObject( doubleThresholds );
+            out.writeObject( inclusive );
+            out.writeBoolean( ascending );
+        }
+
+        private static boolean isInclusive(final AlphaNode alphaNode) {
+            final ConstraintType type = getConstraintType( alphaNode );
+            return type == ConstraintType.GREATER_OR_EQUAL || type == ConstraintType.LESS_OR_EQUAL;
+        }
+
+        private static int compareLongs(final long l1,
+                                        final long l2) {
+            return l1 < l2 ? -1 : ( l1 == l2 ? 0 : 1 );
+        }
+
+        private static int compareDoubles(final double d1,
+                                          final double d2) {
+            // unlike Double.compare, this is consistent with the == used by the constraints, i.e. for -0.0 and 0.0
+            return d1 < d2 ? -1 : ( d1 == d2 ? 0 : 1 );
+        }
+
+        /**
+         * Returns the number of leading bounds matched by the given value.
+         */
+        int matching(final long value) {
+            int low = 0;
+            int high = this.nodes.length;
+            while ( low < high ) {
+                final int mid = ( low + high ) >>> 1;
+                final int cmp = compareLongs( this.longThresholds[mid], value );
+                if ( isMatch( ascending ? cmp : -cmp, mid ) ) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        int matching(final double value) {
+            int low = 0;
+            int high = this.nodes.length;
+            while ( low < high ) {
+                final int mid = ( low + high ) >>> 1;
+                final int cmp = compareDoubles( this.doubleThresholds[mid], value );
+                if ( isMatch( ascending ? cmp : -cmp, mid ) ) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private boolean isMatch(final int cmp,
+                                final int position) {
+            // a lower bound is matched by greater values, and an upper bound by lower values
+            return cmp < 0 || ( cmp == 0 && this.inclusive[position] );
+        }
+    }
+}
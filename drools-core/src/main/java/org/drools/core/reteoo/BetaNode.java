@@ -59,6 +59,9 @@ import org.drools.core.spi.ObjectType;
 import org.drools.core.spi.PropagationContext;
 import org.drools.core.util.FastIterator;
 import org.drools.core.util.index.IndexUtil;
+import org.drools.core.util.bitmask.AllSetBitMask;
+import org.drools.core.util.bitmask.BitMask;
+import org.drools.core.util.bitmask.EmptyBitMask;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -88,9 +91,9 @@ public abstract class BetaNode extends LeftTupleSource
 
     protected boolean indexedUnificationJoin;
 
-    private long rightDeclaredMask;
-    private long rightInferredMask;
-    private long rightNegativeMask;
+    private BitMask rightDeclaredMask = EmptyBitMask.get();
+    private BitMask rightInferredMask = EmptyBitMask.get();
+    private BitMask rightNegativeMask = EmptyBitMask.get();
 
     private List<String> leftListenedProperties;
     private List<String> rightListenedProperties;
@@ -157,7 +160,7 @@ public abstract class BetaNode extends LeftTupleSource
                                     LeftTupleSource leftInput) {
         if (context == null || context.getLastBuiltPatterns() == null) {
             // only happens during unit tests
-            rightDeclaredMask = -1L;
+            rightDeclaredMask = AllSetBitMask.get();
             super.initDeclaredMask(context, leftInput);
             return;
         }
@@ -172,19 +175,19 @@ public abstract class BetaNode extends LeftTupleSource
                     rightListenedProperties = pattern.getListenedProperties();
                     List<String> settableProperties = getSettableProperties(context.getRuleBase(), objectClass);
                     rightDeclaredMask = calculatePositiveMask(rightListenedProperties, settableProperties);
-                    rightDeclaredMask |= constraints.getListenedPropertyMask(settableProperties);
+                    rightDeclaredMask = rightDeclaredMask.setAll(constraints.getListenedPropertyMask(settableProperties));
                     rightNegativeMask = calculateNegativeMask(rightListenedProperties, settableProperties);
                 } else {
                     // if property reactive is not on, then accept all modification propagations
-                    rightDeclaredMask = -1L;
+                    rightDeclaredMask = AllSetBitMask.get();
                 }
             } else {
                 // InitialFact has no type declaration and cannot be property specific
                 // Only ClassObjectType can use property specific
-                rightDeclaredMask = -1L;
+                rightDeclaredMask = AllSetBitMask.get();
             }
         } else {
-            rightDeclaredMask = -1L;
+            rightDeclaredMask = AllSetBitMask.get();
             // There would have been no right input pattern, so swap current to first, so leftInput can still work
             context.setLastBuiltPattern( context.getLastBuiltPatterns()[0] );
         }
@@ -211,7 +214,7 @@ public abstract class BetaNode extends LeftTupleSource
         } else {
             rightInferredMask = rightDeclaredMask;
         }
-        rightInferredMask &= (-1L - rightNegativeMask);
+        rightInferredMask = rightInferredMask.resetAll( rightNegativeMask );
     }
 
     public ObjectSource unwrapRightInput() {
@@ -225,9 +228,9 @@ public abstract class BetaNode extends LeftTupleSource
         objectMemory = in.readBoolean();
         tupleMemoryEnabled = in.readBoolean();
         concurrentRightTupleMemory = in.readBoolean();
-        rightDeclaredMask = in.readLong();
-        rightInferredMask = in.readLong();
-        rightNegativeMask = in.readLong();
+        rightDeclaredMask = (BitMask) in.readObject();
+        rightInferredMask = (BitMask) in.readObject();
+        rightNegativeMask = (BitMask) in.readObject();
         leftListenedProperties = (List) in.readObject();
         rightListenedProperties = (List) in.readObject();
         setUnificationJoin();
@@ -253,9 +256,9 @@ public abstract class BetaNode extends LeftTupleSource
         out.writeBoolean( objectMemory );
         out.writeBoolean( tupleMemoryEnabled );
         out.writeBoolean( concurrentRightTupleMemory );
-        out.writeLong( rightDeclaredMask );
-        out.writeLong( rightInferredMask );
-        out.writeLong( rightNegativeMask );
+        out.writeObject( rightDeclaredMask );
+        out.writeObject( rightInferredMask );
+        out.writeObject( rightNegativeMask );
         out.writeObject( leftListenedProperties );
         out.writeObject( rightListenedProperties );
         super.writeExternal( out );
@@ -692,19 +695,19 @@ public abstract class BetaNode extends LeftTupleSource
         return memory;
     }
     
-    public long getRightDeclaredMask() {
+    public BitMask getRightDeclaredMask() {
         return rightDeclaredMask;
     }
 
-    public void setRightDeclaredMask(long rightDeclaredMask) {
+    public void setRightDeclaredMask(BitMask rightDeclaredMask) {
         this.rightDeclaredMask = rightDeclaredMask;
     }
 
-    public long getRightInferredMask() {
+    public BitMask getRightInferredMask() {
         return rightInferredMask;
     }
 
-    public long getRightNegativeMask() {
+    public BitMask getRightNegativeMask() {
         return rightNegativeMask;
     }
 
@@ -58,6 +58,8 @@ public class CompositeObjectSinkAdapter extends AbstractObjectSinkAdapter {
 
     ObjectHashMap             hashedSinkMap;
 
+    LinkedList<AlphaRangeIndex> rangeIndexes;
+
     private int               alphaNodeHashingThreshold;
 
     private ObjectSink[]      sinks;
@@ -80,6 +82,7 @@ public class CompositeObjectSinkAdapter extends AbstractObjectSinkAdapter {
         hashableSinks = (ObjectSinkNodeList) in.readObject();
         hashedFieldIndexes = (LinkedList) in.readObject();
         hashedSinkMap = (ObjectHashMap) in.readObject();
+        rangeIndexes = (LinkedList) in.readObject();
         alphaNodeHashingThreshold = in.readInt();
     }
 
@@ -89,6 +92,7 @@ public class CompositeObjectSinkAdapter extends AbstractObjectSinkAdapter {
         out.writeObject( hashableSinks );
         out.writeObject( hashedFieldIndexes );
         out.writeObject( hashedSinkMap );
+        out.writeObject( rangeIndexes );
         out.writeInt( alphaNodeHashingThreshold );
     }
 
@@ -104,6 +108,14 @@ public class CompositeObjectSinkAdapter extends AbstractObjectSinkAdapter {
         return this.hashedSinkMap;
     }
 
+    public LinkedList<FieldIndex> getHashedFieldIndexes() {
+        return this.hashedFieldIndexes;
+    }
+
+    public LinkedList<AlphaRangeIndex> getRangeIndexes() {
+        return this.rangeIndexes;
+    }
+
     public void addObjectSink(final ObjectSink sink) {
         this.sinks = null; // dirty it, so it'll rebuild on next get
         if ( sink.getType() ==  NodeTypeEnums.AlphaNode ) {
@@ -142,6 +154,11 @@ public class CompositeObjectSinkAdapter extends AbstractObjectSinkAdapter {
                     return;
                 }
             }
+
+            if ( this.alphaNodeHashingThreshold != 0 && AlphaRangeIndex.isRangeIndexable( alphaNode ) &&
+                 addRangeIndexedSink( alphaNode ) ) {
+                return;
+            }
         }
 
         if ( this.otherSinks == null ) {
@@ -150,6 +167,86 @@ public class CompositeObjectSinkAdapter extends AbstractObjectSinkAdapter {
 
         this.otherSinks.add( (ObjectSinkNode) sink );
     }
+
+    /**
+     * Adds the given AlphaNode to the range index of its field, creating the index once enough siblings
+     * compare the same field. Returns false if the node has to be evaluated along with the other sinks.
+     */
+    private boolean addRangeIndexedSink(final AlphaNode alphaNode) {
+        final int index = AlphaRangeIndex.getIndex( alphaNode );
+        AlphaRangeIndex rangeIndex = findRangeIndex( index );
+
+        if ( rangeIndex == null ) {
+            int count = 1;
+            if ( this.otherSinks != null ) {
+                for ( ObjectSinkNode sink = this.otherSinks.getFirst(); sink != null; sink = sink.getNextObjectSinkNode() ) {
+                    if ( AlphaRangeIndex.isRangeIndexable( sink ) && AlphaRangeIndex.getIndex( (AlphaNode) sink ) == index ) {
+                        count++;
+                    }
+                }
+            }
+            if ( count < this.alphaNodeHashingThreshold ) {
+                return false;
+            }
+
+            rangeIndex = new AlphaRangeIndex( index,
+                                              ((IndexableConstraint) alphaNode.getConstraint()).getFieldExtractor() );
+            ObjectSinkNode currentSink = this.otherSinks != null ? this.otherSinks.getFirst() : null;
+            while ( currentSink != null ) {
+                final ObjectSinkNode sink = currentSink;
+                // position to the next sink now, as the current one is removed from the list when indexed
+                currentSink = currentSink.getNextObjectSinkNode();
+                if ( AlphaRangeIndex.isRangeIndexable( sink ) && AlphaRangeIndex.getIndex( (AlphaNode) sink ) == index ) {
+                    this.otherSinks.remove( sink );
+                    rangeIndex.add( (AlphaNode) sink );
+                }
+            }
+            if ( this.otherSinks != null && this.otherSinks.isEmpty() ) {
+                this.otherSinks = null;
+            }
+
+            if ( this.rangeIndexes == null ) {
+                this.rangeIndexes = new LinkedList<AlphaRangeIndex>();
+            }
+            this.rangeIndexes.add( rangeIndex );
+        }
+
+        rangeIndex.add( alphaNode );
+        return true;
+    }
+
+    private boolean removeRangeIndexedSink(final AlphaNode alphaNode) {
+        final AlphaRangeIndex rangeIndex = findRangeIndex( AlphaRangeIndex.getIndex( alphaNode ) );
+        if ( rangeIndex == null || !rangeIndex.remove( alphaNode ) ) {
+            return false;
+        }
+
+        if ( rangeIndex.size() <= this.alphaNodeHashingThreshold - 1 ) {
+            // too few siblings left, so go back to evaluate them one by one
+            if ( this.otherSinks == null ) {
+                this.otherSinks = new ObjectSinkNodeList();
+            }
+            for ( AlphaNode node : rangeIndex.getNodes() ) {
+                this.otherSinks.add( node );
+            }
+            this.rangeIndexes.remove( rangeIndex );
+            if ( this.rangeIndexes.isEmpty() ) {
+                this.rangeIndexes = null;
+            }
+        }
+        return true;
+    }
+
+    private AlphaRangeIndex findRangeIndex(final int index) {
+        if ( this.rangeIndexes != null ) {
+            for ( AlphaRangeIndex rangeIndex = this.rangeIndexes.getFirst(); rangeIndex != null; rangeIndex = rangeIndex.getNext() ) {
+                if ( rangeIndex.getIndex() == index ) {
+                    return rangeIndex;
+                }
+            }
+        }
+        return null;
+    }
     
     
 
@@ -191,6 +288,11 @@ public class CompositeObjectSinkAdapter extends AbstractObjectSinkAdapter {
                     return;
                 }
             }
+
+            if ( this.rangeIndexes != null && AlphaRangeIndex.isRangeIndexable( alphaNode ) &&
+                 removeRangeIndexedSink( alphaNode ) ) {
+                return;
+            }
         }
 
         this.otherSinks.remove( (ObjectSinkNode) sink );
@@ -371,6 +473,12 @@ public class CompositeObjectSinkAdapter extends AbstractObjectSinkAdapter {
             }
         }
 
+        if ( this.rangeIndexes != null ) {
+            for ( AlphaRangeIndex rangeIndex = this.rangeIndexes.getFirst(); rangeIndex != null; rangeIndex = rangeIndex.getNext() ) {
+                rangeIndex.propagateAssertObject( factHandle, context, workingMemory );
+            }
+        }
+
         // propagate unhashed
         if ( this.hashableSinks != null ) {
             for ( ObjectSinkNode sink = this.hashableSinks.getFirst(); sink != null; sink = sink.getNextObjectSinkNode() ) {
@@ -420,6 +528,12 @@ public class CompositeObjectSinkAdapter extends AbstractObjectSinkAdapter {
             }
         }
 
+        if ( this.rangeIndexes != null ) {
+            for ( AlphaRangeIndex rangeIndex = this.rangeIndexes.getFirst(); rangeIndex != null; rangeIndex = rangeIndex.getNext() ) {
+                rangeIndex.propagateModifyObject( factHandle, modifyPreviousTuples, context, workingMemory );
+            }
+        }
+
         // propagate unhashed
         if ( this.hashableSinks != null ) {
             for ( ObjectSinkNode sink = this.hashableSinks.getFirst(); sink != null; sink = sink.getNextObjectSinkNode() ) {
@@ -469,6 +583,12 @@ public class CompositeObjectSinkAdapter extends AbstractObjectSinkAdapter {
             }
         }
 
+        if ( this.rangeIndexes != null ) {
+            for ( AlphaRangeIndex rangeIndex = this.rangeIndexes.getFirst(); rangeIndex != null; rangeIndex = rangeIndex.getNext() ) {
+                rangeIndex.byPassModifyToBetaNode( factHandle, modifyPreviousTuples, context, workingMemory );
+            }
+        }
+
         // propagate unhashed
         if ( this.hashableSinks != null ) {
             for ( ObjectSinkNode sink = this.hashableSinks.getFirst(); sink != null; sink = sink.getNextObjectSinkNode() ) {
@@ -541,6 +661,16 @@ public class CompositeObjectSinkAdapter extends AbstractObjectSinkAdapter {
                 }
             }
         }
+
+        if ( this.rangeIndexes != null ) {
+            for ( AlphaRangeIndex rangeIndex = this.rangeIndexes.getFirst(); rangeIndex != null; rangeIndex = rangeIndex.getNext() ) {
+                for ( AlphaNode sink : rangeIndex.getNodes() ) {
+                    if ( candidate.equals( sink ) ) {
+                        return sink;
+                    }
+                }
+            }
+        }
         return null;
     }
 
@@ -569,6 +699,14 @@ public class CompositeObjectSinkAdapter extends AbstractObjectSinkAdapter {
             }
         }
 
+        if ( this.rangeIndexes != null ) {
+            for ( AlphaRangeIndex rangeIndex = this.rangeIndexes.getFirst(); rangeIndex != null; rangeIndex = rangeIndex.getNext() ) {
+                for ( AlphaNode sink : rangeIndex.getNodes() ) {
+                    sinks[at++] = sink;
+                }
+            }
+        }
+
         if ( this.hashableSinks != null ) {
             for ( ObjectSinkNode sink = this.hashableSinks.getFirst(); sink != null; sink = sink.getNextObjectSinkNode() ) {
                 sinks[at++] = sink;
@@ -603,7 +741,13 @@ public class CompositeObjectSinkAdapter extends AbstractObjectSinkAdapter {
     }     
 
     public int size() {
-        return (this.otherSinks != null ? this.otherSinks.size() : 0) + (this.hashableSinks != null ? this.hashableSinks.size() : 0) + (this.hashedSinkMap != null ? this.hashedSinkMap.size() : 0);
+        int size = (this.otherSinks != null ? this.otherSinks.size() : 0) + (this.hashableSinks != null ? this.hashableSinks.size() : 0) + (this.hashedSinkMap != null ? this.hashedSinkMap.size() : 0);
+        if ( this.rangeIndexes != null ) {
+            for ( AlphaRangeIndex rangeIndex = this.rangeIndexes.getFirst(); rangeIndex != null; rangeIndex = rangeIndex.getNext() ) {
+                size += rangeIndex.size();
+            }
+        }
+        return size;
     }
 
     public static class HashKey
@@ -58,6 +58,7 @@ import org.drools.core.spi.FactHandleFactory;
 import org.drools.core.spi.GlobalResolver;
 import org.drools.core.time.TimerService;
 import org.drools.core.type.DateFormats;
+import org.drools.core.util.bitmask.BitMask;
 import org.kie.api.event.process.ProcessEventListener;
 import org.kie.api.runtime.Calendars;
 import org.kie.api.runtime.Channel;
@@ -78,7 +79,7 @@ public class DisposedReteooWorkingMemory implements ReteooWorkingMemoryInterface
     
     private DisposedReteooWorkingMemory() {}
     
-    public void update( FactHandle handle, Object object, long mask, Class<?> modifiedClass, Activation activation ) throws FactException {
+    public void update( FactHandle handle, Object object, BitMask mask, Class<?> modifiedClass, Activation activation ) throws FactException {
         throw new IllegalStateException( ERRORMSG );
     }
 
@@ -483,7 +484,7 @@ public class DisposedReteooWorkingMemory implements ReteooWorkingMemoryInterface
         throw new IllegalStateException( ERRORMSG );
     }
 
-    public void update( org.kie.api.runtime.rule.FactHandle handle, Object object, long mask, Class<?> modifiedClass, Activation activation ) throws FactException {
+    public void update( org.kie.api.runtime.rule.FactHandle handle, Object object, BitMask mask, Class<?> modifiedClass, Activation activation ) throws FactException {
         throw new IllegalStateException( ERRORMSG );
     }
 
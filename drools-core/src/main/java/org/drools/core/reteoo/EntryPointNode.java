@@ -32,6 +32,7 @@ import org.drools.core.reteoo.builder.BuildContext;
 import org.drools.core.rule.EntryPointId;
 import org.drools.core.spi.ObjectType;
 import org.drools.core.spi.PropagationContext;
+import org.drools.core.util.bitmask.BitMask;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -511,7 +512,7 @@ public class EntryPointNode extends ObjectSource
     }
 
     @Override
-    public long calculateDeclaredMask(List<String> settableProperties) {
+    public BitMask calculateDeclaredMask(List<String> settableProperties) {
         throw new UnsupportedOperationException();
     }
 
@@ -27,8 +27,6 @@ import org.drools.core.reteoo.builder.BuildContext;
 import org.drools.core.rule.ContextEntry;
 import org.drools.core.spi.PropagationContext;
 
-import static org.drools.core.util.BitMaskUtil.intersect;
-
 /**
  * <code>ExistsNode</code> extends <code>BetaNode</code> to perform tests for
  * the existence of a Fact plus one or more conditions. Where existence
@@ -198,14 +196,14 @@ public class ExistsNode extends BetaNode {
                 // things staged as inserts, are left as inserts and use the pctx associated from the time of insertion
                 rightTuple.setPropagationContext( context );
             }
-            if ( intersect( context.getModificationMask(), getRightInferredMask() ) ) {
+            if ( context.getModificationMask().intersects( getRightInferredMask() ) ) {
                 // RightTuple previously existed, so continue as modify
                 BetaMemory bm = getBetaMemory( this, wm );
                 rightTuple.setPropagationContext( context );
                 doUpdateRightTuple(rightTuple, wm, bm);
             }
         } else {
-            if ( intersect( context.getModificationMask(), getRightInferredMask() ) ) {
+            if ( context.getModificationMask().intersects( getRightInferredMask() ) ) {
                 // RightTuple does not exist for this node, so create and continue as assert
                 assertObject( factHandle,
                               context,
@@ -16,7 +16,7 @@
 
 package org.drools.core.reteoo;
 
-import static org.drools.core.util.BitMaskUtil.intersect;
+import static org.drools.core.reteoo.PropertySpecificUtil.allSetButTraitBitMask;
 
 import java.io.IOException;
 import java.io.ObjectInput;
@@ -43,6 +43,7 @@ import org.drools.core.reteoo.builder.BuildContext;
 import org.drools.core.spi.PropagationContext;
 import org.drools.core.spi.RuleComponent;
 import org.drools.core.util.AbstractBaseLinkedListNode;
+import org.drools.core.util.bitmask.BitMask;
 import org.kie.api.definition.rule.Rule;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -197,7 +198,7 @@ public class LeftInputAdapterNode extends LeftTupleSource
         LeftTupleSink sink = liaNode.getSinkPropagator().getFirstLeftTupleSink();
         LeftTuple leftTuple = sink.createLeftTuple( factHandle, sink, useLeftMemory );
         leftTuple.setPropagationContext( context );
-        long mask = sink.getLeftInferredMask();
+        BitMask mask = sink.getLeftInferredMask();
         doInsertSegmentMemory(context, wm, notifySegment, lm, sm, leftTuple, liaNode, mask);
 
         if ( sm.getRootNode() != liaNode ) {
@@ -231,10 +232,10 @@ public class LeftInputAdapterNode extends LeftTupleSource
     }
 
     private static void doInsertSegmentMemory(PropagationContext pctx, InternalWorkingMemory wm, boolean linkOrNotify, final LiaNodeMemory lm,
-                                              SegmentMemory sm, LeftTuple leftTuple, LeftInputAdapterNode liaNode, long mask) {
+                                              SegmentMemory sm, LeftTuple leftTuple, LeftInputAdapterNode liaNode, BitMask mask) {
         if ( pctx.getType() == PropagationContext.INSERTION ||
-                mask == Long.MAX_VALUE ||
-                intersect( pctx.getModificationMask(),  mask) ) {
+                mask == allSetButTraitBitMask() ||
+                pctx.getModificationMask().intersects( mask ) ) {
             boolean stagedInsertWasEmpty = false;
 
             // mask check is necessary if insert is a result of a modify
@@ -365,10 +366,10 @@ public class LeftInputAdapterNode extends LeftTupleSource
             // @TODO I synchronized this, as I'm not 100% of the thread interactions here, it might be possible to remove this later.
             if ( leftTuple.getStagedType() == LeftTuple.NONE ) {
                 // if LeftTuple is already staged, leave it there
-                long mask = sink.getLeftInferredMask();
+                BitMask mask = sink.getLeftInferredMask();
 
-                if ( mask == Long.MAX_VALUE ||
-                     intersect( pctx.getModificationMask(),  mask) ) {
+                if ( mask == allSetButTraitBitMask() ||
+                     pctx.getModificationMask().intersects( mask ) ) {
                     // only add to staging if masks match
 
                     boolean stagedUpdateWasEmpty = false;
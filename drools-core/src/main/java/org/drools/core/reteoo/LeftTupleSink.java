@@ -19,6 +19,7 @@ package org.drools.core.reteoo;
 import org.drools.core.common.InternalFactHandle;
 import org.drools.core.common.InternalWorkingMemory;
 import org.drools.core.spi.PropagationContext;
+import org.drools.core.util.bitmask.BitMask;
 
 import java.io.Externalizable;
 
@@ -98,5 +99,5 @@ public interface LeftTupleSink
 
     void setLeftInputOtnId(ObjectTypeNode.Id leftInputOtnId);
     
-    long getLeftInferredMask();
+    BitMask getLeftInferredMask();
 }
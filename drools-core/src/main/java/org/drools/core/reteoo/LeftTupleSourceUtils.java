@@ -3,8 +3,7 @@ package org.drools.core.reteoo;
 import org.drools.core.common.InternalFactHandle;
 import org.drools.core.common.InternalWorkingMemory;
 import org.drools.core.spi.PropagationContext;
-
-import static org.drools.core.util.BitMaskUtil.intersect;
+import org.drools.core.util.bitmask.BitMask;
 
 public class LeftTupleSourceUtils {
     public static void doModifyLeftTuple(InternalFactHandle factHandle,
@@ -13,7 +12,7 @@ public class LeftTupleSourceUtils {
                                          InternalWorkingMemory workingMemory,
                                          LeftTupleSink sink,
                                          ObjectTypeNode.Id leftInputOtnId,
-                                         long leftInferredMask) {
+                                         BitMask leftInferredMask) {
         LeftTuple leftTuple = modifyPreviousTuples.peekLeftTuple();
         while ( leftTuple != null && leftTuple.getLeftTupleSink().getLeftInputOtnId() != null &&
                 leftTuple.getLeftTupleSink().getLeftInputOtnId().before( leftInputOtnId ) ) {
@@ -31,14 +30,14 @@ public class LeftTupleSourceUtils {
              leftTuple.getLeftTupleSink().getLeftInputOtnId().equals( leftInputOtnId ) ) {
             modifyPreviousTuples.removeLeftTuple();
             leftTuple.reAdd();
-            if ( intersect( context.getModificationMask(), leftInferredMask ) ) {
+            if ( context.getModificationMask().intersects( leftInferredMask ) ) {
                 // LeftTuple previously existed, so continue as modify, unless it's currently staged
                 sink.modifyLeftTuple( leftTuple,
                                       context,
                                       workingMemory );
             }
         } else {
-            if ( intersect( context.getModificationMask(), leftInferredMask ) ) {
+            if ( context.getModificationMask().intersects( leftInferredMask ) ) {
                 // LeftTuple does not exist, so create and continue as assert
                 LeftTuple newLeftTuple = sink.createLeftTuple( factHandle,
                                                                sink,
@@ -28,8 +28,6 @@ import org.drools.core.phreak.RightTupleEntry;
 import org.drools.core.reteoo.builder.BuildContext;
 import org.drools.core.spi.PropagationContext;
 
-import static org.drools.core.util.BitMaskUtil.intersect;
-
 public class NotNode extends BetaNode {
     private static final long serialVersionUID = 510l;
 
@@ -254,14 +252,14 @@ public class NotNode extends BetaNode {
                 // things staged as inserts, are left as inserts and use the pctx associated from the time of insertion
                 rightTuple.setPropagationContext( context );
             }
-            if ( intersect( context.getModificationMask(), getRightInferredMask() ) ) {
+            if ( context.getModificationMask().intersects( getRightInferredMask() ) ) {
                 // RightTuple previously existed, so continue as modify
                 BetaMemory bm = getBetaMemory( this, wm );
                 rightTuple.setPropagationContext( context );
                 doUpdateRightTuple(rightTuple, wm, bm);
             }
         } else {
-            if ( intersect( context.getModificationMask(), getRightInferredMask() ) ) {
+            if ( context.getModificationMask().intersects( getRightInferredMask() ) ) {
                 // RightTuple does not exist for this node, so create and continue as assert
                 assertObject( factHandle,
                               context,
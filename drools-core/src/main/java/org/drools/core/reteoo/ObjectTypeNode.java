@@ -54,6 +54,8 @@ import org.drools.core.time.JobHandle;
 import org.drools.core.time.TimerService;
 import org.drools.core.time.impl.DefaultJobHandle;
 import org.drools.core.time.impl.PointInTimeTrigger;
+import org.drools.core.util.bitmask.BitMask;
+import org.drools.core.util.bitmask.EmptyBitMask;
 
 import java.io.Externalizable;
 import java.io.IOException;
@@ -241,8 +243,8 @@ public class ObjectTypeNode extends ObjectSource
     }
 
     @Override
-    public long calculateDeclaredMask(List<String> settableProperties) {
-        return 0;
+    public BitMask calculateDeclaredMask(List<String> settableProperties) {
+        return EmptyBitMask.get();
     }
 
     public boolean isAssignableFrom(final ObjectType objectType) {
@@ -252,7 +254,13 @@ public class ObjectTypeNode extends ObjectSource
     public void setCompiledNetwork(CompiledNetwork compiledNetwork) {
         this.compiledNetwork = compiledNetwork;
 
-        this.compiledNetwork.setObjectTypeNode( this );
+        if ( this.compiledNetwork != null ) {
+            this.compiledNetwork.setObjectTypeNode( this );
+        }
+    }
+
+    public CompiledNetwork getCompiledNetwork() {
+        return this.compiledNetwork;
     }
 
     /**
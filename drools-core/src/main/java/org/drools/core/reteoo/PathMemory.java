@@ -10,6 +10,7 @@ import org.drools.core.common.InternalAgendaGroup;
 import org.drools.core.common.InternalWorkingMemory;
 import org.drools.core.common.Memory;
 import org.drools.core.common.NetworkNode;
+import org.drools.core.phreak.ParallelNetworkEvaluator;
 import org.drools.core.phreak.RuleAgendaItem;
 import org.drools.core.phreak.TupleEntry;
 import org.drools.core.rule.Rule;
@@ -96,13 +97,6 @@ public class PathMemory extends AbstractBaseLinkedListNode<Memory>
         if (log.isTraceEnabled()) {
             log.trace("    LinkRule name={}", rtn.getRule().getName());
         }
-        if (agendaItem == null) {
-            int salience = ( rtn.getRule().getSalience() instanceof MVELSalienceExpression)
-                           ? 0
-                           : rtn.getRule().getSalience().getValue(null, rtn.getRule(), wm);
-            agendaItem = ((InternalAgenda) wm.getAgenda()).createRuleAgendaItem(salience, this, rtn);
-        }
-
         queueRuleAgendaItem(wm);
     }
 
@@ -111,17 +105,26 @@ public class PathMemory extends AbstractBaseLinkedListNode<Memory>
         if (log.isTraceEnabled()) {
             log.trace("    UnlinkRule name={}", rtn.getRule().getName());
         }
+        queueRuleAgendaItem(wm);
+    }
+
+    private synchronized void createRuleAgendaItem(InternalWorkingMemory wm) {
         if (agendaItem == null) {
+            TerminalNode rtn = (TerminalNode) getNetworkNode();
             int salience = ( rtn.getRule().getSalience() instanceof MVELSalienceExpression)
                            ? 0
                            : rtn.getRule().getSalience().getValue(null, rtn.getRule(), wm);
             agendaItem = ((InternalAgenda) wm.getAgenda()).createRuleAgendaItem(salience, this, rtn);
         }
-
-        queueRuleAgendaItem(wm);
     }
 
     public void queueRuleAgendaItem(InternalWorkingMemory wm) {
+        if ( ParallelNetworkEvaluator.deferQueueing( this ) ) {
+            // this thread is evaluating the network in parallel with others: the agenda groups are not
+            // thread safe, so the rule is queued by the firing thread once the evaluation is over
+            return;
+        }
+        createRuleAgendaItem(wm);
         InternalAgenda agenda = (InternalAgenda) wm.getAgenda();
         synchronized ( agendaItem ) {
             agendaItem.getRuleExecutor().setDirty(true);
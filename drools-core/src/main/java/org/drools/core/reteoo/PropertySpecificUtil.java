@@ -4,16 +4,64 @@ import org.drools.core.base.ClassObjectType;
 import org.drools.core.common.InternalRuleBase;
 import org.drools.core.common.InternalWorkingMemory;
 import org.drools.core.factmodel.traits.TraitableBean;
-import org.drools.core.util.BitMaskUtil;
 import org.drools.core.util.ClassUtils;
 import org.drools.core.reteoo.builder.BuildContext;
 import org.drools.core.rule.TypeDeclaration;
 import org.drools.core.spi.ObjectType;
+import org.drools.core.util.bitmask.AllSetBitMask;
+import org.drools.core.util.bitmask.AllSetButFirstBitMask;
+import org.drools.core.util.bitmask.BitMask;
+import org.drools.core.util.bitmask.EmptyBitMask;
+import org.drools.core.util.bitmask.LongArrayBitMask;
+import org.drools.core.util.bitmask.LongBitMask;
 
 import java.util.List;
 
 public class PropertySpecificUtil {
 
+    // the first bit of a mask is reserved to the traits, the ones of the properties follow
+    public static final int TRAITSET_BIT = 0;
+    public static final int CUSTOM_BITS_OFFSET = 1;
+
+    private static final BitMask ONLY_TRAIT_BIT_SET_MASK = new LongBitMask( 1L << TRAITSET_BIT );
+
+    public static BitMask allSetButTraitBitMask() {
+        return AllSetButFirstBitMask.get();
+    }
+
+    public static BitMask onlyTraitBitSetMask() {
+        return ONLY_TRAIT_BIT_SET_MASK;
+    }
+
+    public static boolean isTraitBitSet(BitMask mask) {
+        return mask.isSet( TRAITSET_BIT );
+    }
+
+    /**
+     * Returns an empty mask wide enough for the given number of properties: a single long is enough
+     * for the most of the classes, while the wider ones need more of them.
+     */
+    public static BitMask getEmptyPropertyReactiveMask(int settablePropertiesSize) {
+        int numBits = settablePropertiesSize + CUSTOM_BITS_OFFSET;
+        return numBits <= 64 ? EmptyBitMask.get() : new LongArrayBitMask( numBits );
+    }
+
+    public static BitMask setPropertyOnMask(BitMask mask, int index) {
+        return mask.set( index + CUSTOM_BITS_OFFSET );
+    }
+
+    public static BitMask setPropertyOnMask(BitMask mask, List<String> settableProperties, String propertyName) {
+        int pos = settableProperties.indexOf(propertyName);
+        if (pos < 0) {
+            throw new RuntimeException("Unknown property: " + propertyName);
+        }
+        return setPropertyOnMask(mask, pos);
+    }
+
+    public static boolean isPropertySetOnMask(BitMask mask, int index) {
+        return mask.isSet( index + CUSTOM_BITS_OFFSET );
+    }
+
     public static boolean isPropertyReactive(BuildContext context, ObjectType objectType) {
         return objectType instanceof ClassObjectType && isPropertyReactive(context, ((ClassObjectType) objectType).getClassType());
     }
@@ -23,22 +71,25 @@ public class PropertySpecificUtil {
         return typeDeclaration != null && typeDeclaration.isPropertyReactive();
     }
 
-    public static long calculatePositiveMask(List<String> listenedProperties, List<String> settableProperties) {
+    public static BitMask calculatePositiveMask(List<String> listenedProperties, List<String> settableProperties) {
         return calculatePatternMask(listenedProperties, settableProperties, true);
     }
 
-    public static long calculateNegativeMask(List<String> listenedProperties, List<String> settableProperties) {
+    public static BitMask calculateNegativeMask(List<String> listenedProperties, List<String> settableProperties) {
         return calculatePatternMask(listenedProperties, settableProperties, false);
     }
 
-    private static long calculatePatternMask(List<String> listenedProperties, List<String> settableProperties, boolean isPositive) {
-        long mask = isPositive ? ( listenedProperties != null && listenedProperties.contains( TraitableBean.TRAITSET_FIELD_NAME ) ? Long.MIN_VALUE : 0 ) : 0;
+    private static BitMask calculatePatternMask(List<String> listenedProperties, List<String> settableProperties, boolean isPositive) {
+        BitMask mask = getEmptyPropertyReactiveMask(settableProperties != null ? settableProperties.size() : 0);
         if (listenedProperties == null) {
             return mask;
         }
+        if (isPositive && listenedProperties.contains( TraitableBean.TRAITSET_FIELD_NAME )) {
+            mask = mask.set(TRAITSET_BIT);
+        }
         for (String propertyName : listenedProperties) {
             if (propertyName.equals(isPositive ? "*" : "!*")) {
-                return isPositive ? -1L : Long.MAX_VALUE;
+                return isPositive ? AllSetBitMask.get() : allSetButTraitBitMask();
             }
             if (propertyName.startsWith("!") ^ !isPositive) {
                 continue;
@@ -47,11 +98,7 @@ public class PropertySpecificUtil {
                 propertyName = propertyName.substring(1);
             }
 
-            int pos = settableProperties.indexOf(propertyName);
-            if (pos < 0) {
-                throw new RuntimeException("Unknown property: " + propertyName);
-            }
-            mask = BitMaskUtil.set(mask, pos);
+            mask = setPropertyOnMask(mask, settableProperties, propertyName);
         }
         return mask;
     }
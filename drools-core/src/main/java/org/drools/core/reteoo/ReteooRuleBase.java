@@ -85,6 +85,7 @@ import org.drools.core.PackageIntegrationException;
 import org.drools.core.base.ClassFieldAccessorCache;
 import org.drools.core.factmodel.ClassDefinition;
 import org.drools.core.reteoo.SegmentMemory.Prototype;
+import org.drools.core.reteoo.compiled.AlphaNetworkCompiler;
 import org.drools.core.util.ObjectHashSet;
 import org.drools.core.util.TripleStore;
 import org.drools.core.event.RuleBaseEventSupport;
@@ -164,6 +165,11 @@ public class ReteooRuleBase
     private int additionsSinceLock;
     private int removalsSinceLock;
 
+    // set when a rule change touches the alpha network, so that it is compiled again on unlock
+    private transient boolean alphaNetworkChanged;
+
+    private transient volatile int networkVersion;
+
     private transient Map<String, TypeDeclaration> classTypeDeclaration;
 
     private List<RuleBasePartitionId> partitionIDs;
@@ -334,6 +340,9 @@ public class ReteooRuleBase
         this.reteooBuilder.setRuleBase(this);
         this.rete = (Rete) droolsStream.readObject();
 
+        // generated networks are not serialized
+        compileAlphaNetworks();
+
         if (!isDrools) {
             droolsStream.close();
         }
@@ -534,6 +543,9 @@ public class ReteooRuleBase
     public void unlock() {
         boolean lastUnlock = this.lock.getWriteHoldCount() == 1;
         if (lastUnlock) {
+            if ( this.alphaNetworkChanged ) {
+                compileAlphaNetworks();
+            }
             this.eventSupport.fireBeforeRuleBaseUnlocked();
         }
         this.lock.writeUnlock();
@@ -1276,11 +1288,13 @@ public class ReteooRuleBase
 
     protected void addRule(final Rule rule) throws InvalidPatternException {
         // This adds the rule. ReteBuilder has a reference to the WorkingMemories and will propagate any existing facts.
+        networkChanged();
         this.reteooBuilder.addRule(rule);
     }
 
     protected void addEntryPoint(final String id) throws InvalidPatternException {
         // This adds the entry point. ReteBuilder has a reference to the WorkingMemories and will propagate any existing facts.
+        networkChanged();
         this.reteooBuilder.addEntryPoint(id);
     }
 
@@ -1296,6 +1310,7 @@ public class ReteooRuleBase
 
     protected void addWindowDeclaration(final WindowDeclaration window) throws InvalidPatternException {
         // This adds the named window. ReteBuilder has a reference to the WorkingMemories and will propagate any existing facts.
+        networkChanged();
         this.reteooBuilder.addNamedWindow(window);
     }
 
@@ -1403,9 +1418,59 @@ public class ReteooRuleBase
     }
 
     protected void removeRule(final Rule rule) {
+        networkChanged();
         this.reteooBuilder.removeRule( rule );
     }
 
+    private void networkChanged() {
+        // under the write lock, so readers holding the read lock see a stable version
+        this.networkVersion++;
+        invalidateAlphaNetworks();
+    }
+
+    /**
+     * Returns a number changed every time nodes are added to or removed from the network,
+     * which can be used to tell if something computed out of the nodes is still up to date.
+     */
+    public int getNetworkVersion() {
+        return this.networkVersion;
+    }
+
+    private void invalidateAlphaNetworks() {
+        if ( !this.alphaNetworkChanged && this.config.isCompiledAlphaNetwork() ) {
+            // the generated networks don't see the changes, so they are interpreted until compiled again on unlock
+            for ( ObjectTypeNode otn : this.rete.getObjectTypeNodes() ) {
+                otn.setCompiledNetwork( null );
+            }
+        }
+        this.alphaNetworkChanged = true;
+    }
+
+    /**
+     * Generates the compiled alpha network of every ObjectTypeNode, if enabled by the configuration.
+     * This is done once per rulebase update, after all the rules have been added or removed, as the
+     * generated networks don't see changes made to the nodes afterwards.
+     */
+    private void compileAlphaNetworks() {
+        this.alphaNetworkChanged = false;
+        if ( !this.config.isCompiledAlphaNetwork() ) {
+            return;
+        }
+        for ( ObjectTypeNode otn : this.rete.getObjectTypeNodes() ) {
+            if ( otn.getSinkPropagator() instanceof EmptyObjectSinkAdapter ) {
+                otn.setCompiledNetwork( null );
+                continue;
+            }
+            try {
+                AlphaNetworkCompiler.compile( otn, this.rootClassLoader );
+            } catch ( RuntimeException e ) {
+                // the interpreted network is always correct, so it's just slower
+                logger.warn( "Unable to compile the alpha network of " + otn + ", it will be interpreted", e );
+                otn.setCompiledNetwork( null );
+            }
+        }
+    }
+
     public void removeFunction( final String packageName,
                                 final String functionName ) {
         lock();
@@ -36,6 +36,7 @@ import org.drools.core.marshalling.impl.ProtobufInputMarshaller;
 import org.drools.core.marshalling.impl.ProtobufMessages;
 import org.drools.core.reteoo.builder.BuildContext;
 import org.drools.core.spi.PropagationContext;
+import org.drools.core.util.bitmask.BitMask;
 
 /**
  * When joining a subnetwork into the main network again, RightInputAdapterNode adapts the
@@ -312,7 +313,7 @@ public class RightInputAdapterNode extends ObjectSource
     }      
     
     @Override
-    public long calculateDeclaredMask(List<String> settableProperties) {
+    public BitMask calculateDeclaredMask(List<String> settableProperties) {
         throw new UnsupportedOperationException();
     }
 
@@ -344,7 +345,7 @@ public class RightInputAdapterNode extends ObjectSource
 
     }
 
-    public long getLeftInferredMask() {
+    public BitMask getLeftInferredMask() {
         throw new UnsupportedOperationException();
     }
     public void modifyLeftTuple(InternalFactHandle factHandle,
@@ -20,6 +20,7 @@ import org.drools.core.common.NetworkNode;
 import org.drools.core.rule.Declaration;
 import org.drools.core.rule.GroupElement;
 import org.drools.core.rule.Rule;
+import org.drools.core.util.bitmask.BitMask;
 
 /**
  * A markup interface for terminal nodes
@@ -34,15 +35,15 @@ public interface TerminalNode
     
     void initInferredMask();
     
-    long getDeclaredMask();
-    void setDeclaredMask(long mask);
+    BitMask getDeclaredMask();
+    void setDeclaredMask(BitMask mask);
 
-    long getInferredMask();
-    void setInferredMask(long mask);
+    BitMask getInferredMask();
+    void setInferredMask(BitMask mask);
     
-    public long getNegativeMask();
+    public BitMask getNegativeMask();
     
-    public void setNegativeMask(long mask);
+    public void setNegativeMask(BitMask mask);
     
     public Rule getRule();
 
@@ -24,12 +24,15 @@ import org.drools.core.reteoo.builder.BuildContext;
 import org.drools.core.spi.ObjectType;
 import org.drools.core.spi.PropagationContext;
 import org.drools.core.util.HierarchyEncoderImpl;
+import org.drools.core.util.bitmask.BitMask;
 
 import java.io.IOException;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
 import java.util.BitSet;
 
+import static org.drools.core.reteoo.PropertySpecificUtil.isTraitBitSet;
+
 public class TraitObjectTypeNode extends ObjectTypeNode {
 
     private BitSet typeMask;
@@ -83,7 +86,7 @@ public class TraitObjectTypeNode extends ObjectTypeNode {
         if ( compiledNetwork != null ) {
             compiledNetwork.modifyObject( factHandle,
                     modifyPreviousTuples,
-                    context.getModificationMask() > 0L ? context.adaptModificationMaskForObjectType( objectType, workingMemory ) : context,
+                    adaptModificationMask( context, workingMemory ),
                     workingMemory );
         } else {
             if ( factHandle.getObject() instanceof TraitProxy && typeMask != null )  {
@@ -91,13 +94,13 @@ public class TraitObjectTypeNode extends ObjectTypeNode {
                 if ( vetoMask == null || typeMask.isEmpty() || ! HierarchyEncoderImpl.supersetOrEqualset( vetoMask, this.typeMask ) ) {
                     this.sink.propagateModifyObject( factHandle,
                             modifyPreviousTuples,
-                            context.getModificationMask() > 0L ? context.adaptModificationMaskForObjectType( objectType, workingMemory ) : context,
+                            adaptModificationMask( context, workingMemory ),
                             workingMemory );
                 }
             } else {
                 this.sink.propagateModifyObject( factHandle,
                         modifyPreviousTuples,
-                        context.getModificationMask() > 0L ? context.adaptModificationMaskForObjectType( objectType, workingMemory ) : context,
+                        adaptModificationMask( context, workingMemory ),
                         workingMemory );
             }
 
@@ -105,6 +108,9 @@ public class TraitObjectTypeNode extends ObjectTypeNode {
         }
     }
 
-
-
+    private PropagationContext adaptModificationMask( PropagationContext context, InternalWorkingMemory workingMemory ) {
+        // only the modifications of some properties, and not of the traits, are remapped on this type
+        BitMask mask = context.getModificationMask();
+        return !mask.isEmpty() && !isTraitBitSet( mask ) ? context.adaptModificationMaskForObjectType( objectType, workingMemory ) : context;
+    }
 }
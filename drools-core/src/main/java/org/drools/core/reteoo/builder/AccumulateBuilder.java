@@ -17,6 +17,7 @@
 package org.drools.core.reteoo.builder;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.drools.core.common.BetaConstraints;
@@ -27,9 +28,13 @@ import org.drools.core.reteoo.ObjectSource;
 import org.drools.core.reteoo.QueryRiaFixerNode;
 import org.drools.core.reteoo.RightInputAdapterNode;
 import org.drools.core.rule.Accumulate;
+import org.drools.core.rule.AccumulateResultExpression;
+import org.drools.core.rule.Declaration;
+import org.drools.core.rule.EvalCondition;
 import org.drools.core.rule.GroupElement;
 import org.drools.core.rule.RuleConditionElement;
 import org.drools.core.spi.AlphaNodeFieldConstraint;
+import org.drools.core.spi.BetaNodeFieldConstraint;
 
 public class AccumulateBuilder
         implements
@@ -104,13 +109,19 @@ public class AccumulateBuilder
         final BetaConstraints sourceBinder = utils.createBetaNodeConstraint( context,
                                                                              context.getBetaconstraints(),
                                                                              false );
+        final AlphaNodeFieldConstraint[] resultConstraints = (AlphaNodeFieldConstraint[]) resultAlphaConstraints.toArray(new AlphaNodeFieldConstraint[resultAlphaConstraints.size()]);
+
+        // when sharing, the result constraints are evaluated by an eval node after the accumulate one,
+        // so the accumulate node is the same for all the rules that only differ by these constraints
+        boolean shareResult = context.getRuleBase().getConfiguration().isShareAccumulates() &&
+                              ( resultConstraints.length > 0 || !resultsBinder.isEmpty() );
 
         AccumulateNode accNode = nfactory.buildAccumulateNode(context.getNextId(),
                                                               context.getTupleSource(),
                                                               context.getObjectSource(),
-                                                              (AlphaNodeFieldConstraint[]) resultAlphaConstraints.toArray(new AlphaNodeFieldConstraint[resultAlphaConstraints.size()]),
+                                                              shareResult ? new AlphaNodeFieldConstraint[0] : resultConstraints,
                                                               sourceBinder,
-                                                              resultsBinder,
+                                                              shareResult ? utils.createBetaNodeConstraint( context, new ArrayList<BetaNodeFieldConstraint>(), true ) : resultsBinder,
                                                               accumulate,
                                                               existSubNetwort,
                                                               context);
@@ -118,6 +129,21 @@ public class AccumulateBuilder
         context.setTupleSource( (LeftTupleSource) utils.attachNode( context,
                                                                     accNode ) );
 
+        if ( shareResult ) {
+            List<Declaration> required = new ArrayList<Declaration>();
+            for ( BetaNodeFieldConstraint constraint : resultsBinder.getConstraints() ) {
+                required.addAll( Arrays.asList( constraint.getRequiredDeclarations() ) );
+            }
+            EvalCondition resultCondition = new EvalCondition( new AccumulateResultExpression( resultConstraints,
+                                                                                               resultsBinder ),
+                                                               required.toArray( new Declaration[required.size()] ) );
+            context.setTupleSource( (LeftTupleSource) utils.attachNode( context,
+                                                                        nfactory.buildEvalNode( context.getNextId(),
+                                                                                                context.getTupleSource(),
+                                                                                                resultCondition,
+                                                                                                context ) ) );
+        }
+
         // source pattern was bound, so nulling context
         context.setObjectSource( null );
         context.setCurrentPatternOffset( currentPatternIndex );
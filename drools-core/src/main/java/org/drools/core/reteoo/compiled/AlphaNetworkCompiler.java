@@ -0,0 +1,459 @@
+/*
+ * Copyright 2014 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.reteoo.compiled;
+
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.drools.core.RuntimeDroolsException;
+import org.drools.core.common.InternalFactHandle;
+import org.drools.core.common.InternalWorkingMemory;
+import org.drools.core.common.Memory;
+import org.drools.core.common.MemoryFactory;
+import org.drools.core.common.NetworkNode;
+import org.drools.core.reteoo.AlphaNode;
+import org.drools.core.reteoo.AlphaNode.AlphaMemory;
+import org.drools.core.reteoo.AlphaRangeIndex;
+import org.drools.core.reteoo.CompositeObjectSinkAdapter;
+import org.drools.core.reteoo.CompositeObjectSinkAdapter.FieldIndex;
+import org.drools.core.reteoo.CompositeObjectSinkAdapter.HashKey;
+import org.drools.core.reteoo.EmptyObjectSinkAdapter;
+import org.drools.core.reteoo.ModifyPreviousTuples;
+import org.drools.core.reteoo.ObjectSink;
+import org.drools.core.reteoo.ObjectSinkNode;
+import org.drools.core.reteoo.ObjectSinkNodeList;
+import org.drools.core.reteoo.ObjectSinkPropagator;
+import org.drools.core.reteoo.ObjectTypeNode;
+import org.drools.core.reteoo.SingleObjectSinkAdapter;
+import org.drools.core.rule.ContextEntry;
+import org.drools.core.rule.builder.dialect.asm.ClassGenerator;
+import org.drools.core.spi.AlphaNodeFieldConstraint;
+import org.drools.core.spi.PropagationContext;
+import org.drools.core.util.Iterator;
+import org.drools.core.util.ObjectHashMap;
+import org.drools.core.util.bitmask.BitMask;
+import org.mvel2.asm.Label;
+import org.mvel2.asm.MethodVisitor;
+
+import static org.drools.core.util.StringUtils.generateUUID;
+import static org.mvel2.asm.Opcodes.*;
+
+/**
+ * Generates the bytecode of a {@link CompiledNetwork} for an {@link ObjectTypeNode}, unrolling the alpha network
+ * below it into nested if and switch statements.
+ * <p/>
+ * AlphaNodes are inlined as a call to their constraint, which also covers jitted MvelConstraints, hashed alphas
+ * as a switch over the id of the node found in the hashed sink map and range indexed alphas as a single call to
+ * their {@link AlphaRangeIndex}. Every other sink is invoked directly. Retractions are not compiled, as in Phreak
+ * they go straight from the fact handle to its tuples without going through the alpha network.
+ * <p/>
+ * The generated network is a snapshot of the alpha network, it has to be compiled again whenever a rule is added
+ * or removed.
+ */
+public class AlphaNetworkCompiler {
+
+    private static final String PACKAGE_NAME = "org.drools.core.reteoo.compiled";
+
+    /**
+     * Propagators with more sinks than this are already hashed or range indexed, so they are left to dispatch
+     * by themselves instead of being unrolled.
+     */
+    private static final int MAX_INLINED_SINKS = 32;
+
+    /**
+     * Alpha subtrees that would make a method grow over this number of nodes are moved to a method of their own,
+     * to keep each generated method small enough to be compiled by the JIT.
+     */
+    private static final int MAX_NODES_PER_METHOD = 64;
+
+    private static final Class<?>[] ASSERT_ARGS = new Class<?>[] { InternalFactHandle.class, PropagationContext.class, InternalWorkingMemory.class };
+    private static final Class<?>[] MODIFY_ARGS = new Class<?>[] { InternalFactHandle.class, ModifyPreviousTuples.class, PropagationContext.class, InternalWorkingMemory.class };
+
+    private final ObjectTypeNode objectTypeNode;
+
+    private final List<Object>           references     = new ArrayList<Object>();
+    private final Map<Object, String>    referenceNames = new IdentityHashMap<Object, String>();
+    private final Map<Object, Class<?>>  referenceTypes = new IdentityHashMap<Object, Class<?>>();
+    private final Set<String>            methodNames    = new HashSet<String>();
+
+    private ClassLoader classLoader;
+
+    private AlphaNetworkCompiler(ObjectTypeNode objectTypeNode) {
+        this.objectTypeNode = objectTypeNode;
+    }
+
+    /**
+     * Creates a {@link CompiledNetwork} for the specified {@link ObjectTypeNode} and sets it on the node.
+     *
+     * @param objectTypeNode OTN we are generating a compiled network for
+     * @param classLoader    class loader in which the generated class is defined
+     * @return CompiledNetwork
+     */
+    public static CompiledNetwork compile(ObjectTypeNode objectTypeNode, ClassLoader classLoader) {
+        if (objectTypeNode == null) {
+            throw new IllegalArgumentException("ObjectTypeNode cannot be null!");
+        }
+        CompiledNetwork network = new AlphaNetworkCompiler(objectTypeNode).generate(classLoader);
+        objectTypeNode.setCompiledNetwork(network);
+        return network;
+    }
+
+    private CompiledNetwork generate(ClassLoader classLoader) {
+        this.classLoader = classLoader;
+
+        ClassGenerator generator = new ClassGenerator(PACKAGE_NAME + ".AlphaNetwork" + generateUUID(), classLoader)
+                .setSuperClass(CompiledNetwork.class)
+                .addDefaultConstructor();
+
+        // the references are set by this compiler, so there is nothing to do when the network is attached to the OTN
+        generator.addMethod(ACC_PROTECTED, "initNodeReferences", generator.methodDescr(null, ObjectTypeNode.class))
+                 .addMethod(ACC_PROTECTED, "setNetworkNodeReference", generator.methodDescr(null, NetworkNode.class));
+
+        ObjectSinkPropagator propagator = objectTypeNode.getSinkPropagator();
+        generator.addMethod(ACC_PUBLIC, "assertObject", generator.methodDescr(null, ASSERT_ARGS), new PropagateMethod(propagator, false))
+                 .addMethod(ACC_PUBLIC, "modifyObject", generator.methodDescr(null, MODIFY_ARGS), new PropagateMethod(propagator, true));
+
+        CompiledNetwork network = generator.newInstance();
+
+        // the referenced nodes are only known once the methods have been generated, so they can't be constructor arguments
+        try {
+            for (int i = 0; i < references.size(); i++) {
+                Object reference = references.get(i);
+                network.getClass().getField(referenceNames.get(reference)).set(network, reference);
+            }
+        } catch (NoSuchFieldException e) {
+            throw new RuntimeDroolsException("Unable to set the references of the compiled network", e);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeDroolsException("Unable to set the references of the compiled network", e);
+        }
+        return network;
+    }
+
+    private boolean isUnrollable(ObjectSinkPropagator propagator) {
+        Class<?> propagatorClass = propagator.getClass();
+        return ( propagatorClass == CompositeObjectSinkAdapter.class ||
+                 propagatorClass == SingleObjectSinkAdapter.class ||
+                 propagatorClass == EmptyObjectSinkAdapter.class ) &&
+               propagator.size() <= MAX_INLINED_SINKS;
+    }
+
+    /**
+     * Returns the number of nodes that would be inlined when unrolling the specified propagator
+     */
+    private int countNodes(ObjectSinkPropagator propagator) {
+        if (!isUnrollable(propagator)) {
+            return 1;
+        }
+        int count = 0;
+        if (propagator.getClass() == CompositeObjectSinkAdapter.class) {
+            CompositeObjectSinkAdapter composite = (CompositeObjectSinkAdapter) propagator;
+            if (composite.getHashedSinkMap() != null) {
+                Iterator iter = composite.getHashedSinkMap().iterator();
+                for (ObjectHashMap.ObjectEntry entry = (ObjectHashMap.ObjectEntry) iter.next(); entry != null; entry = (ObjectHashMap.ObjectEntry) iter.next()) {
+                    count += 1 + countNodes(((AlphaNode) entry.getValue()).getSinkPropagator());
+                }
+            }
+            if (composite.getRangeIndexes() != null) {
+                count += composite.getRangeIndexes().size();
+            }
+            count += countNodes(composite.getHashableSinks()) + countNodes(composite.getOthers());
+        } else {
+            for (ObjectSink sink : propagator.getSinks()) {
+                count += countNodes(sink);
+            }
+        }
+        return count;
+    }
+
+    private int countNodes(ObjectSinkNodeList sinks) {
+        int count = 0;
+        if (sinks != null) {
+            for (ObjectSinkNode sink = sinks.getFirst(); sink != null; sink = sink.getNextObjectSinkNode()) {
+                count += countNodes(sink);
+            }
+        }
+        return count;
+    }
+
+    private int countNodes(ObjectSink sink) {
+        return sink.getClass() == AlphaNode.class ? 1 + countNodes(((AlphaNode) sink).getSinkPropagator()) : 1;
+    }
+
+    private List<AlphaNode> getHashedAlphaNodes(CompositeObjectSinkAdapter composite, FieldIndex fieldIndex) {
+        List<AlphaNode> alphaNodes = new ArrayList<AlphaNode>();
+        Iterator iter = composite.getHashedSinkMap().iterator();
+        for (ObjectHashMap.ObjectEntry entry = (ObjectHashMap.ObjectEntry) iter.next(); entry != null; entry = (ObjectHashMap.ObjectEntry) iter.next()) {
+            if (((HashKey) entry.getKey()).getIndex() == fieldIndex.getIndex()) {
+                alphaNodes.add((AlphaNode) entry.getValue());
+            }
+        }
+        // the keys of a lookupswitch must be sorted
+        Collections.sort(alphaNodes, new Comparator<AlphaNode>() {
+            public int compare(AlphaNode n1, AlphaNode n2) {
+                return n1.getId() < n2.getId() ? -1 : (n1.getId() == n2.getId() ? 0 : 1);
+            }
+        });
+        return alphaNodes;
+    }
+
+    /**
+     * Returns the class of the object if the generated code can refer to it, or the given fallback otherwise.
+     * Using the concrete class allows the JIT to inline the calls to final nodes and constraints.
+     */
+    private Class<?> getAccessibleType(Class<?> clazz, Class<?> fallback) {
+        if (!Modifier.isPublic(clazz.getModifiers())) {
+            return fallback;
+        }
+        try {
+            return Class.forName(clazz.getName(), false, classLoader) == clazz ? clazz : fallback;
+        } catch (ClassNotFoundException e) {
+            return fallback;
+        }
+    }
+
+    /**
+     * Generates the propagation of a fact through an ObjectSinkPropagator, for either assert or modify.
+     */
+    private class PropagateMethod extends ClassGenerator.MethodBody {
+
+        private final ObjectSinkPropagator propagator;
+        private final boolean              modify;
+        private final int                  contextVar;
+        private final int                  workingMemoryVar;
+
+        private int inlinedNodes;
+
+        private PropagateMethod(ObjectSinkPropagator propagator, boolean modify) {
+            this.propagator = propagator;
+            this.modify = modify;
+            this.contextVar = modify ? 3 : 2;
+            this.workingMemoryVar = modify ? 4 : 3;
+        }
+
+        protected void body(MethodVisitor mv) {
+            propagate(propagator);
+            mv.visitInsn(RETURN);
+        }
+
+        private void propagate(ObjectSinkPropagator propagator) {
+            if (!isUnrollable(propagator)) {
+                inlinedNodes++;
+                loadReference(propagator, ObjectSinkPropagator.class);
+                loadArguments();
+                invokeInterface(ObjectSinkPropagator.class, modify ? "propagateModifyObject" : "propagateAssertObject", null, getArguments());
+                return;
+            }
+
+            if (propagator.getClass() == CompositeObjectSinkAdapter.class) {
+                // same order as CompositeObjectSinkAdapter: hashed, range indexed, hashable and then other sinks
+                CompositeObjectSinkAdapter composite = (CompositeObjectSinkAdapter) propagator;
+                if (composite.getHashedFieldIndexes() != null) {
+                    for (FieldIndex fieldIndex = composite.getHashedFieldIndexes().getFirst(); fieldIndex != null; fieldIndex = fieldIndex.getNext()) {
+                        if (fieldIndex.isHashed()) {
+                            propagateHashed(composite, fieldIndex);
+                        }
+                    }
+                }
+                if (composite.getRangeIndexes() != null) {
+                    for (AlphaRangeIndex rangeIndex = composite.getRangeIndexes().getFirst(); rangeIndex != null; rangeIndex = rangeIndex.getNext()) {
+                        inlinedNodes++;
+                        loadReference(rangeIndex, AlphaRangeIndex.class);
+                        loadArguments();
+                        invokeVirtual(AlphaRangeIndex.class, modify ? "propagateModifyObject" : "propagateAssertObject", null, getArguments());
+                    }
+                }
+                propagate(composite.getHashableSinks());
+                propagate(composite.getOthers());
+            } else {
+                for (ObjectSink sink : propagator.getSinks()) {
+                    propagate(sink);
+                }
+            }
+        }
+
+        private void propagate(ObjectSinkNodeList sinks) {
+            if (sinks != null) {
+                for (ObjectSinkNode sink = sinks.getFirst(); sink != null; sink = sink.getNextObjectSinkNode()) {
+                    propagate(sink);
+                }
+            }
+        }
+
+        private void propagateHashed(CompositeObjectSinkAdapter composite, FieldIndex fieldIndex) {
+            List<AlphaNode> alphaNodes = getHashedAlphaNodes(composite, fieldIndex);
+            if (alphaNodes.isEmpty()) {
+                return;
+            }
+
+            // switch ( getHashedNodeId( hashedSinkMap, fieldIndex, handle.getObject() ) )
+            loadReference(composite.getHashedSinkMap(), ObjectHashMap.class);
+            loadReference(fieldIndex, FieldIndex.class);
+            mv.visitVarInsn(ALOAD, 1);
+            invokeInterface(InternalFactHandle.class, "getObject", Object.class);
+            invokeStatic(CompiledNetwork.class, "getHashedNodeId", int.class, ObjectHashMap.class, FieldIndex.class, Object.class);
+
+            Label end = new Label();
+            int[] ids = new int[alphaNodes.size()];
+            Label[] cases = new Label[alphaNodes.size()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = alphaNodes.get(i).getId();
+                cases[i] = new Label();
+            }
+            mv.visitLookupSwitchInsn(end, ids, cases);
+
+            for (int i = 0; i < ids.length; i++) {
+                mv.visitLabel(cases[i]);
+                inlinedNodes++;
+                // the hashed value already matched, so the constraint doesn't need to be tested again
+                propagateChildren(alphaNodes.get(i));
+                mv.visitJumpInsn(GOTO, end);
+            }
+            mv.visitLabel(end);
+        }
+
+        private void propagate(ObjectSink sink) {
+            if (sink.getClass() == AlphaNode.class) {
+                if (modify) {
+                    modifyAlpha((AlphaNode) sink);
+                } else {
+                    assertAlpha((AlphaNode) sink);
+                }
+            } else {
+                inlinedNodes++;
+                Class<?> sinkType = loadReference(sink, getAccessibleType(sink.getClass(), ObjectSink.class));
+                loadArguments();
+                invokeMethod(sinkType, modify ? "modifyObject" : "assertObject", null, getArguments());
+            }
+        }
+
+        private void assertAlpha(AlphaNode alphaNode) {
+            inlinedNodes++;
+            Label end = new Label();
+
+            // if ( constraint.isAllowed( handle, wm, memory.context ) )
+            evaluateConstraint(alphaNode);
+            mv.visitJumpInsn(IFEQ, end);
+            propagateChildren(alphaNode);
+            mv.visitLabel(end);
+        }
+
+        private void modifyAlpha(AlphaNode alphaNode) {
+            inlinedNodes++;
+            Label byPass = new Label();
+            Label end = new Label();
+
+            // if ( context.getModificationMask().intersects( alphaNode.getInferredMask() ) )
+            mv.visitVarInsn(ALOAD, contextVar);
+            invokeInterface(PropagationContext.class, "getModificationMask", BitMask.class);
+            loadReference(alphaNode, AlphaNode.class);
+            invokeVirtual(AlphaNode.class, "getInferredMask", BitMask.class);
+            invokeInterface(BitMask.class, "intersects", boolean.class, BitMask.class);
+            mv.visitJumpInsn(IFEQ, byPass);
+
+            evaluateConstraint(alphaNode);
+            mv.visitJumpInsn(IFEQ, end);
+            propagateChildren(alphaNode);
+            mv.visitJumpInsn(GOTO, end);
+
+            // else alphaNode.byPassModifyToBetaNode( handle, modifyPreviousTuples, context, wm )
+            mv.visitLabel(byPass);
+            loadReference(alphaNode, AlphaNode.class);
+            loadArguments();
+            invokeVirtual(AlphaNode.class, "byPassModifyToBetaNode", null, MODIFY_ARGS);
+            mv.visitLabel(end);
+        }
+
+        private void evaluateConstraint(AlphaNode alphaNode) {
+            AlphaNodeFieldConstraint constraint = alphaNode.getConstraint();
+            Class<?> constraintType = loadReference(constraint, getAccessibleType(constraint.getClass(), AlphaNodeFieldConstraint.class));
+            mv.visitVarInsn(ALOAD, 1);
+            mv.visitVarInsn(ALOAD, workingMemoryVar);
+
+            // ((AlphaMemory) wm.getNodeMemory( alphaNode )).context
+            mv.visitVarInsn(ALOAD, workingMemoryVar);
+            loadReference(alphaNode, AlphaNode.class);
+            invokeInterface(InternalWorkingMemory.class, "getNodeMemory", Memory.class, MemoryFactory.class);
+            cast(AlphaMemory.class);
+            mv.visitFieldInsn(GETFIELD, internalName(AlphaMemory.class), "context", typeDescr(ContextEntry.class));
+
+            invokeMethod(constraintType, "isAllowed", boolean.class, InternalFactHandle.class, InternalWorkingMemory.class, ContextEntry.class);
+        }
+
+        private void propagateChildren(AlphaNode alphaNode) {
+            ObjectSinkPropagator children = alphaNode.getSinkPropagator();
+            if (inlinedNodes + countNodes(children) <= MAX_NODES_PER_METHOD) {
+                propagate(children);
+                return;
+            }
+
+            String methodName = (modify ? "modify" : "assert") + alphaNode.getId();
+            String methodDescr = methodDescr(null, getArguments());
+            if (methodNames.add(methodName)) {
+                getClassGenerator().addMethod(ACC_PRIVATE, methodName, methodDescr, new PropagateMethod(children, modify));
+            }
+            inlinedNodes++;
+            mv.visitVarInsn(ALOAD, 0);
+            loadArguments();
+            mv.visitMethodInsn(INVOKESPECIAL, classDescriptor(), methodName, methodDescr);
+        }
+
+        private void loadArguments() {
+            for (int i = 1; i <= workingMemoryVar; i++) {
+                mv.visitVarInsn(ALOAD, i);
+            }
+        }
+
+        private Class<?>[] getArguments() {
+            return modify ? MODIFY_ARGS : ASSERT_ARGS;
+        }
+
+        private void invokeMethod(Class<?> type, String methodName, Class<?> returnedType, Class<?>... paramsType) {
+            if (type.isInterface()) {
+                invokeInterface(type, methodName, returnedType, paramsType);
+            } else {
+                invokeVirtual(type, methodName, returnedType, paramsType);
+            }
+        }
+
+        /**
+         * Pushes the given object on the stack, reading it from a field of the generated class.
+         * The field is created the first time the object is referenced.
+         *
+         * @return the type of the field
+         */
+        private Class<?> loadReference(Object reference, Class<?> type) {
+            String fieldName = referenceNames.get(reference);
+            if (fieldName == null) {
+                fieldName = "r" + references.size();
+                references.add(reference);
+                referenceNames.put(reference, fieldName);
+                referenceTypes.put(reference, type);
+                getClassGenerator().addField(ACC_PUBLIC, fieldName, type);
+            }
+            Class<?> fieldType = referenceTypes.get(reference);
+            getFieldFromThis(fieldName, fieldType);
+            return fieldType;
+        }
+    }
+}
@@ -16,13 +16,22 @@
 
 package org.drools.core.reteoo.compiled;
 
+import org.drools.core.common.InternalFactHandle;
+import org.drools.core.common.InternalWorkingMemory;
 import org.drools.core.common.NetworkNode;
 import org.drools.core.common.RuleBasePartitionId;
 import org.drools.core.reteoo.*;
+import org.drools.core.reteoo.CompositeObjectSinkAdapter.FieldIndex;
+import org.drools.core.reteoo.CompositeObjectSinkAdapter.HashKey;
+import org.drools.core.spi.PropagationContext;
+import org.drools.core.spi.RuleComponent;
+import org.drools.core.util.ObjectHashMap;
+import org.kie.api.definition.rule.Rule;
 
 import java.io.IOException;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
+import java.util.Map;
 
 /**
  * This is the base type for all generated classes that that represent a "compiled" portion of the RETE network.
@@ -50,6 +59,25 @@ public abstract class CompiledNetwork implements ObjectSink {
         return objectTypeNode.getPartitionId();
     }
 
+    public short getType() {
+        return NodeTypeEnums.ObjectTypeNode;
+    }
+
+    public Map<Rule, RuleComponent> getAssociations() {
+        return objectTypeNode.getAssociations();
+    }
+
+    public void byPassModifyToBetaNode(InternalFactHandle factHandle,
+                                       ModifyPreviousTuples modifyPreviousTuples,
+                                       PropagationContext context,
+                                       InternalWorkingMemory workingMemory) {
+        throw new UnsupportedOperationException( "This should never get called, as the PropertyReactive first happens at the AlphaNode" );
+    }
+
+    public ObjectTypeNode getObjectTypeNode() {
+        return objectTypeNode;
+    }
+
     /**
      * The object implements the writeExternal method to save its contents
      * by calling the methods of DataOutput for its primitive values or
@@ -92,6 +120,17 @@ public abstract class CompiledNetwork implements ObjectSink {
     public final void setObjectTypeNode(final ObjectTypeNode objectTypeNode) {
         this.objectTypeNode = objectTypeNode;
 
+        initNodeReferences(objectTypeNode);
+    }
+
+    /**
+     * Sets the references to the nodes of the network. By default this walks the network calling
+     * {@link #setNetworkNodeReference} for each node, networks that receive their references in a different
+     * way can override it.
+     *
+     * @param objectTypeNode node for whom this network was created
+     */
+    protected void initNodeReferences(final ObjectTypeNode objectTypeNode) {
         NodeReferenceSetter setter= new NodeReferenceSetter();
         ObjectTypeNodeParser parser = new ObjectTypeNodeParser(objectTypeNode);
         parser.accept(setter);
@@ -105,6 +144,24 @@ public abstract class CompiledNetwork implements ObjectSink {
      */
     protected abstract void setNetworkNodeReference(NetworkNode networkNode);
 
+    /**
+     * Returns the id of the AlphaNode hashed in the specified map for the value that the object has in the
+     * indexed field, or -1 if there is none. Generated networks use it to switch over the hashed alphas.
+     *
+     * @param hashedSinkMap hashed alphas of a {@link CompositeObjectSinkAdapter}
+     * @param fieldIndex    hashed field
+     * @param object        fact being propagated
+     * @return node id of the matching alpha or -1
+     */
+    protected static int getHashedNodeId(final ObjectHashMap hashedSinkMap,
+                                         final FieldIndex fieldIndex,
+                                         final Object object) {
+        final AlphaNode sink = (AlphaNode) hashedSinkMap.get( new HashKey( fieldIndex.getIndex(),
+                                                                           object,
+                                                                           fieldIndex.getFieldExtractor() ) );
+        return sink != null ? sink.getId() : -1;
+    }
+
     /**
      * Handler implementation to call {@link CompiledNetwork#setNetworkNodeReference} for each node
      * encountered in the network.
@@ -18,6 +18,7 @@ package org.drools.core.reteoo.compiled;
 
 import org.drools.core.base.ClassFieldReader;
 import org.drools.core.util.Iterator;
+import org.drools.core.util.LinkedList;
 import org.drools.core.util.ObjectHashMap;
 import org.drools.core.reteoo.*;
 import org.drools.core.rule.constraint.MvelConstraint;
@@ -83,6 +84,19 @@ public class ObjectTypeNodeParser {
             traverseSinkLisk(composite.getHashableSinks(), handler);
             traverseSinkLisk(composite.getOthers(), handler);
             traverseHashedAlphaNodes(composite.getHashedSinkMap(), handler);
+            traverseRangeIndexedAlphaNodes(composite.getRangeIndexes(), handler);
+        }
+    }
+
+    private void traverseRangeIndexedAlphaNodes(LinkedList<AlphaRangeIndex> rangeIndexes, NetworkHandler handler) {
+        if (rangeIndexes != null) {
+            // unlike the AlphaRangeIndex, which skips the evaluation of the matched nodes, the compiled network
+            // tests the constraint of each of them, so they are handled as the non hashed alpha nodes
+            for (AlphaRangeIndex rangeIndex = rangeIndexes.getFirst(); rangeIndex != null; rangeIndex = rangeIndex.getNext()) {
+                for (AlphaNode alphaNode : rangeIndex.getNodes()) {
+                    traverseSink(alphaNode, handler);
+                }
+            }
         }
     }
 
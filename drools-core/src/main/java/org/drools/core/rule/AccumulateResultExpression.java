@@ -0,0 +1,142 @@
+/*
+ * Copyright 2014 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.rule;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.Arrays;
+
+import org.drools.core.WorkingMemory;
+import org.drools.core.common.BetaConstraints;
+import org.drools.core.common.InternalFactHandle;
+import org.drools.core.common.InternalWorkingMemory;
+import org.drools.core.reteoo.LeftTuple;
+import org.drools.core.spi.AlphaNodeFieldConstraint;
+import org.drools.core.spi.BetaNodeFieldConstraint;
+import org.drools.core.spi.EvalExpression;
+import org.drools.core.spi.Tuple;
+
+/**
+ * Evaluates the result constraints of an accumulate against the result fact handle,
+ * the last one of the tuple. When these constraints are moved from the AccumulateNode
+ * to an EvalConditionNode right after it, rules whose accumulates only differ by their
+ * result constraints can share the same AccumulateNode and so the same aggregation.
+ */
+public class AccumulateResultExpression
+    implements
+    EvalExpression,
+    Externalizable {
+
+    private static final long          serialVersionUID = 510l;
+
+    private AlphaNodeFieldConstraint[] resultConstraints;
+    private BetaConstraints            resultBinder;
+
+    public AccumulateResultExpression() {
+    }
+
+    public AccumulateResultExpression(AlphaNodeFieldConstraint[] resultConstraints,
+                                      BetaConstraints resultBinder) {
+        this.resultConstraints = resultConstraints;
+        this.resultBinder = resultBinder;
+    }
+
+    public void readExternal(ObjectInput in) throws IOException,
+                                            ClassNotFoundException {
+        resultConstraints = (AlphaNodeFieldConstraint[]) in.readObject();
+        resultBinder = (BetaConstraints) in.readObject();
+    }
+
+    public void writeExternal(ObjectOutput out) throws IOException {
+        out.writeObject( resultConstraints );
+        out.writeObject( resultBinder );
+    }
+
+    public Object createContext() {
+        ContextEntry[] alphaContexts = new ContextEntry[this.resultConstraints.length];
+        for ( int i = 0; i < this.resultConstraints.length; i++ ) {
+            alphaContexts[i] = this.resultConstraints[i].createContextEntry();
+        }
+        return new Object[]{alphaContexts, this.resultBinder.createContext()};
+    }
+
+    public boolean evaluate(Tuple tuple,
+                            Declaration[] requiredDeclarations,
+                            WorkingMemory workingMemory,
+                            Object context) throws Exception {
+        InternalWorkingMemory wm = (InternalWorkingMemory) workingMemory;
+        LeftTuple leftTuple = (LeftTuple) tuple;
+        InternalFactHandle result = leftTuple.getLastHandle();
+
+        ContextEntry[] alphaContexts = (ContextEntry[]) ((Object[]) context)[0];
+        for ( int i = 0; i < this.resultConstraints.length; i++ ) {
+            if ( !this.resultConstraints[i].isAllowed( result,
+                                                       wm,
+                                                       alphaContexts[i] ) ) {
+                return false;
+            }
+        }
+
+        ContextEntry[] resultsContext = (ContextEntry[]) ((Object[]) context)[1];
+        this.resultBinder.updateFromTuple( resultsContext,
+                                           wm,
+                                           leftTuple );
+        boolean isAllowed = this.resultBinder.isAllowedCachedLeft( resultsContext,
+                                                                   result );
+        this.resultBinder.resetTuple( resultsContext );
+        return isAllowed;
+    }
+
+    public void replaceDeclaration(Declaration declaration,
+                                   Declaration resolved) {
+        for ( AlphaNodeFieldConstraint constraint : this.resultConstraints ) {
+            constraint.replaceDeclaration( declaration,
+                                           resolved );
+        }
+        for ( BetaNodeFieldConstraint constraint : this.resultBinder.getConstraints() ) {
+            constraint.replaceDeclaration( declaration,
+                                           resolved );
+        }
+    }
+
+    public AccumulateResultExpression clone() {
+        // the constraints are not changed by the evaluation, so they can be shared
+        return new AccumulateResultExpression( this.resultConstraints,
+                                               this.resultBinder );
+    }
+
+    public int hashCode() {
+        return Arrays.hashCode( this.resultConstraints ) ^ this.resultBinder.hashCode();
+    }
+
+    public boolean equals(Object obj) {
+        if ( this == obj ) {
+            return true;
+        }
+        if ( obj == null || getClass() != obj.getClass() ) {
+            return false;
+        }
+        AccumulateResultExpression other = (AccumulateResultExpression) obj;
+        return Arrays.equals( this.resultConstraints, other.resultConstraints ) && this.resultBinder.equals( other.resultBinder );
+    }
+
+    public String toString() {
+        return "AccumulateResult( " + Arrays.toString( this.resultConstraints ) + ", " + this.resultBinder + " )";
+    }
+}
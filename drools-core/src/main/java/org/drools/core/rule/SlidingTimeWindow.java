@@ -218,20 +218,37 @@ public class SlidingTimeWindow
                                              final Object context,
                                              final int nodeId) {
         TimerService clock = workingMemory.getTimerService();
+        SlidingTimeWindowContext stwCtx = (SlidingTimeWindowContext) context;
         if ( fact != null ) {
             long nextTimestamp = ((EventFactHandle) fact).getStartTimestamp() + stw.getSize();
             if ( nextTimestamp < clock.getCurrentTime() ) {
                 // Past and out-of-order events should not be insert,
                 // but the engine silently accepts them anyway, resulting in possibly undesirable behaviors
                 workingMemory.queueWorkingMemoryAction( new BehaviorExpireWMAction( nodeId, stw, memory, context, pctx ) );
-            } else {
+            } else if ( stwCtx.jobHandle == null || stwCtx.nextExpiration != nextTimestamp ) {
+                // a single job per window, all the events expiring at the same time are retracted by the same
+                // expireFacts pass, so a job still pending for another time is useless and can be cancelled
+                cancelNextExpiration( clock, stwCtx );
                 JobContext jobctx = new BehaviorJobContext( nodeId, workingMemory, stw, memory,
                                                             context, pctx);
                 JobHandle handle = clock.scheduleJob( job,
                                                       jobctx,
                                                       new PointInTimeTrigger( nextTimestamp, null, null ) );
                 jobctx.setJobHandle( handle );
+                stwCtx.jobHandle = handle;
+                stwCtx.nextExpiration = nextTimestamp;
             }
+        } else {
+            cancelNextExpiration( clock, stwCtx );
+        }
+    }
+
+    private static void cancelNextExpiration(final TimerService clock,
+                                             final SlidingTimeWindowContext stwCtx) {
+        if ( stwCtx.jobHandle != null ) {
+            // a no-op when the job already fired
+            clock.removeJob( stwCtx.jobHandle );
+            stwCtx.jobHandle = null;
         }
     }
 
@@ -250,6 +267,10 @@ public class SlidingTimeWindow
         public PriorityQueue<EventFactHandle> queue;
         public EventFactHandle                expiringHandle;
 
+        // the pending expiration job, if any, and its fire time
+        public transient JobHandle            jobHandle;
+        public transient long                 nextExpiration;
+
         public SlidingTimeWindowContext() {
             this.queue = new PriorityQueue<EventFactHandle>( 16 ); // arbitrary size... can we improve it?
         }
@@ -418,6 +439,15 @@ public class SlidingTimeWindow
 
         public void execute(JobContext ctx) {
             BehaviorJobContext context = (BehaviorJobContext) ctx;
+            SlidingTimeWindowContext stwCtx = (SlidingTimeWindowContext) context.behaviorContext;
+            synchronized ( stwCtx.queue ) {
+                if ( stwCtx.jobHandle == context.handle ) {
+                    // this job is no longer pending, the next expiration must be scheduled again
+                    // even when it is due at the same time
+                    stwCtx.jobHandle = null;
+                    stwCtx.nextExpiration = -1;
+                }
+            }
             context.workingMemory.queueWorkingMemoryAction( new BehaviorExpireWMAction( context.nodeId,
                                                                                         context.behavior,
                                                                                         context.memory,
@@ -8,7 +8,6 @@ import org.drools.core.common.InternalFactHandle;
 import org.drools.core.common.InternalRuleBase;
 import org.drools.core.common.InternalWorkingMemory;
 import org.drools.core.util.AbstractHashTable.FieldIndex;
-import org.drools.core.util.BitMaskUtil;
 import org.drools.core.util.MemoryUtil;
 import org.drools.core.util.index.IndexUtil;
 import org.drools.core.reteoo.LeftTuple;
@@ -29,6 +28,7 @@ import org.drools.core.rule.constraint.ConditionAnalyzer.SingleCondition;
 import org.drools.core.spi.AcceptsReadAccessor;
 import org.drools.core.spi.FieldValue;
 import org.drools.core.spi.InternalReadAccessor;
+import org.drools.core.util.bitmask.BitMask;
 import org.kie.internal.concurrent.ExecutorProviderFactory;
 import org.kie.internal.utils.CompositeClassLoader;
 import org.kie.api.runtime.rule.Variable;
@@ -46,6 +46,9 @@ import java.util.List;
 import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import static org.drools.core.reteoo.PropertySpecificUtil.allSetButTraitBitMask;
+import static org.drools.core.reteoo.PropertySpecificUtil.getEmptyPropertyReactiveMask;
+import static org.drools.core.reteoo.PropertySpecificUtil.setPropertyOnMask;
 import static org.drools.core.util.ClassUtils.getter2property;
 import static org.drools.core.util.StringUtils.extractFirstIdentifier;
 import static org.drools.core.util.StringUtils.skipBlanks;
@@ -341,14 +344,14 @@ public class MvelConstraint extends MutableTypeConstraint implements IndexableCo
 
     // Slot specific
 
-    public long getListenedPropertyMask(List<String> settableProperties) {
+    public BitMask getListenedPropertyMask(List<String> settableProperties) {
         return analyzedCondition != null ?
                 calculateMask(analyzedCondition, settableProperties) :
                 calculateMaskFromExpression(settableProperties);
     }
 
-    private long calculateMaskFromExpression(List<String> settableProperties) {
-        long mask = 0;
+    private BitMask calculateMaskFromExpression(List<String> settableProperties) {
+        BitMask mask = getEmptyPropertyReactiveMask(settableProperties.size());
         String[] simpleExpressions = expression.split("\\Q&&\\E|\\Q||\\E");
 
         for (String simpleExpression : simpleExpressions) {
@@ -357,7 +360,7 @@ public class MvelConstraint extends MutableTypeConstraint implements IndexableCo
                 continue;
             }
             if (propertyName.equals("this")) {
-                return Long.MAX_VALUE;
+                return allSetButTraitBitMask();
             }
             int pos = settableProperties.indexOf(propertyName);
             if (pos < 0 && Character.isUpperCase(propertyName.charAt(0))) {
@@ -365,7 +368,7 @@ public class MvelConstraint extends MutableTypeConstraint implements IndexableCo
                 pos = settableProperties.indexOf(propertyName);
             }
             if (pos >= 0) { // Ignore not settable properties
-                mask = BitMaskUtil.set(mask, pos);
+                mask = setPropertyOnMask(mask, pos);
             }
         }
 
@@ -398,28 +401,23 @@ public class MvelConstraint extends MutableTypeConstraint implements IndexableCo
         return propertyName;
     }
 
-    private long calculateMask(Condition condition, List<String> settableProperties) {
+    private BitMask calculateMask(Condition condition, List<String> settableProperties) {
         if (condition instanceof SingleCondition) {
             return calculateMask((SingleCondition) condition, settableProperties);
         }
-        long mask = 0L;
+        BitMask mask = getEmptyPropertyReactiveMask(settableProperties.size());
         for (Condition c : ((CombinedCondition)condition).getConditions()) {
-            mask |= calculateMask(c, settableProperties);
+            mask = mask.setAll(calculateMask(c, settableProperties));
         }
         return mask;
     }
 
-    private long calculateMask(SingleCondition condition, List<String> settableProperties) {
+    private BitMask calculateMask(SingleCondition condition, List<String> settableProperties) {
         String propertyName = getFirstInvokedPropertyName(condition.getLeft());
         if (propertyName == null) {
-            return Long.MAX_VALUE;
+            return allSetButTraitBitMask();
         }
-
-        int pos = settableProperties.indexOf(propertyName);
-        if (pos < 0) {
-            throw new RuntimeException("Unknown property: " + propertyName);
-        }
-        return 1L << pos;
+        return setPropertyOnMask(getEmptyPropertyReactiveMask(settableProperties.size()), settableProperties, propertyName);
     }
 
     private String getFirstInvokedPropertyName(Expression expression) {
@@ -26,6 +26,7 @@ import org.drools.core.factmodel.traits.Thing;
 import org.drools.core.factmodel.traits.TraitableBean;
 import org.drools.core.rule.Declaration;
 import org.drools.core.rule.Rule;
+import org.drools.core.util.bitmask.BitMask;
 import org.kie.api.runtime.Channel;
 import org.kie.api.runtime.rule.RuleContext;
 import org.kie.api.runtime.rule.EntryPoint;
@@ -90,10 +91,10 @@ public interface KnowledgeHelper
     void update(FactHandle handle, Object newObject);
 
     void update(FactHandle newObject);
-    void update(FactHandle newObject, long mask, Class<?> modifiedClass);
+    void update(FactHandle newObject, BitMask mask, Class<?> modifiedClass);
     
     void update(Object newObject);
-    void update(Object newObject, long mask, Class<?> modifiedClass);
+    void update(Object newObject, BitMask mask, Class<?> modifiedClass);
 
     void modify( Object newObject ) ;
 
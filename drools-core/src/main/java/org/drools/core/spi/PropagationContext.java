@@ -26,6 +26,7 @@ import org.drools.core.marshalling.impl.MarshallerReaderContext;
 import org.drools.core.reteoo.LeftTuple;
 import org.drools.core.rule.EntryPointId;
 import org.drools.core.rule.Rule;
+import org.drools.core.util.bitmask.BitMask;
 
 public interface PropagationContext
     extends
@@ -71,7 +72,7 @@ public interface PropagationContext
 
     void evaluateActionQueue(InternalWorkingMemory workingMemory);
 
-    long getModificationMask();
+    BitMask getModificationMask();
     PropagationContext adaptModificationMaskForObjectType(ObjectType type, InternalWorkingMemory workingMemory);
 
     ObjectType getObjectType();
@@ -17,6 +17,8 @@
 package org.drools.core.time;
 
 import org.drools.core.SessionConfiguration;
+import org.drools.core.time.impl.TimingWheelPseudoClockScheduler;
+import org.drools.core.time.impl.TimingWheelTimerService;
 
 public class TimerServiceFactory {
     
@@ -24,10 +26,10 @@ public class TimerServiceFactory {
         TimerService service = null;
         switch( config.getClockType() ) {
             case REALTIME_CLOCK:
-                service = config.newTimerService();
+                service = config.isTimingWheel() ? new TimingWheelTimerService() : config.newTimerService();
                 break;
             case PSEUDO_CLOCK:
-                service = (TimerService) config.getClockType().createInstance();
+                service = config.isTimingWheel() ? new TimingWheelPseudoClockScheduler() : (TimerService) config.getClockType().createInstance();
                 break;
         }
         return service;
@@ -53,15 +53,15 @@ public class PseudoClockScheduler
     InternalSchedulerService,
     AcceptsTimerJobFactoryManager {
     
-    private Logger logger = LoggerFactory.getLogger( PseudoClockScheduler.class ); 
+    protected Logger logger = LoggerFactory.getLogger( PseudoClockScheduler.class ); 
 
-    private AtomicLong                      timer;
+    protected AtomicLong                    timer;
     private PriorityBlockingQueue<Callable<Void>>   queue;
-    private transient InternalWorkingMemory session;
+    protected transient InternalWorkingMemory session;
 
-    private TimerJobFactoryManager          jobFactoryManager = DefaultTimerJobFactoryManager.instance;
+    protected TimerJobFactoryManager        jobFactoryManager = DefaultTimerJobFactoryManager.instance;
 
-    private AtomicLong                      idCounter         = new AtomicLong();
+    protected AtomicLong                    idCounter         = new AtomicLong();
 
     public PseudoClockScheduler() {
         this( null );
@@ -0,0 +1,346 @@
+/*
+ * Copyright 2014 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.time.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A hashed hierarchical timing wheel. Each level has 256 slots, a slot of level n
+ * covering 256^n ticks, so with 4 levels a job can be placed up to 2^32 ticks ahead
+ * without being looked at again; jobs further away are parked in the last level and
+ * placed again when their slot is cascaded.
+ *
+ * Each slot is a circular doubly linked list of WheelJobHandles, with the handles
+ * themselves being the list entries, so scheduling and cancelling a job are O(1)
+ * and don't allocate anything. All the jobs due in the same tick end up in the same
+ * slot of the first level and are drained in a single pass, in the order they
+ * were scheduled.
+ *
+ * The wheel keeps a bitmap of the non empty slots of each level and caches the
+ * earliest expiration tick, so the next expiration time is only looked for again
+ * when the job holding it is removed, and only in the first non empty slots.
+ *
+ * This class is not thread safe, the timer services using it are responsible
+ * for the synchronization.
+ */
+public class TimingWheel {
+
+    private static final int   BITS   = 8;
+    private static final int   SLOTS  = 1 << BITS;
+    private static final int   MASK   = SLOTS - 1;
+    private static final int   LEVELS = 4;
+    private static final int   WORDS  = SLOTS / 64;
+
+    private static final long  MAX_DELTA = ( 1L << ( BITS * LEVELS ) ) - 1;
+
+    private final long             tickDuration;
+
+    private final WheelJobHandle[][] wheels;
+    private final int[]            levelSizes;
+    private final long[][]         occupied;
+    private int                    size;
+
+    // the earliest expiration tick of the scheduled jobs, when known
+    private long                   earliestTick;
+    private boolean                earliestKnown;
+
+    // the tick currently being drained, all the ones before it are already expired
+    private long                   tick;
+
+    public TimingWheel(long tickDuration,
+                       long startTime) {
+        if ( tickDuration <= 0 ) {
+            throw new IllegalArgumentException( "The tick duration must be positive: " + tickDuration );
+        }
+        this.tickDuration = tickDuration;
+        this.wheels = new WheelJobHandle[LEVELS][SLOTS];
+        for ( int i = 0; i < LEVELS; i++ ) {
+            for ( int j = 0; j < SLOTS; j++ ) {
+                wheels[i][j] = new WheelJobHandle( -1 );
+            }
+        }
+        this.levelSizes = new int[LEVELS];
+        this.occupied = new long[LEVELS][WORDS];
+        this.tick = toTick( startTime );
+    }
+
+    public long getTickDuration() {
+        return tickDuration;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Schedules the given handle to expire at the given time. Times that are not
+     * a multiple of the tick duration are rounded up to the next tick, so a job is
+     * never expired before its time. Times in the past expire in the current tick.
+     */
+    public void schedule(WheelJobHandle handle,
+                         long time) {
+        if ( handle.isScheduled() ) {
+            unlink( handle );
+        }
+        long expireTick = ( time + tickDuration - 1 ) / tickDuration;
+        handle.expireTick = expireTick < tick ? tick : expireTick;
+        place( handle );
+    }
+
+    /**
+     * Removes the given handle from the wheel, returning false if it wasn't scheduled
+     */
+    public boolean cancel(WheelJobHandle handle) {
+        if ( !handle.isScheduled() ) {
+            return false;
+        }
+        unlink( handle );
+        return true;
+    }
+
+    /**
+     * Removes and returns the next handle expiring at or before the given time, moving
+     * the wheel forward as needed, or returns null when there is none. The wheel
+     * never moves past the tick of the given time, so any job scheduled for it while
+     * the expired ones are being polled is returned by one of the following calls.
+     */
+    public WheelJobHandle poll(long time) {
+        long limit = time / tickDuration;
+        for ( ;; ) {
+            WheelJobHandle head = wheels[0][(int) ( tick & MASK )];
+            if ( head.next != head ) {
+                WheelJobHandle handle = head.next;
+                unlink( handle );
+                return handle;
+            }
+            if ( tick >= limit ) {
+                return null;
+            }
+            advance( limit );
+        }
+    }
+
+    /**
+     * Returns the time of the first tick with an expiring job, or -1 if the wheel is empty
+     */
+    public long getNextExpirationTime() {
+        if ( size == 0 ) {
+            return -1;
+        }
+        if ( !earliestKnown ) {
+            earliestTick = findEarliestTick();
+            earliestKnown = true;
+        }
+        return earliestTick * tickDuration;
+    }
+
+    private long findEarliestTick() {
+        // the slots of a level are in expiration order starting from the current one, but the ranges
+        // of different levels may overlap, so the first non empty slot of each level has to be checked.
+        // The last level also holds the parked jobs, out of order, so all its non empty slots are checked
+        long min = Long.MAX_VALUE;
+        for ( int level = 0; level < LEVELS - 1; level++ ) {
+            if ( levelSizes[level] != 0 ) {
+                int from = (int) ( ( ( tick >>> ( BITS * level ) ) + ( level == 0 ? 0 : 1 ) ) & MASK );
+                min = Math.min( min, getEarliestTick( wheels[level][nextOccupied( occupied[level], from )] ) );
+            }
+        }
+        if ( levelSizes[LEVELS - 1] != 0 ) {
+            long[] bits = occupied[LEVELS - 1];
+            for ( int i = 0; i < WORDS; i++ ) {
+                for ( long word = bits[i]; word != 0; word &= word - 1 ) {
+                    int slot = ( i << 6 ) + Long.numberOfTrailingZeros( word );
+                    min = Math.min( min, getEarliestTick( wheels[LEVELS - 1][slot] ) );
+                }
+            }
+        }
+        return min;
+    }
+
+    private static long getEarliestTick(WheelJobHandle head) {
+        long min = Long.MAX_VALUE;
+        for ( WheelJobHandle handle = head.next; handle != head; handle = handle.next ) {
+            min = Math.min( min, handle.expireTick );
+        }
+        return min;
+    }
+
+    /**
+     * Returns the first non empty slot at or after the given one, wrapping around,
+     * or -1 if the level is empty
+     */
+    private static int nextOccupied(long[] bits,
+                                    int from) {
+        int i = from >>> 6;
+        long word = bits[i] & ( -1L << ( from & 63 ) );
+        // one more word than the level has, for the slots before the given one in its word
+        for ( int n = 0; n <= WORDS; n++ ) {
+            if ( word != 0 ) {
+                return ( i << 6 ) + Long.numberOfTrailingZeros( word );
+            }
+            i = ( i + 1 ) % WORDS;
+            word = bits[i];
+        }
+        return -1;
+    }
+
+    /**
+     * Moves the wheel to the given time, which must not be in the past of the
+     * expired ticks, after removing all the jobs still scheduled. Returns the
+     * removed handles so they can be scheduled again.
+     */
+    public List<WheelJobHandle> reset(long time) {
+        List<WheelJobHandle> handles = getHandles();
+        for ( WheelJobHandle handle : handles ) {
+            unlink( handle );
+        }
+        tick = toTick( time );
+        return handles;
+    }
+
+    public List<WheelJobHandle> getHandles() {
+        List<WheelJobHandle> handles = new ArrayList<WheelJobHandle>( size );
+        for ( WheelJobHandle[] wheel : wheels ) {
+            for ( WheelJobHandle head : wheel ) {
+                for ( WheelJobHandle handle = head.next; handle != head; handle = handle.next ) {
+                    handles.add( handle );
+                }
+            }
+        }
+        return handles;
+    }
+
+    private long toTick(long time) {
+        return time / tickDuration;
+    }
+
+    private void advance(long limit) {
+        if ( size == 0 ) {
+            tick = limit;
+            return;
+        }
+
+        // if the first levels are empty, jump straight to the next slot boundary of the first non empty one
+        int level = 0;
+        while ( levelSizes[level] == 0 ) {
+            level++;
+        }
+        long next = level == 0 ? tick + 1 : ( ( tick >>> ( BITS * level ) ) + 1 ) << ( BITS * level );
+        if ( next > limit ) {
+            tick = limit;
+            return;
+        }
+        tick = next;
+
+        // when a level wraps, move the jobs of the current slot of the next level down
+        for ( int i = 1; i < LEVELS && ( ( tick >>> ( BITS * ( i - 1 ) ) ) & MASK ) == 0; i++ ) {
+            cascade( i, (int) ( ( tick >>> ( BITS * i ) ) & MASK ) );
+        }
+    }
+
+    private void cascade(int level,
+                         int slot) {
+        WheelJobHandle head = wheels[level][slot];
+        WheelJobHandle handle = head.next;
+        while ( handle != head ) {
+            WheelJobHandle next = handle.next;
+            unlink( handle );
+            place( handle );
+            handle = next;
+        }
+    }
+
+    private void place(WheelJobHandle handle) {
+        long delta = handle.expireTick - tick;
+        long expireTick = handle.expireTick;
+        if ( delta > MAX_DELTA ) {
+            // too far away, park it in the farthest slot, it will be placed again when cascaded
+            expireTick = tick + MAX_DELTA;
+        }
+
+        int level = 0;
+        while ( level < LEVELS - 1 && ( delta >>> ( BITS * ( level + 1 ) ) ) != 0 ) {
+            level++;
+        }
+
+        int slot = (int) ( ( expireTick >>> ( BITS * level ) ) & MASK );
+        WheelJobHandle head = wheels[level][slot];
+        handle.level = level;
+        handle.slot = slot;
+        handle.prev = head.prev;
+        handle.next = head;
+        head.prev.next = handle;
+        head.prev = handle;
+        occupied[level][slot >>> 6] |= 1L << slot;
+        levelSizes[level]++;
+        if ( size++ == 0 ) {
+            earliestTick = handle.expireTick;
+            earliestKnown = true;
+        } else if ( earliestKnown && handle.expireTick < earliestTick ) {
+            earliestTick = handle.expireTick;
+        }
+    }
+
+    private void unlink(WheelJobHandle handle) {
+        if ( handle.prev == handle.next ) {
+            // it was the only handle of its slot, the other end is the slot head
+            occupied[handle.level][handle.slot >>> 6] &= ~( 1L << handle.slot );
+        }
+        handle.prev.next = handle.next;
+        handle.next.prev = handle.prev;
+        handle.prev = null;
+        handle.next = null;
+        levelSizes[handle.level]--;
+        size--;
+        if ( handle.expireTick == earliestTick ) {
+            // other jobs may expire in the same tick, it is looked for again when needed
+            earliestKnown = false;
+        }
+    }
+
+    /**
+     * A job handle that is also an entry of the timing wheel slot where its job is scheduled
+     */
+    public static class WheelJobHandle extends DefaultJobHandle {
+
+        private static final long        serialVersionUID = 510l;
+
+        private transient WheelJobHandle prev;
+        private transient WheelJobHandle next;
+        private transient long           expireTick;
+        private transient int            level;
+        private transient int            slot;
+
+        public WheelJobHandle(long id) {
+            super( id );
+            if ( id < 0 ) {
+                // slot head
+                this.prev = this;
+                this.next = this;
+            }
+        }
+
+        public boolean isScheduled() {
+            return next != null;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2014 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.time.impl;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.drools.core.common.DroolsObjectInputStream;
+import org.drools.core.common.InternalWorkingMemory;
+import org.drools.core.time.Job;
+import org.drools.core.time.JobContext;
+import org.drools.core.time.JobHandle;
+import org.drools.core.time.Trigger;
+import org.drools.core.time.impl.TimingWheel.WheelJobHandle;
+
+/**
+ * A PseudoClockScheduler keeping its jobs in a TimingWheel with a 1 millisecond tick
+ * instead of a priority queue, so scheduling and cancelling a job are O(1) regardless
+ * of how many jobs, e.g. event expirations, are pending.
+ */
+public class TimingWheelPseudoClockScheduler extends PseudoClockScheduler {
+
+    private TimingWheel wheel;
+
+    public TimingWheelPseudoClockScheduler() {
+        this( null );
+    }
+
+    public TimingWheelPseudoClockScheduler(InternalWorkingMemory session) {
+        super( session );
+        this.wheel = new TimingWheel( 1, 0 );
+    }
+
+    @SuppressWarnings("unchecked")
+    public void readExternal(ObjectInput in) throws IOException,
+                                            ClassNotFoundException {
+        timer = new AtomicLong( in.readLong() );
+        wheel = new TimingWheel( 1, timer.get() );
+        List<TimerJobInstance> jobs = (List<TimerJobInstance>) in.readObject();
+        for ( TimerJobInstance job : jobs ) {
+            Date fireTime = job.getTrigger().hasNextFireTime();
+            if ( fireTime != null ) {
+                // a job whose trigger has no fire time left won't fire again
+                wheel.schedule( (WheelJobHandle) job.getJobHandle(),
+                                fireTime.getTime() );
+            }
+        }
+        session = ((DroolsObjectInputStream) in).getWorkingMemory();
+    }
+
+    public void writeExternal(ObjectOutput out) throws IOException {
+        out.writeLong( timer.get() );
+        List<TimerJobInstance> jobs = new ArrayList<TimerJobInstance>();
+        synchronized ( wheel ) {
+            for ( WheelJobHandle handle : wheel.getHandles() ) {
+                jobs.add( handle.getTimerJobInstance() );
+            }
+        }
+        out.writeObject( jobs );
+    }
+
+    public JobHandle scheduleJob(Job job,
+                                 JobContext ctx,
+                                 Trigger trigger) {
+        Date date = trigger.hasNextFireTime();
+
+        if ( date != null ) {
+            WheelJobHandle jobHandle = new WheelJobHandle( idCounter.getAndIncrement() );
+            TimerJobInstance jobInstance = jobFactoryManager.createTimerJobInstance( job,
+                                                                                   ctx,
+                                                                                   trigger,
+                                                                                   jobHandle,
+                                                                                   this );
+            jobHandle.setTimerJobInstance( jobInstance );
+            internalSchedule( jobInstance );
+
+            return jobHandle;
+        }
+
+        return null;
+    }
+
+    public void internalSchedule(TimerJobInstance timerJobInstance) {
+        jobFactoryManager.addTimerJobInstance( timerJobInstance );
+        synchronized ( wheel ) {
+            wheel.schedule( (WheelJobHandle) timerJobInstance.getJobHandle(),
+                            timerJobInstance.getTrigger().hasNextFireTime().getTime() );
+        }
+    }
+
+    public boolean removeJob(JobHandle jobHandle) {
+        jobHandle.setCancel( true );
+        jobFactoryManager.removeTimerJobInstance( ((WheelJobHandle) jobHandle).getTimerJobInstance() );
+        synchronized ( wheel ) {
+            return wheel.cancel( (WheelJobHandle) jobHandle );
+        }
+    }
+
+    public long advanceTime(long amount,
+                            TimeUnit unit) {
+        return runCallBacksAndIncreaseTimer( unit.toMillis( amount ) );
+    }
+
+    public void setStartupTime(long i) {
+        synchronized ( wheel ) {
+            this.timer.set( i );
+            for ( WheelJobHandle handle : wheel.reset( i ) ) {
+                Date fireTime = handle.getTimerJobInstance().getTrigger().hasNextFireTime();
+                if ( fireTime != null ) {
+                    wheel.schedule( handle,
+                                    fireTime.getTime() );
+                }
+            }
+        }
+    }
+
+    public long getTimeToNextJob() {
+        synchronized ( wheel ) {
+            long next = wheel.getNextExpirationTime();
+            return next >= 0 ? next - this.timer.get() : -1;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private synchronized long runCallBacksAndIncreaseTimer(long increase) {
+        long endTime = this.timer.get() + increase;
+        // the wheel hands back all the jobs of a tick before moving to the next one,
+        // including the ones the executed jobs schedule for the same tick
+        for ( ;; ) {
+            WheelJobHandle handle;
+            synchronized ( wheel ) {
+                handle = wheel.poll( endTime );
+            }
+            if ( handle == null ) {
+                break;
+            }
+            if ( handle.isCancel() ) {
+                continue;
+            }
+
+            TimerJobInstance item = handle.getTimerJobInstance();
+            Date fireTime = item.getTrigger().hasNextFireTime();
+            if ( fireTime == null ) {
+                continue;
+            }
+            try {
+                // set the clock back to the trigger's fire time
+                this.timer.set( fireTime.getTime() );
+                // execute the call
+                ((Callable<Void>) item).call();
+            } catch ( Exception e ) {
+                logger.error( "Exception running callbacks: ", e );
+            }
+        }
+        this.timer.set( endTime );
+        return this.timer.get();
+    }
+}
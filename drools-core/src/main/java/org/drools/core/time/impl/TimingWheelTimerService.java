@@ -0,0 +1,213 @@
+/*
+ * Copyright 2014 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.time.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.drools.core.time.AcceptsTimerJobFactoryManager;
+import org.drools.core.time.InternalSchedulerService;
+import org.drools.core.time.Job;
+import org.drools.core.time.JobContext;
+import org.drools.core.time.JobHandle;
+import org.drools.core.time.TimerService;
+import org.drools.core.time.Trigger;
+import org.drools.core.time.impl.TimingWheel.WheelJobHandle;
+import org.kie.api.time.SessionClock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A realtime TimerService keeping its jobs in a TimingWheel instead of the delay queue
+ * of a ScheduledThreadPoolExecutor, so scheduling and cancelling a job are O(1) regardless
+ * of how many jobs, e.g. event expirations, are pending.
+ *
+ * A single daemon thread sleeps until the next tick with an expiring job, then removes all
+ * the jobs of that tick from the wheel at once and runs them, outside of the lock, in the
+ * order they were scheduled. The thread is only started when the first job is scheduled,
+ * so sessions that never use a timer don't pay for it.
+ */
+public class TimingWheelTimerService
+        implements
+        TimerService,
+        SessionClock,
+        InternalSchedulerService,
+        AcceptsTimerJobFactoryManager {
+
+    private static final Logger            logger            = LoggerFactory.getLogger( TimingWheelTimerService.class );
+
+    public static final long               DEFAULT_TICK      = 1;
+
+    private AtomicLong                     idCounter         = new AtomicLong();
+
+    protected TimerJobFactoryManager       jobFactoryManager = DefaultTimerJobFactoryManager.instance;
+
+    private final TimingWheel              wheel;
+
+    // started with the first scheduled job, guarded by the wheel
+    private Thread                         thread;
+
+    private volatile boolean               shutdown;
+
+    // the time the timer thread is sleeping until, guarded by the wheel
+    private long                           wakeUpTime        = Long.MAX_VALUE;
+
+    public TimingWheelTimerService() {
+        this( DEFAULT_TICK );
+    }
+
+    public TimingWheelTimerService(long tickDuration) {
+        this.wheel = new TimingWheel( tickDuration,
+                                      System.currentTimeMillis() );
+    }
+
+    public void setTimerJobFactoryManager(TimerJobFactoryManager timerJobFactoryManager) {
+        this.jobFactoryManager = timerJobFactoryManager;
+    }
+
+    public void setCounter(long counter) {
+        idCounter = new AtomicLong( counter );
+    }
+
+    public TimerJobFactoryManager getTimerJobFactoryManager() {
+        return this.jobFactoryManager;
+    }
+
+    /**
+     * @inheritDoc
+     */
+    public long getCurrentTime() {
+        return System.currentTimeMillis();
+    }
+
+    public void shutdown() {
+        // like the JDKTimerService, pending jobs are dropped, this is called on session dispose
+        synchronized ( wheel ) {
+            shutdown = true;
+            wheel.notifyAll();
+        }
+    }
+
+    public JobHandle scheduleJob(Job job,
+                                 JobContext ctx,
+                                 Trigger trigger) {
+        Date date = trigger.hasNextFireTime();
+        if ( date != null ) {
+            WheelJobHandle jobHandle = new WheelJobHandle( idCounter.getAndIncrement() );
+
+            TimerJobInstance jobInstance = jobFactoryManager.createTimerJobInstance( job,
+                                                                                   ctx,
+                                                                                   trigger,
+                                                                                   jobHandle,
+                                                                                   this );
+            jobHandle.setTimerJobInstance( jobInstance );
+            internalSchedule( jobInstance );
+
+            return jobHandle;
+        } else {
+            return null;
+        }
+    }
+
+    public void internalSchedule(TimerJobInstance timerJobInstance) {
+        jobFactoryManager.addTimerJobInstance( timerJobInstance );
+        long time = timerJobInstance.getTrigger().hasNextFireTime().getTime();
+        synchronized ( wheel ) {
+            wheel.schedule( (WheelJobHandle) timerJobInstance.getJobHandle(),
+                            time );
+            if ( thread == null && !shutdown ) {
+                startThread();
+            }
+            if ( time < wakeUpTime ) {
+                wakeUpTime = time;
+                wheel.notifyAll();
+            }
+        }
+    }
+
+    public boolean removeJob(JobHandle jobHandle) {
+        jobHandle.setCancel( true );
+        jobFactoryManager.removeTimerJobInstance( ((WheelJobHandle) jobHandle).getTimerJobInstance() );
+        synchronized ( wheel ) {
+            return wheel.cancel( (WheelJobHandle) jobHandle );
+        }
+    }
+
+    public long getTimeToNextJob() {
+        return 0;
+    }
+
+    public Collection<TimerJobInstance> getTimerJobInstances(int id) {
+        return jobFactoryManager.getTimerJobInstances();
+    }
+
+    private void startThread() {
+        thread = new Thread( new Runnable() {
+            public void run() {
+                runJobs();
+            }
+        }, "drools-timing-wheel" );
+        thread.setDaemon( true );
+        thread.start();
+    }
+
+    private void runJobs() {
+        List<WheelJobHandle> expired = new ArrayList<WheelJobHandle>();
+        while ( !shutdown ) {
+            try {
+                synchronized ( wheel ) {
+                    long now = System.currentTimeMillis();
+                    for ( WheelJobHandle handle = wheel.poll( now ); handle != null; handle = wheel.poll( now ) ) {
+                        expired.add( handle );
+                    }
+                    if ( expired.isEmpty() ) {
+                        long next = wheel.getNextExpirationTime();
+                        wakeUpTime = next < 0 ? Long.MAX_VALUE : next;
+                        if ( next < 0 ) {
+                            wheel.wait();
+                        } else if ( next > now ) {
+                            wheel.wait( next - now );
+                        }
+                        continue;
+                    }
+                }
+            } catch ( InterruptedException e ) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            for ( WheelJobHandle handle : expired ) {
+                if ( shutdown ) {
+                    break;
+                }
+                if ( handle.isCancel() ) {
+                    continue;
+                }
+                try {
+                    ((Callable<?>) handle.getTimerJobInstance()).call();
+                } catch ( Exception e ) {
+                    logger.error( "Exception running timer job: ", e );
+                }
+            }
+            expired.clear();
+        }
+    }
+}
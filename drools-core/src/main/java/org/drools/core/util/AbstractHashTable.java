@@ -429,11 +429,11 @@ public abstract class AbstractHashTable
 
         private static final long    serialVersionUID = 510l;
 
-        private InternalReadAccessor extractor;
-        private Declaration          declaration;
-        private IndexEvaluator       evaluator;
+        protected InternalReadAccessor extractor;
+        protected Declaration          declaration;
+        protected IndexEvaluator       evaluator;
 
-        private int                  startResult;
+        protected int                  startResult;
 
         public SingleIndex() {
 
@@ -519,6 +519,157 @@ public abstract class AbstractHashTable
         }
     }
 
+    /**
+     * A SingleIndex over an int field, hashing and comparing the raw values instead of
+     * boxing them through the IndexEvaluator.
+     */
+    public static class SingleIntIndex extends SingleIndex {
+
+        private static final long serialVersionUID = 510l;
+
+        public SingleIntIndex() {
+
+        }
+
+        public SingleIntIndex(final FieldIndex[] indexes,
+                              final int startResult) {
+            super( indexes,
+                   startResult );
+        }
+
+        public int hashCodeOf(final Object object) {
+            return rehash( LeftTupleIndexHashTable.PRIME * this.startResult + this.extractor.getIntValue( null,
+                                                                                                          object ) );
+        }
+
+        public int hashCodeOf(final LeftTuple tuple) {
+            return rehash( LeftTupleIndexHashTable.PRIME * this.startResult + this.declaration.getExtractor().getIntValue( null,
+                                                                                                                          tuple.get( this.declaration ).getObject() ) );
+        }
+
+        public boolean equal(final Object right,
+                             final LeftTuple tuple) {
+            return this.declaration.getExtractor().getIntValue( null, tuple.get( this.declaration ).getObject() ) ==
+                   this.extractor.getIntValue( null, right );
+        }
+
+        public boolean equal(final Object object1,
+                             final Object object2) {
+            return this.extractor.getIntValue( null, object1 ) == this.extractor.getIntValue( null, object2 );
+        }
+
+        public boolean equal(final LeftTuple tuple1,
+                             final LeftTuple tuple2) {
+            InternalReadAccessor leftExtractor = this.declaration.getExtractor();
+            return leftExtractor.getIntValue( null, tuple1.get( this.declaration ).getObject() ) ==
+                   leftExtractor.getIntValue( null, tuple2.get( this.declaration ).getObject() );
+        }
+    }
+
+    /**
+     * A SingleIndex over a long field, hashing and comparing the raw values instead of
+     * boxing them through the IndexEvaluator.
+     */
+    public static class SingleLongIndex extends SingleIndex {
+
+        private static final long serialVersionUID = 510l;
+
+        public SingleLongIndex() {
+
+        }
+
+        public SingleLongIndex(final FieldIndex[] indexes,
+                               final int startResult) {
+            super( indexes,
+                   startResult );
+        }
+
+        public int hashCodeOf(final Object object) {
+            return rehash( LeftTupleIndexHashTable.PRIME * this.startResult + hashCodeOf( this.extractor.getLongValue( null,
+                                                                                                                       object ) ) );
+        }
+
+        public int hashCodeOf(final LeftTuple tuple) {
+            return rehash( LeftTupleIndexHashTable.PRIME * this.startResult + hashCodeOf( this.declaration.getExtractor().getLongValue( null,
+                                                                                                                                       tuple.get( this.declaration ).getObject() ) ) );
+        }
+
+        public boolean equal(final Object right,
+                             final LeftTuple tuple) {
+            return this.declaration.getExtractor().getLongValue( null, tuple.get( this.declaration ).getObject() ) ==
+                   this.extractor.getLongValue( null, right );
+        }
+
+        public boolean equal(final Object object1,
+                             final Object object2) {
+            return this.extractor.getLongValue( null, object1 ) == this.extractor.getLongValue( null, object2 );
+        }
+
+        public boolean equal(final LeftTuple tuple1,
+                             final LeftTuple tuple2) {
+            InternalReadAccessor leftExtractor = this.declaration.getExtractor();
+            return leftExtractor.getLongValue( null, tuple1.get( this.declaration ).getObject() ) ==
+                   leftExtractor.getLongValue( null, tuple2.get( this.declaration ).getObject() );
+        }
+
+        static int hashCodeOf(final long value) {
+            return (int) ( value ^ ( value >>> 32 ) );
+        }
+    }
+
+    /**
+     * A SingleIndex over a double field, hashing and comparing the raw values instead of
+     * boxing them through the IndexEvaluator. Values are compared by their bits, as Double.equals() does.
+     */
+    public static class SingleDoubleIndex extends SingleIndex {
+
+        private static final long serialVersionUID = 510l;
+
+        public SingleDoubleIndex() {
+
+        }
+
+        public SingleDoubleIndex(final FieldIndex[] indexes,
+                                 final int startResult) {
+            super( indexes,
+                   startResult );
+        }
+
+        public int hashCodeOf(final Object object) {
+            return rehash( LeftTupleIndexHashTable.PRIME * this.startResult + SingleLongIndex.hashCodeOf( bitsOf( this.extractor,
+                                                                                                                  object ) ) );
+        }
+
+        public int hashCodeOf(final LeftTuple tuple) {
+            return rehash( LeftTupleIndexHashTable.PRIME * this.startResult + SingleLongIndex.hashCodeOf( bitsOf( this.declaration.getExtractor(),
+                                                                                                                  tuple.get( this.declaration ).getObject() ) ) );
+        }
+
+        public boolean equal(final Object right,
+                             final LeftTuple tuple) {
+            return bitsOf( this.declaration.getExtractor(), tuple.get( this.declaration ).getObject() ) ==
+                   bitsOf( this.extractor, right );
+        }
+
+        public boolean equal(final Object object1,
+                             final Object object2) {
+            return bitsOf( this.extractor, object1 ) == bitsOf( this.extractor, object2 );
+        }
+
+        public boolean equal(final LeftTuple tuple1,
+                             final LeftTuple tuple2) {
+            InternalReadAccessor leftExtractor = this.declaration.getExtractor();
+            return bitsOf( leftExtractor, tuple1.get( this.declaration ).getObject() ) ==
+                   bitsOf( leftExtractor, tuple2.get( this.declaration ).getObject() );
+        }
+
+        private static long bitsOf(final InternalReadAccessor extractor,
+                                   final Object object) {
+            return Double.doubleToLongBits( extractor.getDoubleValue( null,
+                                                                      object ) );
+        }
+    }
+
     public static class DoubleCompositeIndex
         implements
         Index {
@@ -90,7 +90,7 @@ public class CodedHierarchyImpl<T> implements CodedHierarchy<T>, Externalizable
     }
 
     public BitSet metMembersCode( Collection<T> vals ) {
-        BitSet x = new BitSet();
+        BitSet x = new HierarchyCode();
         for ( T val : vals ) {
             x.or( getNode( val ).getBitMask() );
         }
@@ -98,7 +98,7 @@ public class CodedHierarchyImpl<T> implements CodedHierarchy<T>, Externalizable
     }
 
     public BitSet jointMembersCode( Collection<T> vals ) {
-        BitSet x = new BitSet();
+        BitSet x = new HierarchyCode();
         boolean first = true;
         for ( T val : vals ) {
             if ( first ) {
@@ -113,7 +113,7 @@ public class CodedHierarchyImpl<T> implements CodedHierarchy<T>, Externalizable
     }
 
     public BitSet meetCode( Collection<BitSet> codes ) {
-        BitSet x = new BitSet();
+        BitSet x = new HierarchyCode();
         for ( BitSet code : codes ) {
             x.or( code );
         }
@@ -121,7 +121,7 @@ public class CodedHierarchyImpl<T> implements CodedHierarchy<T>, Externalizable
     }
 
     public BitSet joinCode( Collection<BitSet> codes ) {
-        BitSet x = new BitSet();
+        BitSet x = new HierarchyCode();
         boolean first = true;
         for ( BitSet code : codes ) {
             if ( first ) {
@@ -677,10 +677,18 @@ public class CodedHierarchyImpl<T> implements CodedHierarchy<T>, Externalizable
 
 
     public static boolean supersetOrEqualset( BitSet n1, BitSet n2 ) {
-        BitSet x = new BitSet();
-        x.or( n1 );
-        x.and( n2 );
-        return x.equals( n2 );
+        if ( n1 == n2 ) {
+            return true;
+        }
+        if ( n1 instanceof HierarchyCode && n2 instanceof HierarchyCode ) {
+            return ( (HierarchyCode) n1 ).supersetOrEqualset( (HierarchyCode) n2 );
+        }
+        for ( int j = n2.nextSetBit( 0 ); j >= 0; j = n2.nextSetBit( j + 1 ) ) {
+            if ( ! n1.get( j ) ) {
+                return false;
+            }
+        }
+        return true;
     }
 
     int superset( HierNode<T> n1, HierNode<T> n2 ) {
@@ -817,6 +825,9 @@ public class CodedHierarchyImpl<T> implements CodedHierarchy<T>, Externalizable
 
         public int compareTo( HierNode<T> hierNode ) {
             BitSet yset = hierNode.bitMask;
+            if ( bitMask instanceof HierarchyCode && yset instanceof HierarchyCode ) {
+                return ( (HierarchyCode) bitMask ).compareCode( (HierarchyCode) yset );
+            }
             int lx = bitMask.length();
             int ly = yset.length();
             int l = lx > ly ? lx : ly;
@@ -862,6 +873,9 @@ public class CodedHierarchyImpl<T> implements CodedHierarchy<T>, Externalizable
         }
 
         public int compare( BitSet bitMask, BitSet yset ) {
+            if ( bitMask instanceof HierarchyCode && yset instanceof HierarchyCode ) {
+                return ( (HierarchyCode) bitMask ).compareCode( (HierarchyCode) yset );
+            }
             int lx = bitMask.length();
             int ly = yset.length();
             int l = lx > ly ? lx : ly;
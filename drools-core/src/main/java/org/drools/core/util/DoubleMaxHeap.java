@@ -0,0 +1,176 @@
+/*
+ * Copyright 2014 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.util;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.Arrays;
+
+/**
+ * A multiset of primitive doubles giving access to its greatest value, with O(log n)
+ * add and remove. Values are ordered as by Double.compare().
+ *
+ * Removed values are kept in a second heap and only dropped from the first one when
+ * they reach its top, so a value can be removed without searching for it. Removing a
+ * value that was never added leaves the heap in an inconsistent state.
+ */
+public class DoubleMaxHeap
+    implements
+    Externalizable {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private double[]         values;
+    private int              size;
+
+    private double[]         removed;
+    private int              removedSize;
+
+    public DoubleMaxHeap() {
+        this.values = new double[DEFAULT_CAPACITY];
+        this.removed = new double[DEFAULT_CAPACITY];
+    }
+
+    public void readExternal(ObjectInput in) throws IOException,
+                                            ClassNotFoundException {
+        // only the live values are written, so they are already a valid heap
+        size = in.readInt();
+        values = new double[Math.max( DEFAULT_CAPACITY, size )];
+        for ( int i = 0; i < size; i++ ) {
+            values[i] = in.readDouble();
+        }
+        removed = new double[DEFAULT_CAPACITY];
+        removedSize = 0;
+    }
+
+    public void writeExternal(ObjectOutput out) throws IOException {
+        purge();
+        out.writeInt( size );
+        for ( int i = 0; i < size; i++ ) {
+            out.writeDouble( values[i] );
+        }
+    }
+
+    public int size() {
+        return size - removedSize;
+    }
+
+    public boolean isEmpty() {
+        return size == removedSize;
+    }
+
+    public void add(double value) {
+        if ( size == values.length ) {
+            values = Arrays.copyOf( values, size << 1 );
+        }
+        siftUp( values, size++, value );
+    }
+
+    public void remove(double value) {
+        if ( size > 0 && Double.compare( value, values[0] ) == 0 ) {
+            // the common case of a monotonic stream removing its current top
+            siftDown( values, --size, 0, values[size] );
+            prune();
+            return;
+        }
+        if ( removedSize == removed.length ) {
+            removed = Arrays.copyOf( removed, removedSize << 1 );
+        }
+        siftUp( removed, removedSize++, value );
+    }
+
+    /**
+     * Returns the greatest value, the heap must not be empty
+     */
+    public double peek() {
+        return values[0];
+    }
+
+    public void clear() {
+        size = 0;
+        removedSize = 0;
+    }
+
+    /**
+     * Drops from the heap all the removed values still in it
+     */
+    private void purge() {
+        if ( removedSize == 0 ) {
+            return;
+        }
+        double[] live = new double[Math.max( DEFAULT_CAPACITY, size - removedSize )];
+        int liveSize = 0;
+        while ( size > 0 ) {
+            double top = values[0];
+            siftDown( values, --size, 0, values[size] );
+            if ( removedSize > 0 && Double.compare( top, removed[0] ) == 0 ) {
+                siftDown( removed, --removedSize, 0, removed[removedSize] );
+            } else {
+                // taken in decreasing order, so the array is already a max heap
+                live[liveSize++] = top;
+            }
+        }
+        values = live;
+        size = liveSize;
+    }
+
+    private void prune() {
+        while ( removedSize > 0 && size > 0 && Double.compare( values[0], removed[0] ) == 0 ) {
+            siftDown( values, --size, 0, values[size] );
+            siftDown( removed, --removedSize, 0, removed[removedSize] );
+        }
+    }
+
+    private static void siftUp(double[] heap,
+                               int index,
+                               double value) {
+        while ( index > 0 ) {
+            int parent = ( index - 1 ) >>> 1;
+            if ( Double.compare( heap[parent], value ) >= 0 ) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = value;
+    }
+
+    private static void siftDown(double[] heap,
+                                 int size,
+                                 int index,
+                                 double value) {
+        if ( size == 0 ) {
+            return;
+        }
+        int half = size >>> 1;
+        while ( index < half ) {
+            int child = ( index << 1 ) + 1;
+            int right = child + 1;
+            if ( right < size && Double.compare( heap[right], heap[child] ) > 0 ) {
+                child = right;
+            }
+            if ( Double.compare( value, heap[child] ) >= 0 ) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = value;
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright 2014 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.util;
+
+import java.util.BitSet;
+
+/**
+ * A BitSet used as the code of a member of a CodedHierarchy.
+ *
+ * Codes of large hierarchies span many words, so the code keeps a copy of its words,
+ * refreshed lazily after each change, to test subsumption and order one word at a time
+ * without allocating a temporary BitSet. Since the copy is replaced at every change, its
+ * identity also identifies the current value of the code: this is used to remember the
+ * last codes found to be, or not to be, subsumed by this one.
+ */
+public class HierarchyCode extends BitSet {
+
+    private static final long[] NO_WORDS = new long[0];
+
+    private transient volatile long[] words;
+
+    private transient volatile long[] lastSubsumed;
+    private transient volatile long[] lastNotSubsumed;
+
+    public HierarchyCode() {
+    }
+
+    public HierarchyCode( BitSet bits ) {
+        super.or( bits );
+    }
+
+    /**
+     * Returns true if every bit set in the other code is also set in this one,
+     * i.e. if this code is a subtype of, or equal to, the other
+     */
+    public boolean supersetOrEqualset( HierarchyCode other ) {
+        if ( other == this ) {
+            return true;
+        }
+        long[] w1 = getWords();
+        long[] w2 = other.getWords();
+        if ( lastSubsumed == w2 ) {
+            return true;
+        }
+        if ( lastNotSubsumed == w2 ) {
+            return false;
+        }
+
+        boolean result = w2.length <= w1.length;
+        for ( int i = 0; result && i < w2.length; i++ ) {
+            result = ( w1[ i ] & w2[ i ] ) == w2[ i ];
+        }
+
+        // the result is only valid as long as this code doesn't change
+        if ( words == w1 ) {
+            if ( result ) {
+                lastSubsumed = w2;
+            } else {
+                lastNotSubsumed = w2;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Compares two codes as the binary numbers they represent
+     */
+    public int compareCode( HierarchyCode other ) {
+        long[] w1 = getWords();
+        long[] w2 = other.getWords();
+        if ( w1.length != w2.length ) {
+            return w1.length > w2.length ? 1 : -1;
+        }
+        for ( int i = w1.length - 1; i >= 0; i-- ) {
+            long diff = w1[ i ] ^ w2[ i ];
+            if ( diff != 0 ) {
+                return ( w1[ i ] & Long.highestOneBit( diff ) ) != 0 ? 1 : -1;
+            }
+        }
+        return 0;
+    }
+
+    long[] getWords() {
+        long[] w = words;
+        if ( w == null ) {
+            int length = length();
+            w = length == 0 ? NO_WORDS : new long[ ( length + 63 ) >>> 6 ];
+            for ( int i = nextSetBit( 0 ); i >= 0; i = nextSetBit( i + 1 ) ) {
+                w[ i >>> 6 ] |= 1L << i;
+            }
+            words = w;
+        }
+        return w;
+    }
+
+    private void changed() {
+        words = null;
+        lastSubsumed = null;
+        lastNotSubsumed = null;
+    }
+
+    @Override
+    public void flip( int bitIndex ) {
+        super.flip( bitIndex );
+        changed();
+    }
+
+    @Override
+    public void flip( int fromIndex, int toIndex ) {
+        super.flip( fromIndex, toIndex );
+        changed();
+    }
+
+    @Override
+    public void set( int bitIndex ) {
+        super.set( bitIndex );
+        changed();
+    }
+
+    @Override
+    public void set( int bitIndex, boolean value ) {
+        super.set( bitIndex, value );
+        changed();
+    }
+
+    @Override
+    public void set( int fromIndex, int toIndex ) {
+        super.set( fromIndex, toIndex );
+        changed();
+    }
+
+    @Override
+    public void set( int fromIndex, int toIndex, boolean value ) {
+        super.set( fromIndex, toIndex, value );
+        changed();
+    }
+
+    @Override
+    public void clear( int bitIndex ) {
+        super.clear( bitIndex );
+        changed();
+    }
+
+    @Override
+    public void clear( int fromIndex, int toIndex ) {
+        super.clear( fromIndex, toIndex );
+        changed();
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        changed();
+    }
+
+    @Override
+    public void and( BitSet set ) {
+        super.and( set );
+        changed();
+    }
+
+    @Override
+    public void or( BitSet set ) {
+        super.or( set );
+        changed();
+    }
+
+    @Override
+    public void xor( BitSet set ) {
+        super.xor( set );
+        changed();
+    }
+
+    @Override
+    public void andNot( BitSet set ) {
+        super.andNot( set );
+        changed();
+    }
+}
@@ -26,7 +26,9 @@ import java.util.Collection;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Encodes a hierachy using bit masks, according to the algorithm described in
@@ -40,6 +42,9 @@ public class HierarchyEncoderImpl<T> extends CodedHierarchyImpl<T> implements Hi
 
     private ImmutableBitSet bottom = new ImmutableBitSet();
 
+    // members are looked up by name at every don, so they are indexed rather than searched in the whole line
+    private Map<T, HierNode<T>> nodesByValue = new ConcurrentHashMap<T, HierNode<T>>();
+
     public BitSet getBottom() {
         return bottom;
     }
@@ -87,6 +92,24 @@ public class HierarchyEncoderImpl<T> extends CodedHierarchyImpl<T> implements Hi
     public void clear() {
         super.clear();
         bottom = new ImmutableBitSet();
+        nodesByValue.clear();
+    }
+
+    @Override
+    protected HierNode<T> getNode( T name ) {
+        if ( name == null ) {
+            return super.getNode( name );
+        }
+        HierNode<T> node = nodesByValue.get( name );
+        // the index is only a shortcut, the node may have been removed or recoded in the meantime
+        if ( node != null && name.equals( node.getValue() ) && getNodeByKey( node.getBitMask() ) == node ) {
+            return node;
+        }
+        node = super.getNode( name );
+        if ( node != null ) {
+            nodesByValue.put( name, node );
+        }
+        return node;
     }
 
 
@@ -108,7 +131,7 @@ public class HierarchyEncoderImpl<T> extends CodedHierarchyImpl<T> implements Hi
         //System.out.println( "Trying to encode " + node );
         switch ( parents.size() ) {
             case 0 :
-                BitSet zero = new BitSet();
+                BitSet zero = new HierarchyCode();
 
                 if ( hasKey(zero) ) {
                     HierNode root = getNodeByKey(zero);
@@ -130,7 +153,7 @@ public class HierarchyEncoderImpl<T> extends CodedHierarchyImpl<T> implements Hi
                     updateMask( node, increment( root.getBitMask(), freeBit( root ) ) );
 
                 } else {
-                    updateMask( node, new BitSet() );
+                    updateMask( node, new HierarchyCode() );
                 }
                 break;
             case 1 :
@@ -265,7 +288,7 @@ public class HierarchyEncoderImpl<T> extends CodedHierarchyImpl<T> implements Hi
     }
 
     protected void inheritMerged( HierNode<T> x ) {
-        BitSet mask = new BitSet();
+        BitSet mask = new HierarchyCode();
         for ( HierNode<T> p : x.getParents() ) {
             mask.or(p.getBitMask());
         }
@@ -420,14 +443,14 @@ public class HierarchyEncoderImpl<T> extends CodedHierarchyImpl<T> implements Hi
 
 
     BitSet increment( BitSet id, int i ) {
-        BitSet x = new BitSet();
+        BitSet x = new HierarchyCode();
         x.or( id );
         x.set(i);
         return x;
     }
 
     BitSet decrement( BitSet id, int d ) {
-        BitSet x = new BitSet();
+        BitSet x = new HierarchyCode();
         x.or( id );
         x.clear(d);
         return x;
@@ -16,4 +16,11 @@ public class NumberUtils {
         //   (op1>0 && op2>0 && result<=0) )
         return (( (op1^result) & (op2^result) ) < 0);
     }
+
+    /**
+     * Checks if the given value is a Number whose exact value fits in a long
+     */
+    public static boolean isIntegral( final Object value ) {
+        return value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte;
+    }
 }
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2014 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.drools.core.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A counter updated by many threads with little contention: each thread adds to one of
+ * more cells, padded so that they don't share a cache line, and the value is their sum.
+ * Reading the value while the counter is updated doesn't give an atomic snapshot.
+ */
+public class StripedLongCounter {
+
+    // 8 longs fill a 64 bytes cache line
+    private static final int    PADDING     = 8;
+
+    private static final int    MAX_STRIPES = 32;
+
+    private final AtomicLongArray cells;
+
+    private final int             mask;
+
+    public StripedLongCounter() {
+        int stripes = 1;
+        while ( stripes < Runtime.getRuntime().availableProcessors() && stripes < MAX_STRIPES ) {
+            stripes <<= 1;
+        }
+        this.cells = new AtomicLongArray( stripes * PADDING );
+        this.mask = stripes - 1;
+    }
+
+    private int cellIndex() {
+        long id = Thread.currentThread().getId();
+        return ( (int) ( id ^ ( id >>> 32 ) ) & mask ) * PADDING;
+    }
+
+    public void increment() {
+        cells.incrementAndGet( cellIndex() );
+    }
+
+    public void add(long delta) {
+        cells.addAndGet( cellIndex(), delta );
+    }
+
+    public long get() {
+        long sum = 0;
+        for ( int i = 0; i < cells.length(); i += PADDING ) {
+            sum += cells.get( i );
+        }
+        return sum;
+    }
+
+    public void reset() {
+        for ( int i = 0; i < cells.length(); i += PADDING ) {
+            cells.set( i, 0 );
+        }
+    }
+
+    public String toString() {
+        return Long.toString( get() );
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2014 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.util.bitmask;
+
+/**
+ * The mask having all its bits set, regardless of its size.
+ * Resetting some bits turns it in a mask as wide as the one holding the bits to be reset.
+ */
+public class AllSetBitMask implements BitMask {
+
+    private static final AllSetBitMask INSTANCE = new AllSetBitMask();
+
+    private AllSetBitMask() { }
+
+    public static BitMask get() {
+        return INSTANCE;
+    }
+
+    public BitMask set(int index) {
+        return this;
+    }
+
+    public BitMask setAll(BitMask mask) {
+        return this;
+    }
+
+    public BitMask reset(int index) {
+        if ( index == 0 ) {
+            return AllSetButFirstBitMask.get();
+        }
+        return resetAll( EmptyBitMask.get().set( index ) );
+    }
+
+    public BitMask resetAll(BitMask mask) {
+        if ( mask.isEmpty() ) {
+            return this;
+        }
+        if ( mask instanceof LongBitMask ) {
+            long result = ~( (LongBitMask) mask ).mask;
+            return result == ~1L ? AllSetButFirstBitMask.get() : new LongBitMask( result );
+        }
+        if ( mask instanceof LongArrayBitMask ) {
+            return new LongArrayBitMask( complement( (LongArrayBitMask) mask ) );
+        }
+        if ( mask instanceof AllSetButFirstBitMask ) {
+            return new LongBitMask( 1L );
+        }
+        return EmptyBitMask.get();
+    }
+
+    static long[] complement(LongArrayBitMask mask) {
+        long[] result = new long[mask.length()];
+        for ( int i = 0; i < result.length; i++ ) {
+            result[i] = ~mask.word( i );
+        }
+        return result;
+    }
+
+    public boolean isSet(int index) {
+        return true;
+    }
+
+    public boolean isAllSet() {
+        return true;
+    }
+
+    public boolean isEmpty() {
+        return false;
+    }
+
+    public boolean intersects(BitMask mask) {
+        return !mask.isEmpty();
+    }
+
+    public String getInstancingStatement() {
+        return AllSetBitMask.class.getName() + ".get()";
+    }
+
+    private Object readResolve() {
+        return INSTANCE;
+    }
+
+    public String toString() {
+        return "AllSet";
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2014 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.util.bitmask;
+
+/**
+ * The mask having all its bits set, regardless of its size, but the first one.
+ * Property reactivity reserves the first bit to the traits of a fact, so this is the mask of a
+ * modification, or of a pattern, involving all the properties of a class but not its traits.
+ */
+public class AllSetButFirstBitMask implements BitMask {
+
+    private static final AllSetButFirstBitMask INSTANCE = new AllSetButFirstBitMask();
+
+    private AllSetButFirstBitMask() { }
+
+    public static BitMask get() {
+        return INSTANCE;
+    }
+
+    public BitMask set(int index) {
+        return index == 0 ? AllSetBitMask.get() : this;
+    }
+
+    public BitMask setAll(BitMask mask) {
+        return mask.isSet( 0 ) ? AllSetBitMask.get() : this;
+    }
+
+    public BitMask reset(int index) {
+        return index == 0 ? this : AllSetBitMask.get().reset( index ).reset( 0 );
+    }
+
+    public BitMask resetAll(BitMask mask) {
+        if ( mask.isEmpty() ) {
+            return this;
+        }
+        if ( mask instanceof LongBitMask ) {
+            long result = ~( (LongBitMask) mask ).mask & ~1L;
+            return result == ~1L ? this : new LongBitMask( result );
+        }
+        if ( mask instanceof LongArrayBitMask ) {
+            long[] result = AllSetBitMask.complement( (LongArrayBitMask) mask );
+            result[0] &= ~1L;
+            return new LongArrayBitMask( result );
+        }
+        return EmptyBitMask.get();
+    }
+
+    public boolean isSet(int index) {
+        return index != 0;
+    }
+
+    public boolean isAllSet() {
+        return false;
+    }
+
+    public boolean isEmpty() {
+        return false;
+    }
+
+    public boolean intersects(BitMask mask) {
+        if ( mask instanceof LongBitMask ) {
+            return ( ( (LongBitMask) mask ).mask & ~1L ) != 0;
+        }
+        if ( mask instanceof LongArrayBitMask ) {
+            return !mask.reset( 0 ).isEmpty();
+        }
+        return !mask.isEmpty();
+    }
+
+    public String getInstancingStatement() {
+        return AllSetButFirstBitMask.class.getName() + ".get()";
+    }
+
+    private Object readResolve() {
+        return INSTANCE;
+    }
+
+    public String toString() {
+        return "AllSetButFirst";
+    }
+}
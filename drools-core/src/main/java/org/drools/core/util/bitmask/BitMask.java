@@ -0,0 +1,49 @@
+/*
+ * Copyright 2014 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.util.bitmask;
+
+import java.io.Serializable;
+
+/**
+ * A set of bits of unbounded size.
+ *
+ * Masks are immutable: the methods changing the bits return a new mask, or the same one
+ * when nothing changes, so they can be freely shared among nodes and propagation contexts.
+ */
+public interface BitMask extends Serializable {
+
+    BitMask set(int index);
+
+    BitMask setAll(BitMask mask);
+
+    BitMask reset(int index);
+
+    BitMask resetAll(BitMask mask);
+
+    boolean isSet(int index);
+
+    boolean isAllSet();
+
+    boolean isEmpty();
+
+    boolean intersects(BitMask mask);
+
+    /**
+     * Returns a java expression creating a mask equal to this one, used to embed it in generated code
+     */
+    String getInstancingStatement();
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2014 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.util.bitmask;
+
+/**
+ * The mask having no bits set. It is equal to any other empty mask, whatever its size.
+ */
+public class EmptyBitMask implements BitMask {
+
+    private static final EmptyBitMask INSTANCE = new EmptyBitMask();
+
+    private EmptyBitMask() { }
+
+    public static BitMask get() {
+        return INSTANCE;
+    }
+
+    public BitMask set(int index) {
+        return new LongBitMask().set( index );
+    }
+
+    public BitMask setAll(BitMask mask) {
+        return mask;
+    }
+
+    public BitMask reset(int index) {
+        return this;
+    }
+
+    public BitMask resetAll(BitMask mask) {
+        return this;
+    }
+
+    public boolean isSet(int index) {
+        return false;
+    }
+
+    public boolean isAllSet() {
+        return false;
+    }
+
+    public boolean isEmpty() {
+        return true;
+    }
+
+    public boolean intersects(BitMask mask) {
+        return false;
+    }
+
+    public String getInstancingStatement() {
+        return EmptyBitMask.class.getName() + ".get()";
+    }
+
+    private Object readResolve() {
+        return INSTANCE;
+    }
+
+    public boolean equals(Object obj) {
+        return obj instanceof BitMask && ( (BitMask) obj ).isEmpty();
+    }
+
+    public int hashCode() {
+        return 1;
+    }
+
+    public String toString() {
+        return "0";
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright 2014 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.util.bitmask;
+
+import java.util.Arrays;
+
+/**
+ * A mask whose bits are stored in an array of longs, used when the bits don't fit in a single one.
+ * Its size is the one it has been created with, and grows when setting a bit beyond it, so that
+ * the masks of the properties of a class span all of them regardless of which are actually set.
+ */
+public class LongArrayBitMask implements BitMask {
+
+    final long[] words;
+
+    public LongArrayBitMask(int numBits) {
+        this( new long[ wordsFor( numBits ) ] );
+    }
+
+    public LongArrayBitMask(long[] words) {
+        this.words = words;
+    }
+
+    static int wordsFor(int numBits) {
+        return Math.max( 1, ( numBits + 63 ) >>> 6 );
+    }
+
+    long word(int i) {
+        return i < words.length ? words[i] : 0L;
+    }
+
+    int length() {
+        return words.length;
+    }
+
+    public BitMask set(int index) {
+        if ( isSet( index ) ) {
+            return this;
+        }
+        long[] result = Arrays.copyOf( words, Math.max( words.length, wordsFor( index + 1 ) ) );
+        result[index >>> 6] |= 1L << index;
+        return new LongArrayBitMask( result );
+    }
+
+    public BitMask setAll(BitMask mask) {
+        if ( mask instanceof LongBitMask ) {
+            long other = ( (LongBitMask) mask ).mask;
+            if ( ( words[0] | other ) == words[0] ) {
+                return this;
+            }
+            long[] result = words.clone();
+            result[0] |= other;
+            return new LongArrayBitMask( result );
+        }
+        if ( mask instanceof LongArrayBitMask ) {
+            LongArrayBitMask other = (LongArrayBitMask) mask;
+            long[] result = Arrays.copyOf( words, Math.max( words.length, other.words.length ) );
+            for ( int i = 0; i < other.words.length; i++ ) {
+                result[i] |= other.words[i];
+            }
+            return new LongArrayBitMask( result );
+        }
+        return mask.isEmpty() ? this : mask.setAll( this );
+    }
+
+    public BitMask reset(int index) {
+        if ( !isSet( index ) ) {
+            return this;
+        }
+        long[] result = words.clone();
+        result[index >>> 6] &= ~( 1L << index );
+        return new LongArrayBitMask( result );
+    }
+
+    public BitMask resetAll(BitMask mask) {
+        long[] result = words.clone();
+        if ( mask instanceof LongBitMask ) {
+            result[0] &= ~( (LongBitMask) mask ).mask;
+        } else if ( mask instanceof LongArrayBitMask ) {
+            for ( int i = 0; i < result.length; i++ ) {
+                result[i] &= ~( (LongArrayBitMask) mask ).word( i );
+            }
+        } else if ( mask instanceof AllSetButFirstBitMask ) {
+            Arrays.fill( result, 0L );
+            result[0] = words[0] & 1L;
+        } else if ( mask.isAllSet() ) {
+            Arrays.fill( result, 0L );
+        } else {
+            return this;
+        }
+        return new LongArrayBitMask( result );
+    }
+
+    public boolean isSet(int index) {
+        if ( index < 0 ) {
+            throw new IllegalArgumentException( "negative position" );
+        }
+        return ( word( index >>> 6 ) & ( 1L << index ) ) != 0;
+    }
+
+    public boolean isAllSet() {
+        return false;
+    }
+
+    public boolean isEmpty() {
+        for ( long word : words ) {
+            if ( word != 0 ) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean intersects(BitMask mask) {
+        if ( mask instanceof LongBitMask ) {
+            return ( words[0] & ( (LongBitMask) mask ).mask ) != 0;
+        }
+        if ( mask instanceof LongArrayBitMask ) {
+            long[] other = ( (LongArrayBitMask) mask ).words;
+            int length = Math.min( words.length, other.length );
+            for ( int i = 0; i < length; i++ ) {
+                if ( ( words[i] & other[i] ) != 0 ) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return mask.intersects( this );
+    }
+
+    public String getInstancingStatement() {
+        StringBuilder sb = new StringBuilder( "new " + LongArrayBitMask.class.getName() + "(new long[] {" );
+        for ( int i = 0; i < words.length; i++ ) {
+            sb.append( i > 0 ? ", " : "" ).append( words[i] ).append( "L" );
+        }
+        return sb.append( "})" ).toString();
+    }
+
+    private int lastNonEmptyWord() {
+        int last = words.length - 1;
+        while ( last >= 0 && words[last] == 0 ) {
+            last--;
+        }
+        return last;
+    }
+
+    public boolean equals(Object obj) {
+        if ( this == obj ) {
+            return true;
+        }
+        if ( obj instanceof EmptyBitMask ) {
+            return isEmpty();
+        }
+        long[] other;
+        if ( obj instanceof LongBitMask ) {
+            other = new long[] { ( (LongBitMask) obj ).mask };
+        } else if ( obj instanceof LongArrayBitMask ) {
+            other = ( (LongArrayBitMask) obj ).words;
+        } else {
+            return false;
+        }
+        // trailing empty words don't matter
+        for ( int i = 0; i < Math.max( words.length, other.length ); i++ ) {
+            if ( word( i ) != ( i < other.length ? other[i] : 0L ) ) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int hashCode() {
+        int hash = 1;
+        for ( int i = 0; i <= lastNonEmptyWord(); i++ ) {
+            hash = 31 * hash + (int) ( words[i] ^ ( words[i] >>> 32 ) );
+        }
+        return hash;
+    }
+
+    public String toString() {
+        int last = lastNonEmptyWord();
+        if ( last <= 0 ) {
+            return Long.toString( words[0] );
+        }
+        StringBuilder sb = new StringBuilder();
+        for ( int i = 0; i <= last; i++ ) {
+            sb.append( i > 0 ? "," : "" ).append( words[i] );
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2014 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.util.bitmask;
+
+/**
+ * A mask whose bits fit in a single long, the common case for classes having less than 64 properties.
+ * Setting a bit beyond the 64th turns it into a {@link LongArrayBitMask}.
+ */
+public class LongBitMask implements BitMask {
+
+    final long mask;
+
+    public LongBitMask() {
+        this( 0L );
+    }
+
+    public LongBitMask(long mask) {
+        this.mask = mask;
+    }
+
+    public long asLong() {
+        return mask;
+    }
+
+    public BitMask set(int index) {
+        if ( index >= 64 ) {
+            return new LongArrayBitMask( new long[] { mask } ).set( index );
+        }
+        long bit = bit( index );
+        return ( mask & bit ) != 0 ? this : new LongBitMask( mask | bit );
+    }
+
+    public BitMask setAll(BitMask mask) {
+        if ( mask instanceof LongBitMask ) {
+            long result = this.mask | ( (LongBitMask) mask ).mask;
+            return result == this.mask ? this : new LongBitMask( result );
+        }
+        // union is commutative, so the wider mask can do it
+        return mask.isEmpty() ? this : mask.setAll( this );
+    }
+
+    public BitMask reset(int index) {
+        if ( index >= 64 ) {
+            return this;
+        }
+        long bit = bit( index );
+        return ( mask & bit ) == 0 ? this : new LongBitMask( mask & ~bit );
+    }
+
+    public BitMask resetAll(BitMask mask) {
+        long result;
+        if ( mask instanceof LongBitMask ) {
+            result = this.mask & ~( (LongBitMask) mask ).mask;
+        } else if ( mask instanceof LongArrayBitMask ) {
+            result = this.mask & ~( (LongArrayBitMask) mask ).word( 0 );
+        } else if ( mask instanceof AllSetButFirstBitMask ) {
+            result = this.mask & 1L;
+        } else if ( mask.isAllSet() ) {
+            result = 0L;
+        } else {
+            return this;
+        }
+        return result == this.mask ? this : new LongBitMask( result );
+    }
+
+    public boolean isSet(int index) {
+        return index < 64 && ( mask & bit( index ) ) != 0;
+    }
+
+    public boolean isAllSet() {
+        return false;
+    }
+
+    public boolean isEmpty() {
+        return mask == 0;
+    }
+
+    public boolean intersects(BitMask mask) {
+        if ( mask instanceof LongBitMask ) {
+            return ( this.mask & ( (LongBitMask) mask ).mask ) != 0;
+        }
+        return mask.intersects( this );
+    }
+
+    public String getInstancingStatement() {
+        return "new " + LongBitMask.class.getName() + "(" + mask + "L)";
+    }
+
+    private static long bit(int index) {
+        if ( index < 0 ) {
+            throw new IllegalArgumentException( "negative position" );
+        }
+        return 1L << index;
+    }
+
+    public boolean equals(Object obj) {
+        if ( this == obj ) {
+            return true;
+        }
+        if ( obj instanceof LongBitMask ) {
+            return mask == ( (LongBitMask) obj ).mask;
+        }
+        if ( obj instanceof LongArrayBitMask || obj instanceof EmptyBitMask ) {
+            return obj.equals( this );
+        }
+        return false;
+    }
+
+    public int hashCode() {
+        // consistent with the one of a LongArrayBitMask having the same bits
+        return mask == 0 ? 1 : 31 + (int) ( mask ^ ( mask >>> 32 ) );
+    }
+
+    public String toString() {
+        return Long.toString( mask );
+    }
+}
@@ -1,7 +1,15 @@
 package org.drools.core.util.index;
 
 import org.drools.core.RuleBaseConfiguration;
+import org.drools.core.base.ClassFieldReader;
+import org.drools.core.base.extractors.BaseDoubleClassFieldReader;
+import org.drools.core.base.extractors.BaseIntClassFieldReader;
+import org.drools.core.base.extractors.BaseLongClassFieldReader;
 import org.drools.core.util.AbstractHashTable.FieldIndex;
+import org.drools.core.util.AbstractHashTable.Index;
+import org.drools.core.util.AbstractHashTable.SingleDoubleIndex;
+import org.drools.core.util.AbstractHashTable.SingleIntIndex;
+import org.drools.core.util.AbstractHashTable.SingleLongIndex;
 import org.drools.core.reteoo.BetaMemory;
 import org.drools.core.reteoo.LeftTupleMemory;
 import org.drools.core.reteoo.NodeTypeEnums;
@@ -11,6 +19,7 @@ import org.drools.core.rule.IndexableConstraint;
 import org.drools.core.rule.constraint.MvelConstraint;
 import org.drools.core.spi.BetaNodeFieldConstraint;
 import org.drools.core.spi.Constraint;
+import org.drools.core.spi.InternalReadAccessor;
 import org.kie.internal.conf.IndexPrecedenceOption;
 
 import java.util.ArrayList;
@@ -267,7 +276,8 @@ public class IndexUtil {
             }
 
             if (indexSpec.constraintType == ConstraintType.EQUAL) {
-                return new RightTupleIndexHashTable( indexSpec.indexes );
+                Index primitiveIndex = createPrimitiveIndex( indexSpec.indexes );
+                return primitiveIndex != null ? new RightTupleIndexHashTable( primitiveIndex ) : new RightTupleIndexHashTable( indexSpec.indexes );
             }
 
             if (indexSpec.constraintType.isComparison()) {
@@ -292,7 +302,8 @@ public class IndexUtil {
             }
 
             if (indexSpec.constraintType == ConstraintType.EQUAL) {
-                return new LeftTupleIndexHashTable( indexSpec.indexes );
+                Index primitiveIndex = createPrimitiveIndex( indexSpec.indexes );
+                return primitiveIndex != null ? new LeftTupleIndexHashTable( primitiveIndex ) : new LeftTupleIndexHashTable( indexSpec.indexes );
             }
 
             if (indexSpec.constraintType.isComparison()) {
@@ -316,6 +327,37 @@ public class IndexUtil {
             return entries;
         }
 
+        /**
+         * Returns an index working on the raw values of the indexed field, or null if the index is not on
+         * a single int, long or double field read, on both sides of the join, by a generated field reader.
+         */
+        public static Index createPrimitiveIndex(FieldIndex[] indexes) {
+            if ( indexes.length != 1 || indexes[0].getEvaluator() != MvelConstraint.INDEX_EVALUATOR ) {
+                return null;
+            }
+            FieldIndex fieldIndex = indexes[0];
+            InternalReadAccessor right = unwrap( (InternalReadAccessor) fieldIndex.getExtractor() );
+            InternalReadAccessor left = unwrap( fieldIndex.getDeclaration().getExtractor() );
+
+            int startResult = LeftTupleIndexHashTable.PRIME;
+            startResult += LeftTupleIndexHashTable.PRIME * startResult + fieldIndex.getExtractor().getIndex();
+
+            if ( right instanceof BaseIntClassFieldReader && left instanceof BaseIntClassFieldReader ) {
+                return new SingleIntIndex( indexes, startResult );
+            }
+            if ( right instanceof BaseLongClassFieldReader && left instanceof BaseLongClassFieldReader ) {
+                return new SingleLongIndex( indexes, startResult );
+            }
+            if ( right instanceof BaseDoubleClassFieldReader && left instanceof BaseDoubleClassFieldReader ) {
+                return new SingleDoubleIndex( indexes, startResult );
+            }
+            return null;
+        }
+
+        private static InternalReadAccessor unwrap(InternalReadAccessor accessor) {
+            return accessor instanceof ClassFieldReader ? ((ClassFieldReader) accessor).getReadAccessor() : accessor;
+        }
+
         private static class IndexSpec {
             private ConstraintType constraintType = ConstraintType.UNKNOWN;
             private FieldIndex[] indexes;
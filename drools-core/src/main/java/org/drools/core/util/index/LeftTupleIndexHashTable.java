@@ -88,6 +88,24 @@ public class LeftTupleIndexHashTable extends AbstractHashTable
         }
     }
 
+    /**
+     * Creates a table hashing on an already built index, i.e. one of the primitive
+     * specialized indexes chosen by IndexUtil.Factory.
+     */
+    public LeftTupleIndexHashTable(final Index index) {
+        this( 128,
+              0.75f,
+              index );
+    }
+
+    public LeftTupleIndexHashTable(final int capacity,
+                                   final float loadFactor,
+                                   final Index index) {
+        super( capacity,
+               loadFactor );
+        this.index = index;
+    }
+
     public void readExternal(ObjectInput in) throws IOException,
                                             ClassNotFoundException {
         super.readExternal( in );
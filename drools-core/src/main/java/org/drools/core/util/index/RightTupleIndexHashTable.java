@@ -89,6 +89,24 @@ public class RightTupleIndexHashTable extends AbstractHashTable
         }
     }
 
+    /**
+     * Creates a table hashing on an already built index, i.e. one of the primitive
+     * specialized indexes chosen by IndexUtil.Factory.
+     */
+    public RightTupleIndexHashTable(final Index index) {
+        this( 128,
+              0.75f,
+              index );
+    }
+
+    public RightTupleIndexHashTable(final int capacity,
+                                    final float loadFactor,
+                                    final Index index) {
+        super( capacity,
+               loadFactor );
+        this.index = index;
+    }
+
     public void readExternal(ObjectInput in) throws IOException,
                                             ClassNotFoundException {
         super.readExternal( in );
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2014 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.drools.core.base.extractors;
+
+import org.drools.core.base.ClassFieldAccessorCache;
+import org.drools.core.base.ClassFieldAccessorStore;
+import org.drools.core.rule.MVELDialectRuntimeData;
+import org.drools.core.test.model.Address;
+import org.drools.core.test.model.Person;
+import org.junit.Test;
+import org.kie.internal.utils.ClassLoaderUtil;
+
+import static org.junit.Assert.*;
+
+public class NestedPropertyReaderGeneratorTest {
+
+    public static class Customer {
+        public Address address;
+        private int age;
+        private boolean vip;
+
+        public Customer(Address address, int age, boolean vip) {
+            this.address = address;
+            this.age = age;
+            this.vip = vip;
+        }
+
+        public int getAge() {
+            return age;
+        }
+
+        public boolean isVip() {
+            return vip;
+        }
+    }
+
+    public static class Order {
+        private Customer customer;
+
+        public Order(Customer customer) {
+            this.customer = customer;
+        }
+
+        public Customer getCustomer() {
+            return customer;
+        }
+    }
+
+    private NestedPropertyReader generate(Class<?> cls, String expression) {
+        return NestedPropertyReaderGenerator.generate( cls, expression, getClass().getClassLoader() );
+    }
+
+    @Test
+    public void testReadNestedProperties() {
+        Order order = new Order( new Customer( new Address( "Main Street", "1", null ), 42, true ) );
+
+        assertEquals( "Main Street", generate( Order.class, "customer.address.street" ).getValue( order ) );
+        assertEquals( 42, generate( Order.class, "customer.age" ).getValue( order ) );
+        assertEquals( Boolean.TRUE, generate( Order.class, "this.customer.vip" ).getValue( order ) );
+        assertNull( generate( Order.class, "customer.address.phone" ).getValue( order ) );
+    }
+
+    @Test
+    public void testUnresolvedValues() {
+        NestedPropertyReader reader = generate( Order.class, "customer.address.street" );
+        // a null in the middle of the path and an object of a different type are left to MVEL
+        assertSame( NestedPropertyReader.UNRESOLVED, reader.getValue( new Order( null ) ) );
+        assertSame( NestedPropertyReader.UNRESOLVED, reader.getValue( new Order( new Customer( null, 42, false ) ) ) );
+        assertSame( NestedPropertyReader.UNRESOLVED, reader.getValue( "Main Street" ) );
+    }
+
+    @Test
+    public void testUnsupportedExpressions() {
+        assertNull( generate( Person.class, "addresses['home'].street" ) );
+        assertNull( generate( Person.class, "addresses.home" ) );
+        assertNull( generate( Person.class, "name.toUpperCase()" ) );
+        assertNull( generate( Person.class, "undefined" ) );
+        assertNull( generate( Order.class, "customer.age.value" ) );
+    }
+
+    @Test
+    public void testMVELReaderUsesNestedReader() {
+        ClassFieldAccessorStore store = new ClassFieldAccessorStore();
+        store.setClassFieldAccessorCache( new ClassFieldAccessorCache( Thread.currentThread().getContextClassLoader() ) );
+        store.setEagerWire( true );
+
+        MVELObjectClassFieldReader extractor = (MVELObjectClassFieldReader) store.getMVELReader( Order.class.getPackage().getName(),
+                                                                                                 Order.class.getName(),
+                                                                                                 "customer.address.street",
+                                                                                                 true,
+                                                                                                 String.class );
+        MVELDialectRuntimeData data = new MVELDialectRuntimeData();
+        data.onAdd( null, ClassLoaderUtil.getClassLoader( null, getClass(), false ) );
+        extractor.compile( data );
+        assertNotNull( extractor.getNestedReader() );
+
+        // without the MVEL expression the values can only be read through the generated reader
+        extractor.setExecutableStatement( null );
+        assertEquals( "Main Street", extractor.getValue( null, new Order( new Customer( new Address( "Main Street", "1", null ), 42, true ) ) ) );
+        assertEquals( "Side Street", extractor.getValue( null, new Order( new Customer( new Address( "Side Street", "2", null ), 42, true ) ) ) );
+    }
+}
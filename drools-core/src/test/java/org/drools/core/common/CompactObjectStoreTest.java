@@ -0,0 +1,155 @@
+/*
+ * Copyright 2014 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.common;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.drools.core.RuleBaseConfiguration;
+import org.drools.core.RuleBaseConfiguration.AssertBehaviour;
+import org.drools.core.test.model.Cheese;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class CompactObjectStoreTest {
+
+    private CompactObjectStore newStore(AssertBehaviour behaviour) {
+        RuleBaseConfiguration conf = new RuleBaseConfiguration();
+        conf.setAssertBehaviour( behaviour );
+        return new CompactObjectStore( conf, new ReentrantLock() );
+    }
+
+    @Test
+    public void testIdentityAddGetRemove() {
+        CompactObjectStore store = newStore( AssertBehaviour.IDENTITY );
+
+        // enough handles to go through a few resizes
+        InternalFactHandle[] handles = new InternalFactHandle[1000];
+        for ( int i = 0; i < handles.length; i++ ) {
+            handles[i] = new DefaultFactHandle( i, new Cheese( "c" + i, i ) );
+            store.addHandle( handles[i], handles[i].getObject() );
+        }
+        assertEquals( 1000, store.size() );
+
+        for ( InternalFactHandle handle : handles ) {
+            assertSame( handle, store.getHandleForObject( handle.getObject() ) );
+            assertSame( handle.getObject(), store.getObjectForHandle( handle ) );
+        }
+        // identity mode doesn't match equal objects
+        assertNull( store.getHandleForObject( new Cheese( "c1", 1 ) ) );
+
+        // remove every other handle, the remaining ones must still be found
+        for ( int i = 0; i < handles.length; i += 2 ) {
+            store.removeHandle( handles[i] );
+        }
+        assertEquals( 500, store.size() );
+        for ( int i = 0; i < handles.length; i++ ) {
+            if ( i % 2 == 0 ) {
+                assertNull( store.getHandleForObject( handles[i].getObject() ) );
+            } else {
+                assertSame( handles[i], store.getHandleForObject( handles[i].getObject() ) );
+            }
+        }
+
+        Set<Object> iterated = new HashSet<Object>();
+        for ( Iterator it = store.iterateFactHandles(); it.hasNext(); ) {
+            iterated.add( it.next() );
+        }
+        assertEquals( 500, iterated.size() );
+
+        store.clear();
+        assertTrue( store.isEmpty() );
+        assertFalse( store.iterateObjects().hasNext() );
+    }
+
+    @Test
+    public void testEqualityUpdate() {
+        CompactObjectStore store = newStore( AssertBehaviour.EQUALITY );
+
+        Cheese stilton = new Cheese( "stilton", 10 );
+        InternalFactHandle handle = new DefaultFactHandle( 1, stilton );
+        store.addHandle( handle, stilton );
+
+        assertSame( handle, store.getHandleForObject( new Cheese( "stilton", 10 ) ) );
+        assertSame( handle, store.getHandleForObjectIdentity( stilton ) );
+        assertNull( store.getHandleForObjectIdentity( new Cheese( "stilton", 10 ) ) );
+
+        Cheese brie = new Cheese( "brie", 5 );
+        store.updateHandle( handle, brie );
+
+        assertEquals( 1, store.size() );
+        assertNull( store.getHandleForObject( new Cheese( "stilton", 10 ) ) );
+        assertSame( handle, store.getHandleForObject( new Cheese( "brie", 5 ) ) );
+        assertSame( handle, store.getHandleForObjectIdentity( brie ) );
+
+        Iterator it = store.iterateObjects();
+        assertSame( brie, it.next() );
+        assertFalse( it.hasNext() );
+    }
+
+    @Test
+    public void testRemoveWhileIterating() {
+        CompactObjectStore store = newStore( AssertBehaviour.EQUALITY );
+
+        // few distinct hash codes, so the handles are in long probe sequences which are shifted on removal
+        InternalFactHandle[] handles = new InternalFactHandle[40];
+        for ( int i = 0; i < handles.length; i++ ) {
+            handles[i] = new DefaultFactHandle( i, new Key( i ) );
+            store.addHandle( handles[i], handles[i].getObject() );
+        }
+
+        List<Object> iterated = new ArrayList<Object>();
+        for ( Iterator it = store.iterateFactHandles(); it.hasNext(); ) {
+            InternalFactHandle handle = (InternalFactHandle) it.next();
+            iterated.add( handle );
+            store.removeHandle( handle );
+        }
+        // every handle is returned once, even if removals moved the ones still to be visited
+        assertEquals( handles.length, iterated.size() );
+        assertEquals( handles.length, new HashSet<Object>( iterated ).size() );
+        assertTrue( store.isEmpty() );
+
+        for ( InternalFactHandle handle : handles ) {
+            store.addHandle( handle, handle.getObject() );
+        }
+        for ( InternalFactHandle handle : handles ) {
+            assertSame( handle, store.getHandleForObject( new Key( handle.getId() ) ) );
+        }
+    }
+
+    public static class Key {
+        private final int id;
+
+        public Key(int id) {
+            this.id = id;
+        }
+
+        public int hashCode() {
+            // only three hash codes, differing in their high bits
+            return ( id % 3 ) << 24;
+        }
+
+        public boolean equals(Object obj) {
+            return obj instanceof Key && ((Key) obj).id == id;
+        }
+    }
+}
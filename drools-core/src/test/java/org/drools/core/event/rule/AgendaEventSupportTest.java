@@ -17,9 +17,11 @@
 package org.drools.core.event.rule;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
 import java.io.ObjectInput;
@@ -34,6 +36,9 @@ import org.drools.core.base.ClassObjectType;
 import org.drools.core.base.FieldFactory;
 import org.drools.core.base.evaluators.EvaluatorRegistry;
 import org.drools.core.common.InternalAgenda;
+import org.drools.core.event.AgendaEventSupport;
+import org.drools.core.event.DefaultAgendaEventListener;
+import org.drools.core.event.RuleEvaluationHook;
 import org.drools.core.common.InternalFactHandle;
 import org.drools.core.runtime.rule.impl.AgendaImpl;
 import org.drools.core.test.model.Cheese;
@@ -72,6 +77,40 @@ public class AgendaEventSupportTest {
     //        assertTrue( Serializable.class.isAssignableFrom( AgendaEventSupport.class ) );
     //    }
 
+    @Test
+    public void testRuleEvaluationObserved() {
+        AgendaEventSupport support = new AgendaEventSupport();
+        assertFalse( support.isRuleEvaluationObserved() );
+
+        DefaultAgendaEventListener listener = new DefaultAgendaEventListener();
+        support.addEventListener( listener );
+        assertFalse( support.isRuleEvaluationObserved() );
+
+        RuleEvaluationHook hook = new RuleEvaluationHookImpl();
+        support.addEventListener( hook );
+        assertTrue( support.isRuleEvaluationObserved() );
+
+        support.removeEventListener( listener );
+        assertTrue( support.isRuleEvaluationObserved() );
+        support.removeEventListener( hook );
+        assertFalse( support.isRuleEvaluationObserved() );
+
+        support.addEventListener( hook );
+        support.removeEventListener( RuleEvaluationHook.class );
+        assertFalse( support.isRuleEvaluationObserved() );
+
+        support.addEventListener( hook );
+        support.clear();
+        assertFalse( support.isRuleEvaluationObserved() );
+    }
+
+    private static class RuleEvaluationHookImpl extends DefaultAgendaEventListener implements RuleEvaluationHook {
+        public void ruleEvaluated(Rule rule,
+                                  long nanos,
+                                  WorkingMemory workingMemory) {
+        }
+    }
+
     @Test @Ignore
     public void testAgendaEventListener() throws Exception {
         KnowledgeBase kbase = KnowledgeBaseFactory.newKnowledgeBase();
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2014 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.drools.core.management;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void testBucketsCoverAllValues() {
+        for ( long value = 0; value < 100000; value++ ) {
+            int index = LatencyHistogram.bucketIndex( value );
+            assertTrue( value <= LatencyHistogram.highestValueInBucket( index ) );
+            assertTrue( index == 0 || value > LatencyHistogram.highestValueInBucket( index - 1 ) );
+        }
+        int last = LatencyHistogram.bucketIndex( LatencyHistogram.MAX_TRACKABLE );
+        assertEquals( LatencyHistogram.MAX_TRACKABLE, LatencyHistogram.highestValueInBucket( last ) );
+    }
+
+    @Test
+    public void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals( 0, histogram.getValueAtPercentile( 99 ) );
+
+        for ( int i = 1; i <= 1000; i++ ) {
+            histogram.record( i * 1000L );
+        }
+        assertEquals( 1000, histogram.getCount() );
+        assertEquals( 1000000, histogram.getMax() );
+        assertEquals( 500500.0, histogram.getMean(), 0.1 );
+
+        // the relative error is below 1/16
+        assertEquals( 500000, histogram.getValueAtPercentile( 50 ), 500000 / 16 );
+        assertEquals( 990000, histogram.getValueAtPercentile( 99 ), 990000 / 16 );
+        assertEquals( 999000, histogram.getValueAtPercentile( 99.9 ), 999000 / 16 );
+        assertEquals( 1000000, histogram.getValueAtPercentile( 100 ) );
+
+        histogram.reset();
+        assertEquals( 0, histogram.getCount() );
+        assertEquals( 0, histogram.getValueAtPercentile( 50 ) );
+    }
+
+    @Test
+    public void testOutOfRangeValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record( -5 );
+        histogram.record( Long.MAX_VALUE );
+        assertEquals( 0, histogram.getValueAtPercentile( 50 ) );
+        assertEquals( LatencyHistogram.MAX_TRACKABLE, histogram.getValueAtPercentile( 100 ) );
+    }
+}
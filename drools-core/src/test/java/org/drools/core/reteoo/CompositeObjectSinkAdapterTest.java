@@ -21,8 +21,10 @@ import org.drools.core.RuleBaseFactory;
 import org.drools.core.base.ClassFieldAccessorCache;
 import org.drools.core.base.ClassFieldAccessorStore;
 import org.drools.core.base.ValueType;
+import org.drools.core.base.field.DoubleFieldImpl;
 import org.drools.core.base.field.LongFieldImpl;
 import org.drools.core.base.field.ObjectFieldImpl;
+import org.drools.core.common.DefaultFactHandle;
 import org.drools.core.common.DisconnectedWorkingMemoryEntryPoint;
 import org.drools.core.common.EmptyBetaConstraints;
 import org.drools.core.common.InternalFactHandle;
@@ -34,6 +36,7 @@ import org.drools.core.reteoo.builder.BuildContext;
 import org.drools.core.rule.MvelConstraintTestUtil;
 import org.drools.core.rule.PredicateConstraint;
 import org.drools.core.rule.constraint.MvelConstraint;
+import org.drools.core.spi.FieldValue;
 import org.drools.core.spi.InternalReadAccessor;
 import org.drools.core.spi.PropagationContext;
 import org.junit.Before;
@@ -47,9 +50,11 @@ import java.math.BigDecimal;
 import java.math.BigInteger;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 public class CompositeObjectSinkAdapterTest {
@@ -444,6 +449,153 @@ public class CompositeObjectSinkAdapterTest {
         assertNull( ad.hashedSinkMap );
     }    
 
+    @Test
+    public void testRangeIndexedAlphas() {
+        final CompositeObjectSinkAdapter ad = new CompositeObjectSinkAdapter();
+        InternalReadAccessor extractor = store.getReader( Cheese.class,
+                                                          "price",
+                                                          this.getClass().getClassLoader() );
+
+        final AlphaNode al1 = createRangeAlpha( "price > 10", 10, extractor );
+        final AlphaNode al2 = createRangeAlpha( "price > 20", 20, extractor );
+        final AlphaNode al3 = createRangeAlpha( "price < 15", 15, extractor );
+        final AlphaNode al4 = createRangeAlpha( "price > 30", 30, extractor );
+
+        ad.addObjectSink( al1 );
+        ad.addObjectSink( al2 );
+        assertNull( ad.rangeIndexes );
+        assertEquals( 2,
+                      ad.otherSinks.size() );
+
+        ad.addObjectSink( al3 );
+        ad.addObjectSink( al4 );
+
+        // now the comparisons on price are range indexed
+        assertNull( ad.otherSinks );
+        assertNotNull( ad.rangeIndexes );
+        assertEquals( 4,
+                      ad.rangeIndexes.getFirst().size() );
+        assertEquals( 4,
+                      ad.getSinks().length );
+
+        MockObjectSink sink1 = (MockObjectSink) al1.getSinkPropagator().getSinks()[0];
+        MockObjectSink sink2 = (MockObjectSink) al2.getSinkPropagator().getSinks()[0];
+        MockObjectSink sink3 = (MockObjectSink) al3.getSinkPropagator().getSinks()[0];
+        MockObjectSink sink4 = (MockObjectSink) al4.getSinkPropagator().getSinks()[0];
+
+        ad.propagateAssertObject( new DefaultFactHandle( 1, new Cheese( "stilton", 25 ) ), null, null );
+        assertEquals( 1, sink1.getAsserted().size() );
+        assertEquals( 1, sink2.getAsserted().size() );
+        assertEquals( 0, sink3.getAsserted().size() );
+        assertEquals( 0, sink4.getAsserted().size() );
+
+        // the thresholds are exclusive
+        ad.propagateAssertObject( new DefaultFactHandle( 2, new Cheese( "brie", 10 ) ), null, null );
+        assertEquals( 1, sink1.getAsserted().size() );
+        assertEquals( 1, sink3.getAsserted().size() );
+
+        ad.propagateAssertObject( new DefaultFactHandle( 3, new Cheese( "cheddar", 40 ) ), null, null );
+        assertEquals( 2, sink1.getAsserted().size() );
+        assertEquals( 2, sink2.getAsserted().size() );
+        assertEquals( 1, sink3.getAsserted().size() );
+        assertEquals( 1, sink4.getAsserted().size() );
+
+        // now remove two, check the indexing is undone
+        ad.removeObjectSink( al2 );
+        assertNotNull( ad.rangeIndexes );
+        ad.removeObjectSink( al4 );
+        assertNull( ad.rangeIndexes );
+        assertEquals( 2,
+                      ad.otherSinks.size() );
+    }
+
+    @Test
+    public void testRangeIndexBoundaries() {
+        final CompositeObjectSinkAdapter ad = new CompositeObjectSinkAdapter();
+        InternalReadAccessor extractor = store.getReader( Cheese.class,
+                                                          "price",
+                                                          this.getClass().getClassLoader() );
+
+        final AlphaNode gt = createRangeAlpha( "price > 10", ">", new LongFieldImpl( 10 ), extractor );
+        final AlphaNode ge = createRangeAlpha( "price >= 10", ">=", new LongFieldImpl( 10 ), extractor );
+        final AlphaNode lt = createRangeAlpha( "price < 10", "<", new LongFieldImpl( 10 ), extractor );
+        final AlphaNode le = createRangeAlpha( "price <= 10", "<=", new LongFieldImpl( 10 ), extractor );
+        ad.addObjectSink( gt );
+        ad.addObjectSink( ge );
+        ad.addObjectSink( lt );
+        ad.addObjectSink( le );
+        assertNotNull( ad.rangeIndexes );
+        assertEquals( 4,
+                      ad.rangeIndexes.getFirst().size() );
+
+        MockObjectSink gtSink = (MockObjectSink) gt.getSinkPropagator().getSinks()[0];
+        MockObjectSink geSink = (MockObjectSink) ge.getSinkPropagator().getSinks()[0];
+        MockObjectSink ltSink = (MockObjectSink) lt.getSinkPropagator().getSinks()[0];
+        MockObjectSink leSink = (MockObjectSink) le.getSinkPropagator().getSinks()[0];
+
+        ad.propagateAssertObject( new DefaultFactHandle( 1, new Cheese( "brie", 9 ) ), null, null );
+        assertEquals( 0, gtSink.getAsserted().size() );
+        assertEquals( 0, geSink.getAsserted().size() );
+        assertEquals( 1, ltSink.getAsserted().size() );
+        assertEquals( 1, leSink.getAsserted().size() );
+
+        ad.propagateAssertObject( new DefaultFactHandle( 2, new Cheese( "stilton", 10 ) ), null, null );
+        assertEquals( 0, gtSink.getAsserted().size() );
+        assertEquals( 1, geSink.getAsserted().size() );
+        assertEquals( 1, ltSink.getAsserted().size() );
+        assertEquals( 2, leSink.getAsserted().size() );
+
+        ad.propagateAssertObject( new DefaultFactHandle( 3, new Cheese( "cheddar", 11 ) ), null, null );
+        assertEquals( 1, gtSink.getAsserted().size() );
+        assertEquals( 2, geSink.getAsserted().size() );
+        assertEquals( 1, ltSink.getAsserted().size() );
+        assertEquals( 2, leSink.getAsserted().size() );
+    }
+
+    @Test
+    public void testRangeIndexRejectsFractionalLiteralsOnIntegralFields() {
+        InternalReadAccessor extractor = store.getReader( Cheese.class,
+                                                          "price",
+                                                          this.getClass().getClassLoader() );
+
+        assertFalse( AlphaRangeIndex.isRangeIndexable( createRangeAlpha( "price < 10.5", "<", new DoubleFieldImpl( 10.5 ), extractor ) ) );
+        assertFalse( AlphaRangeIndex.isRangeIndexable( createRangeAlpha( "price >= 1e30", ">=", new DoubleFieldImpl( 1e30 ), extractor ) ) );
+        assertTrue( AlphaRangeIndex.isRangeIndexable( createRangeAlpha( "price < 10.0", "<", new DoubleFieldImpl( 10.0 ), extractor ) ) );
+        assertTrue( AlphaRangeIndex.isRangeIndexable( createRangeAlpha( "price < 10", "<", new LongFieldImpl( 10 ), extractor ) ) );
+
+        // the fractional comparisons are left to the constraints themselves
+        final CompositeObjectSinkAdapter ad = new CompositeObjectSinkAdapter();
+        ad.addObjectSink( createRangeAlpha( "price < 10.5", "<", new DoubleFieldImpl( 10.5 ), extractor ) );
+        ad.addObjectSink( createRangeAlpha( "price <= 10.5", "<=", new DoubleFieldImpl( 10.5 ), extractor ) );
+        ad.addObjectSink( createRangeAlpha( "price > 10.5", ">", new DoubleFieldImpl( 10.5 ), extractor ) );
+        ad.addObjectSink( createRangeAlpha( "price >= 10.5", ">=", new DoubleFieldImpl( 10.5 ), extractor ) );
+        assertNull( ad.rangeIndexes );
+        assertEquals( 4,
+                      ad.otherSinks.size() );
+    }
+
+    private AlphaNode createRangeAlpha(String expression, int threshold, InternalReadAccessor extractor) {
+        return createRangeAlpha( new MvelConstraintTestUtil( expression,
+                                                             new LongFieldImpl( threshold ),
+                                                             extractor ) );
+    }
+
+    private AlphaNode createRangeAlpha(String expression, String operator, FieldValue field, InternalReadAccessor extractor) {
+        return createRangeAlpha( new MvelConstraintTestUtil( expression,
+                                                             operator,
+                                                             field,
+                                                             extractor ) );
+    }
+
+    private AlphaNode createRangeAlpha(MvelConstraint constraint) {
+        final AlphaNode alphaNode = new AlphaNode( buildContext.getNextId(),
+                                                   constraint,
+                                                   new MockObjectSource( buildContext.getNextId() ),
+                                                   buildContext );
+        alphaNode.addObjectSink( new MockObjectSink() );
+        return alphaNode;
+    }
+
     @Test
     public void testPropagationWithNullValue() {
 
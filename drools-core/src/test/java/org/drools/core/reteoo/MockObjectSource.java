@@ -28,6 +28,7 @@ import org.drools.core.common.InternalWorkingMemory;
 import org.drools.core.common.RuleBasePartitionId;
 import org.drools.core.reteoo.builder.BuildContext;
 import org.drools.core.spi.PropagationContext;
+import org.drools.core.util.bitmask.BitMask;
 
 public class MockObjectSource extends ObjectSource {
     private static final long serialVersionUID = 510l;
@@ -102,7 +103,7 @@ public class MockObjectSource extends ObjectSource {
     }
     
     @Override
-    public long calculateDeclaredMask(List<String> settableProperties) {
+    public BitMask calculateDeclaredMask(List<String> settableProperties) {
         throw new UnsupportedOperationException();
     }    
 
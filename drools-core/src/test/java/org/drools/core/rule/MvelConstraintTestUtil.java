@@ -22,6 +22,10 @@ public class MvelConstraintTestUtil extends MvelConstraint {
         super(null, expression, null, findConstraintTypeForExpression(expression), fieldValue, extractor);
     }
 
+    public MvelConstraintTestUtil(String expression, String operator, FieldValue fieldValue, InternalReadAccessor extractor) {
+        super(null, expression, null, IndexUtil.ConstraintType.decode(operator), fieldValue, extractor);
+    }
+
     public MvelConstraintTestUtil(String expression, Declaration declaration, InternalReadAccessor extractor) {
         super(null, expression, new Declaration[] { declaration }, null, findConstraintTypeForExpression(expression), declaration, extractor, expression.contains(":="));
     }
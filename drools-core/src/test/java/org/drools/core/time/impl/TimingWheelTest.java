@@ -0,0 +1,141 @@
+/*
+ * Copyright 2014 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.time.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.drools.core.ClockType;
+import org.drools.core.SessionConfiguration;
+import org.drools.core.time.TimerService;
+import org.drools.core.time.TimerServiceFactory;
+import org.drools.core.time.impl.JDKTimerServiceTest.HelloWorldJob;
+import org.drools.core.time.impl.JDKTimerServiceTest.HelloWorldJobContext;
+import org.drools.core.time.impl.TimingWheel.WheelJobHandle;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TimingWheelTest {
+
+    @Test
+    public void testPollInExpirationOrder() {
+        TimingWheel wheel = new TimingWheel( 1, 0 );
+        long[] times = new long[] { 70000, 5, 300, 5, 255, 256, 20000000 };
+        List<WheelJobHandle> handles = new ArrayList<WheelJobHandle>();
+        for ( int i = 0; i < times.length; i++ ) {
+            WheelJobHandle handle = new WheelJobHandle( i );
+            handles.add( handle );
+            wheel.schedule( handle, times[i] );
+        }
+        assertEquals( times.length, wheel.size() );
+        assertEquals( 5, wheel.getNextExpirationTime() );
+
+        assertNull( wheel.poll( 4 ) );
+        // jobs of the same tick are returned in scheduling order
+        assertSame( handles.get( 1 ), wheel.poll( 5 ) );
+        assertSame( handles.get( 3 ), wheel.poll( 5 ) );
+        assertNull( wheel.poll( 5 ) );
+        assertEquals( 255, wheel.getNextExpirationTime() );
+
+        assertSame( handles.get( 4 ), wheel.poll( 100000 ) );
+        assertSame( handles.get( 5 ), wheel.poll( 100000 ) );
+        assertSame( handles.get( 2 ), wheel.poll( 100000 ) );
+        assertSame( handles.get( 0 ), wheel.poll( 100000 ) );
+        assertNull( wheel.poll( 100000 ) );
+        assertEquals( 20000000, wheel.getNextExpirationTime() );
+
+        assertSame( handles.get( 6 ), wheel.poll( 20000000 ) );
+        assertTrue( wheel.isEmpty() );
+        assertEquals( -1, wheel.getNextExpirationTime() );
+    }
+
+    @Test
+    public void testCancel() {
+        TimingWheel wheel = new TimingWheel( 1, 0 );
+        WheelJobHandle h1 = new WheelJobHandle( 1 );
+        WheelJobHandle h2 = new WheelJobHandle( 2 );
+        wheel.schedule( h1, 1000 );
+        wheel.schedule( h2, 1000 );
+
+        assertTrue( wheel.cancel( h1 ) );
+        assertFalse( wheel.cancel( h1 ) );
+        assertEquals( 1, wheel.size() );
+
+        assertSame( h2, wheel.poll( 1000 ) );
+        assertFalse( wheel.cancel( h2 ) );
+        assertTrue( wheel.isEmpty() );
+    }
+
+    @Test
+    public void testRoundUpToTick() {
+        TimingWheel wheel = new TimingWheel( 10, 0 );
+        WheelJobHandle handle = new WheelJobHandle( 1 );
+        wheel.schedule( handle, 15 );
+        assertEquals( 20, wheel.getNextExpirationTime() );
+        assertNull( wheel.poll( 19 ) );
+        assertSame( handle, wheel.poll( 20 ) );
+    }
+
+    @Test
+    public void testPastJobsExpireInCurrentTick() {
+        TimingWheel wheel = new TimingWheel( 1, 1000 );
+        WheelJobHandle handle = new WheelJobHandle( 1 );
+        wheel.schedule( handle, 10 );
+        assertSame( handle, wheel.poll( 1000 ) );
+    }
+
+    @Test
+    public void testTimingWheelPseudoClock() {
+        SessionConfiguration config = new SessionConfiguration();
+        config.setClockType( ClockType.PSEUDO_CLOCK );
+        config.setTimingWheel( true );
+        TimerService timeService = TimerServiceFactory.getTimerService( config );
+        assertTrue( timeService instanceof TimingWheelPseudoClockScheduler );
+
+        TimingWheelPseudoClockScheduler clock = (TimingWheelPseudoClockScheduler) timeService;
+        HelloWorldJobContext ctx = new HelloWorldJobContext( "hello world", timeService );
+        timeService.scheduleJob( new HelloWorldJob(), ctx, new PointInTimeTrigger( 100, null, null ) );
+        timeService.scheduleJob( new HelloWorldJob(), ctx, new PointInTimeTrigger( 500, null, null ) );
+        assertEquals( 100, clock.getTimeToNextJob() );
+
+        clock.advanceTime( 99, TimeUnit.MILLISECONDS );
+        assertEquals( 0, ctx.getList().size() );
+        clock.advanceTime( 1, TimeUnit.MILLISECONDS );
+        assertEquals( 1, ctx.getList().size() );
+        assertEquals( 400, clock.getTimeToNextJob() );
+        clock.advanceTime( 1000, TimeUnit.MILLISECONDS );
+        assertEquals( 2, ctx.getList().size() );
+        assertEquals( -1, clock.getTimeToNextJob() );
+    }
+
+    @Test
+    public void testTimingWheelRealtimeClock() throws Exception {
+        SessionConfiguration config = new SessionConfiguration();
+        config.setClockType( ClockType.REALTIME_CLOCK );
+        config.setTimingWheel( true );
+        TimerService timeService = TimerServiceFactory.getTimerService( config );
+        assertTrue( timeService instanceof TimingWheelTimerService );
+
+        HelloWorldJobContext ctx = new HelloWorldJobContext( "hello world", timeService );
+        timeService.scheduleJob( new HelloWorldJob(), ctx, new JDKTimerServiceTest.DelayedTrigger( new long[] { 100, 200, 300 } ) );
+        Thread.sleep( 500 );
+        timeService.shutdown();
+        assertEquals( 3, ctx.getList().size() );
+    }
+}
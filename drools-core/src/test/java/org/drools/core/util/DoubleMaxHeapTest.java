@@ -0,0 +1,102 @@
+/*
+ * Copyright 2014 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class DoubleMaxHeapTest {
+
+    @Test
+    public void testAddRemove() {
+        DoubleMaxHeap heap = new DoubleMaxHeap();
+        assertTrue( heap.isEmpty() );
+
+        heap.add( 3 );
+        heap.add( 7 );
+        heap.add( 5 );
+        heap.add( 7 );
+        assertEquals( 4, heap.size() );
+        assertEquals( 7, heap.peek(), 0 );
+
+        heap.remove( 5 );
+        assertEquals( 7, heap.peek(), 0 );
+        heap.remove( 7 );
+        assertEquals( 7, heap.peek(), 0 );
+        heap.remove( 7 );
+        // 5 was removed while not on top
+        assertEquals( 3, heap.peek(), 0 );
+        assertEquals( 1, heap.size() );
+
+        heap.remove( 3 );
+        assertTrue( heap.isEmpty() );
+    }
+
+    @Test
+    public void testRandomOperations() {
+        Random random = new Random( 0 );
+        DoubleMaxHeap heap = new DoubleMaxHeap();
+        List<Double> values = new ArrayList<Double>();
+        for ( int i = 0; i < 10000; i++ ) {
+            if ( values.isEmpty() || random.nextInt( 3 ) > 0 ) {
+                double value = random.nextInt( 100 );
+                heap.add( value );
+                values.add( value );
+            } else {
+                heap.remove( values.remove( random.nextInt( values.size() ) ) );
+            }
+            assertEquals( values.size(), heap.size() );
+            if ( !values.isEmpty() ) {
+                assertEquals( Collections.max( values ), heap.peek(), 0 );
+            }
+        }
+    }
+
+    @Test
+    public void testSerialization() throws Exception {
+        DoubleMaxHeap heap = new DoubleMaxHeap();
+        for ( int i = 0; i < 100; i++ ) {
+            heap.add( i );
+        }
+        for ( int i = 0; i < 90; i++ ) {
+            heap.remove( i );
+        }
+
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream( bos );
+        out.writeObject( heap );
+        out.close();
+        DoubleMaxHeap copy = (DoubleMaxHeap) new ObjectInputStream( new ByteArrayInputStream( bos.toByteArray() ) ).readObject();
+
+        assertEquals( 10, copy.size() );
+        for ( int i = 99; i >= 90; i-- ) {
+            assertEquals( i, copy.peek(), 0 );
+            copy.remove( i );
+        }
+        assertTrue( copy.isEmpty() );
+    }
+}
@@ -1252,4 +1252,72 @@ public class HierarchyTest {
 
     }
 
-}
\ No newline at end of file
+
+    @Test
+    public void testLargeHierarchySubsumption() {
+        HierarchyEncoder<String> encoder = new HierarchyEncoderImpl<String>();
+        int n = 300;
+        int roots = 100;
+        int[] parent = new int[ n ];
+
+        // every root takes a bit of its own, so the codes span several words
+        for ( int j = 0; j < n; j++ ) {
+            parent[ j ] = j < roots ? -1 : ( j - roots ) / 2;
+            encoder.encode( "T" + j, j < roots ? Collections.EMPTY_LIST : Arrays.asList( "T" + parent[ j ] ) );
+        }
+        assertTrue( encoder.getCode( "T" + ( roots - 1 ) ).length() > 64 );
+
+        for ( int x = 0; x < n; x++ ) {
+            BitSet cx = encoder.getCode( "T" + x );
+            assertTrue( cx instanceof HierarchyCode );
+            for ( int y = 0; y < n; y++ ) {
+                BitSet cy = encoder.getCode( "T" + y );
+
+                boolean ancestor = false;
+                for ( int z = x; ! ancestor && z >= 0; z = parent[ z ] ) {
+                    ancestor = z == y;
+                }
+                BitSet meet = copyOf( cx );
+                meet.and( cy );
+                boolean isA = meet.equals( cy );
+                assertTrue( isA || ! ancestor );
+
+                assertEquals( isA, HierarchyEncoderImpl.supersetOrEqualset( cx, cy ) );
+                // asked twice, to use the cached result
+                assertEquals( isA, HierarchyEncoderImpl.supersetOrEqualset( cx, cy ) );
+                // plain bit sets are compared bit by bit
+                assertEquals( isA, HierarchyEncoderImpl.supersetOrEqualset( cx, copyOf( cy ) ) );
+                assertEquals( Integer.signum( new CodedHierarchyImpl.HierCodeComparator().compare( copyOf( cx ), cy ) ),
+                              Integer.signum( ( (HierarchyCode) cx ).compareCode( (HierarchyCode) cy ) ) );
+            }
+        }
+    }
+
+    @Test
+    public void testHierarchyCodeChanges() {
+        HierarchyCode code = new HierarchyCode();
+        code.set( 3 );
+        HierarchyCode other = new HierarchyCode();
+        other.set( 3 );
+        other.set( 100 );
+
+        assertTrue( other.supersetOrEqualset( code ) );
+        assertTrue( ! code.supersetOrEqualset( other ) );
+
+        // a change of either code invalidates the cached results
+        code.set( 100 );
+        assertTrue( code.supersetOrEqualset( other ) );
+        other.set( 130 );
+        assertTrue( ! code.supersetOrEqualset( other ) );
+        other.clear( 130 );
+        assertTrue( code.supersetOrEqualset( other ) );
+        assertEquals( 0, code.compareCode( other ) );
+    }
+
+    private static BitSet copyOf( BitSet code ) {
+        BitSet copy = new BitSet();
+        copy.or( code );
+        return copy;
+    }
+
+}
@@ -23,6 +23,9 @@ import org.drools.core.common.DefaultFactHandle;
 import org.drools.core.common.InternalFactHandle;
 import org.drools.core.test.model.Cheese;
 import org.drools.core.util.AbstractHashTable.FieldIndex;
+import org.drools.core.util.AbstractHashTable.Index;
+import org.drools.core.util.AbstractHashTable.SingleIntIndex;
+import org.drools.core.util.index.IndexUtil;
 import org.drools.core.util.index.RightTupleIndexHashTable;
 import org.drools.core.util.index.RightTupleList;
 import org.drools.core.reteoo.LeftTupleImpl;
@@ -41,6 +44,7 @@ import java.util.List;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 public class RightTupleIndexHashTableTest {
 
@@ -108,6 +112,65 @@ public class RightTupleIndexHashTableTest {
         assertNull( list.first.getNext() );
     }
 
+    @Test
+    public void testPrimitiveIndex() throws Exception {
+        final InternalReadAccessor extractor = store.getReader( Cheese.class,
+                                                                "price",
+                                                                getClass().getClassLoader() );
+
+        final Pattern pattern = new Pattern( 0,
+                                             new ClassObjectType( Cheese.class ) );
+
+        final Declaration declaration = new Declaration( "priceOfCheese",
+                                                         extractor,
+                                                         pattern );
+
+        final FieldIndex fieldIndex = new FieldIndex( extractor,
+                                                      declaration,
+                                                      MvelConstraint.INDEX_EVALUATOR );
+
+        final Index index = IndexUtil.Factory.createPrimitiveIndex( new FieldIndex[]{fieldIndex} );
+        assertTrue( index instanceof SingleIntIndex );
+
+        final RightTupleIndexHashTable map = new RightTupleIndexHashTable( index );
+
+        final RightTuple stiltonRightTuple = new RightTuple( new DefaultFactHandle( 1,
+                                                                                    new Cheese( "stilton",
+                                                                                                35 ) ),
+                                                             null );
+        map.add( stiltonRightTuple );
+        final RightTuple brieRightTuple = new RightTuple( new DefaultFactHandle( 2,
+                                                                                 new Cheese( "brie",
+                                                                                             35 ) ),
+                                                          null );
+        map.add( brieRightTuple );
+        map.add( new RightTuple( new DefaultFactHandle( 3,
+                                                        new Cheese( "cheddar",
+                                                                    10 ) ),
+                                 null ) );
+
+        assertEquals( 3,
+                      map.size() );
+
+        final InternalFactHandle handle = new DefaultFactHandle( 4,
+                                                                 new Cheese( "gouda",
+                                                                             35 ) );
+        final RightTupleList list = map.get( new LeftTupleImpl( handle,
+                                                                null,
+                                                                true ), handle );
+        assertSame( stiltonRightTuple,
+                    list.first );
+        assertSame( brieRightTuple,
+                    list.first.getNext() );
+
+        final InternalFactHandle otherHandle = new DefaultFactHandle( 5,
+                                                                      new Cheese( "gouda",
+                                                                                  20 ) );
+        assertNull( map.get( new LeftTupleImpl( otherHandle,
+                                                null,
+                                                true ), otherHandle ) );
+    }
+
     @Test
     public void testTwoDifferentEntries() throws Exception {
         final InternalReadAccessor extractor = store.getReader( Cheese.class,
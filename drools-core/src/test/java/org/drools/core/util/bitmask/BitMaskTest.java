@@ -0,0 +1,86 @@
+/*
+ * Copyright 2014 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.util.bitmask;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class BitMaskTest {
+
+    @Test
+    public void testSetBeyondLong() {
+        BitMask mask = EmptyBitMask.get().set( 3 );
+        assertTrue( mask instanceof LongBitMask );
+
+        mask = mask.set( 100 );
+        assertTrue( mask instanceof LongArrayBitMask );
+        assertTrue( mask.isSet( 3 ) );
+        assertTrue( mask.isSet( 100 ) );
+        assertFalse( mask.isSet( 99 ) );
+        assertFalse( mask.isSet( 1000 ) );
+
+        assertEquals( new LongBitMask( 8 ), mask.reset( 100 ) );
+        assertTrue( mask.reset( 100 ).reset( 3 ).isEmpty() );
+    }
+
+    @Test
+    public void testIntersects() {
+        BitMask wide = new LongArrayBitMask( 200 ).set( 150 );
+        BitMask narrow = EmptyBitMask.get().set( 2 );
+
+        assertFalse( wide.intersects( narrow ) );
+        assertFalse( narrow.intersects( wide ) );
+        assertTrue( wide.intersects( EmptyBitMask.get().set( 150 ) ) );
+        assertTrue( wide.setAll( narrow ).intersects( narrow ) );
+
+        assertTrue( AllSetBitMask.get().intersects( wide ) );
+        assertTrue( AllSetButFirstBitMask.get().intersects( wide ) );
+        assertFalse( AllSetButFirstBitMask.get().intersects( EmptyBitMask.get().set( 0 ) ) );
+        assertFalse( EmptyBitMask.get().intersects( AllSetBitMask.get() ) );
+    }
+
+    @Test
+    public void testResetAllFromAllSet() {
+        BitMask wide = new LongArrayBitMask( 130 ).set( 0 ).set( 129 );
+        BitMask complement = AllSetBitMask.get().resetAll( wide );
+
+        assertFalse( complement.isSet( 0 ) );
+        assertTrue( complement.isSet( 1 ) );
+        assertTrue( complement.isSet( 128 ) );
+        assertFalse( complement.isSet( 129 ) );
+
+        assertEquals( AllSetButFirstBitMask.get(), AllSetBitMask.get().reset( 0 ) );
+        assertEquals( new LongBitMask( 1 ), AllSetBitMask.get().resetAll( AllSetButFirstBitMask.get() ) );
+        assertEquals( EmptyBitMask.get(), wide.resetAll( AllSetBitMask.get() ) );
+        assertEquals( new LongBitMask( 1 ), wide.resetAll( AllSetButFirstBitMask.get() ) );
+    }
+
+    @Test
+    public void testEquality() {
+        BitMask longMask = new LongBitMask( 5 );
+        BitMask arrayMask = new LongArrayBitMask( 300 ).set( 0 ).set( 2 );
+
+        assertEquals( longMask, arrayMask );
+        assertEquals( arrayMask, longMask );
+        assertEquals( longMask.hashCode(), arrayMask.hashCode() );
+
+        assertEquals( EmptyBitMask.get(), new LongBitMask( 0 ) );
+        assertEquals( new LongArrayBitMask( 100 ), EmptyBitMask.get() );
+        assertEquals( EmptyBitMask.get().hashCode(), new LongArrayBitMask( 100 ).hashCode() );
+    }
+}
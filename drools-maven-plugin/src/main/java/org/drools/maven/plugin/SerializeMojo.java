@@ -0,0 +1,97 @@
+package org.drools.maven.plugin;
+
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.kie.api.KieServices;
+import org.kie.api.builder.KieModule;
+import org.kie.api.builder.KieRepository;
+import org.kie.api.builder.Message;
+import org.drools.compiler.kie.builder.impl.InternalKieModule;
+import org.drools.compiler.kie.builder.impl.KieBuilderImpl;
+import org.drools.compiler.kie.builder.impl.KieContainerImpl;
+import org.drools.compiler.kie.builder.impl.ResultsImpl;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.List;
+
+/**
+ * This goal builds the KieBases of the kproject and serializes them, fully built, in the kjar,
+ * so that at runtime the KieContainer can load them without building them again.
+ *
+ * @goal serialize
+ * @phase process-classes
+ */
+public class SerializeMojo extends AbstractMojo {
+
+    /**
+     * Directory containing the generated JAR.
+     *
+     * @parameter default-value="${project.build.outputDirectory}"
+     * @required
+     */
+    private File outputDirectory;
+
+    /**
+     * Project sourceFolder folder.
+     *
+     * @parameter default-value="src/main/resources"
+     * @required
+     */
+    private File sourceFolder;
+
+    public void execute() throws MojoExecutionException, MojoFailureException {
+        URLClassLoader projectClassLoader = null;
+        try {
+            projectClassLoader = new URLClassLoader(new URL[]{outputDirectory.toURI().toURL()});
+        } catch (MalformedURLException e) {
+            throw new RuntimeException(e);
+        }
+
+        ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        Thread.currentThread().setContextClassLoader(projectClassLoader);
+
+        KieServices ks = KieServices.Factory.get();
+
+        try {
+            KieRepository kr = ks.getRepository();
+            KieModule kModule = kr.addKieModule(ks.getResources().newFileSystemResource(sourceFolder));
+            KieContainerImpl kContainer = (KieContainerImpl) ks.newKieContainer(kModule.getReleaseId());
+
+            ResultsImpl messages = kContainer.getKieProject().verify();
+            List<Message> errors = messages.filterMessages(Message.Level.ERROR);
+            if (!errors.isEmpty()) {
+                for (Message error : errors) {
+                    getLog().error(error.toString());
+                }
+                throw new MojoFailureException("Build failed!");
+            }
+
+            for (String kBaseName : ((InternalKieModule) kModule).getKieModuleModel().getKieBaseModels().keySet()) {
+                File file = new File(outputDirectory, KieBuilderImpl.getKieBaseSnapshotPath(kModule.getReleaseId(), kBaseName));
+                writeFile(file, kContainer.serializeKieBase(kBaseName));
+                getLog().info("KieBase " + kBaseName + " serialized in " + file);
+            }
+        } catch (IOException e) {
+            throw new MojoExecutionException("Unable to serialize the KieBases", e);
+        } finally {
+            Thread.currentThread().setContextClassLoader(contextClassLoader);
+        }
+        getLog().info("KieModule successfully serialized!");
+    }
+
+    private void writeFile(File file, byte[] bytes) throws IOException {
+        file.getParentFile().mkdirs();
+        FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(bytes);
+        } finally {
+            out.close();
+        }
+    }
+}
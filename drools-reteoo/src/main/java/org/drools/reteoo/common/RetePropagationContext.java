@@ -27,7 +27,7 @@ import org.drools.core.rule.*;
 import org.drools.core.rule.Package;
 import org.drools.core.spi.ObjectType;
 import org.drools.core.spi.PropagationContext;
-import org.drools.core.util.BitMaskUtil;
+import org.drools.core.util.bitmask.BitMask;
 
 import java.io.IOException;
 import java.io.ObjectInput;
@@ -36,6 +36,13 @@ import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 
+import static org.drools.core.reteoo.PropertySpecificUtil.TRAITSET_BIT;
+import static org.drools.core.reteoo.PropertySpecificUtil.allSetButTraitBitMask;
+import static org.drools.core.reteoo.PropertySpecificUtil.getEmptyPropertyReactiveMask;
+import static org.drools.core.reteoo.PropertySpecificUtil.isPropertySetOnMask;
+import static org.drools.core.reteoo.PropertySpecificUtil.isTraitBitSet;
+import static org.drools.core.reteoo.PropertySpecificUtil.setPropertyOnMask;
+
 public class RetePropagationContext
         implements
         PropagationContext {
@@ -60,9 +67,9 @@ public class RetePropagationContext
     
     private LinkedList<WorkingMemoryAction> queue2; // for evaluations and fixers
 
-    private long                            modificationMask = Long.MAX_VALUE;
+    private BitMask                         modificationMask = allSetButTraitBitMask();
 
-    private long                            originalMask = Long.MAX_VALUE;
+    private BitMask                         originalMask = allSetButTraitBitMask();
 
     private Class<?>                        modifiedClass;
 
@@ -87,7 +94,7 @@ public class RetePropagationContext
               leftTuple,
               factHandle,
               EntryPointId.DEFAULT,
-              Long.MAX_VALUE,
+              allSetButTraitBitMask(),
               Object.class,
               null );
         this.originOffset = -1;
@@ -105,7 +112,7 @@ public class RetePropagationContext
               leftTuple,
               factHandle,
               entryPoint,
-              Long.MAX_VALUE,
+              allSetButTraitBitMask(),
               Object.class,
               null );
     }
@@ -118,7 +125,7 @@ public class RetePropagationContext
                                   final int activeActivations,
                                   final int dormantActivations,
                                   final EntryPointId entryPoint,
-                                  final long modificationMask) {
+                                  final BitMask modificationMask) {
         this( number,
               type,
               rule,
@@ -143,7 +150,7 @@ public class RetePropagationContext
               leftTuple,
               factHandle,
               entryPoint,
-              Long.MAX_VALUE,
+              allSetButTraitBitMask(),
               Object.class,
               readerContext );
     }
@@ -154,7 +161,7 @@ public class RetePropagationContext
                                   final LeftTuple leftTuple,
                                   final InternalFactHandle factHandle,
                                   final EntryPointId entryPoint,
-                                  final long modificationMask,
+                                  final BitMask modificationMask,
                                   final Class<?> modifiedClass,
                                   final MarshallerReaderContext readerContext) {
         this.type = type;
@@ -178,7 +185,7 @@ public class RetePropagationContext
         this.leftTuple = (LeftTuple) in.readObject();
         this.entryPoint = (EntryPointId) in.readObject();
         this.originOffset = in.readInt();
-        this.modificationMask = in.readLong();
+        this.modificationMask = (BitMask) in.readObject();
     }
 
     public void writeExternal(ObjectOutput out) throws IOException {
@@ -188,7 +195,7 @@ public class RetePropagationContext
         out.writeObject( this.leftTuple );
         out.writeObject( this.entryPoint );
         out.writeInt( this.originOffset );
-        out.writeLong(this.modificationMask);
+        out.writeObject(this.modificationMask);
     }
 
     public long getPropagationNumber() {
@@ -338,50 +345,47 @@ public class RetePropagationContext
         }
     }
 
-    public long getModificationMask() {
+    public BitMask getModificationMask() {
         return modificationMask;
     }
 
     public PropagationContext adaptModificationMaskForObjectType(ObjectType type, InternalWorkingMemory workingMemory) {
         modificationMask = originalMask;
-        if (modificationMask == Long.MAX_VALUE || !(type instanceof ClassObjectType)) {
+        if (modificationMask == allSetButTraitBitMask() || !(type instanceof ClassObjectType)) {
             return this;
         }
 
-        long typeBit = modificationMask & Long.MIN_VALUE;
-        modificationMask &= Long.MAX_VALUE;
-
         ClassObjectType classObjectType = (ClassObjectType)type;
         Class<?> classType = classObjectType.getClassType();
         String pkgName = classType.getPackage().getName();
 
         if (classType == modifiedClass || "java.lang".equals(pkgName) || !(classType.isInterface() || modifiedClass.isInterface())) {
-            modificationMask |= typeBit;
             return this;
         }
 
-        Long cachedMask = classObjectType.getTransformedMask(modifiedClass, originalMask);
+        BitMask cachedMask = classObjectType.getTransformedMask(modifiedClass, originalMask);
         if (cachedMask != null) {
             modificationMask = cachedMask;
-            modificationMask |= typeBit;
             return this;
         }
 
-        modificationMask = 0L;
         List<String> typeClassProps = getSettableProperties(workingMemory, classType, pkgName);
         List<String> modifiedClassProps = getSettableProperties( workingMemory, modifiedClass );
 
+        modificationMask = getEmptyPropertyReactiveMask(typeClassProps.size());
+        if (isTraitBitSet(originalMask)) {
+            modificationMask = modificationMask.set(TRAITSET_BIT);
+        }
+
         for (int i = 0; i < modifiedClassProps.size(); i++) {
-            if (BitMaskUtil.isPositionSet(originalMask, i)) {
+            if (isPropertySetOnMask(originalMask, i)) {
                 int posInType = typeClassProps.indexOf(modifiedClassProps.get(i));
                 if (posInType >= 0) {
-                    modificationMask = BitMaskUtil.set(modificationMask, posInType);
+                    modificationMask = setPropertyOnMask(modificationMask, posInType);
                 }
             }
         }
 
-        modificationMask |= typeBit;
-
         classObjectType.storeTransformedMask(modifiedClass, originalMask, modificationMask);
 
         return this;
@@ -7,6 +7,7 @@ import org.drools.core.reteoo.LeftTuple;
 import org.drools.core.rule.EntryPointId;
 import org.drools.core.rule.Rule;
 import org.drools.core.spi.PropagationContext;
+import org.drools.core.util.bitmask.BitMask;
 
 import java.io.Serializable;
 
@@ -17,7 +18,7 @@ public class RetePropagationContextFactory implements PropagationContextFactory,
                                                        final LeftTuple leftTuple,
                                                        final InternalFactHandle factHandle,
                                                        final EntryPointId entryPoint,
-                                                       final long modificationMask,
+                                                       final BitMask modificationMask,
                                                        final Class<?> modifiedClass,
                                                        final MarshallerReaderContext readerContext) {
         return new RetePropagationContext(number, type, rule, leftTuple, factHandle, entryPoint, modificationMask, modifiedClass, readerContext);
@@ -41,7 +42,7 @@ public class RetePropagationContextFactory implements PropagationContextFactory,
                                                        final int activeActivations,
                                                        final int dormantActivations,
                                                        final EntryPointId entryPoint,
-                                                       final long modificationMask) {
+                                                       final BitMask modificationMask) {
         return new RetePropagationContext(number, type, rule, leftTuple, factHandle, activeActivations, dormantActivations, entryPoint, modificationMask);
     }
 
@@ -56,6 +56,9 @@ import org.drools.core.reteoo.ObjectSource;
 import org.drools.core.reteoo.ReteooRuleBase;
 import org.drools.core.reteoo.RightTuple;
 import org.drools.core.test.model.DroolsTestCase;
+import org.drools.core.util.bitmask.AllSetButFirstBitMask;
+import org.drools.core.util.bitmask.EmptyBitMask;
+import org.drools.core.util.bitmask.LongBitMask;
 import org.drools.core.util.index.LeftTupleList;
 import org.drools.core.reteoo.builder.BuildContext;
 import org.drools.core.rule.ContextEntry;
@@ -576,9 +579,9 @@ public class JoinNodeTest extends DroolsTestCase {
 
     @Test
     public void testSlotSpecific() {
-        PropagationContext contextPassAll = pctxFactory.createPropagationContext(0, PropagationContext.INSERTION, null, null, null, 0, 0, EntryPointId.DEFAULT, Long.MAX_VALUE);
-        PropagationContext contextPassNothing = pctxFactory.createPropagationContext(0, PropagationContext.INSERTION, null, null, null, 0, 0, EntryPointId.DEFAULT, 0);
-        PropagationContext contextPass2And3 = pctxFactory.createPropagationContext(0, PropagationContext.INSERTION, null, null, null, 0, 0, EntryPointId.DEFAULT, 6);
+        PropagationContext contextPassAll = pctxFactory.createPropagationContext(0, PropagationContext.INSERTION, null, null, null, 0, 0, EntryPointId.DEFAULT, AllSetButFirstBitMask.get());
+        PropagationContext contextPassNothing = pctxFactory.createPropagationContext(0, PropagationContext.INSERTION, null, null, null, 0, 0, EntryPointId.DEFAULT, EmptyBitMask.get());
+        PropagationContext contextPass2And3 = pctxFactory.createPropagationContext(0, PropagationContext.INSERTION, null, null, null, 0, 0, EntryPointId.DEFAULT, new LongBitMask(6));
 
         when( constraint.isAllowedCachedLeft(any(ContextEntry.class), any(InternalFactHandle.class))).thenReturn(true);
         when( constraint.isAllowedCachedRight(any(LeftTupleImpl.class), any(ContextEntry.class))).thenReturn(true);
@@ -615,17 +618,17 @@ public class JoinNodeTest extends DroolsTestCase {
         joinNode.modifyObject(string1Handle, modifyPreviousTuples, contextPassNothing, workingMemory);
         assertLength(0, sink1.getAsserted());
 
-        joinNode.setRightDeclaredMask(0);
+        joinNode.setRightDeclaredMask(EmptyBitMask.get());
         joinNode.initInferredMask();
         joinNode.modifyObject(string1Handle, modifyPreviousTuples, contextPass2And3, workingMemory);
         assertLength(0, sink1.getAsserted());
 
-        joinNode.setRightDeclaredMask(9);
+        joinNode.setRightDeclaredMask(new LongBitMask(9));
         joinNode.initInferredMask();
         joinNode.modifyObject(string1Handle, modifyPreviousTuples, contextPass2And3, workingMemory);
         assertLength(0, sink1.getAsserted());
 
-        joinNode.setRightDeclaredMask(3);
+        joinNode.setRightDeclaredMask(new LongBitMask(3));
         joinNode.initInferredMask();
         joinNode.modifyObject(string1Handle, modifyPreviousTuples, contextPass2And3, workingMemory);
         assertLength(1, sink1.getAsserted());